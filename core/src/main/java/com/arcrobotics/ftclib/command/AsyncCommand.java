@@ -0,0 +1,119 @@
+package com.arcrobotics.ftclib.command;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * A command that runs a long computation, such as generating a trajectory or processing an
+ * image, on a background thread so it does not hold up the scheduler loop.  The work is submitted
+ * when the command is initialized, and the command finishes once the work is done.  The result is
+ * then handed to the result consumer on the scheduler's thread, so it can safely be used by the
+ * commands that follow.
+ *
+ * <p>If the command is interrupted, the work is cancelled and its thread interrupted, and the
+ * result consumer is not called.  If the work throws, the exception is rethrown on the scheduler's
+ * thread when the command ends.
+ *
+ * <p>Because the scheduler keeps running while the work is in progress, an AsyncCommand can run
+ * alongside the command it is preparing for:
+ *
+ * <pre>
+ * new SequentialCommandGroup(
+ *     new ParallelCommandGroup(
+ *         followFirstPath,
+ *         new AsyncCommand&lt;&gt;(() -&gt; generateSecondPath(), path -&gt; secondPath = path)
+ *     ),
+ *     new InstantCommand(() -&gt; followPath(secondPath))
+ * );
+ * </pre>
+ *
+ * @param <T> the type of the result of the work
+ */
+public class AsyncCommand<T> extends CommandBase {
+
+    private static final class DefaultExecutor {
+        static final ExecutorService INSTANCE = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "ftclib-async-command");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private final Callable<T> m_work;
+    private final Consumer<T> m_onResult;
+    private final ExecutorService m_executor;
+    // The work last submitted.  Kept once the command ends, so it still reports being finished.
+    private Future<T> m_future;
+
+    /**
+     * Creates a new AsyncCommand that runs its work on a shared pool of daemon threads.
+     *
+     * @param work         the work to run in the background
+     * @param onResult     receives the result of the work on the scheduler's thread
+     * @param requirements the subsystems required by this command
+     */
+    public AsyncCommand(Callable<T> work, Consumer<T> onResult, Subsystem... requirements) {
+        this(work, onResult, DefaultExecutor.INSTANCE, requirements);
+    }
+
+    /**
+     * Creates a new AsyncCommand.
+     *
+     * @param work         the work to run in the background
+     * @param onResult     receives the result of the work on the scheduler's thread
+     * @param executor     the executor to run the work on
+     * @param requirements the subsystems required by this command
+     */
+    public AsyncCommand(Callable<T> work, Consumer<T> onResult, ExecutorService executor,
+                        Subsystem... requirements) {
+        m_work = work;
+        m_onResult = onResult;
+        m_executor = executor;
+        addRequirements(requirements);
+    }
+
+    @Override
+    public void initialize() {
+        m_future = m_executor.submit(m_work);
+    }
+
+    @Override
+    public boolean isFinished() {
+        return m_future != null && m_future.isDone();
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        Future<T> future = m_future;
+        if (interrupted) {
+            future.cancel(true);
+            return;
+        }
+
+        T result;
+        try {
+            result = future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("Asynchronous work failed", cause);
+        } catch (CancellationException e) {
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        m_onResult.accept(result);
+    }
+
+}
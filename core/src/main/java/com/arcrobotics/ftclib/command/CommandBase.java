@@ -8,7 +8,6 @@
 package com.arcrobotics.ftclib.command;
 
 import java.util.Arrays;
-import java.util.HashSet;
 import java.util.Set;
 
 /**
@@ -21,7 +20,18 @@ public abstract class CommandBase implements Command {
 
     protected String m_name = this.getClass().getSimpleName();
     protected String m_subsystem = "Ungrouped";
-    protected Set<Subsystem> m_requirements = new HashSet<>();
+    protected Set<Subsystem> m_requirements = new RequirementSet();
+
+    // The registry this command was allocated to a group in, or null if it is not grouped.
+    GroupRegistry m_groupRegistry;
+
+    // The requirement mask last built for this command by a scheduler, so scheduling it again
+    // does not walk its requirements.  Only valid for that scheduler and that requirement set,
+    // while the set has the same modification count.
+    CommandScheduler m_maskScheduler;
+    Set<Subsystem> m_maskRequirements;
+    int m_maskModCount;
+    long[] m_requirementMask;
 
     /**
      * Adds the specified requirements to the command.
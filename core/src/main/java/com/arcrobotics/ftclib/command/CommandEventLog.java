@@ -0,0 +1,237 @@
+package com.arcrobotics.ftclib.command;
+
+import com.arcrobotics.ftclib.command.CommandEventRecorder.EventType;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A log written by a {@link CommandEventRecorder}, decoded back into a timeline of events.
+ * Has no Android dependencies, so logs pulled off the robot can be read on a computer:
+ *
+ * <pre>
+ * java -cp ftclib.jar com.arcrobotics.ftclib.command.CommandEventLog match.log
+ * </pre>
+ */
+public final class CommandEventLog {
+
+    /**
+     * A single decoded event.
+     */
+    public static final class Event {
+
+        private final long time;
+        private final EventType type;
+        private final String command, other;
+
+        Event(long time, EventType type, String command, String other) {
+            this.time = time;
+            this.type = type;
+            this.command = command;
+            this.other = other;
+        }
+
+        /**
+         * @return the time of the event in nanoseconds, relative to the first event in the log
+         */
+        public long getTime() {
+            return time;
+        }
+
+        public EventType getType() {
+            return type;
+        }
+
+        /**
+         * @return the name of the command the event is about
+         */
+        public String getCommand() {
+            return command;
+        }
+
+        /**
+         * @return the name of the command holding the contested subsystem of a
+         * {@link EventType#CONFLICT}, or null for every other type
+         */
+        public String getOther() {
+            return other;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%12.3fms %-13s %s%s", time / 1E6, type, command,
+                    other == null ? "" : " (held by " + other + ")");
+        }
+    }
+
+    private final List<Event> events;
+    private final long droppedEvents;
+    private final boolean truncated;
+
+    private CommandEventLog(List<Event> events, long droppedEvents, boolean truncated) {
+        this.events = Collections.unmodifiableList(events);
+        this.droppedEvents = droppedEvents;
+        this.truncated = truncated;
+    }
+
+    /**
+     * Decodes a log.  A log cut off partway through a record, as happens if the robot loses
+     * power, is read up to the last complete record.
+     *
+     * @param in the stream to read the log from
+     * @return the decoded log
+     * @throws IOException if the stream is not a recorder log or cannot be read
+     */
+    public static CommandEventLog read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        if (data.readInt() != CommandEventRecorder.MAGIC) {
+            throw new IOException("Not a command event log");
+        }
+        int version = data.readUnsignedShort();
+        if (version != CommandEventRecorder.VERSION) {
+            throw new IOException("Unsupported command event log version " + version);
+        }
+
+        EventType[] types = EventType.values();
+        Map<Long, String> names = new HashMap<>();
+        List<Event> events = new ArrayList<>();
+        long dropped = 0;
+        long timestamp = 0, start = 0;
+        boolean truncated = false;
+        try {
+            int tag;
+            while ((tag = data.read()) != -1) {
+                if (tag == CommandEventRecorder.TAG_NAME) {
+                    long id = readVarLong(data);
+                    names.put(id, data.readUTF());
+                } else if (tag == CommandEventRecorder.TAG_DROPPED) {
+                    dropped = readVarLong(data);
+                } else if (tag >= 1 && tag <= types.length) {
+                    EventType type = types[tag - 1];
+                    long zigzag = readVarLong(data);
+                    timestamp += (zigzag >>> 1) ^ -(zigzag & 1);
+                    String command = nameOf(names, readVarLong(data));
+                    String other = type == EventType.CONFLICT
+                            ? nameOf(names, readVarLong(data)) : null;
+                    if (events.isEmpty()) {
+                        start = timestamp;
+                    }
+                    events.add(new Event(timestamp - start, type, command, other));
+                } else {
+                    throw new IOException("Corrupt command event log: unknown tag " + tag);
+                }
+            }
+        } catch (EOFException e) {
+            truncated = true;
+        }
+        return new CommandEventLog(events, dropped, truncated);
+    }
+
+    private static String nameOf(Map<Long, String> names, long id) {
+        String name = names.get(id);
+        return name == null ? "#" + id : name;
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupt command event log: varint too long");
+    }
+
+    /**
+     * @return every event in the log, oldest first
+     */
+    public List<Event> getEvents() {
+        return events;
+    }
+
+    /**
+     * Returns the events about a single command, for answering why that command did or did not
+     * run.
+     *
+     * @param command the name of the command
+     * @return the events about the command, including conflicts it was the holder in
+     */
+    public List<Event> getEvents(String command) {
+        List<Event> result = new ArrayList<>();
+        for (Event event : events) {
+            if (command.equals(event.getCommand()) || command.equals(event.getOther())) {
+                result.add(event);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of events the recorder had to drop because its buffer was full
+     */
+    public long getDroppedEvents() {
+        return droppedEvents;
+    }
+
+    /**
+     * @return whether the log ended partway through a record
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * @return the timeline of the log, one event per line
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (Event event : events) {
+            builder.append(event).append('\n');
+        }
+        if (droppedEvents > 0) {
+            builder.append(droppedEvents).append(" events were dropped\n");
+        }
+        if (truncated) {
+            builder.append("The log ends partway through a record\n");
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Prints the timeline of a log.
+     *
+     * @param args the path of the log, optionally followed by the name of a command to show
+     *             only the events about it
+     * @throws IOException if the log cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: CommandEventLog <log file> [command name]");
+            return;
+        }
+        CommandEventLog log;
+        try (InputStream in = new FileInputStream(args[0])) {
+            log = read(in);
+        }
+        if (args.length > 1) {
+            for (Event event : log.getEvents(args[1])) {
+                System.out.println(event);
+            }
+        } else {
+            System.out.print(log);
+        }
+    }
+
+}
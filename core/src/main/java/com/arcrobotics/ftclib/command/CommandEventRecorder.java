@@ -0,0 +1,301 @@
+package com.arcrobotics.ftclib.command;
+
+import com.arcrobotics.ftclib.util.Clock;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Records every event of the {@link CommandScheduler} to a compact binary log, for working out
+ * after a match why a command did or did not run.  Attach one with
+ * {@link #attach(CommandScheduler)}; it then records scheduling attempts, initializations,
+ * executions, interruptions, finishes, requirement conflicts and default command starts, each
+ * with a nanosecond timestamp from {@link Clock#DEFAULT}.
+ *
+ * <p>Events go into a preallocated ring buffer, and a background thread writes them to the log,
+ * so recording an event never blocks or allocates.  Each command is given a small id the first
+ * time it is seen, and its name is written to the log once.  If the writer falls behind and the
+ * buffer fills up, new events are dropped and counted rather than stalling the loop.
+ *
+ * <p>Read a log back with {@link CommandEventLog}, which can also be run from a computer to
+ * print the timeline of a match.
+ */
+public class CommandEventRecorder implements Closeable {
+
+    /**
+     * The kinds of events that are recorded.
+     */
+    public enum EventType {
+        /**
+         * The scheduler tried to start a command that was not already scheduled.
+         */
+        SCHEDULE,
+        INITIALIZE,
+        EXECUTE,
+        INTERRUPT,
+        FINISH,
+        /**
+         * A command being scheduled required a subsystem in use by another command.
+         */
+        CONFLICT,
+        /**
+         * The default command of a subsystem was started.
+         */
+        DEFAULT_START
+    }
+
+    static final int MAGIC = 0x46544345;
+    static final int VERSION = 1;
+
+    // Record tags.  Events are tagged with their type's ordinal plus one.
+    static final int TAG_NAME = 0;
+    static final int TAG_DROPPED = 0x7F;
+
+    private static final int ID_BITS = 28;
+    private static final long ID_MASK = (1L << ID_BITS) - 1;
+
+    private static final class Name {
+        final int id;
+        final String name;
+
+        Name(int id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    // Two slots per event: the timestamp, then the type and command ids packed together.
+    private final long[] m_ring;
+    private final int m_capacity;
+    private final AtomicLong m_head = new AtomicLong();
+    private final AtomicLong m_tail = new AtomicLong();
+    private final AtomicLong m_dropped = new AtomicLong();
+
+    // Only touched by the thread that records events.
+    private final Map<Command, Integer> m_ids = new IdentityHashMap<>();
+    private final Queue<Name> m_newNames = new ConcurrentLinkedQueue<>();
+
+    // Only touched by the writer thread once it has started.
+    private final DataOutputStream m_out;
+    private long m_lastTimestamp;
+    private long m_droppedWritten;
+
+    private final long m_flushPeriod;
+    private final Thread m_writer;
+    private volatile boolean m_open = true;
+    private volatile IOException m_error;
+
+    /**
+     * Creates a recorder that writes to a file, with room for 8192 unwritten events and a flush
+     * every 100 milliseconds.
+     *
+     * @param file the file to write the log to, for example one in /sdcard/FIRST
+     * @throws IOException if the file cannot be opened
+     */
+    public CommandEventRecorder(File file) throws IOException {
+        this(new FileOutputStream(file), 8192, 100, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates a recorder.
+     *
+     * @param out         the stream to write the log to; closed when the recorder is closed
+     * @param capacity    the number of events the buffer can hold before the writer catches
+     *                    up; rounded up to a power of two
+     * @param flushPeriod how often the writer empties the buffer
+     * @param unit        the unit of the flush period
+     * @throws IOException if the header cannot be written
+     */
+    public CommandEventRecorder(OutputStream out, int capacity, long flushPeriod, TimeUnit unit)
+            throws IOException {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The buffer must hold at least one event");
+        }
+        m_capacity = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        m_ring = new long[m_capacity * 2];
+        m_flushPeriod = unit.toNanos(flushPeriod);
+
+        m_out = new DataOutputStream(new BufferedOutputStream(out));
+        m_out.writeInt(MAGIC);
+        m_out.writeShort(VERSION);
+
+        m_writer = new Thread(this::write, "ftclib-event-recorder");
+        m_writer.setDaemon(true);
+        m_writer.start();
+    }
+
+    /**
+     * Registers this recorder with the scheduler's event hooks.
+     *
+     * @param scheduler the scheduler to record
+     */
+    public void attach(CommandScheduler scheduler) {
+        scheduler.onCommandSchedule(command -> record(EventType.SCHEDULE, command, null));
+        scheduler.onCommandInitialize(command -> record(EventType.INITIALIZE, command, null));
+        scheduler.onCommandExecute(command -> record(EventType.EXECUTE, command, null));
+        scheduler.onCommandInterrupt(command -> record(EventType.INTERRUPT, command, null));
+        scheduler.onCommandFinish(command -> record(EventType.FINISH, command, null));
+        scheduler.onRequirementConflict(
+                (command, holder) -> record(EventType.CONFLICT, command, holder));
+        scheduler.onDefaultCommandStart(
+                command -> record(EventType.DEFAULT_START, command, null));
+    }
+
+    /**
+     * Records an event.  Must always be called from the same thread, normally the one running
+     * the scheduler.
+     *
+     * @param type    the type of the event
+     * @param command the command the event is about
+     * @param other   the other command involved, or null
+     */
+    public void record(EventType type, Command command, Command other) {
+        if (!m_open) {
+            return;
+        }
+        long packed = ((long) type.ordinal() << (2 * ID_BITS))
+                | ((long) idOf(command) << ID_BITS)
+                | (other == null ? 0 : idOf(other));
+
+        long head = m_head.get();
+        if (head - m_tail.get() >= m_capacity) {
+            m_dropped.incrementAndGet();
+            return;
+        }
+        int slot = (int) (head & (m_capacity - 1)) << 1;
+        m_ring[slot] = Clock.DEFAULT.nanoTime();
+        m_ring[slot + 1] = packed;
+        m_head.lazySet(head + 1);
+    }
+
+    private int idOf(Command command) {
+        Integer id = m_ids.get(command);
+        if (id == null) {
+            id = m_ids.size() + 1;
+            if (id > ID_MASK) {
+                throw new IllegalStateException("Too many distinct commands to record");
+            }
+            m_ids.put(command, id);
+            m_newNames.add(new Name(id, command.getName()));
+        }
+        return id;
+    }
+
+    /**
+     * @return the number of events dropped because the buffer was full
+     */
+    public long getDroppedEvents() {
+        return m_dropped.get();
+    }
+
+    /**
+     * @return the error that stopped the writer, or null if there was none
+     */
+    public IOException getError() {
+        return m_error;
+    }
+
+    private void write() {
+        try {
+            while (m_open) {
+                drain();
+                m_out.flush();
+                LockSupport.parkNanos(this, m_flushPeriod);
+            }
+            drain();
+        } catch (IOException e) {
+            m_error = e;
+            m_open = false;
+        } finally {
+            try {
+                m_out.close();
+            } catch (IOException e) {
+                if (m_error == null) {
+                    m_error = e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes every published event, preceded by the names of any commands they introduced.
+     */
+    private void drain() throws IOException {
+        // Names are queued before the events that use them are published, so reading the head
+        // first guarantees every name those events need is already in the queue.
+        long head = m_head.get();
+        Name name;
+        while ((name = m_newNames.poll()) != null) {
+            m_out.writeByte(TAG_NAME);
+            writeVarLong(m_out, name.id);
+            m_out.writeUTF(name.name);
+        }
+
+        long tail = m_tail.get();
+        for (; tail < head; tail++) {
+            int slot = (int) (tail & (m_capacity - 1)) << 1;
+            long timestamp = m_ring[slot];
+            long packed = m_ring[slot + 1];
+            int type = (int) (packed >>> (2 * ID_BITS));
+
+            m_out.writeByte(type + 1);
+            long delta = timestamp - m_lastTimestamp;
+            writeVarLong(m_out, (delta << 1) ^ (delta >> 63));
+            writeVarLong(m_out, (packed >>> ID_BITS) & ID_MASK);
+            if (type == EventType.CONFLICT.ordinal()) {
+                writeVarLong(m_out, packed & ID_MASK);
+            }
+            m_lastTimestamp = timestamp;
+        }
+        m_tail.lazySet(tail);
+
+        long dropped = m_dropped.get();
+        if (dropped != m_droppedWritten) {
+            m_out.writeByte(TAG_DROPPED);
+            writeVarLong(m_out, dropped);
+            m_droppedWritten = dropped;
+        }
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    /**
+     * Stops recording, writes every remaining event and closes the log.
+     *
+     * @throws IOException if the log could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (m_open) {
+            m_open = false;
+            LockSupport.unpark(m_writer);
+        }
+        try {
+            m_writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (m_error != null) {
+            throw m_error;
+        }
+    }
+
+}
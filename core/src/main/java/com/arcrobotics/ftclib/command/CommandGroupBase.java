@@ -7,26 +7,39 @@
 
 package com.arcrobotics.ftclib.command;
 
-import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.Set;
-import java.util.WeakHashMap;
 
 /**
- * A base for CommandGroups. Statically tracks commands that have been allocated to groups to
- * ensure those commands are not also used independently, which can result in inconsistent command
- * state and unpredictable execution.
+ * A base for CommandGroups. Tracks commands that have been allocated to groups to ensure those
+ * commands are not also used independently, which can result in inconsistent command state and
+ * unpredictable execution.
+ *
+ * <p>A {@link CommandBase} records its own grouping, so checking and marking a command is a field
+ * access rather than a lookup in a shared set.  The grouped commands are otherwise tracked by the
+ * {@link CommandScheduler}, and are freed when it is reset.
  *
  * @author Jackson
  */
 public abstract class CommandGroupBase extends CommandBase implements Command {
 
-    private static final Set<Command> m_groupedCommands =
-            Collections.newSetFromMap(new WeakHashMap<>());
-
     static void registerGroupedCommands(Command... commands) {
-        m_groupedCommands.addAll(Arrays.asList(commands));
+        GroupRegistry registry = CommandScheduler.getInstance().getGroupRegistry();
+        for (Command command : commands) {
+            registry.add(command);
+        }
+    }
+
+    /**
+     * Returns whether a command has been allocated to a CommandGroup.
+     *
+     * @param command the command to check
+     * @return whether the command is part of a group
+     */
+    static boolean isGrouped(Command command) {
+        if (command instanceof CommandBase) {
+            return GroupRegistry.isGrouped((CommandBase) command);
+        }
+        return CommandScheduler.getInstance().getGroupRegistry().contains(command);
     }
 
     /**
@@ -36,7 +49,7 @@ public abstract class CommandGroupBase extends CommandBase implements Command {
      * use this unless you fully understand what you are doing.
      */
     public static void clearGroupedCommands() {
-        m_groupedCommands.clear();
+        CommandScheduler.getInstance().clearGroupRegistry();
     }
 
     /**
@@ -49,7 +62,7 @@ public abstract class CommandGroupBase extends CommandBase implements Command {
      * @param command the command to remove from the list of grouped commands
      */
     public static void clearGroupedCommand(Command command) {
-        m_groupedCommands.remove(command);
+        CommandScheduler.getInstance().getGroupRegistry().remove(command);
     }
 
 
@@ -60,7 +73,12 @@ public abstract class CommandGroupBase extends CommandBase implements Command {
      * @param commands The commands to check
      */
     public static void requireUngrouped(Command... commands) {
-        requireUngrouped(Arrays.asList(commands));
+        for (Command command : commands) {
+            if (isGrouped(command)) {
+                throw new IllegalArgumentException(
+                        "Commands cannot be added to more than one CommandGroup");
+            }
+        }
     }
 
     /**
@@ -70,13 +88,24 @@ public abstract class CommandGroupBase extends CommandBase implements Command {
      * @param commands The commands to check
      */
     public static void requireUngrouped(Collection<Command> commands) {
-        if (!Collections.disjoint(commands, getGroupedCommands())) {
-            throw new IllegalArgumentException("Commands cannot be added to more than one CommandGroup");
+        for (Command command : commands) {
+            if (isGrouped(command)) {
+                throw new IllegalArgumentException(
+                        "Commands cannot be added to more than one CommandGroup");
+            }
         }
     }
 
-    static Set<Command> getGroupedCommands() {
-        return m_groupedCommands;
+    /**
+     * Flattens this group, and every group nested in it, into a single command that runs the
+     * same leaf commands without dispatching through each layer of the tree.  This group becomes
+     * part of the compiled command, so only the compiled command may be scheduled afterwards.
+     *
+     * @return the compiled command
+     * @see CompiledCommandGroup
+     */
+    public CompiledCommandGroup compile() {
+        return new CompiledCommandGroup(this);
     }
 
     /**
@@ -1,15 +1,25 @@
 package com.arcrobotics.ftclib.command;
 
+import com.arcrobotics.ftclib.util.FixedRateLoop;
 import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * As opposed to the general WPILib-style Robot paradigm, FTCLib also offers a command opmode
  * for individual opmodes.
  *
+ * <p>By default the scheduler is run as fast as possible.  Call
+ * {@link #setLoopPeriod(long, TimeUnit)} from {@link #initialize()} to run it at a fixed rate
+ * instead, which keeps the period seen by controllers and velocity estimates steady.
+ *
  * @author Jackson
  */
 public abstract class CommandOpMode extends LinearOpMode {
 
+    private FixedRateLoop loop;
+    private boolean shedOnOverrun;
+
     /**
      * Cancels all previous commands
      */
@@ -38,17 +48,63 @@ public abstract class CommandOpMode extends LinearOpMode {
         CommandScheduler.getInstance().registerSubsystem(subsystems);
     }
 
+    /**
+     * Runs the scheduler at a fixed rate rather than as fast as possible.  Each iteration that
+     * takes longer than the period is counted as an overrun, and the next one starts right away.
+     *
+     * @param period the target loop period
+     * @param unit   the unit of the period
+     */
+    public void setLoopPeriod(long period, TimeUnit unit) {
+        loop = new FixedRateLoop(period, unit);
+    }
+
+    /**
+     * Sets whether the scheduler should skip the periodic methods of low priority subsystems
+     * for an iteration after the previous one overran.  Only has an effect with a fixed loop
+     * period.
+     *
+     * @param shed whether to shed low priority subsystems on overrun
+     * @see Subsystem#isLowPriority()
+     */
+    public void setShedOnOverrun(boolean shed) {
+        shedOnOverrun = shed;
+    }
+
+    /**
+     * @return the fixed rate loop driving the scheduler, holding its overrun and jitter
+     * statistics, or null if the scheduler runs as fast as possible
+     */
+    public FixedRateLoop getLoop() {
+        return loop;
+    }
+
     @Override
     public void runOpMode() throws InterruptedException {
         initialize();
 
         waitForStart();
 
-        // run the scheduler
-        while (!isStopRequested() && opModeIsActive()) {
-            run();
+        if (loop != null) {
+            loop.start();
         }
-        reset();
+
+        // run the scheduler, resetting it even when a stop interrupts the wait for the next period
+        try {
+            while (isActive()) {
+                run();
+                if (loop != null) {
+                    boolean overran = loop.waitForNextPeriod();
+                    CommandScheduler.getInstance().setShedLowPriority(shedOnOverrun && overran);
+                }
+            }
+        } finally {
+            reset();
+        }
+    }
+
+    boolean isActive() {
+        return !isStopRequested() && opModeIsActive();
     }
 
     public abstract void initialize();
@@ -9,14 +9,12 @@ package com.arcrobotics.ftclib.command;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.Iterator;
-import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 /**
@@ -26,6 +24,10 @@ import java.util.function.Consumer;
  * {@link CommandScheduler#registerSubsystem(Subsystem...)} in order for their {@link
  * Subsystem#periodic()} methods to be called and for their default commands to be scheduled.
  *
+ * <p>Every subsystem the scheduler sees is given a dense integer index, and the requirements of
+ * scheduled commands are tracked as bitmasks over those indices, so requirement conflicts are
+ * resolved without walking any collections.
+ *
  * @author Jackson
  */
 @SuppressWarnings({"PMD.GodClass", "PMD.TooManyMethods", "PMD.TooManyFields"})
@@ -48,31 +50,83 @@ public final class CommandScheduler {
         return instance;
     }
 
+    // The initial capacity of the scheduler's internal arrays.  They grow if this is exceeded, so
+    // the steady-state loop never allocates once the robot has been set up.
+    private static final int INITIAL_CAPACITY = 16;
+
     // A map from commands to their scheduling state.  Also used as a set of the currently-running
-    // commands.
-    private final Map<Command, CommandState> m_scheduledCommands = new LinkedHashMap<>();
+    // commands.  Identity based so that lookups and removals never allocate.
+    private final Map<Command, CommandState> m_scheduledCommands = new IdentityHashMap<>();
+
+    // The currently-running commands, in the order they were scheduled.
+    private Command[] m_scheduled = new Command[INITIAL_CAPACITY];
+    private int m_scheduledCount;
+
+    // Recycled scheduling states, so scheduling a command does not allocate one.
+    private CommandState[] m_statePool = new CommandState[INITIAL_CAPACITY];
+    private int m_statePoolSize;
+
+    // A dense index for every subsystem the scheduler has seen, either through registration or as
+    // a requirement of a scheduled command.  Indices are never reused.
+    private final Map<Subsystem, Integer> m_subsystemIndices = new IdentityHashMap<>();
+    private Subsystem[] m_indexedSubsystems = new Subsystem[INITIAL_CAPACITY];
+    private int m_subsystemCount;
+
+    // The indices of the requirements of the command being scheduled, before its mask is built.
+    private int[] m_requirementIndices = new int[INITIAL_CAPACITY];
+
+    // The command requiring each subsystem, by subsystem index.  Null if the subsystem is free.
+    private Command[] m_requiringCommands = new Command[INITIAL_CAPACITY];
+
+    // The default command of each subsystem, by subsystem index.
+    private Command[] m_defaultCommands = new Command[INITIAL_CAPACITY];
 
-    // A map from required subsystems to their requiring commands.  Also used as a set of the
-    //currently-required subsystems.
-    private final Map<Subsystem, Command> m_requirements = new LinkedHashMap<>();
+    // The set of currently-required subsystems, as a bitmask over subsystem indices.
+    private long[] m_requiredMask = new long[1];
 
-    // A map from subsystems registered with the scheduler to their default commands.  Also used
-    // as a list of currently-registered subsystems.
-    private final Map<Subsystem, Command> m_subsystems = new LinkedHashMap<>();
+    // The indices of the subsystems registered with the scheduler, in registration order.
+    private int[] m_registered = new int[INITIAL_CAPACITY];
+    private int m_registeredCount;
 
-    private final Collection<Runnable> m_buttons = new LinkedHashSet<>();
+    private final List<Runnable> m_buttons = new ArrayList<>();
+
+    // The number of times run() has polled the buttons, so triggers can sample once per loop.
+    private long m_loopCount;
 
     private boolean m_disabled;
 
+    // Times each part of the run loop when not null.
+    private SchedulerProfiler m_profiler;
+
+    // Whether the periodic methods of low priority subsystems are being skipped.
+    private boolean m_shedLowPriority;
+
+    // Runs the periodic methods of parallel-safe subsystems when not null.
+    private ParallelPeriodicRunner m_parallelRunner;
+
     // Lists of user-supplied actions to be executed on scheduling events for every command.
     private final List<Consumer<Command>> m_initActions = new ArrayList<>();
     private final List<Consumer<Command>> m_executeActions = new ArrayList<>();
     private final List<Consumer<Command>> m_interruptActions = new ArrayList<>();
     private final List<Consumer<Command>> m_finishActions = new ArrayList<>();
+    private final List<Consumer<Command>> m_scheduleActions = new ArrayList<>();
+    private final List<BiConsumer<Command, Command>> m_conflictActions = new ArrayList<>();
+    private final List<Consumer<Command>> m_defaultActions = new ArrayList<>();
 
-    private final Map<Command, Boolean> m_toSchedule = new LinkedHashMap<>();
+    // Actions run at the very start and the very end of every loop.
+    private final List<Runnable> m_loopStartActions = new ArrayList<>();
+    private final List<Runnable> m_loopEndActions = new ArrayList<>();
+
+    // The commands allocated to command groups since the grouped commands were last cleared.
+    private GroupRegistry m_groupRegistry = new GroupRegistry();
+
+    // Commands scheduled or canceled from inside the run loop, applied once the loop is done.
+    private Command[] m_toSchedule = new Command[INITIAL_CAPACITY];
+    private boolean[] m_toScheduleInterruptible = new boolean[INITIAL_CAPACITY];
+    private int m_toScheduleCount;
     private boolean m_inRunLoop;
-    private final List<Command> m_toCancel = new ArrayList<>();
+    private Command[] m_toCancel = new Command[INITIAL_CAPACITY];
+    private int m_toCancelCount;
 
     CommandScheduler() {
 
@@ -82,9 +136,14 @@ public final class CommandScheduler {
      * Adds a button binding to the scheduler, which will be polled to schedule commands.
      *
      * @param button The button to add
+     * @return true if the button was added, false if it was already bound
      */
-    public void addButton(Runnable button) {
-        m_buttons.add(button);
+    public boolean addButton(Runnable button) {
+        if (!m_buttons.contains(button)) {
+            m_buttons.add(button);
+            return true;
+        }
+        return false;
     }
 
     /**
@@ -94,22 +153,172 @@ public final class CommandScheduler {
         m_buttons.clear();
     }
 
+    /**
+     * Returns the number of times the scheduler has polled its buttons.  Every
+     * {@link com.arcrobotics.ftclib.command.button.Trigger} samples its condition at most once for
+     * each value of this count.
+     *
+     * @return the number of button polls so far
+     */
+    public long getLoopCount() {
+        return m_loopCount;
+    }
+
+    /**
+     * Returns the dense index of a subsystem, assigning the next free one if the scheduler has
+     * not seen the subsystem before.
+     *
+     * @param subsystem the subsystem
+     * @return the index of the subsystem
+     */
+    private int indexOf(Subsystem subsystem) {
+        Integer index = m_subsystemIndices.get(subsystem);
+        if (index != null) {
+            return index;
+        }
+
+        int newIndex = m_subsystemCount++;
+        if (newIndex == m_indexedSubsystems.length) {
+            m_indexedSubsystems = Arrays.copyOf(m_indexedSubsystems, newIndex * 2);
+            m_requiringCommands = Arrays.copyOf(m_requiringCommands, newIndex * 2);
+            m_defaultCommands = Arrays.copyOf(m_defaultCommands, newIndex * 2);
+        }
+        if (maskWords() > m_requiredMask.length) {
+            m_requiredMask = Arrays.copyOf(m_requiredMask, maskWords());
+        }
+        m_indexedSubsystems[newIndex] = subsystem;
+        m_subsystemIndices.put(subsystem, newIndex);
+        return newIndex;
+    }
+
+    /**
+     * @return the number of 64-bit words needed to hold a mask over every known subsystem
+     */
+    private int maskWords() {
+        return Math.max(1, (m_subsystemCount + 63) >>> 6);
+    }
+
+    /**
+     * Takes a scheduling state from the pool, or creates one if the pool is empty.
+     *
+     * @param interruptible whether the command is interruptible
+     * @return a cleared scheduling state
+     */
+    private CommandState acquireState(boolean interruptible) {
+        if (m_statePoolSize == 0) {
+            return new CommandState(interruptible, maskWords());
+        }
+        CommandState state = m_statePool[--m_statePoolSize];
+        m_statePool[m_statePoolSize] = null;
+        state.reset(interruptible, maskWords());
+        return state;
+    }
+
+    /**
+     * Takes a scheduling state from the pool and fills in the requirement mask of a command.  The
+     * mask of a {@link CommandBase} is cached on the command, so its requirements are only walked
+     * the first time it is scheduled, or after they change.  Changes are seen through the
+     * modification count of its {@link RequirementSet}; a command whose requirements are some
+     * other set is walked every time.
+     *
+     * @param command       the command being scheduled
+     * @param interruptible whether the command is interruptible
+     * @return the scheduling state of the command
+     */
+    private CommandState acquireState(Command command, boolean interruptible) {
+        Set<Subsystem> requirements = command.getRequirements();
+        int modCount = RequirementSet.modCount(requirements);
+        CommandBase base = command instanceof CommandBase && modCount >= 0
+                ? (CommandBase) command : null;
+        if (base != null && base.m_maskScheduler == this && base.m_maskRequirements == requirements
+                && base.m_maskModCount == modCount) {
+            CommandState state = acquireState(interruptible);
+            System.arraycopy(base.m_requirementMask, 0, state.getRequirementMask(), 0,
+                    base.m_requirementMask.length);
+            return state;
+        }
+
+        // Index every requirement before sizing the mask, since that may grow it.
+        int count = 0;
+        for (Subsystem requirement : requirements) {
+            if (count == m_requirementIndices.length) {
+                m_requirementIndices = Arrays.copyOf(m_requirementIndices, count * 2);
+            }
+            m_requirementIndices[count++] = indexOf(requirement);
+        }
+        CommandState state = acquireState(interruptible);
+        long[] mask = state.getRequirementMask();
+        for (int i = 0; i < count; i++) {
+            int index = m_requirementIndices[i];
+            mask[index >>> 6] |= 1L << index;
+        }
+
+        if (base != null) {
+            base.m_maskScheduler = this;
+            base.m_maskRequirements = requirements;
+            base.m_maskModCount = modCount;
+            base.m_requirementMask = Arrays.copyOf(mask, maskWords());
+        }
+        return state;
+    }
+
+    /**
+     * Returns a scheduling state to the pool once its command is no longer scheduled.
+     *
+     * @param state the state to recycle
+     */
+    private void releaseState(CommandState state) {
+        if (m_statePoolSize == m_statePool.length) {
+            m_statePool = Arrays.copyOf(m_statePool, m_statePoolSize * 2);
+        }
+        m_statePool[m_statePoolSize++] = state;
+    }
+
+    /**
+     * Frees the subsystems held by a command and forgets its scheduling state.  Does not touch the
+     * array of scheduled commands.
+     *
+     * @param command the command being removed
+     * @param state   the scheduling state of the command
+     */
+    private void releaseCommand(Command command, CommandState state) {
+        long[] mask = state.getRequirementMask();
+        for (int word = 0; word < Math.min(mask.length, m_requiredMask.length); word++) {
+            long bits = mask[word];
+            m_requiredMask[word] &= ~bits;
+            while (bits != 0) {
+                m_requiringCommands[(word << 6) + Long.numberOfTrailingZeros(bits)] = null;
+                bits &= bits - 1;
+            }
+        }
+        m_scheduledCommands.remove(command);
+        releaseState(state);
+    }
+
     /**
      * Initializes a given command, adds its requirements to the list, and performs the init actions.
      *
-     * @param command       The command to initialize
-     * @param interruptible Whether the command is interruptible
-     * @param requirements  The command requirements
+     * @param command The command to initialize
+     * @param state   The scheduling state of the command, holding its requirement mask
      */
-    private void initCommand(Command command, boolean interruptible, Set<Subsystem> requirements) {
+    private void initCommand(Command command, CommandState state) {
         command.initialize();
-        CommandState scheduledCommand = new CommandState(interruptible);
-        m_scheduledCommands.put(command, scheduledCommand);
-        for (Consumer<Command> action : m_initActions) {
-            action.accept(command);
+        m_scheduledCommands.put(command, state);
+        if (m_scheduledCount == m_scheduled.length) {
+            m_scheduled = Arrays.copyOf(m_scheduled, m_scheduledCount * 2);
         }
-        for (Subsystem requirement : requirements) {
-            m_requirements.put(requirement, command);
+        m_scheduled[m_scheduledCount++] = command;
+        for (int i = 0; i < m_initActions.size(); i++) {
+            m_initActions.get(i).accept(command);
+        }
+        long[] mask = state.getRequirementMask();
+        for (int word = 0; word < Math.min(mask.length, m_requiredMask.length); word++) {
+            long bits = mask[word];
+            m_requiredMask[word] |= bits;
+            while (bits != 0) {
+                m_requiringCommands[(word << 6) + Long.numberOfTrailingZeros(bits)] = command;
+                bits &= bits - 1;
+            }
         }
     }
 
@@ -121,15 +330,18 @@ public final class CommandScheduler {
      *
      * @param interruptible whether this command can be interrupted
      * @param command       the command to schedule
+     *
+     * <p>Package-private so that {@link Command#schedule(boolean)} binds to it rather than to the
+     * varargs overload, and does not allocate an array.
      */
     @SuppressWarnings({"PMD.CyclomaticComplexity", "PMD.NPathComplexity"})
-    private void schedule(boolean interruptible, Command command) {
+    void schedule(boolean interruptible, Command command) {
         if (m_inRunLoop) {
-            m_toSchedule.put(command, interruptible);
+            deferSchedule(command, interruptible);
             return;
         }
 
-        if (CommandGroupBase.getGroupedCommands().contains(command)) {
+        if (CommandGroupBase.isGrouped(command)) {
             throw new IllegalArgumentException(
                     "A command that is part of a command group cannot be independently scheduled");
         }
@@ -140,28 +352,64 @@ public final class CommandScheduler {
                 || m_scheduledCommands.containsKey(command)) {
             return;
         }
+        for (int i = 0; i < m_scheduleActions.size(); i++) {
+            m_scheduleActions.get(i).accept(command);
+        }
 
-        Set<Subsystem> requirements = command.getRequirements();
+        CommandState state = acquireState(command, interruptible);
+        long[] mask = state.getRequirementMask();
 
         // Schedule the command if the requirements are not currently in-use.
-        if (Collections.disjoint(m_requirements.keySet(), requirements)) {
-            initCommand(command, interruptible, requirements);
-        } else {
-            // Else check if the requirements that are in use have all have interruptible commands,
-            // and if so, interrupt those commands and schedule the new command.
-            for (Subsystem requirement : requirements) {
-                if (m_requirements.containsKey(requirement)
-                        && !m_scheduledCommands.get(m_requirements.get(requirement)).isInterruptible()) {
+        boolean conflict = false;
+        for (int word = 0; word < Math.min(mask.length, m_requiredMask.length); word++) {
+            long bits = mask[word] & m_requiredMask[word];
+            conflict |= bits != 0;
+            // Else check if the requirements that are in use have all have interruptible commands.
+            while (bits != 0) {
+                Command holder = m_requiringCommands[(word << 6) + Long.numberOfTrailingZeros(bits)];
+                for (int i = 0; i < m_conflictActions.size(); i++) {
+                    m_conflictActions.get(i).accept(command, holder);
+                }
+                if (!m_scheduledCommands.get(holder).isInterruptible()) {
+                    releaseState(state);
                     return;
                 }
+                bits &= bits - 1;
             }
-            for (Subsystem requirement : requirements) {
-                if (m_requirements.containsKey(requirement)) {
-                    cancel(m_requirements.get(requirement));
+        }
+
+        // If so, interrupt those commands and schedule the new command.
+        if (conflict) {
+            for (int word = 0; word < Math.min(mask.length, m_requiredMask.length); word++) {
+                long bits;
+                while ((bits = mask[word] & m_requiredMask[word]) != 0) {
+                    cancel(m_requiringCommands[(word << 6) + Long.numberOfTrailingZeros(bits)]);
                 }
             }
-            initCommand(command, interruptible, requirements);
         }
+        initCommand(command, state);
+    }
+
+    /**
+     * Queues a command to be scheduled once the run loop is done.
+     *
+     * @param command       the command to schedule
+     * @param interruptible whether the command is interruptible
+     */
+    private void deferSchedule(Command command, boolean interruptible) {
+        for (int i = 0; i < m_toScheduleCount; i++) {
+            if (m_toSchedule[i] == command) {
+                m_toScheduleInterruptible[i] = interruptible;
+                return;
+            }
+        }
+        if (m_toScheduleCount == m_toSchedule.length) {
+            m_toSchedule = Arrays.copyOf(m_toSchedule, m_toScheduleCount * 2);
+            m_toScheduleInterruptible =
+                    Arrays.copyOf(m_toScheduleInterruptible, m_toScheduleCount * 2);
+        }
+        m_toSchedule[m_toScheduleCount] = command;
+        m_toScheduleInterruptible[m_toScheduleCount++] = interruptible;
     }
 
     /**
@@ -202,6 +450,8 @@ public final class CommandScheduler {
      * have their end methods called and are removed.
      *
      * <p>Any subsystems not being used as requirements have their default methods started.
+     *
+     * <p>Once every subsystem and command has been seen, an iteration allocates no objects.
      */
     @SuppressWarnings({"PMD.CyclomaticComplexity", "PMD.NPathComplexity"})
     public void run() {
@@ -209,66 +459,261 @@ public final class CommandScheduler {
             return;
         }
 
-        // Run the periodic method of all registered subsystems.
-        for (Subsystem subsystem : m_subsystems.keySet()) {
-            subsystem.periodic();
+        final SchedulerProfiler profiler = m_profiler;
+        final long loopStart = profiler == null ? 0 : System.nanoTime();
+
+        for (int i = 0; i < m_loopStartActions.size(); i++) {
+            m_loopStartActions.get(i).run();
+        }
+
+        // Start the periodic methods of parallel-safe subsystems on the worker pool.
+        final ParallelPeriodicRunner parallel = m_parallelRunner;
+        final long parallelStart = parallel == null ? 0 : System.nanoTime();
+        if (parallel != null) {
+            for (int i = 0; i < m_registeredCount; i++) {
+                Subsystem subsystem = m_indexedSubsystems[m_registered[i]];
+                if (subsystem.isParallelSafe()
+                        && !(m_shedLowPriority && subsystem.isLowPriority())) {
+                    parallel.queue(m_registered[i], subsystem);
+                }
+            }
+            parallel.start();
+        }
+
+        // Run the periodic method of all other registered subsystems.
+        for (int i = 0; i < m_registeredCount; i++) {
+            Subsystem subsystem = m_indexedSubsystems[m_registered[i]];
+            if ((m_shedLowPriority && subsystem.isLowPriority())
+                    || (parallel != null && subsystem.isParallelSafe())) {
+                continue;
+            }
+            if (profiler == null) {
+                subsystem.periodic();
+            } else {
+                long start = System.nanoTime();
+                subsystem.periodic();
+                profiler.recordSubsystem(m_registered[i], subsystem, System.nanoTime() - start);
+            }
+        }
+
+        // Wait for the parallel periodic methods, so commands see their results.
+        if (parallel != null) {
+            parallel.join(parallelStart, profiler);
+        }
+        long phaseStart = loopStart;
+        if (profiler != null) {
+            phaseStart = recordPhase(profiler, SchedulerProfiler.Phase.SUBSYSTEM_PERIODIC,
+                    phaseStart);
         }
 
         // Poll buttons for new commands to add.
-        for (Runnable button : m_buttons) {
-            button.run();
+        m_loopCount++;
+        for (int i = 0; i < m_buttons.size(); i++) {
+            m_buttons.get(i).run();
+        }
+        if (profiler != null) {
+            phaseStart = recordPhase(profiler, SchedulerProfiler.Phase.BUTTONS, phaseStart);
         }
 
         m_inRunLoop = true;
         // Run scheduled commands, remove finished commands.
-        for (Iterator<Command> iterator = m_scheduledCommands.keySet().iterator();
-             iterator.hasNext(); ) {
-            Command command = iterator.next();
+        int kept = 0;
+        for (int i = 0; i < m_scheduledCount; i++) {
+            Command command = m_scheduled[i];
 
             if (!command.runsWhenDisabled() && Robot.isDisabled) {
                 command.end(true);
-                for (Consumer<Command> action : m_interruptActions) {
-                    action.accept(command);
+                for (int j = 0; j < m_interruptActions.size(); j++) {
+                    m_interruptActions.get(j).accept(command);
                 }
-                m_requirements.keySet().removeAll(command.getRequirements());
-                iterator.remove();
+                releaseCommand(command, m_scheduledCommands.get(command));
                 continue;
             }
 
+            long start = profiler == null ? 0 : System.nanoTime();
             command.execute();
-            for (Consumer<Command> action : m_executeActions) {
-                action.accept(command);
+            if (profiler != null) {
+                profiler.recordExecute(command, System.nanoTime() - start);
+            }
+            for (int j = 0; j < m_executeActions.size(); j++) {
+                m_executeActions.get(j).accept(command);
+            }
+            if (profiler != null) {
+                start = System.nanoTime();
+            }
+            boolean finished = command.isFinished();
+            if (profiler != null) {
+                profiler.recordIsFinished(command, System.nanoTime() - start);
             }
-            if (command.isFinished()) {
+            if (finished) {
                 command.end(false);
-                for (Consumer<Command> action : m_finishActions) {
-                    action.accept(command);
+                for (int j = 0; j < m_finishActions.size(); j++) {
+                    m_finishActions.get(j).accept(command);
                 }
-                iterator.remove();
-
-                m_requirements.keySet().removeAll(command.getRequirements());
+                releaseCommand(command, m_scheduledCommands.get(command));
+                continue;
             }
+
+            m_scheduled[kept++] = command;
         }
+        Arrays.fill(m_scheduled, kept, m_scheduledCount, null);
+        m_scheduledCount = kept;
         m_inRunLoop = false;
+        if (profiler != null) {
+            phaseStart = recordPhase(profiler, SchedulerProfiler.Phase.COMMANDS, phaseStart);
+        }
 
-        for (Map.Entry<Command, Boolean> commandInterruptible : m_toSchedule.entrySet()) {
-            schedule(commandInterruptible.getValue(), commandInterruptible.getKey());
+        for (int i = 0; i < m_toScheduleCount; i++) {
+            schedule(m_toScheduleInterruptible[i], m_toSchedule[i]);
         }
 
-        for (Command command : m_toCancel) {
-            cancel(command);
+        for (int i = 0; i < m_toCancelCount; i++) {
+            cancel(m_toCancel[i]);
         }
 
-        m_toSchedule.clear();
-        m_toCancel.clear();
+        Arrays.fill(m_toSchedule, 0, m_toScheduleCount, null);
+        Arrays.fill(m_toCancel, 0, m_toCancelCount, null);
+        m_toScheduleCount = 0;
+        m_toCancelCount = 0;
 
         // Add default commands for un-required registered subsystems.
-        for (Map.Entry<Subsystem, Command> subsystemCommand : m_subsystems.entrySet()) {
-            if (!m_requirements.containsKey(subsystemCommand.getKey())
-                    && subsystemCommand.getValue() != null) {
-                schedule(subsystemCommand.getValue());
+        for (int i = 0; i < m_registeredCount; i++) {
+            int index = m_registered[i];
+            Command defaultCommand = m_defaultCommands[index];
+            if (m_requiringCommands[index] == null && defaultCommand != null) {
+                schedule(true, defaultCommand);
+                if (m_requiringCommands[index] == defaultCommand) {
+                    for (int j = 0; j < m_defaultActions.size(); j++) {
+                        m_defaultActions.get(j).accept(defaultCommand);
+                    }
+                }
             }
         }
+
+        for (int i = 0; i < m_loopEndActions.size(); i++) {
+            m_loopEndActions.get(i).run();
+        }
+
+        if (profiler != null) {
+            recordPhase(profiler, SchedulerProfiler.Phase.SCHEDULING, phaseStart);
+            profiler.recordPhase(SchedulerProfiler.Phase.LOOP, System.nanoTime() - loopStart);
+        }
+    }
+
+    /**
+     * Records the time since the start of a phase.
+     *
+     * @param profiler   the profiler to record to
+     * @param phase      the phase that just ended
+     * @param phaseStart when the phase started
+     * @return when the phase ended, which is when the next phase starts
+     */
+    private static long recordPhase(SchedulerProfiler profiler, SchedulerProfiler.Phase phase,
+                                    long phaseStart) {
+        long now = System.nanoTime();
+        profiler.recordPhase(phase, now - phaseStart);
+        return now;
+    }
+
+    /**
+     * Sets whether the scheduler is shedding load.  While it is, the {@link Subsystem#periodic()}
+     * methods of subsystems that report {@link Subsystem#isLowPriority()} are skipped.  Commands
+     * still run as normal.
+     *
+     * @param shed whether to skip low priority subsystems
+     */
+    public void setShedLowPriority(boolean shed) {
+        m_shedLowPriority = shed;
+    }
+
+    /**
+     * Whether the scheduler is shedding load.
+     *
+     * @return whether the periodic methods of low priority subsystems are being skipped
+     */
+    public boolean isSheddingLowPriority() {
+        return m_shedLowPriority;
+    }
+
+    /**
+     * Runs the {@link Subsystem#periodic()} methods of subsystems that report
+     * {@link Subsystem#isParallelSafe()} on a fixed pool of worker threads, so that several slow,
+     * blocking sensor reads overlap rather than add up.
+     *
+     * <p>Each iteration of {@link #run()} first hands the parallel-safe subsystems to the pool, in
+     * registration order, then runs the periodic methods of all other subsystems on the calling
+     * thread, also in registration order.  It then waits for the parallel ones before polling
+     * buttons or running commands, so commands always see the results of this loop's periodic
+     * calls.  A parallel periodic call that takes longer than its timeout is no longer waited for,
+     * and that subsystem's periodic method is skipped until the call returns.  Once it does, its
+     * duration is recorded to the profiler, and if it threw, the exception is thrown from the next
+     * iteration, wrapped in a {@link RuntimeException} that names the subsystem.
+     *
+     * @param threads the number of worker threads
+     * @param timeout the default time to wait for each parallel periodic call
+     * @param unit    the unit of the timeout
+     */
+    public void enableParallelPeriodic(int threads, long timeout, TimeUnit unit) {
+        disableParallelPeriodic();
+        m_parallelRunner = new ParallelPeriodicRunner(threads, timeout, unit);
+    }
+
+    /**
+     * Stops running periodic methods in parallel and shuts down the worker threads.  Every
+     * subsystem's periodic method is run on the calling thread again.
+     */
+    public void disableParallelPeriodic() {
+        if (m_parallelRunner != null) {
+            m_parallelRunner.shutdown();
+            m_parallelRunner = null;
+        }
+    }
+
+    /**
+     * Sets how long to wait for a parallel-safe subsystem's periodic method, overriding the
+     * default timeout given to {@link #enableParallelPeriodic(int, long, TimeUnit)}.
+     *
+     * @param subsystem the subsystem
+     * @param timeout   the time to wait for its periodic method
+     * @param unit      the unit of the timeout
+     */
+    public void setPeriodicTimeout(Subsystem subsystem, long timeout, TimeUnit unit) {
+        if (m_parallelRunner == null) {
+            throw new IllegalStateException("Parallel periodic execution is not enabled");
+        }
+        m_parallelRunner.setTimeout(indexOf(subsystem), subsystem, timeout, unit);
+    }
+
+    /**
+     * Gets the number of times the scheduler stopped waiting for a subsystem's parallel periodic
+     * method because it took longer than its timeout.
+     *
+     * @param subsystem the subsystem
+     * @return the number of timeouts
+     */
+    public long getPeriodicTimeouts(Subsystem subsystem) {
+        Integer index = m_subsystemIndices.get(subsystem);
+        return m_parallelRunner == null || index == null ? 0 : m_parallelRunner.getTimeouts(index);
+    }
+
+    /**
+     * Installs a profiler that times every phase of {@link #run()}, every subsystem's
+     * {@link Subsystem#periodic()}, and every command's {@link Command#execute()} and
+     * {@link Command#isFinished()}.  Pass null to stop profiling.
+     *
+     * @param profiler the profiler to record to, or null
+     */
+    public void setProfiler(SchedulerProfiler profiler) {
+        m_profiler = profiler;
+    }
+
+    /**
+     * Gets the installed profiler.
+     *
+     * @return the profiler, or null if the scheduler is not being profiled
+     */
+    public SchedulerProfiler getProfiler() {
+        return m_profiler;
     }
 
     /**
@@ -281,7 +726,14 @@ public final class CommandScheduler {
      */
     public void registerSubsystem(Subsystem... subsystems) {
         for (Subsystem subsystem : subsystems) {
-            m_subsystems.put(subsystem, null);
+            int index = indexOf(subsystem);
+            if (registeredPosition(index) == -1) {
+                if (m_registeredCount == m_registered.length) {
+                    m_registered = Arrays.copyOf(m_registered, m_registeredCount * 2);
+                }
+                m_registered[m_registeredCount++] = index;
+            }
+            m_defaultCommands[index] = null;
         }
     }
 
@@ -292,16 +744,58 @@ public final class CommandScheduler {
      * @param subsystems the subsystem to un-register
      */
     public void unregisterSubsystem(Subsystem... subsystems) {
-        m_subsystems.keySet().removeAll(Arrays.asList(subsystems));
+        for (Subsystem subsystem : subsystems) {
+            Integer index = m_subsystemIndices.get(subsystem);
+            int position = index == null ? -1 : registeredPosition(index);
+            if (position == -1) {
+                continue;
+            }
+            System.arraycopy(m_registered, position + 1, m_registered, position,
+                    m_registeredCount - position - 1);
+            m_registeredCount--;
+            m_defaultCommands[index] = null;
+        }
+    }
+
+    /**
+     * Finds where a subsystem sits in the registration order.
+     *
+     * @param index the index of the subsystem
+     * @return the position of the subsystem, or -1 if it is not registered
+     */
+    private int registeredPosition(int index) {
+        for (int i = 0; i < m_registeredCount; i++) {
+            if (m_registered[i] == index) {
+                return i;
+            }
+        }
+        return -1;
     }
 
     /**
-     * Resets the CommandScheduler instance
+     * Resets the CommandScheduler instance.  Commands allocated to command groups are freed.
      */
     public synchronized void reset() {
+        disableParallelPeriodic();
+        m_groupRegistry.release();
         instance = null;
     }
 
+    /**
+     * @return the record of the commands allocated to command groups
+     */
+    GroupRegistry getGroupRegistry() {
+        return m_groupRegistry;
+    }
+
+    /**
+     * Frees every command allocated to a command group, so they can be used again.
+     */
+    void clearGroupRegistry() {
+        m_groupRegistry.release();
+        m_groupRegistry = new GroupRegistry();
+    }
+
     /**
      * Sets the default command for a subsystem.  Registers that subsystem if it is not already
      * registered.  Default commands will run whenever there is no other command currently scheduled
@@ -321,7 +815,8 @@ public final class CommandScheduler {
             throw new IllegalArgumentException("Default commands should not end!");
         }
 
-        m_subsystems.put(subsystem, defaultCommand);
+        registerSubsystem(subsystem);
+        m_defaultCommands[indexOf(subsystem)] = defaultCommand;
     }
 
     /**
@@ -332,7 +827,8 @@ public final class CommandScheduler {
      * @return the default command associated with the subsystem
      */
     public Command getDefaultCommand(Subsystem subsystem) {
-        return m_subsystems.get(subsystem);
+        Integer index = m_subsystemIndices.get(subsystem);
+        return index == null ? null : m_defaultCommands[index];
     }
 
     /**
@@ -343,31 +839,50 @@ public final class CommandScheduler {
      * @param commands the commands to cancel
      */
     public void cancel(Command... commands) {
+        for (Command command : commands) {
+            cancel(command);
+        }
+    }
+
+    /**
+     * Cancels a single command.
+     *
+     * @param command the command to cancel
+     */
+    void cancel(Command command) {
         if (m_inRunLoop) {
-            m_toCancel.addAll(Arrays.asList(commands));
+            if (m_toCancelCount == m_toCancel.length) {
+                m_toCancel = Arrays.copyOf(m_toCancel, m_toCancelCount * 2);
+            }
+            m_toCancel[m_toCancelCount++] = command;
             return;
         }
 
-        for (Command command : commands) {
-            if (!m_scheduledCommands.containsKey(command)) {
-                continue;
-            }
+        CommandState state = m_scheduledCommands.get(command);
+        if (state == null) {
+            return;
+        }
 
-            command.end(true);
-            for (Consumer<Command> action : m_interruptActions) {
-                action.accept(command);
+        command.end(true);
+        for (int i = 0; i < m_interruptActions.size(); i++) {
+            m_interruptActions.get(i).accept(command);
+        }
+        for (int i = 0; i < m_scheduledCount; i++) {
+            if (m_scheduled[i] == command) {
+                System.arraycopy(m_scheduled, i + 1, m_scheduled, i, m_scheduledCount - i - 1);
+                m_scheduled[--m_scheduledCount] = null;
+                break;
             }
-            m_scheduledCommands.remove(command);
-            m_requirements.keySet().removeAll(command.getRequirements());
         }
+        releaseCommand(command, state);
     }
 
     /**
      * Cancels all commands that are currently scheduled.
      */
     public void cancelAll() {
-        for (Command command : m_scheduledCommands.keySet()) {
-            cancel(command);
+        for (int i = m_scheduledCount - 1; i >= 0; i--) {
+            cancel(m_scheduled[i]);
         }
     }
 
@@ -380,7 +895,12 @@ public final class CommandScheduler {
      * @return whether the command is currently scheduled
      */
     public boolean isScheduled(Command... commands) {
-        return m_scheduledCommands.keySet().containsAll(Arrays.asList(commands));
+        for (Command command : commands) {
+            if (!m_scheduledCommands.containsKey(command)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -391,7 +911,8 @@ public final class CommandScheduler {
      * @return the command currently requiring the subsystem
      */
     public Command requiring(Subsystem subsystem) {
-        return m_requirements.get(subsystem);
+        Integer index = m_subsystemIndices.get(subsystem);
+        return index == null ? null : m_requiringCommands[index];
     }
 
     /**
@@ -444,4 +965,56 @@ public final class CommandScheduler {
         m_finishActions.add(action);
     }
 
+    /**
+     * Adds an action to perform whenever the scheduler tries to start a command that is not
+     * already scheduled, before its requirements are checked.
+     *
+     * @param action the action to perform
+     */
+    public void onCommandSchedule(Consumer<Command> action) {
+        m_scheduleActions.add(action);
+    }
+
+    /**
+     * Adds an action to perform whenever a command being scheduled requires a subsystem that is
+     * in use.  The action is given the command being scheduled and the command holding the
+     * subsystem.  If the holder is interruptible, it is then interrupted; otherwise the new
+     * command is not scheduled.
+     *
+     * @param action the action to perform
+     */
+    public void onRequirementConflict(BiConsumer<Command, Command> action) {
+        m_conflictActions.add(action);
+    }
+
+    /**
+     * Adds an action to perform whenever the default command of a subsystem is started.
+     *
+     * @param action the action to perform
+     */
+    public void onDefaultCommandStart(Consumer<Command> action) {
+        m_defaultActions.add(action);
+    }
+
+    /**
+     * Adds an action to perform at the start of every {@link #run()}, before any subsystem
+     * periodic methods.  Used to refresh state that everything in the loop reads, such as the
+     * bulk read cache of the hubs.
+     *
+     * @param action the action to perform
+     */
+    public void onLoopStart(Runnable action) {
+        m_loopStartActions.add(action);
+    }
+
+    /**
+     * Adds an action to perform at the end of every {@link #run()}, after every command has run
+     * and the default commands have been scheduled.
+     *
+     * @param action the action to perform
+     */
+    public void onLoopEnd(Runnable action) {
+        m_loopEndActions.add(action);
+    }
+
 }
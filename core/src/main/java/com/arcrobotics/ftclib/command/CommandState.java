@@ -7,6 +7,8 @@
 
 package com.arcrobotics.ftclib.command;
 
+import java.util.Arrays;
+
 /**
  * Class that holds scheduling state for a command.  Used internally by the
  * {@link CommandScheduler}.
@@ -20,15 +22,41 @@ package com.arcrobotics.ftclib.command;
 class CommandState {
 
     // Whether or not it is interruptible.
-    private final boolean m_interruptible;
+    private boolean m_interruptible;
 
+    // The indices of the subsystems required by the command, packed into 64-bit words.
+    private long[] m_requirements;
 
     CommandState(boolean interruptible) {
+        this(interruptible, 1);
+    }
+
+    CommandState(boolean interruptible, int words) {
         m_interruptible = interruptible;
+        m_requirements = new long[words];
     }
 
     boolean isInterruptible() {
         return m_interruptible;
     }
 
-}
\ No newline at end of file
+    /**
+     * Re-initializes this state so it can be reused for another scheduling of a command.
+     *
+     * @param interruptible whether the command is interruptible
+     * @param words         the number of mask words needed to hold every subsystem index
+     */
+    void reset(boolean interruptible, int words) {
+        m_interruptible = interruptible;
+        if (m_requirements.length < words) {
+            m_requirements = new long[words];
+        } else {
+            Arrays.fill(m_requirements, 0L);
+        }
+    }
+
+    long[] getRequirementMask() {
+        return m_requirements;
+    }
+
+}
@@ -0,0 +1,319 @@
+package com.arcrobotics.ftclib.command;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A command tree flattened into a table.  Nested {@link SequentialCommandGroup}s,
+ * {@link ParallelCommandGroup}s, {@link ParallelDeadlineGroup}s and {@link ParallelRaceGroup}s
+ * become rows that only record how their children start and finish, so each loop only calls
+ * {@link Command#execute()} and {@link Command#isFinished()} on the leaf commands that are
+ * actually running, rather than dispatching through every layer of the tree.
+ *
+ * <p>The compiled command runs its leaves in the same order and with the same initialize, end
+ * and interrupt calls as the original groups.  Subclasses of the group classes, and every other
+ * command, are kept as leaves, so overridden group behavior is never skipped.
+ *
+ * <p>Create one with {@link CommandGroupBase#compile()}.  Like any command group, the compiled
+ * tree must not be changed or used elsewhere afterwards.
+ */
+public class CompiledCommandGroup extends CommandBase {
+
+    private static final int LEAF = 0, SEQUENCE = 1, PARALLEL = 2, DEADLINE = 3, RACE = 4;
+
+    // The tree in pre-order, so the subtree of node n is the range [n, m_end[n]) and its first
+    // child, if any, is n + 1.
+    private final Command[] m_nodes;
+    private final int[] m_kind;
+    private final int[] m_parent;
+    private final int[] m_end;
+    private final int[] m_childCount;
+    private final int[] m_deadline;
+
+    // Run state of every node.
+    private final boolean[] m_running;
+    private final boolean[] m_pending;
+    private final int[] m_remaining;
+
+    // The running leaves in pre-order, and the leaves that will run in the next loop.
+    private int[] m_active;
+    private int m_activeCount;
+    private int[] m_next;
+    private int m_nextCount;
+
+    // Races and deadline groups that ended this loop, innermost last.
+    private final int[] m_pendingStack;
+    private int m_pendingCount;
+
+    private final boolean m_runWhenDisabled;
+    private boolean m_finished = true;
+
+    /**
+     * Compiles a command tree.
+     *
+     * @param root the command to compile
+     */
+    public CompiledCommandGroup(Command root) {
+        CommandGroupBase.requireUngrouped(root);
+        CommandGroupBase.registerGroupedCommands(root);
+
+        List<Command> nodes = new ArrayList<>();
+        List<int[]> rows = new ArrayList<>();
+        flatten(root, -1, nodes, rows);
+
+        int size = nodes.size();
+        m_nodes = nodes.toArray(new Command[0]);
+        m_kind = new int[size];
+        m_parent = new int[size];
+        m_end = new int[size];
+        m_childCount = new int[size];
+        m_deadline = new int[size];
+        int leaves = 0;
+        for (int i = 0; i < size; i++) {
+            int[] row = rows.get(i);
+            m_kind[i] = row[0];
+            m_parent[i] = row[1];
+            m_end[i] = row[2];
+            m_childCount[i] = row[3];
+            m_deadline[i] = row[4];
+            if (m_kind[i] == LEAF) {
+                leaves++;
+            }
+        }
+
+        m_running = new boolean[size];
+        m_pending = new boolean[size];
+        m_remaining = new int[size];
+        m_active = new int[leaves];
+        m_next = new int[leaves];
+        m_pendingStack = new int[size];
+
+        m_requirements.addAll(root.getRequirements());
+        m_runWhenDisabled = root.runsWhenDisabled();
+        m_name = root.getName();
+    }
+
+    /**
+     * Appends a command and its subtree to the table in pre-order.
+     *
+     * @return the index of the command
+     */
+    private static int flatten(Command command, int parent, List<Command> nodes,
+                               List<int[]> rows) {
+        int index = nodes.size();
+        int[] row = {LEAF, parent, 0, 0, -1};
+        nodes.add(command);
+        rows.add(row);
+
+        Iterable<Command> children = null;
+        Command deadline = null;
+        Class<?> type = command.getClass();
+        if (type == SequentialCommandGroup.class) {
+            row[0] = SEQUENCE;
+            children = ((SequentialCommandGroup) command).getCommands();
+        } else if (type == ParallelCommandGroup.class) {
+            row[0] = PARALLEL;
+            children = ((ParallelCommandGroup) command).getCommands();
+        } else if (type == ParallelDeadlineGroup.class) {
+            row[0] = DEADLINE;
+            children = ((ParallelDeadlineGroup) command).getCommands();
+            deadline = ((ParallelDeadlineGroup) command).getDeadline();
+        } else if (type == ParallelRaceGroup.class) {
+            row[0] = RACE;
+            children = ((ParallelRaceGroup) command).getCommands();
+        }
+
+        if (children != null) {
+            for (Command child : children) {
+                int childIndex = flatten(child, index, nodes, rows);
+                if (child == deadline) {
+                    row[4] = childIndex;
+                }
+                row[3]++;
+            }
+            // An empty group finishes on its first execute, exactly as a leaf does.
+            if (row[3] == 0) {
+                row[0] = LEAF;
+            }
+        }
+        row[2] = nodes.size();
+        return index;
+    }
+
+    @Override
+    public void initialize() {
+        m_activeCount = 0;
+        m_nextCount = 0;
+        m_pendingCount = 0;
+        m_finished = false;
+        start(0);
+        int[] swap = m_active;
+        m_active = m_next;
+        m_next = swap;
+        m_activeCount = m_nextCount;
+    }
+
+    @Override
+    public void execute() {
+        m_nextCount = 0;
+        for (int i = 0; i < m_activeCount; i++) {
+            int leaf = m_active[i];
+            resolvePending(leaf);
+            if (!m_running[leaf]) {
+                continue;
+            }
+
+            Command command = m_nodes[leaf];
+            command.execute();
+            if (command.isFinished()) {
+                command.end(false);
+                finish(leaf);
+            } else {
+                m_next[m_nextCount++] = leaf;
+            }
+        }
+        resolvePending(m_nodes.length);
+
+        // Drop leaves interrupted by a race or deadline, then restore pre-order.
+        int kept = 0;
+        for (int i = 0; i < m_nextCount; i++) {
+            int leaf = m_next[i];
+            if (m_running[leaf]) {
+                int j = kept++;
+                while (j > 0 && m_next[j - 1] > leaf) {
+                    m_next[j] = m_next[j - 1];
+                    j--;
+                }
+                m_next[j] = leaf;
+            }
+        }
+
+        int[] swap = m_active;
+        m_active = m_next;
+        m_next = swap;
+        m_activeCount = kept;
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        if (interrupted) {
+            for (int i = 0; i < m_activeCount; i++) {
+                if (m_running[m_active[i]]) {
+                    m_nodes[m_active[i]].end(true);
+                }
+            }
+        }
+        for (int i = 0; i < m_nodes.length; i++) {
+            m_running[i] = false;
+            m_pending[i] = false;
+        }
+        m_activeCount = 0;
+        m_pendingCount = 0;
+        m_finished = true;
+    }
+
+    @Override
+    public boolean isFinished() {
+        return m_finished;
+    }
+
+    @Override
+    public boolean runsWhenDisabled() {
+        return m_runWhenDisabled;
+    }
+
+    /**
+     * Initializes a node.  Leaves are queued to run from the next loop.
+     */
+    private void start(int node) {
+        m_running[node] = true;
+        switch (m_kind[node]) {
+            case LEAF:
+                m_nodes[node].initialize();
+                m_next[m_nextCount++] = node;
+                break;
+            case SEQUENCE:
+                start(node + 1);
+                break;
+            default:
+                m_remaining[node] = m_childCount[node];
+                for (int child = node + 1; child < m_end[node]; child = m_end[child]) {
+                    start(child);
+                }
+                break;
+        }
+    }
+
+    /**
+     * Marks a node as finished without interruption and tells its parent.
+     */
+    private void finish(int node) {
+        m_running[node] = false;
+        int parent = m_parent[node];
+        if (parent < 0) {
+            m_finished = true;
+            return;
+        }
+
+        switch (m_kind[parent]) {
+            case SEQUENCE:
+                if (m_end[node] < m_end[parent]) {
+                    start(m_end[node]);
+                } else {
+                    finish(parent);
+                }
+                break;
+            case PARALLEL:
+                if (--m_remaining[parent] == 0) {
+                    finish(parent);
+                }
+                break;
+            case DEADLINE:
+                if (m_deadline[parent] == node) {
+                    pend(parent);
+                }
+                break;
+            case RACE:
+                pend(parent);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Marks a race or deadline group as ended.  Its other children still run for the rest of this
+     * loop, as they would inside the group, before they are interrupted.
+     */
+    private void pend(int node) {
+        if (!m_pending[node]) {
+            m_pending[node] = true;
+            m_pendingStack[m_pendingCount++] = node;
+        }
+    }
+
+    /**
+     * Ends every pending group whose subtree lies entirely before the given node.
+     */
+    private void resolvePending(int node) {
+        while (m_pendingCount > 0) {
+            int group = m_pendingStack[m_pendingCount - 1];
+            if (node < m_end[group]) {
+                return;
+            }
+            m_pendingCount--;
+            m_pending[group] = false;
+            for (int i = group + 1; i < m_end[group]; i++) {
+                if (m_running[i]) {
+                    m_running[i] = false;
+                    m_pending[i] = false;
+                    if (m_kind[i] == LEAF) {
+                        m_nodes[i].end(true);
+                    }
+                }
+            }
+            finish(group);
+        }
+    }
+
+}
@@ -0,0 +1,152 @@
+package com.arcrobotics.ftclib.command;
+
+import com.arcrobotics.ftclib.controller.FeedforwardFit;
+import com.arcrobotics.ftclib.controller.FeedforwardLog;
+import com.arcrobotics.ftclib.hardware.motors.Motor;
+import com.arcrobotics.ftclib.util.Clock;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * A command that drives a motor with a known voltage and records how it moves, for
+ * {@link FeedforwardFit}.  A quasistatic test ramps the voltage up slowly, so the motor is
+ * hardly accelerating and the static and velocity gains show; a dynamic test applies a step
+ * of voltage, so the acceleration gain shows.  Run both, in both directions, into one log:
+ *
+ * <pre>
+ * FeedforwardLog log = new FeedforwardLog(2000);
+ * schedule(new SequentialCommandGroup(
+ *         FeedforwardCharacterizationCommand.quasistatic(lift, battery, log, 0.5),
+ *         FeedforwardCharacterizationCommand.quasistatic(lift, battery, log, -0.5),
+ *         FeedforwardCharacterizationCommand.dynamic(lift, battery, log, 6).withTimeout(1500),
+ *         FeedforwardCharacterizationCommand.dynamic(lift, battery, log, -6).withTimeout(1500)));
+ * ...
+ * FeedforwardFit&lt;ElevatorFeedforward&gt; fit = FeedforwardFit.elevator(log, 10);
+ * </pre>
+ *
+ * <p>The position and velocity come from {@link Motor#getDistance()} and
+ * {@link Motor#getRate()}, so set the distance per pulse first.  The voltage is the power
+ * written times the battery voltage.  A test ends when the log is full, the mechanism leaves
+ * its limits, or the voltage reaches its maximum or that of the battery, and stops the motor
+ * when it ends; give dynamic tests a timeout.
+ */
+public class FeedforwardCharacterizationCommand extends CommandBase {
+
+    private final Motor m_motor;
+    private final DoubleSupplier m_battery;
+    private final FeedforwardLog m_log;
+    private final double m_rate, m_step;
+
+    private double m_minDistance = Double.NEGATIVE_INFINITY;
+    private double m_maxDistance = Double.POSITIVE_INFINITY;
+    private double m_maxVoltage = 12;
+    private double m_startTime, m_voltage;
+    private boolean m_outOfBounds, m_saturated;
+
+    private FeedforwardCharacterizationCommand(Motor motor, DoubleSupplier battery, FeedforwardLog log,
+                                               double rate, double step, Subsystem... requirements) {
+        m_motor = motor;
+        m_battery = battery;
+        m_log = log;
+        m_rate = rate;
+        m_step = step;
+        addRequirements(requirements);
+    }
+
+    /**
+     * Creates a test that ramps the voltage up from zero.
+     *
+     * @param motor          the motor to test
+     * @param battery        reads the battery voltage
+     * @param log            the log to record into
+     * @param voltsPerSecond how fast to ramp the voltage; negative to run backwards
+     * @param requirements   the subsystems required by this command
+     * @return the command
+     */
+    public static FeedforwardCharacterizationCommand quasistatic(Motor motor, DoubleSupplier battery,
+                                                                 FeedforwardLog log, double voltsPerSecond,
+                                                                 Subsystem... requirements) {
+        return new FeedforwardCharacterizationCommand(motor, battery, log, voltsPerSecond, 0, requirements);
+    }
+
+    /**
+     * Creates a test that applies a constant voltage from a standstill.
+     *
+     * @param motor        the motor to test
+     * @param battery      reads the battery voltage
+     * @param log          the log to record into
+     * @param volts        the voltage to apply; negative to run backwards
+     * @param requirements the subsystems required by this command
+     * @return the command
+     */
+    public static FeedforwardCharacterizationCommand dynamic(Motor motor, DoubleSupplier battery,
+                                                             FeedforwardLog log, double volts,
+                                                             Subsystem... requirements) {
+        return new FeedforwardCharacterizationCommand(motor, battery, log, 0, volts, requirements);
+    }
+
+    /**
+     * Ends the test if the mechanism moves outside a range, such as the travel of a lift.
+     *
+     * @param min the lowest safe distance
+     * @param max the highest safe distance
+     * @return this command for chaining purposes
+     */
+    public FeedforwardCharacterizationCommand setDistanceLimits(double min, double max) {
+        m_minDistance = min;
+        m_maxDistance = max;
+        return this;
+    }
+
+    /**
+     * @param volts the highest voltage a quasistatic test may reach, 12 by default
+     * @return this command for chaining purposes
+     */
+    public FeedforwardCharacterizationCommand setMaxVoltage(double volts) {
+        m_maxVoltage = Math.abs(volts);
+        return this;
+    }
+
+    @Override
+    public void initialize() {
+        m_motor.setRunMode(Motor.RunMode.RawPower);
+        m_log.newSegment();
+        m_startTime = Clock.DEFAULT.seconds();
+        m_voltage = 0;
+        m_outOfBounds = false;
+        m_saturated = false;
+    }
+
+    @Override
+    public void execute() {
+        double now = Clock.DEFAULT.seconds();
+        double distance = m_motor.getDistance();
+        m_log.add(now, distance, m_motor.getRate(), m_voltage);
+        m_outOfBounds = distance < m_minDistance || distance > m_maxDistance;
+        if (m_outOfBounds) {
+            return;
+        }
+
+        double volts = m_rate != 0 ? m_rate * (now - m_startTime) : m_step;
+        volts = Math.max(-m_maxVoltage, Math.min(m_maxVoltage, volts));
+        double battery = m_battery.getAsDouble();
+        double power = Math.max(-1, Math.min(1, volts / battery));
+        // Written past the voltage compensator, as the voltage is already known.
+        m_motor.getOutput().set(power);
+        m_voltage = power * battery;
+        // A ramp cannot go any higher once it is held at its maximum or at full power
+        m_saturated = Math.abs(volts) >= m_maxVoltage || Math.abs(power) >= 1;
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        m_motor.stopMotor();
+    }
+
+    @Override
+    public boolean isFinished() {
+        return m_log.isFull() || m_outOfBounds
+                || (m_rate != 0 && m_saturated);
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.arcrobotics.ftclib.command;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Records the commands allocated to command groups since the grouped commands were last cleared.
+ * Owned by the {@link CommandScheduler}, which releases it and starts a new one when the grouped
+ * commands are cleared or the scheduler is reset.
+ *
+ * <p>A {@link CommandBase} holds the registry it was grouped in, and is grouped while that
+ * registry has not been released, so checking it is a field access.  Commands that implement
+ * {@link Command} directly cannot hold it, so only they are kept in a set.
+ */
+class GroupRegistry {
+
+    // Whether the commands grouped in this registry have been freed.
+    private boolean m_released;
+
+    // The grouped commands that are not a CommandBase.
+    private final Set<Command> m_commands = Collections.newSetFromMap(new WeakHashMap<>());
+
+    /**
+     * Marks a command as allocated to a group.
+     *
+     * @param command the grouped command
+     */
+    void add(Command command) {
+        if (command instanceof CommandBase) {
+            ((CommandBase) command).m_groupRegistry = this;
+        } else {
+            m_commands.add(command);
+        }
+    }
+
+    /**
+     * Frees a single command so it can be used again.
+     *
+     * @param command the command to free
+     */
+    void remove(Command command) {
+        if (command instanceof CommandBase) {
+            ((CommandBase) command).m_groupRegistry = null;
+        } else {
+            m_commands.remove(command);
+        }
+    }
+
+    /**
+     * Returns whether a command that is not a {@link CommandBase} is grouped in this registry.
+     *
+     * @param command the command to check
+     * @return whether the command is part of a group
+     */
+    boolean contains(Command command) {
+        return !m_commands.isEmpty() && m_commands.contains(command);
+    }
+
+    /**
+     * Frees every command grouped in this registry.  The registry must not be used afterwards.
+     */
+    void release() {
+        m_released = true;
+        m_commands.clear();
+    }
+
+    /**
+     * Returns whether a {@link CommandBase} is grouped, in this registry or any other that has not
+     * been released.
+     *
+     * @param command the command to check
+     * @return whether the command is part of a group
+     */
+    static boolean isGrouped(CommandBase command) {
+        GroupRegistry registry = command.m_groupRegistry;
+        return registry != null && !registry.m_released;
+    }
+
+}
@@ -10,7 +10,7 @@ import com.arcrobotics.ftclib.kinematics.wpilibkinematics.MecanumDriveKinematics
 import com.arcrobotics.ftclib.kinematics.wpilibkinematics.MecanumDriveMotorVoltages;
 import com.arcrobotics.ftclib.kinematics.wpilibkinematics.MecanumDriveWheelSpeeds;
 import com.arcrobotics.ftclib.trajectory.Trajectory;
-import com.qualcomm.robotcore.util.ElapsedTime;
+import com.arcrobotics.ftclib.util.Clock;
 
 import java.util.function.Consumer;
 import java.util.function.Supplier;
@@ -36,7 +36,7 @@ import java.util.function.Supplier;
 
 @SuppressWarnings({"PMD.TooManyFields", "MemberName"})
 public class MecanumControllerCommand extends CommandBase {
-    private final ElapsedTime m_timer;
+    private double m_startTime;
     private MecanumDriveWheelSpeeds m_prevSpeeds;
     private double m_prevTime;
     private Pose2d m_finalPose;
@@ -138,7 +138,6 @@ public class MecanumControllerCommand extends CommandBase {
         m_usePID = true;
 
 
-        m_timer = new ElapsedTime();
     }
 
     /**
@@ -204,7 +203,6 @@ public class MecanumControllerCommand extends CommandBase {
 
         m_usePID = false;
 
-        m_timer = new ElapsedTime();
     }
 
     @Override
@@ -223,13 +221,13 @@ public class MecanumControllerCommand extends CommandBase {
                 new ChassisSpeeds(initialXVelocity, initialYVelocity, 0.0));
 
         // Resets and starts the timer
-        m_timer.reset();
+        m_startTime = Clock.DEFAULT.seconds();
     }
 
     @Override
     @SuppressWarnings("LocalVariableName")
     public void execute() {
-        double curTime = m_timer.seconds();
+        double curTime = Clock.DEFAULT.seconds() - m_startTime;
         double dt = curTime - m_prevTime;
 
         Trajectory.State desiredState = m_trajectory.sample(curTime);
@@ -321,6 +319,6 @@ public class MecanumControllerCommand extends CommandBase {
 
     @Override
     public boolean isFinished() {
-        return m_timer.seconds() > m_trajectory.getTotalTimeSeconds();
+        return Clock.DEFAULT.seconds() - m_startTime > m_trajectory.getTotalTimeSeconds();
     }
 }
\ No newline at end of file
@@ -7,8 +7,9 @@
 
 package com.arcrobotics.ftclib.command;
 
+import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -21,7 +22,7 @@ import java.util.Map;
 public class ParallelCommandGroup extends CommandGroupBase {
 
     // maps commands in this group to whether they are still running
-    private final Map<Command, Boolean> m_commands = new HashMap<>();
+    private final Map<Command, Boolean> m_commands = new LinkedHashMap<>();
     private boolean m_runWhenDisabled = true;
 
     /**
@@ -95,6 +96,13 @@ public class ParallelCommandGroup extends CommandGroupBase {
         return !m_commands.values().contains(true);
     }
 
+    /**
+     * @return the commands in this group, in the order they were added
+     */
+    Collection<Command> getCommands() {
+        return m_commands.keySet();
+    }
+
     @Override
     public boolean runsWhenDisabled() {
         return m_runWhenDisabled;
@@ -7,8 +7,9 @@
 
 package com.arcrobotics.ftclib.command;
 
+import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -22,8 +23,9 @@ import java.util.Map;
 public class ParallelDeadlineGroup extends CommandGroupBase {
 
     // maps commands in this group to whether they are still running
-    private final Map<Command, Boolean> m_commands = new HashMap<>();
+    private final Map<Command, Boolean> m_commands = new LinkedHashMap<>();
     private boolean m_runWhenDisabled = true;
+    private boolean m_finished = true;
     private Command m_deadline;
 
     /**
@@ -80,6 +82,7 @@ public class ParallelDeadlineGroup extends CommandGroupBase {
 
     @Override
     public void initialize() {
+        m_finished = false;
         for (Map.Entry<Command, Boolean> commandRunning : m_commands.entrySet()) {
             commandRunning.getKey().initialize();
             commandRunning.setValue(true);
@@ -96,6 +99,9 @@ public class ParallelDeadlineGroup extends CommandGroupBase {
             if (commandRunning.getKey().isFinished()) {
                 commandRunning.getKey().end(false);
                 commandRunning.setValue(false);
+                if (commandRunning.getKey() == m_deadline) {
+                    m_finished = true;
+                }
             }
         }
     }
@@ -111,7 +117,21 @@ public class ParallelDeadlineGroup extends CommandGroupBase {
 
     @Override
     public boolean isFinished() {
-        return m_deadline.isFinished();
+        return m_finished;
+    }
+
+    /**
+     * @return the commands in this group, in the order they were added
+     */
+    Collection<Command> getCommands() {
+        return m_commands.keySet();
+    }
+
+    /**
+     * @return the command that determines when the group ends
+     */
+    Command getDeadline() {
+        return m_deadline;
     }
 
     @Override
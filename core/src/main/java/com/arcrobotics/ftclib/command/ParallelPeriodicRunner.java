@@ -0,0 +1,250 @@
+package com.arcrobotics.ftclib.command;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs the {@link Subsystem#periodic()} methods of parallel-safe subsystems on a small fixed pool
+ * of worker threads.  Used internally by the {@link CommandScheduler}.
+ *
+ * <p>Each subsystem has a single task that moves from idle, to queued, to running, and back to
+ * idle, so dispatching a loop's work never allocates.  A subsystem whose previous periodic call
+ * is still running after its timeout is skipped until that call returns, so no subsystem ever
+ * runs its periodic method twice at once.
+ *
+ * <p>A call that was given up on is still reported once it returns: its duration is recorded to
+ * the profiler, and an exception it threw is thrown from the join that follows, wrapped in one
+ * that names the subsystem, since by then it has nothing to do with the loop being joined.
+ */
+class ParallelPeriodicRunner {
+
+    private static final int IDLE = 0, QUEUED = 1, RUNNING = 2;
+
+    private static final class Task {
+        final Subsystem subsystem;
+        final AtomicInteger state = new AtomicInteger(IDLE);
+        long timeout;
+        volatile long duration;
+        volatile RuntimeException error;
+        long timeouts;
+
+        // Set while a call that was given up on is still to be reported.  Only the scheduler's
+        // thread touches these.
+        boolean late, lateReturned;
+        long lateDuration;
+        RuntimeException lateError;
+
+        Task(Subsystem subsystem, long timeout) {
+            this.subsystem = subsystem;
+            this.timeout = timeout;
+        }
+
+        void run() {
+            long start = System.nanoTime();
+            try {
+                subsystem.periodic();
+            } catch (RuntimeException e) {
+                error = e;
+            } finally {
+                duration = System.nanoTime() - start;
+                state.set(IDLE);
+            }
+        }
+    }
+
+    private final Thread[] m_workers;
+    private final long m_defaultTimeout;
+    private volatile boolean m_running = true;
+    private volatile Thread m_waiter;
+
+    // Tasks by the scheduler's subsystem index.  Replaced, never modified, once published.
+    private volatile Task[] m_tasks = new Task[16];
+
+    // The indices of the tasks queued in the current loop.
+    private int[] m_queued = new int[16];
+    private int m_queuedCount;
+
+    ParallelPeriodicRunner(int threads, long timeout, TimeUnit unit) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one worker thread is needed");
+        }
+        m_defaultTimeout = unit.toNanos(timeout);
+        m_workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            m_workers[i] = new Thread(this::work, "ftclib-periodic-" + i);
+            m_workers[i].setDaemon(true);
+            m_workers[i].start();
+        }
+    }
+
+    private Task taskOf(int index, Subsystem subsystem) {
+        Task[] tasks = m_tasks;
+        if (index >= tasks.length) {
+            tasks = Arrays.copyOf(tasks, Math.max(index + 1, tasks.length * 2));
+        }
+        if (tasks[index] == null) {
+            if (tasks == m_tasks) {
+                tasks = tasks.clone();
+            }
+            tasks[index] = new Task(subsystem, m_defaultTimeout);
+        }
+        if (tasks != m_tasks) {
+            m_tasks = tasks;
+        }
+        return tasks[index];
+    }
+
+    void setTimeout(int index, Subsystem subsystem, long timeout, TimeUnit unit) {
+        taskOf(index, subsystem).timeout = unit.toNanos(timeout);
+    }
+
+    long getTimeouts(int index) {
+        Task[] tasks = m_tasks;
+        return index < tasks.length && tasks[index] != null ? tasks[index].timeouts : 0;
+    }
+
+    /**
+     * Queues the periodic method of a subsystem.  Does nothing if the previous call has not
+     * returned yet.
+     *
+     * @param index     the scheduler's index of the subsystem
+     * @param subsystem the subsystem
+     */
+    void queue(int index, Subsystem subsystem) {
+        Task task = taskOf(index, subsystem);
+        if (task.state.get() != IDLE) {
+            return;
+        }
+        if (task.late) {
+            collectLate(task);
+        }
+        task.state.set(QUEUED);
+        if (m_queuedCount == m_queued.length) {
+            m_queued = Arrays.copyOf(m_queued, m_queuedCount * 2);
+        }
+        m_queued[m_queuedCount++] = index;
+    }
+
+    /**
+     * Wakes the workers so they start on the queued tasks.
+     */
+    void start() {
+        if (m_queuedCount == 0) {
+            return;
+        }
+        for (Thread worker : m_workers) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    /**
+     * Waits for the tasks queued this loop.  Gives up on a task once its timeout has passed since
+     * the loop started.
+     *
+     * @param loopStart when the tasks were queued
+     * @param profiler  the profiler to record durations to, or null
+     */
+    void join(long loopStart, SchedulerProfiler profiler) {
+        Task[] tasks = m_tasks;
+        m_waiter = Thread.currentThread();
+        RuntimeException error = null;
+        for (int i = 0; i < m_queuedCount; i++) {
+            int index = m_queued[i];
+            Task task = tasks[index];
+            long deadline = loopStart + task.timeout;
+            long remaining;
+            while (task.state.get() != IDLE && (remaining = deadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, remaining);
+            }
+            if (task.state.get() != IDLE) {
+                task.timeouts++;
+                task.late = true;
+                continue;
+            }
+            if (profiler != null) {
+                profiler.recordSubsystem(index, task.subsystem, task.duration);
+            }
+            if (task.error != null && error == null) {
+                error = task.error;
+            }
+            task.error = null;
+        }
+        m_waiter = null;
+        m_queuedCount = 0;
+
+        // Report the calls given up on that have returned since
+        for (int index = 0; index < tasks.length; index++) {
+            Task task = tasks[index];
+            if (task == null) {
+                continue;
+            }
+            if (task.late && task.state.get() == IDLE) {
+                collectLate(task);
+            }
+            if (!task.lateReturned) {
+                continue;
+            }
+            if (profiler != null) {
+                profiler.recordSubsystem(index, task.subsystem, task.lateDuration);
+            }
+            if (task.lateError != null && error == null) {
+                error = new RuntimeException("The periodic method of "
+                        + SchedulerProfiler.nameOf(task.subsystem)
+                        + " threw after its timeout", task.lateError);
+            }
+            task.lateReturned = false;
+            task.lateError = null;
+        }
+
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * Sets aside the result of a call that was given up on and has since returned, so that the
+     * task can be queued again before the result is reported.
+     *
+     * @param task the idle task
+     */
+    private static void collectLate(Task task) {
+        task.late = false;
+        task.lateReturned = true;
+        task.lateDuration = task.duration;
+        task.lateError = task.error;
+        task.error = null;
+    }
+
+    private void work() {
+        while (m_running) {
+            boolean ran = false;
+            Task[] tasks = m_tasks;
+            for (Task task : tasks) {
+                if (task != null && task.state.compareAndSet(QUEUED, RUNNING)) {
+                    task.run();
+                    Thread waiter = m_waiter;
+                    if (waiter != null) {
+                        LockSupport.unpark(waiter);
+                    }
+                    ran = true;
+                }
+            }
+            if (!ran) {
+                LockSupport.park(this);
+            }
+        }
+    }
+
+    /**
+     * Stops the worker threads.  Calls still in progress are allowed to return.
+     */
+    void shutdown() {
+        m_running = false;
+        for (Thread worker : m_workers) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+}
@@ -7,8 +7,9 @@
 
 package com.arcrobotics.ftclib.command;
 
+import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 /**
@@ -21,7 +22,7 @@ import java.util.Set;
  */
 public class ParallelRaceGroup extends CommandGroupBase {
 
-    private final Set<Command> m_commands = new HashSet<>();
+    private final Set<Command> m_commands = new LinkedHashSet<>();
     private boolean m_runWhenDisabled = true;
     private boolean m_finished = true;
 
@@ -91,6 +92,13 @@ public class ParallelRaceGroup extends CommandGroupBase {
         return m_finished;
     }
 
+    /**
+     * @return the commands in this group, in the order they were added
+     */
+    Collection<Command> getCommands() {
+        return m_commands;
+    }
+
     @Override
     public boolean runsWhenDisabled() {
         return m_runWhenDisabled;
@@ -69,7 +69,11 @@ public class ProfiledPIDCommand extends CommandBase {
         m_controller = controller;
         m_useOutput = useOutput;
         m_measurement = measurementSource;
-        m_goal = () -> new State(goalSource.getAsDouble(), 0);
+        State goal = new State();
+        m_goal = () -> {
+            goal.position = goalSource.getAsDouble();
+            return goal;
+        };
         m_requirements.addAll(Arrays.asList(requirements));
     }
 
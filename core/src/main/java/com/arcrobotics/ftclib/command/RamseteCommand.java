@@ -8,7 +8,7 @@ import com.arcrobotics.ftclib.kinematics.wpilibkinematics.ChassisSpeeds;
 import com.arcrobotics.ftclib.kinematics.wpilibkinematics.DifferentialDriveKinematics;
 import com.arcrobotics.ftclib.kinematics.wpilibkinematics.DifferentialDriveWheelSpeeds;
 import com.arcrobotics.ftclib.trajectory.Trajectory;
-import com.qualcomm.robotcore.util.ElapsedTime;
+import com.arcrobotics.ftclib.util.Clock;
 
 import java.util.function.BiConsumer;
 import java.util.function.Supplier;
@@ -28,7 +28,7 @@ import java.util.function.Supplier;
  */
 @SuppressWarnings("PMD.TooManyFields")
 public class RamseteCommand extends CommandBase {
-    private final ElapsedTime m_timer;
+    private double m_startTime;
     private final boolean m_usePID;
     private final Trajectory m_trajectory;
     private final Supplier<Pose2d> m_pose;
@@ -80,7 +80,6 @@ public class RamseteCommand extends CommandBase {
 
         m_usePID = true;
 
-        m_timer = new ElapsedTime();
     }
 
     /**
@@ -114,7 +113,6 @@ public class RamseteCommand extends CommandBase {
 
         m_usePID = false;
 
-        m_timer = new ElapsedTime();
     }
 
     @Override
@@ -126,7 +124,7 @@ public class RamseteCommand extends CommandBase {
                         0,
                         initialState.curvatureRadPerMeter
                                 * initialState.velocityMetersPerSecond));
-        m_timer.reset();
+        m_startTime = Clock.DEFAULT.seconds();
         if (m_usePID) {
             m_leftController.reset();
             m_rightController.reset();
@@ -135,7 +133,7 @@ public class RamseteCommand extends CommandBase {
 
     @Override
     public void execute() {
-        double curTime = m_timer.seconds();
+        double curTime = Clock.DEFAULT.seconds() - m_startTime;
         double dt = curTime - m_prevTime;
 
         DifferentialDriveWheelSpeeds targetWheelSpeeds = m_kinematics.toWheelSpeeds(
@@ -181,6 +179,6 @@ public class RamseteCommand extends CommandBase {
 
     @Override
     public boolean isFinished() {
-        return m_timer.seconds() > m_trajectory.getTotalTimeSeconds();
+        return Clock.DEFAULT.seconds() - m_startTime > m_trajectory.getTotalTimeSeconds();
     }
 }
\ No newline at end of file
@@ -0,0 +1,100 @@
+package com.arcrobotics.ftclib.command;
+
+import com.arcrobotics.ftclib.controller.RelayTuner;
+import com.arcrobotics.ftclib.hardware.motors.Motor;
+
+/**
+ * A command that runs a {@link RelayTuner} experiment, updating it every time the scheduler
+ * runs.  It ends when the experiment does, and stops the experiment if interrupted.
+ */
+public class RelayTuneCommand extends CommandBase {
+
+    private final RelayTuner m_tuner;
+    private final Motor m_motor;
+
+    /**
+     * Creates a new RelayTuneCommand that runs the given experiment.
+     *
+     * @param tuner        the experiment
+     * @param requirements the subsystems required by this command
+     */
+    public RelayTuneCommand(RelayTuner tuner, Subsystem... requirements) {
+        this(tuner, null, requirements);
+    }
+
+    /**
+     * Creates a new RelayTuneCommand that tunes the velocity loop of a motor.  The motor is put
+     * in {@link Motor.RunMode#RawPower} and its velocity oscillated around a fraction of its
+     * maximum speed; the gains found are in the units of
+     * {@link Motor#setVeloCoefficients(double, double, double)}, and can be given to the
+     * motor with {@link #applyGains(RelayTuner.Rule)}.
+     *
+     * @param motor        the motor to tune
+     * @param speed        the speed to tune at, as a fraction of the maximum speed
+     * @param amplitude    how far the power is switched above and below the power that holds
+     *                     the speed
+     * @param requirements the subsystems required by this command
+     */
+    public RelayTuneCommand(Motor motor, double speed, double amplitude, Subsystem... requirements) {
+        this(new RelayTuner(motor::getCorrectedVelocity,
+                        output -> motor.set(output / motor.ACHIEVABLE_MAX_TICKS_PER_SECOND),
+                        speed * motor.ACHIEVABLE_MAX_TICKS_PER_SECOND,
+                        amplitude * motor.ACHIEVABLE_MAX_TICKS_PER_SECOND)
+                        .setBias(speed * motor.ACHIEVABLE_MAX_TICKS_PER_SECOND)
+                        .setOutputLimits(-motor.ACHIEVABLE_MAX_TICKS_PER_SECOND,
+                                motor.ACHIEVABLE_MAX_TICKS_PER_SECOND),
+                motor, requirements);
+    }
+
+    private RelayTuneCommand(RelayTuner tuner, Motor motor, Subsystem... requirements) {
+        m_tuner = tuner;
+        m_motor = motor;
+        addRequirements(requirements);
+    }
+
+    @Override
+    public void initialize() {
+        if (m_motor != null) {
+            m_motor.setRunMode(Motor.RunMode.RawPower);
+        }
+        m_tuner.start();
+    }
+
+    @Override
+    public void execute() {
+        m_tuner.update();
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        m_tuner.stop();
+    }
+
+    @Override
+    public boolean isFinished() {
+        return m_tuner.isFinished();
+    }
+
+    /**
+     * @return the experiment
+     */
+    public RelayTuner getTuner() {
+        return m_tuner;
+    }
+
+    /**
+     * Gives the motor the velocity gains suggested by a rule, and the feedforward that held
+     * the speed.  Only for commands that tune a motor, once the experiment is done.
+     *
+     * @param rule the tuning rule
+     */
+    public void applyGains(RelayTuner.Rule rule) {
+        if (m_motor == null || m_tuner.getResult() == null) {
+            throw new IllegalStateException("There are no motor gains to apply");
+        }
+        double[] gains = m_tuner.getResult().getGains(rule);
+        m_motor.setVeloCoefficients(gains[0], gains[1], gains[2]);
+        m_motor.setFeedforwardCoefficients(0, gains[3]);
+    }
+
+}
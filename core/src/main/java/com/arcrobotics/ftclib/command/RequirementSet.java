@@ -0,0 +1,75 @@
+package com.arcrobotics.ftclib.command;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * The requirements of a {@link CommandBase}.  Subclasses change {@link CommandBase#m_requirements}
+ * directly, so the set counts its own modifications, which tells the {@link CommandScheduler}
+ * when the requirement mask it cached for the command is stale.
+ */
+class RequirementSet extends HashSet<Subsystem> {
+
+    private int m_modCount;
+
+    /**
+     * Returns how many times a requirement set has been modified, or -1 if it is not a
+     * RequirementSet and so cannot tell, as when a subclass replaced
+     * {@link CommandBase#m_requirements}.
+     *
+     * @param requirements the requirements of a command
+     * @return the modification count of the requirements
+     */
+    static int modCount(Set<Subsystem> requirements) {
+        return requirements instanceof RequirementSet ? ((RequirementSet) requirements).m_modCount
+                : -1;
+    }
+
+    @Override
+    public boolean add(Subsystem subsystem) {
+        if (super.add(subsystem)) {
+            m_modCount++;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (super.remove(o)) {
+            m_modCount++;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        m_modCount++;
+    }
+
+    @Override
+    public Iterator<Subsystem> iterator() {
+        final Iterator<Subsystem> iterator = super.iterator();
+        return new Iterator<Subsystem>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Subsystem next() {
+                return iterator.next();
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+                m_modCount++;
+            }
+        };
+    }
+
+}
@@ -0,0 +1,315 @@
+package com.arcrobotics.ftclib.command;
+
+import com.arcrobotics.ftclib.util.TimingHistogram;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long each part of {@link CommandScheduler#run()} takes.  Install one with
+ * {@link CommandScheduler#setProfiler(SchedulerProfiler)}; the scheduler then times every phase
+ * of its loop, every registered subsystem's {@link Subsystem#periodic()}, and every scheduled
+ * command's {@link Command#execute()} and {@link Command#isFinished()} into
+ * {@link TimingHistogram}s.  Recording never allocates once a subsystem or command has been seen.
+ *
+ * <p>Use {@link #snapshot()} to get a copy of the results that can be sent to telemetry or
+ * written to a file.
+ */
+public class SchedulerProfiler {
+
+    /**
+     * The phases of a single iteration of the scheduler.
+     */
+    public enum Phase {
+        /**
+         * The whole call to {@link CommandScheduler#run()}.
+         */
+        LOOP,
+        /**
+         * Calling {@link Subsystem#periodic()} on every registered subsystem.
+         */
+        SUBSYSTEM_PERIODIC,
+        /**
+         * Polling every button binding.
+         */
+        BUTTONS,
+        /**
+         * Executing the scheduled commands and checking whether they are finished.
+         */
+        COMMANDS,
+        /**
+         * Scheduling deferred and default commands.
+         */
+        SCHEDULING
+    }
+
+    /**
+     * What a {@link Entry} of a snapshot describes.
+     */
+    public enum Category {
+        PHASE, SUBSYSTEM, COMMAND_EXECUTE, COMMAND_IS_FINISHED
+    }
+
+    /**
+     * An immutable copy of the timings of one phase, subsystem, or command.  All durations are in
+     * nanoseconds.
+     */
+    public static final class Entry {
+
+        private final Category category;
+        private final String name;
+        private final long count, min, p99, max, last, overruns;
+        private final double mean;
+
+        Entry(Category category, String name, TimingHistogram histogram) {
+            this.category = category;
+            this.name = name;
+            count = histogram.getCount();
+            min = histogram.getMin();
+            mean = histogram.getMean();
+            p99 = histogram.getPercentile(99);
+            max = histogram.getMax();
+            last = histogram.getLast();
+            overruns = histogram.getOverruns();
+        }
+
+        public Category getCategory() {
+            return category;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getMin() {
+            return min;
+        }
+
+        public double getMean() {
+            return mean;
+        }
+
+        public long getP99() {
+            return p99;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        public long getLast() {
+            return last;
+        }
+
+        public long getOverruns() {
+            return overruns;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s %s: n=%d min=%.3fms mean=%.3fms p99=%.3fms max=%.3fms "
+                            + "last=%.3fms overruns=%d", category, name, count, min / 1E6,
+                    mean / 1E6, p99 / 1E6, max / 1E6, last / 1E6, overruns);
+        }
+    }
+
+    private static final class CommandTimings {
+        final TimingHistogram execute, isFinished;
+
+        CommandTimings(long budget) {
+            execute = new TimingHistogram(budget, TimeUnit.NANOSECONDS);
+            isFinished = new TimingHistogram(budget, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private final TimingHistogram[] m_phases = new TimingHistogram[Phase.values().length];
+
+    // Subsystem timings, by the scheduler's subsystem index.
+    private TimingHistogram[] m_subsystemTimings = new TimingHistogram[16];
+    private Subsystem[] m_subsystems = new Subsystem[16];
+
+    private final Map<Command, CommandTimings> m_commandTimings = new IdentityHashMap<>();
+    private final CommandTimings m_untrackedCommands;
+    private final int m_maxTrackedCommands;
+
+    private long m_loopBudget, m_itemBudget;
+
+    /**
+     * Creates a profiler with a 20 millisecond loop budget, a 5 millisecond budget for each
+     * subsystem or command, and room to track 128 distinct commands.
+     */
+    public SchedulerProfiler() {
+        this(20, 5, TimeUnit.MILLISECONDS, 128);
+    }
+
+    /**
+     * Creates a profiler.
+     *
+     * @param loopBudget         the longest acceptable iteration of the scheduler
+     * @param itemBudget         the longest acceptable time for a single subsystem or command call
+     * @param unit               the unit of the budgets
+     * @param maxTrackedCommands the number of distinct commands that get their own timings.
+     *                           Commands beyond this are pooled under a single entry, so that
+     *                           creating new commands in a loop cannot grow the profiler forever.
+     */
+    public SchedulerProfiler(long loopBudget, long itemBudget, TimeUnit unit,
+                             int maxTrackedCommands) {
+        m_loopBudget = unit.toNanos(loopBudget);
+        m_itemBudget = unit.toNanos(itemBudget);
+        m_maxTrackedCommands = maxTrackedCommands;
+        for (Phase phase : Phase.values()) {
+            m_phases[phase.ordinal()] = new TimingHistogram(m_loopBudget, TimeUnit.NANOSECONDS);
+        }
+        m_untrackedCommands = new CommandTimings(m_itemBudget);
+    }
+
+    void recordPhase(Phase phase, long nanos) {
+        m_phases[phase.ordinal()].record(nanos);
+    }
+
+    void recordSubsystem(int index, Subsystem subsystem, long nanos) {
+        if (index >= m_subsystemTimings.length) {
+            int length = Math.max(index + 1, m_subsystemTimings.length * 2);
+            m_subsystemTimings = Arrays.copyOf(m_subsystemTimings, length);
+            m_subsystems = Arrays.copyOf(m_subsystems, length);
+        }
+        if (m_subsystemTimings[index] == null) {
+            m_subsystemTimings[index] = new TimingHistogram(m_itemBudget, TimeUnit.NANOSECONDS);
+            m_subsystems[index] = subsystem;
+        }
+        m_subsystemTimings[index].record(nanos);
+    }
+
+    void recordExecute(Command command, long nanos) {
+        timingsOf(command).execute.record(nanos);
+    }
+
+    void recordIsFinished(Command command, long nanos) {
+        timingsOf(command).isFinished.record(nanos);
+    }
+
+    private CommandTimings timingsOf(Command command) {
+        CommandTimings timings = m_commandTimings.get(command);
+        if (timings == null) {
+            if (m_commandTimings.size() >= m_maxTrackedCommands) {
+                return m_untrackedCommands;
+            }
+            timings = new CommandTimings(m_itemBudget);
+            m_commandTimings.put(command, timings);
+        }
+        return timings;
+    }
+
+    /**
+     * Returns the histogram of a phase of the scheduler loop.  The histogram is live; it keeps
+     * changing while the scheduler runs.
+     *
+     * @param phase the phase
+     * @return the histogram of the phase
+     */
+    public TimingHistogram getPhase(Phase phase) {
+        return m_phases[phase.ordinal()];
+    }
+
+    /**
+     * Sets the overrun budgets.  Applies to everything already being tracked as well as anything
+     * tracked later.
+     *
+     * @param loopBudget the longest acceptable iteration of the scheduler
+     * @param itemBudget the longest acceptable time for a single subsystem or command call
+     * @param unit       the unit of the budgets
+     */
+    public void setBudgets(long loopBudget, long itemBudget, TimeUnit unit) {
+        m_loopBudget = unit.toNanos(loopBudget);
+        m_itemBudget = unit.toNanos(itemBudget);
+        for (TimingHistogram histogram : m_phases) {
+            histogram.setOverrunThreshold(m_loopBudget, TimeUnit.NANOSECONDS);
+        }
+        for (TimingHistogram histogram : m_subsystemTimings) {
+            if (histogram != null) {
+                histogram.setOverrunThreshold(m_itemBudget, TimeUnit.NANOSECONDS);
+            }
+        }
+        m_untrackedCommands.execute.setOverrunThreshold(m_itemBudget, TimeUnit.NANOSECONDS);
+        m_untrackedCommands.isFinished.setOverrunThreshold(m_itemBudget, TimeUnit.NANOSECONDS);
+        for (CommandTimings timings : m_commandTimings.values()) {
+            timings.execute.setOverrunThreshold(m_itemBudget, TimeUnit.NANOSECONDS);
+            timings.isFinished.setOverrunThreshold(m_itemBudget, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Clears every recorded timing.  Subsystems and commands that have been seen keep their
+     * entries.
+     */
+    public void reset() {
+        for (TimingHistogram histogram : m_phases) {
+            histogram.reset();
+        }
+        for (TimingHistogram histogram : m_subsystemTimings) {
+            if (histogram != null) {
+                histogram.reset();
+            }
+        }
+        m_untrackedCommands.execute.reset();
+        m_untrackedCommands.isFinished.reset();
+        for (CommandTimings timings : m_commandTimings.values()) {
+            timings.execute.reset();
+            timings.isFinished.reset();
+        }
+    }
+
+    /**
+     * Copies the current timings.  Phases come first, followed by subsystems and commands
+     * ordered from the longest maximum duration to the shortest, so the first few entries after
+     * the phases are the likeliest culprits for a slow loop.
+     *
+     * @return an unmodifiable list of the current timings
+     */
+    public List<Entry> snapshot() {
+        List<Entry> entries = new ArrayList<>();
+        for (Phase phase : Phase.values()) {
+            entries.add(new Entry(Category.PHASE, phase.name(), m_phases[phase.ordinal()]));
+        }
+
+        List<Entry> items = new ArrayList<>();
+        for (int i = 0; i < m_subsystemTimings.length; i++) {
+            if (m_subsystemTimings[i] != null) {
+                items.add(new Entry(Category.SUBSYSTEM, nameOf(m_subsystems[i]),
+                        m_subsystemTimings[i]));
+            }
+        }
+        for (Map.Entry<Command, CommandTimings> command : m_commandTimings.entrySet()) {
+            String name = command.getKey().getName();
+            items.add(new Entry(Category.COMMAND_EXECUTE, name, command.getValue().execute));
+            items.add(new Entry(Category.COMMAND_IS_FINISHED, name,
+                    command.getValue().isFinished));
+        }
+        if (m_untrackedCommands.execute.getCount() > 0) {
+            items.add(new Entry(Category.COMMAND_EXECUTE, "(untracked)",
+                    m_untrackedCommands.execute));
+            items.add(new Entry(Category.COMMAND_IS_FINISHED, "(untracked)",
+                    m_untrackedCommands.isFinished));
+        }
+        Collections.sort(items, (a, b) -> Long.compare(b.getMax(), a.getMax()));
+
+        entries.addAll(items);
+        return Collections.unmodifiableList(entries);
+    }
+
+    static String nameOf(Subsystem subsystem) {
+        return subsystem instanceof SubsystemBase
+                ? ((SubsystemBase) subsystem).getName()
+                : subsystem.getClass().getSimpleName();
+    }
+
+}
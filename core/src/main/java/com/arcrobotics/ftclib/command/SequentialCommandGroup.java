@@ -8,6 +8,7 @@
 package com.arcrobotics.ftclib.command;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -81,7 +82,8 @@ public class SequentialCommandGroup extends CommandGroupBase {
 
     @Override
     public void end(boolean interrupted) {
-        if (interrupted && !m_commands.isEmpty()) {
+        if (interrupted && !m_commands.isEmpty() && m_currentCommandIndex > -1
+                && m_currentCommandIndex < m_commands.size()) {
             m_commands.get(m_currentCommandIndex).end(true);
         }
         m_currentCommandIndex = -1;
@@ -92,6 +94,13 @@ public class SequentialCommandGroup extends CommandGroupBase {
         return m_currentCommandIndex == m_commands.size();
     }
 
+    /**
+     * @return the commands in this group, in the order they were added
+     */
+    Collection<Command> getCommands() {
+        return m_commands;
+    }
+
     @Override
     public boolean runsWhenDisabled() {
         return m_runWhenDisabled;
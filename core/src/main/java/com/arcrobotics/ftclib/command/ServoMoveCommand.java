@@ -0,0 +1,70 @@
+package com.arcrobotics.ftclib.command;
+
+import com.arcrobotics.ftclib.hardware.ServoEx;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+
+/**
+ * A command that moves a servo to a position along a motion profile, within the motion
+ * constraints of the servo, advancing the move every time the scheduler runs.  It ends when the
+ * move is complete.  If interrupted, the servo holds its estimated position.
+ */
+public class ServoMoveCommand extends CommandBase {
+
+    private final ServoEx m_servo;
+    private final double m_target;
+    private final AngleUnit m_angleUnit;
+
+    /**
+     * Creates a new ServoMoveCommand.
+     *
+     * @param servo        the servo to move
+     * @param position     the position to move to, from 0 to 1
+     * @param requirements the subsystems required by this command
+     */
+    public ServoMoveCommand(ServoEx servo, double position, Subsystem... requirements) {
+        this(servo, position, null, requirements);
+    }
+
+    /**
+     * Creates a new ServoMoveCommand that moves to an angle.
+     *
+     * @param servo        the servo to move
+     * @param angle        the angle to move to
+     * @param angleUnit    the unit of the angle
+     * @param requirements the subsystems required by this command
+     */
+    public ServoMoveCommand(ServoEx servo, double angle, AngleUnit angleUnit, Subsystem... requirements) {
+        m_servo = servo;
+        m_target = angle;
+        m_angleUnit = angleUnit;
+        addRequirements(requirements);
+    }
+
+    @Override
+    public void initialize() {
+        if (m_angleUnit == null) {
+            m_servo.moveToPosition(m_target);
+        } else {
+            m_servo.moveToAngle(m_target, m_angleUnit);
+        }
+    }
+
+    @Override
+    public void execute() {
+        m_servo.update();
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        if (interrupted) {
+            m_servo.setPosition(m_servo.getEstimatedPosition());
+        }
+    }
+
+    @Override
+    public boolean isFinished() {
+        return !m_servo.isBusy();
+    }
+
+}
@@ -7,6 +7,8 @@
 
 package com.arcrobotics.ftclib.command;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * A robot subsystem.  Subsystems are the basic unit of robot organization in the Command-based
  * framework; they encapsulate low-level hardware objects (motor controllers, sensors, etc) and
@@ -36,6 +38,32 @@ public interface Subsystem {
     default void periodic() {
     }
 
+    /**
+     * Whether this subsystem's {@link Subsystem#periodic()} may be skipped while the
+     * {@link CommandScheduler} is shedding load, for example after a fixed-rate
+     * {@link CommandOpMode} loop overran its period.  Override to return true for subsystems
+     * whose periodic work can safely wait a loop, such as telemetry or slow sensor refreshes.
+     *
+     * @return whether this subsystem is low priority
+     */
+    default boolean isLowPriority() {
+        return false;
+    }
+
+    /**
+     * Whether this subsystem's {@link Subsystem#periodic()} may run on a worker thread, at the
+     * same time as the periodic methods of other subsystems, once the {@link CommandScheduler}
+     * has parallel periodic execution enabled.  Only return true if the periodic method touches
+     * nothing shared with other subsystems or commands without synchronization; blocking sensor
+     * reads that only update this subsystem's own fields are the typical case.
+     *
+     * @return whether this subsystem's periodic method can run in parallel
+     * @see CommandScheduler#enableParallelPeriodic(int, long, TimeUnit)
+     */
+    default boolean isParallelSafe() {
+        return false;
+    }
+
     /**
      * Sets the default {@link Command} of the subsystem.  The default command will be
      * automatically scheduled when no other commands are scheduled that require the subsystem.
@@ -9,30 +9,33 @@
 
 package com.arcrobotics.ftclib.command;
 
+import com.arcrobotics.ftclib.trajectory.MotionProfile;
 import com.arcrobotics.ftclib.trajectory.TrapezoidProfile;
+import com.arcrobotics.ftclib.util.Clock;
 import com.arcrobotics.ftclib.util.Timing;
-import com.qualcomm.robotcore.util.ElapsedTime;
 
 
 import java.util.function.Consumer;
 
 /**
- * A command that runs a {@link TrapezoidProfile}. Useful for smoothly controlling mechanism motion.
+ * A command that runs a {@link TrapezoidProfile}, or any other {@link MotionProfile} such as an
+ * {@link com.arcrobotics.ftclib.trajectory.SCurveProfile}. Useful for smoothly controlling
+ * mechanism motion.
  *
  * @author Ryan
  */
 
 public class TrapezoidProfileCommand extends CommandBase {
 
-    private final TrapezoidProfile m_profile;
+    private final MotionProfile m_profile;
     private final Consumer<TrapezoidProfile.State> m_output;
 
 
-    private final ElapsedTime m_timer = new ElapsedTime();
+    private double m_startTime;
 
 
     /**
-     * Creates a new TrapezoidProfileCommand that will execute the given {@link TrapezoidProfile}.
+     * Creates a new TrapezoidProfileCommand that will execute the given {@link MotionProfile}.
      * Output will be piped to the provided consumer function.
      *
      * @param profile The motion profile to execute.
@@ -40,7 +43,7 @@ public class TrapezoidProfileCommand extends CommandBase {
      * @param requirements The subsystems required by this command.
      */
     public TrapezoidProfileCommand(
-            TrapezoidProfile profile, Consumer<TrapezoidProfile.State> output, Subsystem... requirements){
+            MotionProfile profile, Consumer<TrapezoidProfile.State> output, Subsystem... requirements){
         m_profile = profile;
         m_output = output;
         addRequirements(requirements);
@@ -49,16 +52,16 @@ public class TrapezoidProfileCommand extends CommandBase {
 
     @Override
     public void initialize(){
-        m_timer.reset();
+        m_startTime = Clock.DEFAULT.seconds();
     }
 
     @Override
     public void execute() {
-        m_output.accept(m_profile.calculate(m_timer.seconds()));
+        m_output.accept(m_profile.calculate(Clock.DEFAULT.seconds() - m_startTime));
     }
 
     @Override
     public boolean isFinished() {
-        return m_timer.seconds() >= m_profile.totalTime();
+        return Clock.DEFAULT.seconds() - m_startTime >= m_profile.totalTime();
     }
 }
@@ -11,6 +11,8 @@ import com.arcrobotics.ftclib.command.Command;
 import com.arcrobotics.ftclib.command.CommandScheduler;
 import com.arcrobotics.ftclib.command.InstantCommand;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.BooleanSupplier;
 
 /**
@@ -24,6 +26,12 @@ import java.util.function.BooleanSupplier;
  * reading a certain sensor input). For this, they only have to write the {@link Trigger#get()}
  * method to get the full functionality of the Trigger class.
  *
+ * <p>All the bindings of a trigger share a single poller, which samples the trigger once per
+ * scheduler loop and fires each binding from the rising or falling edge it detected.  Triggers
+ * composed with {@link #and(Trigger)}, {@link #or(Trigger)} and {@link #negate()} read their
+ * operands through {@link #sample()}, so a condition shared by many composites is still only
+ * evaluated once per loop.
+ *
  * @author Jackson
  */
 @SuppressWarnings("PMD.TooManyMethods")
@@ -31,6 +39,46 @@ public class Trigger {
 
     private final BooleanSupplier m_isActive;
 
+    // The scheduler and loop in which the cached value was sampled.
+    private CommandScheduler m_sampledBy;
+    private long m_sampledLoop;
+    private boolean m_sampledValue;
+
+    private Poller m_poller;
+
+    /**
+     * Polls a trigger once per loop and runs its bindings.  Each binding is split into the actions
+     * it takes on a rising edge, on a falling edge, and on every loop the trigger is active.
+     */
+    private final class Poller implements Runnable {
+        private final List<Runnable> m_onRising = new ArrayList<>();
+        private final List<Runnable> m_onFalling = new ArrayList<>();
+        private final List<Runnable> m_whileActive = new ArrayList<>();
+        private boolean m_activeLast;
+
+        @Override
+        public void run() {
+            boolean active = sample();
+
+            if (active && !m_activeLast) {
+                for (int i = 0; i < m_onRising.size(); i++) {
+                    m_onRising.get(i).run();
+                }
+            } else if (!active && m_activeLast) {
+                for (int i = 0; i < m_onFalling.size(); i++) {
+                    m_onFalling.get(i).run();
+                }
+            }
+            if (active) {
+                for (int i = 0; i < m_whileActive.size(); i++) {
+                    m_whileActive.get(i).run();
+                }
+            }
+
+            m_activeLast = active;
+        }
+    }
+
     /**
      * Creates a new trigger with the given condition determining whether it is active.
      *
@@ -59,6 +107,54 @@ public class Trigger {
         return m_isActive.getAsBoolean();
     }
 
+    /**
+     * Returns whether or not the trigger was active in the current loop of the
+     * {@link CommandScheduler}.  The condition is evaluated the first time this is called in a
+     * loop, and the same value is returned for the rest of that loop.
+     *
+     * @return whether or not the trigger condition is active in the current loop.
+     */
+    public final boolean sample() {
+        CommandScheduler scheduler = CommandScheduler.getInstance();
+        long loop = scheduler.getLoopCount();
+        if (m_sampledBy != scheduler || m_sampledLoop != loop) {
+            m_sampledValue = evaluate();
+            m_sampledBy = scheduler;
+            m_sampledLoop = loop;
+        }
+        return m_sampledValue;
+    }
+
+    /**
+     * Evaluates the condition for {@link #sample()}.  Composite triggers override this to sample
+     * their operands instead of evaluating them again.
+     *
+     * @return whether or not the trigger condition is active
+     */
+    boolean evaluate() {
+        return get();
+    }
+
+    /**
+     * Returns the poller of this trigger, binding it to the scheduler if it is not bound yet.  A
+     * poller that was dropped by {@link CommandScheduler#clearButtons()} starts over without any
+     * of its old bindings.
+     *
+     * @return the poller of this trigger
+     */
+    private Poller poller() {
+        if (m_poller == null) {
+            m_poller = new Poller();
+        }
+        if (CommandScheduler.getInstance().addButton(m_poller)) {
+            m_poller.m_onRising.clear();
+            m_poller.m_onFalling.clear();
+            m_poller.m_whileActive.clear();
+            m_poller.m_activeLast = get();
+        }
+        return m_poller;
+    }
+
     /**
      * Starts the given command whenever the trigger just becomes active.
      *
@@ -67,21 +163,7 @@ public class Trigger {
      * @return this trigger, so calls can be chained
      */
     public Trigger whenActive(final Command command, boolean interruptible) {
-        CommandScheduler.getInstance().addButton(new Runnable() {
-            private boolean m_pressedLast = get();
-
-            @Override
-            public void run() {
-                boolean pressed = get();
-
-                if (!m_pressedLast && pressed) {
-                    command.schedule(interruptible);
-                }
-
-                m_pressedLast = pressed;
-            }
-        });
-
+        poller().m_onRising.add(() -> command.schedule(interruptible));
         return this;
     }
 
@@ -117,23 +199,9 @@ public class Trigger {
      * @return this trigger, so calls can be chained
      */
     public Trigger whileActiveContinuous(final Command command, boolean interruptible) {
-        CommandScheduler.getInstance().addButton(new Runnable() {
-            private boolean m_pressedLast = get();
-
-            @Override
-            public void run() {
-                boolean pressed = get();
-
-                if (pressed) {
-                    command.schedule(interruptible);
-                } else if (m_pressedLast) {
-                    command.cancel();
-                }
-
-                m_pressedLast = pressed;
-            }
-        });
-
+        Poller poller = poller();
+        poller.m_whileActive.add(() -> command.schedule(interruptible));
+        poller.m_onFalling.add(command::cancel);
         return this;
     }
 
@@ -169,22 +237,9 @@ public class Trigger {
      * @return this trigger, so calls can be chained
      */
     public Trigger whileActiveOnce(final Command command, boolean interruptible) {
-        CommandScheduler.getInstance().addButton(new Runnable() {
-            private boolean m_pressedLast = get();
-
-            @Override
-            public void run() {
-                boolean pressed = get();
-
-                if (!m_pressedLast && pressed) {
-                    command.schedule(interruptible);
-                } else if (m_pressedLast && !pressed) {
-                    command.cancel();
-                }
-
-                m_pressedLast = pressed;
-            }
-        });
+        Poller poller = poller();
+        poller.m_onRising.add(() -> command.schedule(interruptible));
+        poller.m_onFalling.add(command::cancel);
         return this;
     }
 
@@ -207,20 +262,7 @@ public class Trigger {
      * @return this trigger, so calls can be chained
      */
     public Trigger whenInactive(final Command command, boolean interruptible) {
-        CommandScheduler.getInstance().addButton(new Runnable() {
-            private boolean m_pressedLast = get();
-
-            @Override
-            public void run() {
-                boolean pressed = get();
-
-                if (m_pressedLast && !pressed) {
-                    command.schedule(interruptible);
-                }
-
-                m_pressedLast = pressed;
-            }
-        });
+        poller().m_onFalling.add(() -> command.schedule(interruptible));
         return this;
     }
 
@@ -252,22 +294,11 @@ public class Trigger {
      * @return this trigger, so calls can be chained
      */
     public Trigger toggleWhenActive(final Command command, boolean interruptible) {
-        CommandScheduler.getInstance().addButton(new Runnable() {
-            private boolean m_pressedLast = get();
-
-            @Override
-            public void run() {
-                boolean pressed = get();
-
-                if (!m_pressedLast && pressed) {
-                    if (command.isScheduled()) {
-                        command.cancel();
-                    } else {
-                        command.schedule(interruptible);
-                    }
-                }
-
-                m_pressedLast = pressed;
+        poller().m_onRising.add(() -> {
+            if (command.isScheduled()) {
+                command.cancel();
+            } else {
+                command.schedule(interruptible);
             }
         });
         return this;
@@ -293,31 +324,24 @@ public class Trigger {
      * @return this trigger, so calls can be chained
      */
     public Trigger toggleWhenActive(final Command commandOne, final Command commandTwo, boolean interruptible) {
-        CommandScheduler.getInstance().addButton(new Runnable() {
-            private boolean m_pressedLast = get();
+        poller().m_onRising.add(new Runnable() {
             private boolean m_firstCommandActive = false;
 
             @Override
             public void run() {
-                boolean pressed = get();
-
-                if (!m_pressedLast && pressed) {
-                    if (m_firstCommandActive) {
-                        if (commandOne.isScheduled()) {
-                            commandOne.cancel();
-                        }
-                        commandTwo.schedule(interruptible);
-                    } else {
-                        if (commandTwo.isScheduled()) {
-                            commandTwo.cancel();
-                        }
-                        commandOne.schedule(interruptible);
+                if (m_firstCommandActive) {
+                    if (commandOne.isScheduled()) {
+                        commandOne.cancel();
                     }
-
-                    m_firstCommandActive = !m_firstCommandActive;
+                    commandTwo.schedule(interruptible);
+                } else {
+                    if (commandTwo.isScheduled()) {
+                        commandTwo.cancel();
+                    }
+                    commandOne.schedule(interruptible);
                 }
 
-                m_pressedLast = pressed;
+                m_firstCommandActive = !m_firstCommandActive;
             }
         });
         return this;
@@ -354,20 +378,7 @@ public class Trigger {
      * @return this trigger, so calls can be chained
      */
     public Trigger cancelWhenActive(final Command command) {
-        CommandScheduler.getInstance().addButton(new Runnable() {
-            private boolean m_pressedLast = get();
-
-            @Override
-            public void run() {
-                boolean pressed = get();
-
-                if (!m_pressedLast && pressed) {
-                    command.cancel();
-                }
-
-                m_pressedLast = pressed;
-            }
-        });
+        poller().m_onRising.add(command::cancel);
         return this;
     }
 
@@ -379,7 +390,17 @@ public class Trigger {
      * @return the trigger that is active when both triggers are active
      */
     public Trigger and(Trigger trigger) {
-        return new Trigger(() -> get() && trigger.get());
+        return new Trigger() {
+            @Override
+            public boolean get() {
+                return Trigger.this.get() && trigger.get();
+            }
+
+            @Override
+            boolean evaluate() {
+                return Trigger.this.sample() && trigger.sample();
+            }
+        };
     }
 
     /**
@@ -390,7 +411,17 @@ public class Trigger {
      * @return the trigger that is active when either trigger is active
      */
     public Trigger or(Trigger trigger) {
-        return new Trigger(() -> get() || trigger.get());
+        return new Trigger() {
+            @Override
+            public boolean get() {
+                return Trigger.this.get() || trigger.get();
+            }
+
+            @Override
+            boolean evaluate() {
+                return Trigger.this.sample() || trigger.sample();
+            }
+        };
     }
 
     /**
@@ -400,7 +431,17 @@ public class Trigger {
      * @return the negated trigger
      */
     public Trigger negate() {
-        return new Trigger(() -> !get());
+        return new Trigger() {
+            @Override
+            public boolean get() {
+                return !Trigger.this.get();
+            }
+
+            @Override
+            boolean evaluate() {
+                return !Trigger.this.sample();
+            }
+        };
     }
 
 }
@@ -0,0 +1,215 @@
+package com.arcrobotics.ftclib.controller;
+
+import com.arcrobotics.ftclib.controller.wpilibcontroller.ArmFeedforward;
+import com.arcrobotics.ftclib.controller.wpilibcontroller.ElevatorFeedforward;
+import com.arcrobotics.ftclib.controller.wpilibcontroller.SimpleMotorFeedforward;
+
+import org.ejml.simple.SimpleMatrix;
+
+/**
+ * A feedforward fitted to a {@link FeedforwardLog} by ordinary least squares, along with how
+ * well it fits.  The models are
+ *
+ * <pre>
+ * simple motor: V = ks sgn(v) + kv v + ka a
+ * elevator:     V = ks sgn(v) + kg + kv v + ka a
+ * arm:          V = ks sgn(v) + kcos cos(x) + kv v + ka a
+ * </pre>
+ *
+ * <p>Samples slower than the velocity threshold are left out, as static friction makes them
+ * fit none of the models, as are the samples at the ends of each segment, which have no
+ * acceleration.  Fit a log holding both quasistatic and dynamic tests, so that the velocity
+ * and acceleration gains can be told apart.
+ *
+ * @param <T> the type of the feedforward
+ */
+public class FeedforwardFit<T> {
+
+    private final T feedforward;
+    private final double[] gains;
+    private final double rSquared, rmse;
+    private final int samples;
+
+    private FeedforwardFit(T feedforward, double[] gains, double rSquared, double rmse, int samples) {
+        this.feedforward = feedforward;
+        this.gains = gains;
+        this.rSquared = rSquared;
+        this.rmse = rmse;
+        this.samples = samples;
+    }
+
+    /**
+     * Fits a {@link SimpleMotorFeedforward}, for a flywheel or a drivetrain.
+     *
+     * @param log               the samples
+     * @param velocityThreshold the slowest sample to use
+     * @return the fit
+     */
+    public static FeedforwardFit<SimpleMotorFeedforward> simpleMotor(FeedforwardLog log, double velocityThreshold) {
+        Fit fit = new Fit(log, velocityThreshold, 3) {
+            @Override
+            void row(int i, double[] row) {
+                row[0] = Math.signum(log.getVelocity(i));
+                row[1] = log.getVelocity(i);
+                row[2] = log.getAcceleration(i);
+            }
+        };
+        double[] k = fit.gains;
+        return new FeedforwardFit<>(new SimpleMotorFeedforward(k[0], k[1], k[2]), k,
+                fit.rSquared, fit.rmse, fit.samples);
+    }
+
+    /**
+     * Fits an {@link ElevatorFeedforward}.
+     *
+     * @param log               the samples
+     * @param velocityThreshold the slowest sample to use
+     * @return the fit
+     */
+    public static FeedforwardFit<ElevatorFeedforward> elevator(FeedforwardLog log, double velocityThreshold) {
+        Fit fit = new Fit(log, velocityThreshold, 4) {
+            @Override
+            void row(int i, double[] row) {
+                row[0] = Math.signum(log.getVelocity(i));
+                row[1] = 1;
+                row[2] = log.getVelocity(i);
+                row[3] = log.getAcceleration(i);
+            }
+        };
+        double[] k = fit.gains;
+        return new FeedforwardFit<>(new ElevatorFeedforward(k[0], k[1], k[2], k[3]), k,
+                fit.rSquared, fit.rmse, fit.samples);
+    }
+
+    /**
+     * Fits an {@link ArmFeedforward}.  The positions in the log must be in radians, with 0
+     * being horizontal.
+     *
+     * @param log               the samples
+     * @param velocityThreshold the slowest sample to use
+     * @return the fit
+     */
+    public static FeedforwardFit<ArmFeedforward> arm(FeedforwardLog log, double velocityThreshold) {
+        Fit fit = new Fit(log, velocityThreshold, 4) {
+            @Override
+            void row(int i, double[] row) {
+                row[0] = Math.signum(log.getVelocity(i));
+                row[1] = Math.cos(log.getPosition(i));
+                row[2] = log.getVelocity(i);
+                row[3] = log.getAcceleration(i);
+            }
+        };
+        double[] k = fit.gains;
+        return new FeedforwardFit<>(new ArmFeedforward(k[0], k[1], k[2], k[3]), k,
+                fit.rSquared, fit.rmse, fit.samples);
+    }
+
+    /**
+     * @return the fitted feedforward
+     */
+    public T getFeedforward() {
+        return feedforward;
+    }
+
+    /**
+     * @return the fitted gains, in the order of the model
+     */
+    public double[] getGains() {
+        return gains.clone();
+    }
+
+    /**
+     * @return the coefficient of determination, the fraction of the variance of the voltage
+     * the model explains; 1 is a perfect fit
+     */
+    public double getRSquared() {
+        return rSquared;
+    }
+
+    /**
+     * @return the root mean square difference between the fitted and the applied voltage
+     */
+    public double getRmse() {
+        return rmse;
+    }
+
+    /**
+     * @return the number of samples the fit used
+     */
+    public int getSampleCount() {
+        return samples;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("gains=[");
+        for (int i = 0; i < gains.length; i++) {
+            builder.append(i == 0 ? "" : ", ").append(String.format("%.5g", gains[i]));
+        }
+        return builder.append(String.format("] r2=%.4f rmse=%.4gV n=%d", rSquared, rmse, samples))
+                .toString();
+    }
+
+    private abstract static class Fit {
+
+        final FeedforwardLog log;
+        double[] gains;
+        double rSquared, rmse;
+        int samples;
+
+        Fit(FeedforwardLog log, double velocityThreshold, int terms) {
+            this.log = log;
+            int n = 0;
+            for (int i = 0; i < log.size(); i++) {
+                if (usable(i, velocityThreshold)) {
+                    n++;
+                }
+            }
+            if (n < terms) {
+                throw new IllegalArgumentException("Only " + n + " usable samples, but "
+                        + terms + " are needed");
+            }
+
+            SimpleMatrix x = new SimpleMatrix(n, terms);
+            SimpleMatrix y = new SimpleMatrix(n, 1);
+            double[] row = new double[terms];
+            int r = 0;
+            for (int i = 0; i < log.size(); i++) {
+                if (!usable(i, velocityThreshold)) {
+                    continue;
+                }
+                row(i, row);
+                for (int c = 0; c < terms; c++) {
+                    x.set(r, c, row[c]);
+                }
+                y.set(r, 0, log.getVoltage(i));
+                r++;
+            }
+
+            SimpleMatrix solution = x.solve(y);
+            SimpleMatrix residuals = y.minus(x.mult(solution));
+            double mean = y.elementSum() / n;
+            double total = 0;
+            for (int i = 0; i < n; i++) {
+                total += (y.get(i) - mean) * (y.get(i) - mean);
+            }
+            double residual = residuals.elementMult(residuals).elementSum();
+
+            gains = new double[terms];
+            for (int c = 0; c < terms; c++) {
+                gains[c] = solution.get(c);
+            }
+            rSquared = total == 0 ? 1 : 1 - residual / total;
+            rmse = Math.sqrt(residual / n);
+            samples = n;
+        }
+
+        private boolean usable(int i, double velocityThreshold) {
+            return Math.abs(log.getVelocity(i)) >= velocityThreshold
+                    && !Double.isNaN(log.getAcceleration(i));
+        }
+
+        abstract void row(int i, double[] row);
+    }
+
+}
@@ -0,0 +1,182 @@
+package com.arcrobotics.ftclib.controller;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Samples of the position, velocity and applied voltage of a mechanism, recorded for fitting
+ * a feedforward with {@link FeedforwardFit}.  The buffers are allocated up front, so recording
+ * a sample does not allocate.
+ *
+ * <p>Samples are grouped into segments, one per test, so that the acceleration is never taken
+ * across the jump from the end of one test to the start of the next.
+ */
+public class FeedforwardLog {
+
+    private final double[] time, position, velocity, voltage;
+    private final int[] segment;
+    private int size, currentSegment;
+
+    /**
+     * @param capacity the most samples the log can hold; a test at 50 Hz fills 500 in ten
+     *                 seconds
+     */
+    public FeedforwardLog(int capacity) {
+        time = new double[capacity];
+        position = new double[capacity];
+        velocity = new double[capacity];
+        voltage = new double[capacity];
+        segment = new int[capacity];
+    }
+
+    /**
+     * Starts a new segment, such as a new test.
+     */
+    public void newSegment() {
+        if (size > 0 && segment[size - 1] == currentSegment) {
+            currentSegment++;
+        }
+    }
+
+    /**
+     * Records a sample in the current segment.
+     *
+     * @param time     the time of the sample in seconds
+     * @param position the position, in radians from horizontal for an arm
+     * @param velocity the velocity
+     * @param voltage  the voltage applied to the motor
+     * @return false if the log is full and the sample was dropped
+     */
+    public boolean add(double time, double position, double velocity, double voltage) {
+        if (size == this.time.length) {
+            return false;
+        }
+        this.time[size] = time;
+        this.position[size] = position;
+        this.velocity[size] = velocity;
+        this.voltage[size] = voltage;
+        segment[size] = currentSegment;
+        size++;
+        return true;
+    }
+
+    /**
+     * @return the number of samples recorded
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the most samples the log can hold
+     */
+    public int capacity() {
+        return time.length;
+    }
+
+    /**
+     * @return true if no more samples can be recorded
+     */
+    public boolean isFull() {
+        return size == time.length;
+    }
+
+    /**
+     * Removes every sample.
+     */
+    public void clear() {
+        size = 0;
+        currentSegment = 0;
+    }
+
+    public double getTime(int i) {
+        return time[i];
+    }
+
+    public double getPosition(int i) {
+        return position[i];
+    }
+
+    public double getVelocity(int i) {
+        return velocity[i];
+    }
+
+    public double getVoltage(int i) {
+        return voltage[i];
+    }
+
+    public int getSegment(int i) {
+        return segment[i];
+    }
+
+    /**
+     * Estimates the acceleration at a sample from the velocities of its neighbours.
+     *
+     * @param i the index of the sample
+     * @return the acceleration, or NaN at the ends of a segment
+     */
+    public double getAcceleration(int i) {
+        if (i <= 0 || i >= size - 1 || segment[i - 1] != segment[i] || segment[i + 1] != segment[i]) {
+            return Double.NaN;
+        }
+        double dt = time[i + 1] - time[i - 1];
+        return dt > 0 ? (velocity[i + 1] - velocity[i - 1]) / dt : Double.NaN;
+    }
+
+    /**
+     * Writes the samples as CSV, with a header, for fitting offline.
+     *
+     * @param writer where to write the samples
+     * @throws IOException if the writer fails
+     */
+    public void write(Writer writer) throws IOException {
+        writer.write("segment,time,position,velocity,voltage\n");
+        for (int i = 0; i < size; i++) {
+            writer.write(segment[i] + "," + time[i] + "," + position[i] + "," + velocity[i]
+                    + "," + voltage[i] + "\n");
+        }
+        writer.flush();
+    }
+
+    /**
+     * Reads samples written by {@link #write(Writer)}.
+     *
+     * @param reader where to read the samples from
+     * @return a log holding exactly the samples read
+     * @throws IOException if the reader fails or the samples are malformed
+     */
+    public static FeedforwardLog read(Reader reader) throws IOException {
+        BufferedReader lines = new BufferedReader(reader);
+        List<double[]> rows = new ArrayList<>();
+        String line = lines.readLine();
+        while ((line = lines.readLine()) != null) {
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            String[] fields = line.split(",");
+            if (fields.length != 5) {
+                throw new IOException("Expected 5 fields but found " + fields.length + ": " + line);
+            }
+            double[] row = new double[5];
+            try {
+                for (int i = 0; i < 5; i++) {
+                    row[i] = Double.parseDouble(fields[i]);
+                }
+            } catch (NumberFormatException e) {
+                throw new IOException("Malformed sample: " + line, e);
+            }
+            rows.add(row);
+        }
+        FeedforwardLog log = new FeedforwardLog(rows.size());
+        for (double[] row : rows) {
+            log.currentSegment = (int) row[0];
+            log.add(row[1], row[2], row[3], row[4]);
+        }
+        return log;
+    }
+
+}
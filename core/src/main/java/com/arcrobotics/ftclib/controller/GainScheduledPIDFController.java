@@ -0,0 +1,137 @@
+package com.arcrobotics.ftclib.controller;
+
+import com.arcrobotics.ftclib.util.InterpLUT;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * A {@link PIDFController} whose gains change with the operating point of the mechanism, such as
+ * the angle or extension of an arm.  Each scheduled gain is read from an {@link InterpLUT} keyed
+ * on its own operating point, every time the output is calculated:
+ *
+ * <pre>
+ * InterpLUT kP = new InterpLUT();
+ * kP.add(0, 0.02);      // arm retracted
+ * kP.add(30, 0.035);    // arm extended
+ * kP.createLUT();
+ *
+ * GainScheduledPIDFController controller = new GainScheduledPIDFController(0.02, 0, 0.001, 0)
+ *         .schedule(GainScheduledPIDFController.Gain.P, kP, slide::getDistance);
+ * </pre>
+ *
+ * <p>Gains that are not scheduled keep the values they are given.  Outside the control points of
+ * a table, the gain of the nearest control point is used.  A gain that reads as NaN or infinite,
+ * as when a sensor reports a NaN operating point, keeps its previous value, so it cannot poison
+ * the accumulated error.  Reading the tables does not allocate.
+ *
+ * <p>When kI changes, the accumulated error is rescaled so that the integral term, and so the
+ * output, does not jump; this is known as bumpless transfer.  The integration bounds are rescaled
+ * with it, so they keep limiting the integral term to the same values, and a lower kI does not
+ * clamp the rescaled error.  Set the bounds again after kI changes to move those limits.  The
+ * integral term restarts from zero when kI changes from zero.
+ */
+public class GainScheduledPIDFController extends PIDFController {
+
+    /**
+     * The gains that can be scheduled.
+     */
+    public enum Gain {
+        P, I, D, F
+    }
+
+    private final InterpLUT[] tables = new InterpLUT[4];
+    private final DoubleSupplier[] operatingPoints = new DoubleSupplier[4];
+
+    /**
+     * @param kp the proportional gain, until it is scheduled
+     * @param ki the integral gain, until it is scheduled
+     * @param kd the derivative gain, until it is scheduled
+     * @param kf the feedforward gain, until it is scheduled
+     */
+    public GainScheduledPIDFController(double kp, double ki, double kd, double kf) {
+        super(kp, ki, kd, kf);
+    }
+
+    /**
+     * Schedules a gain, replacing any schedule it had.
+     *
+     * @param gain           the gain to schedule
+     * @param table          the gain at each operating point; {@link InterpLUT#createLUT()} must
+     *                       already have been called
+     * @param operatingPoint reads the operating point, such as the angle of an arm
+     * @return this controller for chaining purposes
+     */
+    public GainScheduledPIDFController schedule(Gain gain, InterpLUT table,
+                                                DoubleSupplier operatingPoint) {
+        tables[gain.ordinal()] = table;
+        operatingPoints[gain.ordinal()] = operatingPoint;
+        return this;
+    }
+
+    /**
+     * Stops scheduling a gain, which keeps its current value.
+     *
+     * @param gain the gain to stop scheduling
+     * @return this controller for chaining purposes
+     */
+    public GainScheduledPIDFController unschedule(Gain gain) {
+        tables[gain.ordinal()] = null;
+        operatingPoints[gain.ordinal()] = null;
+        return this;
+    }
+
+    /**
+     * @param gain the gain
+     * @return true if the gain is scheduled
+     */
+    public boolean isScheduled(Gain gain) {
+        return tables[gain.ordinal()] != null;
+    }
+
+    /**
+     * Reads the scheduled gains at the current operating points.  This is done by
+     * {@link #calculate(double)}, so it only needs to be called to see the gains beforehand.
+     */
+    public void updateGains() {
+        double kp = lookup(Gain.P, getP());
+        double ki = lookup(Gain.I, getI());
+        double kd = lookup(Gain.D, getD());
+        double kf = lookup(Gain.F, getF());
+
+        double oldKi = getI();
+        if (ki != oldKi) {
+            if (oldKi == 0 || ki == 0) {
+                setTotalError(0);
+            } else {
+                // Keep kI times the accumulated error, the integral term, where it was, and
+                // scale the bounds first so that they do not clamp the rescaled error
+                double scale = oldKi / ki;
+                setIntegrationBounds(getMinIntegral() * scale, getMaxIntegral() * scale);
+                setTotalError(getTotalError() * scale);
+            }
+        }
+        setPIDF(kp, ki, kd, kf);
+    }
+
+    private double lookup(Gain gain, double current) {
+        InterpLUT table = tables[gain.ordinal()];
+        if (table == null) {
+            return current;
+        }
+        double value = table.getClamped(operatingPoints[gain.ordinal()].getAsDouble());
+        return Double.isNaN(value) || Double.isInfinite(value) ? current : value;
+    }
+
+    /**
+     * Updates the scheduled gains and calculates the control value, u(t).
+     *
+     * @param pv The current measurement of the process variable.
+     * @return the value produced by u(t).
+     */
+    @Override
+    public double calculate(double pv) {
+        updateGains();
+        return super.calculate(pv);
+    }
+
+}
@@ -0,0 +1,270 @@
+package com.arcrobotics.ftclib.controller;
+
+import com.arcrobotics.ftclib.util.Clock;
+
+import java.util.Arrays;
+
+/**
+ * A bank of PIDF controllers that are all updated together, such as the modules of a swerve
+ * drive.  Each controller behaves exactly like a {@link PIDFController}, but the gains, errors
+ * and integrators of all of them are kept in arrays and updated in one pass with one reading of
+ * the clock, rather than one reading per controller.
+ *
+ * <pre>
+ * PIDFBank bank = new PIDFBank(4);
+ * for (int i = 0; i &lt; 4; i++) {
+ *     bank.setPIDF(i, 0.02, 0, 0.001, 0);
+ * }
+ * ...
+ * bank.calculate(measured, output);
+ * </pre>
+ *
+ * <p>Controllers are addressed by index.  Updating the bank does not allocate.
+ */
+public class PIDFBank {
+
+    private final int size;
+
+    private final double[] kP, kI, kD, kF;
+    private final double[] setPoint, measuredValue;
+    private final double[] minIntegral, maxIntegral;
+
+    private final double[] errorVal_p, errorVal_v;
+    private final double[] totalError, prevErrorVal;
+
+    private final double[] errorTolerance_p, errorTolerance_v;
+
+    private final double[] lastTimeStamp, period;
+
+    private Clock clock = Clock.DEFAULT;
+
+    /**
+     * Creates a bank of controllers with all gains at zero, the same defaults as a new
+     * {@link PIDFController}.
+     *
+     * @param size the number of controllers
+     */
+    public PIDFBank(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("The size cannot be negative");
+        }
+        this.size = size;
+        kP = new double[size];
+        kI = new double[size];
+        kD = new double[size];
+        kF = new double[size];
+        setPoint = new double[size];
+        measuredValue = new double[size];
+        minIntegral = new double[size];
+        maxIntegral = new double[size];
+        errorVal_p = new double[size];
+        errorVal_v = new double[size];
+        totalError = new double[size];
+        prevErrorVal = new double[size];
+        errorTolerance_p = new double[size];
+        errorTolerance_v = new double[size];
+        lastTimeStamp = new double[size];
+        period = new double[size];
+
+        Arrays.fill(minIntegral, -1.0);
+        Arrays.fill(maxIntegral, 1.0);
+        Arrays.fill(errorTolerance_p, 0.05);
+        Arrays.fill(errorTolerance_v, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * @return the number of controllers
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Resets the integrator and the timing of every controller.
+     */
+    public void reset() {
+        for (int i = 0; i < size; i++) {
+            reset(i);
+        }
+    }
+
+    /**
+     * Resets the integrator and the timing of one controller.
+     *
+     * @param i the index of the controller
+     */
+    public void reset(int i) {
+        totalError[i] = 0;
+        prevErrorVal[i] = 0;
+        lastTimeStamp[i] = 0;
+    }
+
+    /**
+     * Calculates the next output of every controller.
+     *
+     * @param pv     the current measurement of each controller
+     * @param output receives the output of each controller
+     */
+    public void calculate(double[] pv, double[] output) {
+        if (pv.length < size || output.length < size) {
+            throw new IllegalArgumentException("The arrays must hold one value per controller");
+        }
+        double currentTimeStamp = clock.seconds();
+        for (int i = 0; i < size; i++) {
+            prevErrorVal[i] = errorVal_p[i];
+
+            if (lastTimeStamp[i] == 0) lastTimeStamp[i] = currentTimeStamp;
+            double dt = currentTimeStamp - lastTimeStamp[i];
+            period[i] = dt;
+            lastTimeStamp[i] = currentTimeStamp;
+
+            measuredValue[i] = pv[i];
+            double error = setPoint[i] - pv[i];
+            errorVal_p[i] = error;
+
+            double velocityError = Math.abs(dt) > 1E-6 ? (error - prevErrorVal[i]) / dt : 0;
+            errorVal_v[i] = velocityError;
+
+            double total = totalError[i] + dt * error;
+            total = total < minIntegral[i] ? minIntegral[i] : Math.min(maxIntegral[i], total);
+            totalError[i] = total;
+
+            output[i] = kP[i] * error + kI[i] * total + kD[i] * velocityError + kF[i] * setPoint[i];
+        }
+    }
+
+    /**
+     * Sets the setpoint of every controller and calculates their next outputs.
+     *
+     * @param pv     the current measurement of each controller
+     * @param sp     the setpoint of each controller
+     * @param output receives the output of each controller
+     */
+    public void calculate(double[] pv, double[] sp, double[] output) {
+        if (sp.length < size) {
+            throw new IllegalArgumentException("The arrays must hold one value per controller");
+        }
+        for (int i = 0; i < size; i++) {
+            setSetPoint(i, sp[i]);
+        }
+        calculate(pv, output);
+    }
+
+    /**
+     * @param i the index of the controller
+     * @return the setpoint of the controller
+     */
+    public double getSetPoint(int i) {
+        return setPoint[i];
+    }
+
+    /**
+     * Sets the setpoint of one controller.
+     *
+     * @param i  the index of the controller
+     * @param sp the desired setpoint
+     */
+    public void setSetPoint(int i, double sp) {
+        setPoint[i] = sp;
+        errorVal_p[i] = sp - measuredValue[i];
+        errorVal_v[i] = (errorVal_p[i] - prevErrorVal[i]) / period[i];
+    }
+
+    /**
+     * Sets the error which is considered tolerable for use with {@link #atSetPoint(int)}.
+     *
+     * @param i                 the index of the controller
+     * @param positionTolerance Position error which is tolerable.
+     */
+    public void setTolerance(int i, double positionTolerance) {
+        setTolerance(i, positionTolerance, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Sets the error which is considered tolerable for use with {@link #atSetPoint(int)}.
+     *
+     * @param i                 the index of the controller
+     * @param positionTolerance Position error which is tolerable.
+     * @param velocityTolerance Velocity error which is tolerable.
+     */
+    public void setTolerance(int i, double positionTolerance, double velocityTolerance) {
+        errorTolerance_p[i] = positionTolerance;
+        errorTolerance_v[i] = velocityTolerance;
+    }
+
+    /**
+     * @param i the index of the controller
+     * @return whether the error of the controller is within its tolerances
+     */
+    public boolean atSetPoint(int i) {
+        return Math.abs(errorVal_p[i]) < errorTolerance_p[i]
+                && Math.abs(errorVal_v[i]) < errorTolerance_v[i];
+    }
+
+    /**
+     * @return whether every controller is within its tolerances
+     */
+    public boolean atSetPoint() {
+        for (int i = 0; i < size; i++) {
+            if (!atSetPoint(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void setPIDF(int i, double kp, double ki, double kd, double kf) {
+        kP[i] = kp;
+        kI[i] = ki;
+        kD[i] = kd;
+        kF[i] = kf;
+    }
+
+    /**
+     * @param i the index of the controller
+     * @return the PIDF coefficients of the controller
+     */
+    public double[] getCoefficients(int i) {
+        return new double[]{kP[i], kI[i], kD[i], kF[i]};
+    }
+
+    public void setIntegrationBounds(int i, double integralMin, double integralMax) {
+        minIntegral[i] = integralMin;
+        maxIntegral[i] = integralMax;
+    }
+
+    public void clearTotalError(int i) {
+        totalError[i] = 0;
+    }
+
+    /**
+     * @param i the index of the controller
+     * @return the positional error e(t) of the controller
+     */
+    public double getPositionError(int i) {
+        return errorVal_p[i];
+    }
+
+    /**
+     * @param i the index of the controller
+     * @return the velocity error e'(t) of the controller
+     */
+    public double getVelocityError(int i) {
+        return errorVal_v[i];
+    }
+
+    public double getPeriod(int i) {
+        return period[i];
+    }
+
+    /**
+     * Sets the clock used to measure the period between calls to
+     * {@link #calculate(double[], double[])}.  Defaults to {@link Clock#DEFAULT}.
+     *
+     * @param clock the clock to read the time from
+     */
+    public void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
+}
@@ -1,5 +1,7 @@
 package com.arcrobotics.ftclib.controller;
 
+import com.arcrobotics.ftclib.util.Clock;
+
 /**
  * This is a PID controller (https://en.wikipedia.org/wiki/PID_controller)
  * for your robot. Internally, it performs all the calculations for you.
@@ -31,6 +33,8 @@ public class PIDFController {
     private double lastTimeStamp;
     private double period;
 
+    private Clock clock = Clock.DEFAULT;
+
     /**
      * The base constructor for the PIDF controller
      */
@@ -184,7 +188,7 @@ public class PIDFController {
     public double calculate(double pv) {
         prevErrorVal = errorVal_p;
 
-        double currentTimeStamp = (double) System.nanoTime() / 1E9;
+        double currentTimeStamp = clock.seconds();
         if (lastTimeStamp == 0) lastTimeStamp = currentTimeStamp;
         period = currentTimeStamp - lastTimeStamp;
         lastTimeStamp = currentTimeStamp;
@@ -225,10 +229,40 @@ public class PIDFController {
         maxIntegral = integralMax;
     }
 
+    /**
+     * @return the lower bound of the accumulated error
+     */
+    public double getMinIntegral() {
+        return minIntegral;
+    }
+
+    /**
+     * @return the upper bound of the accumulated error
+     */
+    public double getMaxIntegral() {
+        return maxIntegral;
+    }
+
     public void clearTotalError() {
         totalError = 0;
     }
 
+    /**
+     * @return the accumulated error, int(0,t)[e(t')dt'], which is multiplied by kI
+     */
+    public double getTotalError() {
+        return totalError;
+    }
+
+    /**
+     * Sets the accumulated error, clamped to the integration bounds.
+     *
+     * @param error the new accumulated error
+     */
+    public void setTotalError(double error) {
+        totalError = error < minIntegral ? minIntegral : Math.min(maxIntegral, error);
+    }
+
     public void setP(double kp) {
         kP = kp;
     }
@@ -265,4 +299,14 @@ public class PIDFController {
         return period;
     }
 
+    /**
+     * Sets the clock used to measure the period between calls to {@link #calculate(double)}.
+     * Defaults to {@link Clock#DEFAULT}.
+     *
+     * @param clock the clock to read the time from
+     */
+    public void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
 }
@@ -0,0 +1,367 @@
+package com.arcrobotics.ftclib.controller;
+
+import com.arcrobotics.ftclib.util.Clock;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Finds PIDF gains with a relay experiment (Astrom and Hagglund).  The output is switched
+ * between {@code bias + amplitude} and {@code bias - amplitude} whenever the measurement crosses
+ * the setpoint, which makes the system oscillate at its ultimate period.  The size of the
+ * oscillation gives the ultimate gain, the proportional gain at which the loop would oscillate
+ * on its own, and the gains are suggested from those two by a {@link Rule}.
+ *
+ * <pre>
+ * RelayTuner tuner = new RelayTuner(arm::getAngle, arm::setPower, 45, 0.2);
+ * tuner.setMeasurementLimits(0, 90);
+ * tuner.start();
+ * while (!tuner.isFinished()) {
+ *     tuner.update();
+ * }
+ * double[] gains = tuner.getResult().getGains(RelayTuner.Rule.TYREUS_LUYBEN);
+ * </pre>
+ *
+ * <p>The bias is adjusted every cycle so the output spends as long high as low, so it settles
+ * on the output that holds the setpoint; that becomes the suggested feedforward gain.  The
+ * experiment stops, and the output is set to 0, if the measurement leaves its limits or the
+ * experiment runs out of time.
+ */
+public class RelayTuner {
+
+    /**
+     * The progress of the experiment.
+     */
+    public enum State {
+        IDLE, RUNNING, DONE, TIMED_OUT, OUT_OF_BOUNDS, STOPPED
+    }
+
+    /**
+     * Tuning rules, which give the gains as fractions of the ultimate gain Ku and period Tu:
+     * kP = a Ku, kI = kP / (b Tu) and kD = kP c Tu.
+     */
+    public enum Rule {
+        /**
+         * The classic rule; fast, with a lot of overshoot.
+         */
+        ZIEGLER_NICHOLS(0.6, 0.5, 0.125),
+        /**
+         * The classic rule for a PI controller.
+         */
+        ZIEGLER_NICHOLS_PI(0.45, 1 / 1.2, 0),
+        /**
+         * Slower than Ziegler-Nichols, with less overshoot and more margin.
+         */
+        TYREUS_LUYBEN(1 / 2.2, 2.2, 1 / 6.3),
+        PESSEN_INTEGRAL(0.7, 0.4, 0.15),
+        SOME_OVERSHOOT(1 / 3.0, 0.5, 1 / 3.0),
+        NO_OVERSHOOT(0.2, 0.5, 1 / 3.0);
+
+        private final double gain, integral, derivative;
+
+        Rule(double gain, double integral, double derivative) {
+            this.gain = gain;
+            this.integral = integral;
+            this.derivative = derivative;
+        }
+    }
+
+    /**
+     * The outcome of a relay experiment.
+     */
+    public static final class Result {
+
+        private final double ultimateGain, ultimatePeriod, bias, setPoint;
+
+        Result(double ultimateGain, double ultimatePeriod, double bias, double setPoint) {
+            this.ultimateGain = ultimateGain;
+            this.ultimatePeriod = ultimatePeriod;
+            this.bias = bias;
+            this.setPoint = setPoint;
+        }
+
+        /**
+         * @return the proportional gain at which the loop oscillates, Ku
+         */
+        public double getUltimateGain() {
+            return ultimateGain;
+        }
+
+        /**
+         * @return the period of that oscillation in seconds, Tu
+         */
+        public double getUltimatePeriod() {
+            return ultimatePeriod;
+        }
+
+        /**
+         * @return the output that holds the setpoint
+         */
+        public double getBias() {
+            return bias;
+        }
+
+        /**
+         * Suggests gains for a {@link PIDFController}.  The feedforward gain reproduces the
+         * bias at the setpoint of the experiment, and is 0 if that setpoint was 0.
+         *
+         * @param rule the tuning rule
+         * @return the gains kP, kI, kD and kF
+         */
+        public double[] getGains(Rule rule) {
+            double kp = rule.gain * ultimateGain;
+            double ki = kp / (rule.integral * ultimatePeriod);
+            double kd = kp * rule.derivative * ultimatePeriod;
+            double kf = setPoint == 0 ? 0 : bias / setPoint;
+            return new double[]{kp, ki, kd, kf};
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Ku=%.5g Tu=%.4fs bias=%.4g", ultimateGain, ultimatePeriod, bias);
+        }
+    }
+
+    /**
+     * The number of cycles ignored while the oscillation and the bias settle
+     */
+    private static final int DISCARD = 2;
+
+    private final DoubleSupplier measurement;
+    private final DoubleConsumer output;
+    private final double setPoint, amplitude;
+
+    private double bias, hysteresis;
+    private double minOutput = Double.NEGATIVE_INFINITY, maxOutput = Double.POSITIVE_INFINITY;
+    private double minMeasurement = Double.NEGATIVE_INFINITY;
+    private double maxMeasurement = Double.POSITIVE_INFINITY;
+    private double timeout = 30;
+    private int cycles = 5;
+
+    private State state = State.IDLE;
+    private boolean high;
+    private double startTime, lastRise, lastFall, highTime;
+    private double peak, trough;
+    private int counted, skipped;
+    private double periodSum, amplitudeSum;
+    private Result result;
+
+    /**
+     * @param measurement reads the process variable
+     * @param output      applies the output
+     * @param setPoint    the setpoint to oscillate around
+     * @param amplitude   how far the output is switched above and below the bias
+     */
+    public RelayTuner(DoubleSupplier measurement, DoubleConsumer output, double setPoint, double amplitude) {
+        if (amplitude <= 0) {
+            throw new IllegalArgumentException("The amplitude must be positive");
+        }
+        this.measurement = measurement;
+        this.output = output;
+        this.setPoint = setPoint;
+        this.amplitude = amplitude;
+    }
+
+    /**
+     * @param bias the initial guess of the output that holds the setpoint, 0 by default
+     * @return this object for chaining purposes
+     */
+    public RelayTuner setBias(double bias) {
+        this.bias = bias;
+        return this;
+    }
+
+    /**
+     * Sets how far the measurement must cross the setpoint before the relay switches, so that
+     * noise does not switch it.  Make it a little larger than the noise.
+     *
+     * @param hysteresis the hysteresis in units of the measurement
+     * @return this object for chaining purposes
+     */
+    public RelayTuner setHysteresis(double hysteresis) {
+        this.hysteresis = Math.abs(hysteresis);
+        return this;
+    }
+
+    /**
+     * @param min the lowest output the experiment may apply
+     * @param max the highest output the experiment may apply
+     * @return this object for chaining purposes
+     */
+    public RelayTuner setOutputLimits(double min, double max) {
+        minOutput = min;
+        maxOutput = max;
+        return this;
+    }
+
+    /**
+     * Sets the range the measurement must stay in, such as the travel of an arm.  The
+     * experiment is stopped if it leaves the range.
+     *
+     * @param min the lowest safe measurement
+     * @param max the highest safe measurement
+     * @return this object for chaining purposes
+     */
+    public RelayTuner setMeasurementLimits(double min, double max) {
+        minMeasurement = min;
+        maxMeasurement = max;
+        return this;
+    }
+
+    /**
+     * @param timeout how long the experiment may run, 30 seconds by default
+     * @param unit    the unit of the timeout
+     * @return this object for chaining purposes
+     */
+    public RelayTuner setTimeout(long timeout, TimeUnit unit) {
+        this.timeout = unit.toNanos(timeout) / 1E9;
+        return this;
+    }
+
+    /**
+     * @param cycles the number of oscillations to average, 5 by default, after the first two
+     *               are discarded while the oscillation settles
+     * @return this object for chaining purposes
+     */
+    public RelayTuner setCycles(int cycles) {
+        if (cycles < 1) {
+            throw new IllegalArgumentException("At least one cycle is needed");
+        }
+        this.cycles = cycles;
+        return this;
+    }
+
+    /**
+     * Starts the experiment.  Call {@link #update()} every loop until it is finished.
+     */
+    public void start() {
+        state = State.RUNNING;
+        startTime = Clock.DEFAULT.seconds();
+        lastRise = Double.NaN;
+        lastFall = Double.NaN;
+        counted = 0;
+        skipped = 0;
+        periodSum = 0;
+        amplitudeSum = 0;
+        result = null;
+        double pv = measurement.getAsDouble();
+        high = setPoint > pv;
+        peak = pv;
+        trough = pv;
+        write();
+    }
+
+    /**
+     * Reads the measurement and switches the relay.
+     *
+     * @return the state of the experiment
+     */
+    public State update() {
+        if (state != State.RUNNING) {
+            return state;
+        }
+        double now = Clock.DEFAULT.seconds();
+        double pv = measurement.getAsDouble();
+        if (pv < minMeasurement || pv > maxMeasurement) {
+            return finish(State.OUT_OF_BOUNDS);
+        }
+        if (now - startTime > timeout) {
+            return finish(State.TIMED_OUT);
+        }
+
+        peak = Math.max(peak, pv);
+        trough = Math.min(trough, pv);
+        double error = setPoint - pv;
+        if (!high && error > hysteresis) {
+            if (!Double.isNaN(lastRise) && !Double.isNaN(lastFall)) {
+                cycle(now - lastRise, highTime, now - lastFall);
+            }
+            peak = pv;
+            trough = pv;
+            lastRise = now;
+            high = true;
+        } else if (high && error < -hysteresis) {
+            if (!Double.isNaN(lastRise)) {
+                highTime = now - lastRise;
+            }
+            lastFall = now;
+            high = false;
+        }
+        if (state == State.RUNNING) {
+            write();
+        }
+        return state;
+    }
+
+    private void cycle(double period, double highTime, double lowTime) {
+        double a = (peak - trough) / 2;
+        // Move the bias toward the output that keeps the relay high as long as low.
+        bias += amplitude * (highTime - lowTime) / (highTime + lowTime);
+        bias = Math.max(minOutput, Math.min(maxOutput, bias));
+        if (skipped < DISCARD) {
+            skipped++;
+            return;
+        }
+        periodSum += period;
+        amplitudeSum += a;
+        if (++counted >= cycles) {
+            double meanAmplitude = amplitudeSum / counted;
+            double effective = meanAmplitude > hysteresis
+                    ? Math.sqrt(meanAmplitude * meanAmplitude - hysteresis * hysteresis)
+                    : meanAmplitude;
+            result = new Result(4 * amplitude / (Math.PI * effective), periodSum / counted,
+                    bias, setPoint);
+            finish(State.DONE);
+        }
+    }
+
+    private void write() {
+        double value = bias + (high ? amplitude : -amplitude);
+        output.accept(Math.max(minOutput, Math.min(maxOutput, value)));
+    }
+
+    private State finish(State end) {
+        state = end;
+        output.accept(0);
+        return state;
+    }
+
+    /**
+     * Stops the experiment and sets the output to 0.
+     */
+    public void stop() {
+        if (state == State.RUNNING) {
+            finish(State.STOPPED);
+        }
+    }
+
+    /**
+     * @return the state of the experiment
+     */
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * @return true once the experiment has ended, whether or not it succeeded
+     */
+    public boolean isFinished() {
+        return state != State.IDLE && state != State.RUNNING;
+    }
+
+    /**
+     * @return the result, or null unless the experiment is {@link State#DONE}
+     */
+    public Result getResult() {
+        return result;
+    }
+
+    /**
+     * @return the current bias of the relay
+     */
+    public double getBias() {
+        return bias;
+    }
+
+}
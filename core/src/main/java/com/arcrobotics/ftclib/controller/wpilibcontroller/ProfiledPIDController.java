@@ -8,18 +8,34 @@
 package com.arcrobotics.ftclib.controller.wpilibcontroller;
 
 import com.arcrobotics.ftclib.controller.PIDController;
+import com.arcrobotics.ftclib.trajectory.SCurveProfile;
 import com.arcrobotics.ftclib.trajectory.TrapezoidProfile;
+import com.arcrobotics.ftclib.util.Clock;
 
 /**
  * Implements a PID control loop whose setpoint is constrained by a trapezoid
  * profile.
+ *
+ * <p>Given {@link SCurveProfile.Constraints}, the setpoint follows a jerk-limited
+ * {@link SCurveProfile} instead.  That profile is planned from the current setpoint whenever
+ * the goal or the constraints change, rather than on every call, so that its acceleration
+ * stays continuous along the way.
+ *
+ * <p>The goal and the setpoint are held in states owned by the controller, and the profile is
+ * replanned in place, so {@link #calculate(double)} does not allocate.
  */
 @SuppressWarnings("PMD.TooManyMethods")
 public class ProfiledPIDController {
     private PIDController m_controller;
-    private TrapezoidProfile.State m_goal = new TrapezoidProfile.State();
-    private TrapezoidProfile.State m_setpoint = new TrapezoidProfile.State();
+    private final TrapezoidProfile.State m_goal = new TrapezoidProfile.State();
+    private final TrapezoidProfile.State m_setpoint = new TrapezoidProfile.State();
     private TrapezoidProfile.Constraints m_constraints;
+    private TrapezoidProfile m_profile;
+
+    private SCurveProfile m_sCurve;
+    private final TrapezoidProfile.State m_sCurveGoal = new TrapezoidProfile.State();
+    private TrapezoidProfile.Constraints m_sCurveConstraints;
+    private double m_sCurveTime;
 
     /**
      * Allocates a ProfiledPIDController with the given constants for Kp, Ki, and
@@ -28,7 +44,8 @@ public class ProfiledPIDController {
      * @param Kp          The proportional coefficient.
      * @param Ki          The integral coefficient.
      * @param Kd          The derivative coefficient.
-     * @param constraints Velocity and acceleration constraints for goal.
+     * @param constraints Velocity and acceleration constraints for goal, or
+     *                    {@link SCurveProfile.Constraints} to limit the jerk as well.
      */
     @SuppressWarnings("ParameterName")
     public ProfiledPIDController(double Kp, double Ki, double Kd,
@@ -118,12 +135,22 @@ public class ProfiledPIDController {
     }
 
     /**
-     * Sets the goal for the ProfiledPIDController.
+     * Sets the clock used to measure the period of this controller.
+     *
+     * @param clock The clock to read the time from.
+     */
+    public void setClock(Clock clock) {
+        m_controller.setClock(clock);
+    }
+
+    /**
+     * Sets the goal for the ProfiledPIDController.  The state is copied, so it may be reused.
      *
      * @param goal The desired goal state.
      */
     public void setGoal(TrapezoidProfile.State goal) {
-        m_goal = goal;
+        m_goal.position = goal.position;
+        m_goal.velocity = goal.velocity;
     }
 
     /**
@@ -132,11 +159,13 @@ public class ProfiledPIDController {
      * @param goal The desired goal position.
      */
     public void setGoal(double goal) {
-        m_goal = new TrapezoidProfile.State(goal, 0);
+        m_goal.position = goal;
+        m_goal.velocity = 0;
     }
 
     /**
-     * Gets the goal for the ProfiledPIDController.
+     * Gets the goal for the ProfiledPIDController.  The state is owned by the controller and
+     * changes with the goal; copy it to keep it.
      */
     public TrapezoidProfile.State getGoal() {
         return m_goal;
@@ -161,7 +190,8 @@ public class ProfiledPIDController {
     }
 
     /**
-     * Returns the current setpoint of the ProfiledPIDController.
+     * Returns the current setpoint of the ProfiledPIDController.  The state is owned by the
+     * controller and is updated in place by each call to calculate; copy it to keep it.
      *
      * @return The current setpoint.
      */
@@ -219,8 +249,29 @@ public class ProfiledPIDController {
      * @param measurement The current measurement of the process variable.
      */
     public double calculate(double measurement) {
-        TrapezoidProfile profile = new TrapezoidProfile(m_constraints, m_goal, m_setpoint);
-        m_setpoint = profile.calculate(getPeriod());
+        if (m_constraints instanceof SCurveProfile.Constraints) {
+            if (m_sCurveConstraints != m_constraints || !m_sCurveGoal.equals(m_goal)) {
+                SCurveProfile.Constraints constraints = (SCurveProfile.Constraints) m_constraints;
+                if (m_sCurve == null) {
+                    m_sCurve = new SCurveProfile(constraints, m_goal, m_setpoint);
+                } else {
+                    m_sCurve.set(constraints, m_goal, m_setpoint);
+                }
+                m_sCurveGoal.position = m_goal.position;
+                m_sCurveGoal.velocity = m_goal.velocity;
+                m_sCurveConstraints = m_constraints;
+                m_sCurveTime = 0;
+            }
+            m_sCurveTime += getPeriod();
+            m_sCurve.calculate(m_sCurveTime, m_setpoint);
+        } else {
+            if (m_profile == null) {
+                m_profile = new TrapezoidProfile(m_constraints, m_goal, m_setpoint);
+            } else {
+                m_profile.set(m_constraints, m_goal, m_setpoint);
+            }
+            m_profile.calculate(getPeriod(), m_setpoint);
+        }
         return m_controller.calculate(measurement, m_setpoint.position);
     }
 
@@ -272,8 +323,7 @@ public class ProfiledPIDController {
      * @param measurement The current measured State of the system.
      */
     public void reset(TrapezoidProfile.State measurement) {
-        m_controller.reset();
-        m_setpoint = measurement;
+        reset(measurement.position, measurement.velocity);
     }
 
     /**
@@ -283,7 +333,11 @@ public class ProfiledPIDController {
      * @param measuredVelocity The current measured velocity of the system.
      */
     public void reset(double measuredPosition, double measuredVelocity) {
-        reset(new TrapezoidProfile.State(measuredPosition, measuredVelocity));
+        m_controller.reset();
+        m_setpoint.position = measuredPosition;
+        m_setpoint.velocity = measuredVelocity;
+        // Replan the S-curve from the new setpoint
+        m_sCurveConstraints = null;
     }
 
     /**
@@ -0,0 +1,105 @@
+package com.arcrobotics.ftclib.hardware;
+
+import androidx.annotation.NonNull;
+
+import com.arcrobotics.ftclib.command.CommandScheduler;
+import com.qualcomm.hardware.lynx.LynxModule;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Puts every hub into manual bulk caching mode and clears their caches once per loop.
+ *
+ * <p>Without bulk reads, every encoder position and velocity read by a {@link
+ * com.arcrobotics.ftclib.hardware.motors.Motor}, {@link
+ * com.arcrobotics.ftclib.hardware.motors.MotorEx} or {@link
+ * com.arcrobotics.ftclib.hardware.motors.MotorGroup} is its own transaction with the hub, which
+ * takes a few milliseconds.  In manual mode the first read after the cache is cleared fetches the
+ * state of every motor on that hub at once, and every other read in the loop is served from that
+ * snapshot.  The motors do not need to know about this, as the hub does the caching.
+ *
+ * <p>Attach the manager to the scheduler so the snapshot is refreshed exactly once at the start of
+ * every {@link CommandScheduler#run()}:
+ *
+ * <pre>
+ * BulkReadManager bulkReads = new BulkReadManager(hardwareMap);
+ * bulkReads.attach(CommandScheduler.getInstance());
+ * </pre>
+ *
+ * <p>Outside of the scheduler, call {@link #clearCache()} at the start of every loop instead.
+ * Values are not refreshed until the cache is cleared, so forgetting to clear it leaves every
+ * read stuck at the same snapshot.
+ */
+public class BulkReadManager {
+
+    private final LynxModule[] hubs;
+    private long clears;
+
+    /**
+     * Manages every hub in the hardware map.
+     *
+     * @param hMap the hardware map from the OpMode
+     */
+    public BulkReadManager(@NonNull HardwareMap hMap) {
+        this(hMap.getAll(LynxModule.class));
+    }
+
+    /**
+     * Manages the given hubs.
+     *
+     * @param hubs the hubs to manage
+     */
+    public BulkReadManager(@NonNull List<LynxModule> hubs) {
+        this.hubs = hubs.toArray(new LynxModule[0]);
+        for (LynxModule hub : this.hubs) {
+            hub.setBulkCachingMode(LynxModule.BulkCachingMode.MANUAL);
+        }
+    }
+
+    /**
+     * Clears the cache of every hub at the start of every run of the scheduler.
+     *
+     * @param scheduler the scheduler whose loop the snapshot follows
+     */
+    public void attach(@NonNull CommandScheduler scheduler) {
+        scheduler.onLoopStart(this::clearCache);
+    }
+
+    /**
+     * Clears the cache of every hub, so the next read of each hub takes a new snapshot.
+     */
+    public void clearCache() {
+        for (LynxModule hub : hubs) {
+            hub.clearBulkCache();
+        }
+        clears++;
+    }
+
+    /**
+     * @return the number of times the caches have been cleared, which is the number of
+     * snapshots that could have been taken
+     */
+    public long getClearCount() {
+        return clears;
+    }
+
+    /**
+     * @return the managed hubs
+     */
+    public List<LynxModule> getHubs() {
+        return Collections.unmodifiableList(Arrays.asList(hubs));
+    }
+
+    /**
+     * Puts every hub back into the mode where each read is its own transaction.
+     */
+    public void disable() {
+        for (LynxModule hub : hubs) {
+            hub.setBulkCachingMode(LynxModule.BulkCachingMode.OFF);
+        }
+    }
+
+}
@@ -0,0 +1,129 @@
+package com.arcrobotics.ftclib.hardware;
+
+import java.util.function.DoubleConsumer;
+
+/**
+ * Remembers the last value written to an output, such as the power of a motor or the position
+ * of a servo, and skips writes that would not change it.  Every write is a blocking transaction
+ * with the hub, so a loop that sets every motor every time saves most of its output time this
+ * way.
+ *
+ * <p>A write is skipped when the new value is within the epsilon of the last value written,
+ * which is zero by default so only repeated values are skipped.  A write of exactly zero is
+ * never skipped unless zero was the last value written, so a motor can always be stopped.
+ *
+ * <p>An output added to an {@link OutputBatch} does not write when it is set.  The batch writes
+ * the latest value once, at the end of the loop, and every value it replaced counts as
+ * suppressed.
+ */
+public class CachedOutput {
+
+    private final DoubleConsumer writer;
+    private double epsilon;
+    private double written = Double.NaN, pending;
+    private boolean dirty, batched;
+    private long issued, suppressed;
+
+    /**
+     * @param writer writes a value to the hardware
+     */
+    public CachedOutput(DoubleConsumer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Sets the value of the output.  Writes it right away unless the output is batched.
+     *
+     * @param value the value to write
+     */
+    public void set(double value) {
+        if (dirty) {
+            suppressed++;
+        }
+        pending = value;
+        dirty = true;
+        if (!batched) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes the value that was last set, if it differs enough from the last value written.
+     *
+     * @return true if the value was written to the hardware
+     */
+    public boolean flush() {
+        if (!dirty) {
+            return false;
+        }
+        dirty = false;
+        double value = pending;
+        if (!Double.isNaN(written) && Math.abs(value - written) <= epsilon
+                && (value != 0 || written == 0)) {
+            suppressed++;
+            return false;
+        }
+        writer.accept(value);
+        written = value;
+        issued++;
+        return true;
+    }
+
+    /**
+     * @return the value that was last set, even if it is yet to be written, or NaN if nothing has
+     * been set since the output was created or invalidated
+     */
+    public double get() {
+        return dirty ? pending : written;
+    }
+
+    /**
+     * Forgets the last value written, so the next value is always written.  Call this after
+     * changing the hardware without going through this output.
+     */
+    public void invalidate() {
+        written = Double.NaN;
+    }
+
+    /**
+     * Sets how far a value must be from the last value written to be written.
+     *
+     * @param epsilon the smallest change to write, in the units of the output
+     */
+    public void setEpsilon(double epsilon) {
+        if (epsilon < 0) {
+            throw new IllegalArgumentException("Epsilon must not be negative");
+        }
+        this.epsilon = epsilon;
+    }
+
+    public double getEpsilon() {
+        return epsilon;
+    }
+
+    /**
+     * @return the number of values written to the hardware
+     */
+    public long getIssuedWrites() {
+        return issued;
+    }
+
+    /**
+     * @return the number of values that were set but never written
+     */
+    public long getSuppressedWrites() {
+        return suppressed;
+    }
+
+    /**
+     * Sets whether writes wait for the batch this output is in to flush.  Leaving a batch writes
+     * any value that is still waiting.
+     */
+    void setBatched(boolean batched) {
+        this.batched = batched;
+        if (!batched) {
+            flush();
+        }
+    }
+
+}
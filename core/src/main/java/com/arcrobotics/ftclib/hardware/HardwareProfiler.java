@@ -0,0 +1,353 @@
+package com.arcrobotics.ftclib.hardware;
+
+import com.arcrobotics.ftclib.command.CommandScheduler;
+import com.arcrobotics.ftclib.util.Clock;
+import com.arcrobotics.ftclib.util.TimingHistogram;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Records how long every hardware call made through the FTCLib wrappers takes, so a slow
+ * device can be found without commenting code out.  Profiling is opt-in per device:
+ *
+ * <pre>
+ * HardwareProfiler profiler = new HardwareProfiler();
+ * frontLeft.setProfiler(profiler, "frontLeft");
+ * imu.setProfiler(profiler, "imu");
+ * profiler.attach(CommandScheduler.getInstance());
+ * ...
+ * telemetry.addLine(profiler.report(5));
+ * </pre>
+ *
+ * <p>Each device gets a {@link TimingHistogram} for each kind of call it makes, along with how
+ * much time those calls took in every loop.  {@link #getTopOffenders(int)} ranks the calls by
+ * the time they cost each loop.  Recording never allocates once a call has been seen.
+ *
+ * <p>The profiler is not thread-safe; profile devices that are only used from the loop thread.
+ * Readings taken by a {@link SensorPoller} are not profiled, as they do not slow the loop.
+ */
+public class HardwareProfiler {
+
+    /**
+     * The hardware calls the wrappers profile, named after the SDK methods.
+     */
+    public enum Call {
+        SET_POWER("setPower"),
+        GET_POWER("getPower"),
+        GET_CURRENT_POSITION("getCurrentPosition"),
+        GET_VELOCITY("getVelocity"),
+        SET_MODE("setMode"),
+        SET_ZERO_POWER_BEHAVIOR("setZeroPowerBehavior"),
+        SET_DIRECTION("setDirection"),
+        GET_DIRECTION("getDirection"),
+        SET_POSITION("setPosition"),
+        GET_POSITION("getPosition"),
+        GET_ANGULAR_ORIENTATION("getAngularOrientation"),
+        GET_DISTANCE("getDistance"),
+        ALPHA("alpha"),
+        RED("red"),
+        GREEN("green"),
+        BLUE("blue");
+
+        private final String method;
+
+        Call(String method) {
+            this.method = method;
+        }
+
+        /**
+         * @return the name of the SDK method
+         */
+        public String getMethod() {
+            return method;
+        }
+    }
+
+    /**
+     * The timings of one device.  A device that is not being profiled holds
+     * {@link #DISABLED}, whose methods do nothing.
+     */
+    public static final class Device {
+
+        private final String name;
+        private final HardwareProfiler profiler;
+        private final TimingHistogram[] histograms = new TimingHistogram[Call.values().length];
+        private final long[] loopNanos = new long[histograms.length];
+        private final long[] lastLoopNanos = new long[histograms.length];
+        private final long[] maxLoopNanos = new long[histograms.length];
+        private final long[] totalNanos = new long[histograms.length];
+
+        private Device(String name, HardwareProfiler profiler) {
+            this.name = name;
+            this.profiler = profiler;
+        }
+
+        /**
+         * @return the name the device was registered with
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Starts timing a call.
+         *
+         * @return the start time to pass to {@link #stop(Call, long)}
+         */
+        public long start() {
+            return profiler == null ? 0 : Clock.DEFAULT.nanoTime();
+        }
+
+        /**
+         * Finishes timing a call.
+         *
+         * @param call  the call that was made
+         * @param start the time returned by {@link #start()}
+         */
+        public void stop(Call call, long start) {
+            if (profiler != null) {
+                record(call, Clock.DEFAULT.nanoTime() - start);
+            }
+        }
+
+        /**
+         * Records a call.
+         *
+         * @param call  the call that was made
+         * @param nanos how long it took in nanoseconds
+         */
+        public void record(Call call, long nanos) {
+            if (profiler == null) {
+                return;
+            }
+            int i = call.ordinal();
+            if (histograms[i] == null) {
+                histograms[i] = new TimingHistogram();
+            }
+            histograms[i].record(nanos);
+            loopNanos[i] += nanos;
+            totalNanos[i] += nanos;
+        }
+
+        /**
+         * Returns the histogram of a call.  The histogram is live; it keeps changing as the
+         * device is used.
+         *
+         * @param call the call
+         * @return the histogram, or null if the device has not made the call
+         */
+        public TimingHistogram getHistogram(Call call) {
+            return histograms[call.ordinal()];
+        }
+
+        private void markLoop() {
+            for (int i = 0; i < histograms.length; i++) {
+                lastLoopNanos[i] = loopNanos[i];
+                maxLoopNanos[i] = Math.max(maxLoopNanos[i], loopNanos[i]);
+                loopNanos[i] = 0;
+            }
+        }
+
+        private void reset() {
+            for (int i = 0; i < histograms.length; i++) {
+                if (histograms[i] != null) {
+                    histograms[i].reset();
+                }
+                loopNanos[i] = 0;
+                lastLoopNanos[i] = 0;
+                maxLoopNanos[i] = 0;
+                totalNanos[i] = 0;
+            }
+        }
+    }
+
+    /**
+     * A device that is not being profiled.
+     */
+    public static final Device DISABLED = new Device("disabled", null);
+
+    /**
+     * An immutable copy of the timings of one call of one device.  All durations are in
+     * nanoseconds.
+     */
+    public static final class Entry {
+
+        private final String device;
+        private final Call call;
+        private final long count, p99, max, lastLoop, maxLoop;
+        private final double mean, callsPerLoop, meanPerLoop;
+
+        Entry(Device device, int call, long loops) {
+            TimingHistogram histogram = device.histograms[call];
+            this.device = device.name;
+            this.call = Call.values()[call];
+            count = histogram.getCount();
+            mean = histogram.getMean();
+            p99 = histogram.getPercentile(99);
+            max = histogram.getMax();
+            lastLoop = device.lastLoopNanos[call];
+            maxLoop = device.maxLoopNanos[call];
+            long perLoop = Math.max(1, loops);
+            callsPerLoop = (double) count / perLoop;
+            meanPerLoop = (double) device.totalNanos[call] / perLoop;
+        }
+
+        public String getDevice() {
+            return device;
+        }
+
+        public Call getCall() {
+            return call;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getMean() {
+            return mean;
+        }
+
+        public long getP99() {
+            return p99;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * @return the time spent on the call in the last complete loop
+         */
+        public long getLastLoop() {
+            return lastLoop;
+        }
+
+        /**
+         * @return the most time spent on the call in a single loop
+         */
+        public long getMaxLoop() {
+            return maxLoop;
+        }
+
+        /**
+         * @return how many times the call is made in an average loop
+         */
+        public double getCallsPerLoop() {
+            return callsPerLoop;
+        }
+
+        /**
+         * @return how much time the call costs an average loop
+         */
+        public double getMeanPerLoop() {
+            return meanPerLoop;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s.%s: %.3fms/loop (%.1f calls) mean=%.3fms p99=%.3fms "
+                            + "max=%.3fms maxLoop=%.3fms", device, call.getMethod(),
+                    meanPerLoop / 1E6, callsPerLoop, mean / 1E6, p99 / 1E6, max / 1E6,
+                    maxLoop / 1E6);
+        }
+    }
+
+    private final List<Device> devices = new ArrayList<>();
+    private long loops;
+
+    /**
+     * Adds a device to the profiler.  The wrappers call this from their {@code setProfiler}
+     * methods.
+     *
+     * @param name the name to report the device under
+     * @return the timings of the device
+     */
+    public Device register(String name) {
+        Device device = new Device(name, this);
+        devices.add(device);
+        return device;
+    }
+
+    /**
+     * Marks the end of a loop, which closes the per-loop totals of every call.
+     */
+    public void markLoop() {
+        for (int i = 0; i < devices.size(); i++) {
+            devices.get(i).markLoop();
+        }
+        loops++;
+    }
+
+    /**
+     * Marks the end of a loop every time the scheduler starts a new one.
+     *
+     * @param scheduler the scheduler running the OpMode
+     */
+    public void attach(CommandScheduler scheduler) {
+        scheduler.onLoopStart(this::markLoop);
+    }
+
+    /**
+     * @return the number of loops marked since the profiler was created or reset
+     */
+    public long getLoopCount() {
+        return loops;
+    }
+
+    /**
+     * Clears every recorded timing.  Registered devices stay registered.
+     */
+    public void reset() {
+        for (Device device : devices) {
+            device.reset();
+        }
+        loops = 0;
+    }
+
+    /**
+     * Copies the current timings, ordered from the call that costs an average loop the most
+     * time to the one that costs it the least.
+     *
+     * @return an unmodifiable list of the current timings
+     */
+    public List<Entry> snapshot() {
+        List<Entry> entries = new ArrayList<>();
+        for (Device device : devices) {
+            for (int i = 0; i < device.histograms.length; i++) {
+                if (device.histograms[i] != null && device.histograms[i].getCount() > 0) {
+                    entries.add(new Entry(device, i, loops));
+                }
+            }
+        }
+        Collections.sort(entries, (a, b) -> Double.compare(b.getMeanPerLoop(), a.getMeanPerLoop()));
+        return Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * @param count the number of calls to return
+     * @return the calls that cost an average loop the most time, most expensive first
+     */
+    public List<Entry> getTopOffenders(int count) {
+        List<Entry> entries = snapshot();
+        return entries.subList(0, Math.min(count, entries.size()));
+    }
+
+    /**
+     * Formats the most expensive calls, one per line, for telemetry or a log.
+     *
+     * @param count the number of calls to list
+     * @return the report
+     */
+    public String report(int count) {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Hardware calls over %d loops:", loops));
+        for (Entry entry : getTopOffenders(count)) {
+            report.append('\n').append(entry);
+        }
+        return report.toString();
+    }
+
+}
@@ -0,0 +1,136 @@
+package com.arcrobotics.ftclib.hardware;
+
+import androidx.annotation.NonNull;
+
+import com.arcrobotics.ftclib.command.CommandScheduler;
+import com.arcrobotics.ftclib.hardware.motors.Motor;
+import com.arcrobotics.ftclib.hardware.motors.MotorGroup;
+
+import java.util.Arrays;
+
+/**
+ * Holds back the writes of a set of {@link CachedOutput}s and flushes them together once per
+ * loop, so each device is written at most once no matter how many times it is set.
+ *
+ * <p>Attach the batch to the scheduler to flush at the end of every {@link CommandScheduler#run()}:
+ *
+ * <pre>
+ * OutputBatch outputs = new OutputBatch();
+ * outputs.add(frontLeft, frontRight, backLeft, backRight);
+ * outputs.add(claw.getOutput());
+ * outputs.attach(CommandScheduler.getInstance());
+ * </pre>
+ *
+ * <p>Outside of the scheduler, call {@link #flush()} at the end of every loop instead.
+ */
+public class OutputBatch {
+
+    private CachedOutput[] outputs = new CachedOutput[8];
+    private int size;
+
+    /**
+     * Adds outputs to the batch.  Their writes wait for the next flush from now on.
+     *
+     * @param outputs the outputs to add
+     */
+    public void add(@NonNull CachedOutput... outputs) {
+        for (CachedOutput output : outputs) {
+            if (indexOf(output) >= 0) {
+                continue;
+            }
+            if (size == this.outputs.length) {
+                this.outputs = Arrays.copyOf(this.outputs, size * 2);
+            }
+            this.outputs[size++] = output;
+            output.setBatched(true);
+        }
+    }
+
+    /**
+     * Adds the outputs of motors to the batch.  Every motor of a {@link MotorGroup} is added.
+     *
+     * @param motors the motors to add
+     */
+    public void add(@NonNull Motor... motors) {
+        for (Motor motor : motors) {
+            if (motor instanceof MotorGroup) {
+                for (Motor member : (MotorGroup) motor) {
+                    add(member);
+                }
+            } else {
+                add(motor.getOutput());
+            }
+        }
+    }
+
+    /**
+     * Removes an output from the batch, writing its waiting value.
+     *
+     * @param output the output to remove
+     */
+    public void remove(CachedOutput output) {
+        int index = indexOf(output);
+        if (index < 0) {
+            return;
+        }
+        System.arraycopy(outputs, index + 1, outputs, index, size - index - 1);
+        outputs[--size] = null;
+        output.setBatched(false);
+    }
+
+    /**
+     * Flushes the batch at the end of every run of the scheduler.
+     *
+     * @param scheduler the scheduler whose loop the batch follows
+     */
+    public void attach(@NonNull CommandScheduler scheduler) {
+        scheduler.onLoopEnd(this::flush);
+    }
+
+    /**
+     * Writes the waiting value of every output in the batch.
+     *
+     * @return the number of values written to the hardware
+     */
+    public int flush() {
+        int written = 0;
+        for (int i = 0; i < size; i++) {
+            if (outputs[i].flush()) {
+                written++;
+            }
+        }
+        return written;
+    }
+
+    /**
+     * @return the number of values written to the hardware by the outputs in the batch
+     */
+    public long getIssuedWrites() {
+        long issued = 0;
+        for (int i = 0; i < size; i++) {
+            issued += outputs[i].getIssuedWrites();
+        }
+        return issued;
+    }
+
+    /**
+     * @return the number of values set on the outputs in the batch that were never written
+     */
+    public long getSuppressedWrites() {
+        long suppressed = 0;
+        for (int i = 0; i < size; i++) {
+            suppressed += outputs[i].getSuppressedWrites();
+        }
+        return suppressed;
+    }
+
+    private int indexOf(CachedOutput output) {
+        for (int i = 0; i < size; i++) {
+            if (outputs[i] == output) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+}
@@ -0,0 +1,160 @@
+package com.arcrobotics.ftclib.hardware;
+
+import com.arcrobotics.ftclib.util.Clock;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The latest reading of a sensor polled by a {@link SensorPoller}, together with when it was
+ * taken.  The polling thread is the only writer, and publishing never blocks it; readers get the
+ * newest complete reading without waiting for the sensor.
+ *
+ * <p>Each reading is timestamped with {@link Clock#DEFAULT} at the middle of the hardware read,
+ * so control code can check {@link #getAge(TimeUnit)} and compensate for, or refuse to act on, a
+ * reading that is too old.
+ */
+public final class PolledSensor {
+
+    private final String name;
+
+    // A sequence lock: odd while a reading is being written, bumped by two for every reading.
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLongArray values;
+    private volatile long timestamp;
+    private volatile RuntimeException error;
+    private final AtomicLong errors = new AtomicLong();
+
+    PolledSensor(String name, int size) {
+        this.name = name;
+        values = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            values.set(i, Double.doubleToRawLongBits(Double.NaN));
+        }
+    }
+
+    /**
+     * Publishes a reading.  Only called by the polling thread.
+     */
+    void publish(double[] reading, long time) {
+        long start = sequence.get();
+        sequence.set(start + 1);
+        for (int i = 0; i < reading.length; i++) {
+            values.set(i, Double.doubleToRawLongBits(reading[i]));
+        }
+        timestamp = time;
+        sequence.set(start + 2);
+    }
+
+    void fail(RuntimeException e) {
+        error = e;
+        errors.incrementAndGet();
+    }
+
+    /**
+     * @return the name the sensor was registered with
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the number of values in a reading
+     */
+    public int size() {
+        return values.length();
+    }
+
+    /**
+     * Returns one value of the latest reading.  Values read one at a time may come from
+     * different readings; use {@link #get(double[])} when they must match.
+     *
+     * @param index the index of the value
+     * @return the value, or NaN if there has been no reading yet
+     */
+    public double get(int index) {
+        return Double.longBitsToDouble(values.get(index));
+    }
+
+    /**
+     * Copies every value of the latest reading.  The values always come from a single reading.
+     *
+     * @param out the array to copy the values into, at least {@link #size()} long
+     * @return the timestamp of the reading in nanoseconds, or 0 if there has been no reading yet
+     */
+    public long get(double[] out) {
+        while (true) {
+            long start = sequence.get();
+            if ((start & 1) == 0) {
+                for (int i = 0; i < values.length(); i++) {
+                    out[i] = Double.longBitsToDouble(values.get(i));
+                }
+                long time = timestamp;
+                if (sequence.get() == start) {
+                    return time;
+                }
+            }
+            Thread.yield();
+        }
+    }
+
+    /**
+     * @return whether there has been at least one reading
+     */
+    public boolean hasValue() {
+        return sequence.get() >= 2;
+    }
+
+    /**
+     * @return the number of readings published so far
+     */
+    public long getReadingCount() {
+        return sequence.get() >>> 1;
+    }
+
+    /**
+     * @return the timestamp of the latest reading in nanoseconds, or 0 if there has been none
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Returns how long ago the latest reading was taken.
+     *
+     * @param unit the unit to return the age in
+     * @return the age of the latest reading, or {@link Long#MAX_VALUE} if there has been none
+     */
+    public long getAge(TimeUnit unit) {
+        if (!hasValue()) {
+            return Long.MAX_VALUE;
+        }
+        return unit.convert(Clock.DEFAULT.nanoTime() - timestamp, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return the age of the latest reading in seconds, or infinity if there has been none
+     */
+    public double getAgeSeconds() {
+        if (!hasValue()) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return (Clock.DEFAULT.nanoTime() - timestamp) / 1E9;
+    }
+
+    /**
+     * @return the last exception thrown while reading the sensor, or null if there has been none
+     */
+    public RuntimeException getError() {
+        return error;
+    }
+
+    /**
+     * @return the number of reads that threw an exception
+     */
+    public long getErrorCount() {
+        return errors.get();
+    }
+
+}
@@ -7,6 +7,8 @@ import com.qualcomm.robotcore.hardware.HardwareMap;
 
 import org.firstinspires.ftc.robotcore.external.navigation.Orientation;
 
+import java.util.concurrent.TimeUnit;
+
 public class RevIMU extends GyroEx {
 
     private BNO055IMU revIMU;
@@ -28,6 +30,13 @@ public class RevIMU extends GyroEx {
 
     private int multiplier;
 
+    /**
+     * The latest background reading of the angles, or null if the gyro is read directly
+     */
+    private PolledSensor polled;
+
+    private HardwareProfiler.Device profile = HardwareProfiler.DISABLED;
+
     /**
      * Create a new object for the built-in gyro/imu in the Rev Expansion Hub
      *
@@ -92,19 +101,46 @@ public class RevIMU extends GyroEx {
      */
     @Override
     public double getAbsoluteHeading() {
-        return revIMU.getAngularOrientation().firstAngle * multiplier;
+        if (polled != null && polled.hasValue()) {
+            return polled.get(0) * multiplier;
+        }
+        return readOrientation().firstAngle * multiplier;
     }
 
     /**
      * @return X, Y, Z angles of gyro
      */
     public double[] getAngles() {
+        if (polled != null && polled.hasValue()) {
+            double[] angles = new double[3];
+            polled.get(angles);
+            return angles;
+        }
+
         // make a singular hardware call
-        Orientation orientation = revIMU.getAngularOrientation();
+        Orientation orientation = readOrientation();
 
         return new double[]{orientation.firstAngle, orientation.secondAngle, orientation.thirdAngle};
     }
 
+    private Orientation readOrientation() {
+        long start = profile.start();
+        Orientation orientation = revIMU.getAngularOrientation();
+        profile.stop(HardwareProfiler.Call.GET_ANGULAR_ORIENTATION, start);
+        return orientation;
+    }
+
+    /**
+     * Times the reads of this gyro from now on.  Reads made by a {@link SensorPoller} are not
+     * timed.
+     *
+     * @param profiler the profiler to record the reads in, or null to stop profiling
+     * @param name     the name to report the gyro under
+     */
+    public void setProfiler(HardwareProfiler profiler, String name) {
+        profile = profiler == null ? HardwareProfiler.DISABLED : profiler.register(name);
+    }
+
     /**
      * @return Transforms heading into {@link Rotation2d}
      */
@@ -113,6 +149,26 @@ public class RevIMU extends GyroEx {
         return Rotation2d.fromDegrees(getHeading());
     }
 
+    /**
+     * Reads the gyro on a background thread from now on, so {@link #getHeading()} and
+     * {@link #getAngles()} return the latest reading instead of waiting around 7 milliseconds
+     * for the IMU.  Until the first reading arrives they still read the gyro directly.
+     *
+     * @param poller the poller to read the gyro on
+     * @param period how often to read the gyro
+     * @param unit   the unit of the period
+     * @return the latest reading of the X, Y and Z angles, for checking how old it is
+     */
+    public PolledSensor startPolling(SensorPoller poller, long period, TimeUnit unit) {
+        polled = poller.register("imu", 3, period, unit, angles -> {
+            Orientation orientation = revIMU.getAngularOrientation();
+            angles[0] = orientation.firstAngle;
+            angles[1] = orientation.secondAngle;
+            angles[2] = orientation.thirdAngle;
+        });
+        return polled;
+    }
+
     @Override
     public void disable() {
         revIMU.close();
@@ -5,10 +5,20 @@ import android.graphics.Color;
 import com.qualcomm.robotcore.hardware.ColorSensor;
 import com.qualcomm.robotcore.hardware.HardwareMap;
 
+import java.util.concurrent.TimeUnit;
+
 public class SensorColor implements HardwareDevice {
 
     private final ColorSensor colorSensor;
 
+    /**
+     * The latest background reading of the alpha, red, green and blue values, or null if the
+     * sensor is read directly
+     */
+    private PolledSensor polled;
+
+    private HardwareProfiler.Device profile = HardwareProfiler.DISABLED;
+
     /**
      * Constructs a color sensor, defaults to ARGB
      */
@@ -47,6 +57,11 @@ public class SensorColor implements HardwareDevice {
      * @return an int array representing ARGB
      */
     public int[] getARGB() {
+        if (polled != null && polled.hasValue()) {
+            double[] argb = new double[4];
+            polled.get(argb);
+            return new int[]{(int) argb[0], (int) argb[1], (int) argb[2], (int) argb[3]};
+        }
         return new int[]{alpha(), red(), green(), blue()};
     }
 
@@ -54,28 +69,84 @@ public class SensorColor implements HardwareDevice {
      * Gets the alpha value from the sensor
      */
     public int alpha() {
-        return colorSensor.alpha();
+        if (polled != null && polled.hasValue()) {
+            return (int) polled.get(0);
+        }
+        long start = profile.start();
+        int alpha = colorSensor.alpha();
+        profile.stop(HardwareProfiler.Call.ALPHA, start);
+        return alpha;
     }
 
     /**
      * Gets the red value from the sensor
      */
     public int red() {
-        return colorSensor.red();
+        if (polled != null && polled.hasValue()) {
+            return (int) polled.get(1);
+        }
+        long start = profile.start();
+        int red = colorSensor.red();
+        profile.stop(HardwareProfiler.Call.RED, start);
+        return red;
     }
 
     /**
      * Gets the green value from the sensor
      */
     public int green() {
-        return colorSensor.green();
+        if (polled != null && polled.hasValue()) {
+            return (int) polled.get(2);
+        }
+        long start = profile.start();
+        int green = colorSensor.green();
+        profile.stop(HardwareProfiler.Call.GREEN, start);
+        return green;
     }
 
     /**
      * Gets the blue value from the sensor
      */
     public int blue() {
-        return colorSensor.blue();
+        if (polled != null && polled.hasValue()) {
+            return (int) polled.get(3);
+        }
+        long start = profile.start();
+        int blue = colorSensor.blue();
+        profile.stop(HardwareProfiler.Call.BLUE, start);
+        return blue;
+    }
+
+    /**
+     * Reads the sensor on a background thread from now on, so the color getters return the
+     * latest reading instead of waiting for the sensor.  Until the first reading arrives they
+     * still read the sensor directly.
+     *
+     * @param poller the poller to read the sensor on
+     * @param period how often to read the sensor
+     * @param unit   the unit of the period
+     * @return the latest reading of the alpha, red, green and blue values, for checking how old
+     * it is
+     */
+    public PolledSensor startPolling(SensorPoller poller, long period, TimeUnit unit) {
+        polled = poller.register("color", 4, period, unit, argb -> {
+            argb[0] = colorSensor.alpha();
+            argb[1] = colorSensor.red();
+            argb[2] = colorSensor.green();
+            argb[3] = colorSensor.blue();
+        });
+        return polled;
+    }
+
+    /**
+     * Times the reads of this sensor from now on.  Reads made by a {@link SensorPoller} are
+     * not timed.
+     *
+     * @param profiler the profiler to record the reads in, or null to stop profiling
+     * @param name     the name to report the sensor under
+     */
+    public void setProfiler(HardwareProfiler profiler, String name) {
+        profile = profiler == null ? HardwareProfiler.DISABLED : profiler.register(name);
     }
 
     @Override
@@ -0,0 +1,133 @@
+package com.arcrobotics.ftclib.hardware;
+
+import androidx.annotation.NonNull;
+
+import com.arcrobotics.ftclib.util.Clock;
+import com.arcrobotics.ftclib.util.FixedRateLoop;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads slow sensors, such as the IMU or I2C distance and color sensors, on background threads
+ * so the main loop never waits for them.  Each registered sensor gets its own thread, which
+ * reads it at a fixed rate and publishes the reading to a {@link PolledSensor}.  Reading a
+ * {@link PolledSensor} returns the latest value instantly.
+ *
+ * <p>The sensor wrappers in this package register themselves:
+ *
+ * <pre>
+ * SensorPoller poller = new SensorPoller();
+ * PolledSensor imuReading = imu.startPolling(poller, 10, TimeUnit.MILLISECONDS);
+ * ...
+ * double heading = imu.getHeading();  // the heading from at most one period ago
+ * if (imuReading.getAge(TimeUnit.MILLISECONDS) &gt; 50) {
+ *     // the IMU has stopped responding
+ * }
+ * ...
+ * poller.close();
+ * </pre>
+ *
+ * <p>Close the poller when the OpMode ends to stop its threads.
+ */
+public class SensorPoller implements Closeable {
+
+    /**
+     * Reads a sensor into an array of values.  Called on the polling thread.
+     */
+    public interface Reader {
+        /**
+         * @param values the array to write the reading into
+         */
+        void read(double[] values);
+    }
+
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean running = true;
+
+    /**
+     * Starts polling a sensor.
+     *
+     * @param name   the name of the sensor, used to name its thread
+     * @param size   the number of values in a reading
+     * @param period how often to read the sensor
+     * @param unit   the unit of the period
+     * @param reader reads the sensor
+     * @return the latest reading of the sensor
+     */
+    public synchronized PolledSensor register(@NonNull String name, int size, long period,
+                                              @NonNull TimeUnit unit, @NonNull Reader reader) {
+        if (!running) {
+            throw new IllegalStateException("The poller has been closed");
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("A reading must have at least one value");
+        }
+        FixedRateLoop loop = new FixedRateLoop(period, unit);
+        // Sleep for the whole period; spinning would take CPU time from the main loop.
+        loop.setSpinThreshold(0, TimeUnit.NANOSECONDS);
+
+        PolledSensor sensor = new PolledSensor(name, size);
+        Thread thread = new Thread(() -> poll(sensor, reader, loop), "ftclib-poller-" + name);
+        thread.setDaemon(true);
+        threads.add(thread);
+        thread.start();
+        return sensor;
+    }
+
+    private void poll(PolledSensor sensor, Reader reader, FixedRateLoop loop) {
+        double[] reading = new double[sensor.size()];
+        loop.start();
+        try {
+            while (running) {
+                long start = Clock.DEFAULT.nanoTime();
+                try {
+                    reader.read(reading);
+                    long end = Clock.DEFAULT.nanoTime();
+                    sensor.publish(reading, start + (end - start) / 2);
+                } catch (RuntimeException e) {
+                    sensor.fail(e);
+                }
+                loop.waitForNextPeriod();
+            }
+        } catch (InterruptedException e) {
+            // Closed while sleeping.
+        }
+    }
+
+    /**
+     * @return whether the poller is still running
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops every polling thread and waits for them to finish their current read.  The last
+     * readings stay available.
+     */
+    @Override
+    public synchronized void close() {
+        running = false;
+        for (Thread thread : threads) {
+            thread.interrupt();
+        }
+        boolean interrupted = false;
+        for (Thread thread : threads) {
+            while (thread.isAlive()) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        threads.clear();
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
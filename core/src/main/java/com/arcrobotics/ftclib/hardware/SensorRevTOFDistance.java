@@ -8,6 +8,7 @@ import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Class for a time-of-flight distance sensor
@@ -28,6 +29,14 @@ public class SensorRevTOFDistance implements SensorDistanceEx {
      */
     private final List<DistanceTarget> targetList;
 
+    /**
+     * The latest background reading of the distance in millimeters, or null if the sensor is
+     * read directly.
+     */
+    private PolledSensor polled;
+
+    private HardwareProfiler.Device profile = HardwareProfiler.DISABLED;
+
     /**
      * Makes a distance sensor from an FTC DistanceSensor device.
      *
@@ -74,7 +83,40 @@ public class SensorRevTOFDistance implements SensorDistanceEx {
 
     @Override
     public double getDistance(DistanceUnit unit) {
-        return distanceSensor.getDistance(unit);
+        if (polled != null && polled.hasValue()) {
+            return unit.fromUnit(DistanceUnit.MM, polled.get(0));
+        }
+        long start = profile.start();
+        double distance = distanceSensor.getDistance(unit);
+        profile.stop(HardwareProfiler.Call.GET_DISTANCE, start);
+        return distance;
+    }
+
+    /**
+     * Reads the sensor on a background thread from now on, so {@link #getDistance(DistanceUnit)}
+     * returns the latest reading instead of waiting for the sensor.  Until the first reading
+     * arrives it still reads the sensor directly.
+     *
+     * @param poller the poller to read the sensor on
+     * @param period how often to read the sensor
+     * @param unit   the unit of the period
+     * @return the latest reading of the distance in millimeters, for checking how old it is
+     */
+    public PolledSensor startPolling(SensorPoller poller, long period, TimeUnit unit) {
+        polled = poller.register("distance", 1, period, unit,
+                distance -> distance[0] = distanceSensor.getDistance(DistanceUnit.MM));
+        return polled;
+    }
+
+    /**
+     * Times the reads of this sensor from now on.  Reads made by a {@link SensorPoller} are
+     * not timed.
+     *
+     * @param profiler the profiler to record the reads in, or null to stop profiling
+     * @param name     the name to report the sensor under
+     */
+    public void setProfiler(HardwareProfiler profiler, String name) {
+        profile = profiler == null ? HardwareProfiler.DISABLED : profiler.register(name);
     }
 
     @Override
@@ -101,4 +101,88 @@ public interface ServoEx extends HardwareDevice {
      */
     double getAngle();
 
+    /**
+     * Limits the speed and acceleration of profiled moves, so that large moves do not slam the
+     * mechanism or brown out the servo power module.
+     *
+     * <p>Servos that do not support profiled moves ignore the limits.
+     *
+     * @param maxVelocity     the fastest the servo may turn, in angle units per second
+     * @param maxAcceleration the fastest the servo may speed up or slow down, in angle units
+     *                        per second squared
+     * @param angleUnit       the unit of the limits
+     */
+    default void setMotionConstraints(double maxVelocity, double maxAcceleration, AngleUnit angleUnit) {
+    }
+
+    /**
+     * Limits the speed and acceleration of profiled moves, in degrees.
+     *
+     * @param maxVelocity     the fastest the servo may turn, in degrees per second
+     * @param maxAcceleration the fastest the servo may speed up or slow down, in degrees per
+     *                        second squared
+     */
+    default void setMotionConstraints(double maxVelocity, double maxAcceleration) {
+        setMotionConstraints(maxVelocity, maxAcceleration, AngleUnit.DEGREES);
+    }
+
+    /**
+     * Starts a move to a position that follows a trapezoidal profile within the motion
+     * constraints.  Call {@link #update()} every loop until {@link #isBusy()} is false; a move
+     * started during another one continues smoothly from where the servo is.
+     *
+     * <p>Servos that do not support profiled moves, or have no motion constraints, go straight
+     * to the position.
+     *
+     * @param position The location of the servo, which ranges from 0 to 1
+     */
+    default void moveToPosition(double position) {
+        setPosition(position);
+    }
+
+    /**
+     * Starts a profiled move to an angle.
+     *
+     * @param angle     The desired set position of the servo
+     * @param angleUnit The unit of the angle parameter
+     * @see #moveToPosition(double)
+     */
+    default void moveToAngle(double angle, AngleUnit angleUnit) {
+        turnToAngle(angle, angleUnit);
+    }
+
+    /**
+     * Starts a profiled move to an angle in degrees.
+     *
+     * @param degrees The desired set position of the servo in degrees
+     * @see #moveToPosition(double)
+     */
+    default void moveToAngle(double degrees) {
+        moveToAngle(degrees, AngleUnit.DEGREES);
+    }
+
+    /**
+     * Advances the profiled move, if there is one, to the current time.
+     */
+    default void update() {
+    }
+
+    /**
+     * @return true while a profiled move is in progress
+     */
+    default boolean isBusy() {
+        return false;
+    }
+
+    /**
+     * Estimates where the servo is, which is along the profile of the current move.  Servos do
+     * not report their position, so this assumes the servo keeps up with the motion
+     * constraints.
+     *
+     * @return The estimated position of the servo from 0 to 1.
+     */
+    default double getEstimatedPosition() {
+        return getPosition();
+    }
+
 }
@@ -1,5 +1,7 @@
 package com.arcrobotics.ftclib.hardware;
 
+import com.arcrobotics.ftclib.trajectory.TrapezoidProfile;
+import com.arcrobotics.ftclib.util.Clock;
 import com.qualcomm.robotcore.hardware.HardwareMap;
 import com.qualcomm.robotcore.hardware.Servo;
 import com.qualcomm.robotcore.util.Range;
@@ -9,15 +11,28 @@ import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
 public class SimpleServo implements ServoEx {
 
     private Servo servo;
+    private final CachedOutput positionOutput;
+    private HardwareProfiler.Device profile = HardwareProfiler.DISABLED;
 
     //always stored internally as radians
     private double maxAngle, minAngle;
 
+    //radians per second, or 0 when moves are not profiled
+    private double maxVelocity, maxAcceleration;
+    private TrapezoidProfile motionProfile;
+    // Reused by every profiled move, so following one does not allocate
+    private final TrapezoidProfile.Constraints constraints = new TrapezoidProfile.Constraints();
+    private final TrapezoidProfile.State goal = new TrapezoidProfile.State();
+    private final TrapezoidProfile.State state = new TrapezoidProfile.State();
+    private double profileStart;
+    private boolean busy;
+
     private final double maxPosition = 1;
     private final double minPosition = 0;
 
     public SimpleServo(HardwareMap hw, String servoName, double minAngle, double maxAngle, AngleUnit angleUnit) {
         servo = hw.get(Servo.class, servoName);
+        positionOutput = new CachedOutput(this::writePosition);
 
         this.minAngle = toRadians(minAngle, angleUnit);
         this.maxAngle = toRadians(maxAngle, angleUnit);
@@ -40,8 +55,7 @@ public class SimpleServo implements ServoEx {
 
     @Override
     public void turnToAngle(double angle, AngleUnit angleUnit) {
-        double angleRadians = Range.clip(toRadians(angle, angleUnit), minAngle, maxAngle);
-        setPosition((angleRadians - minAngle) / (getAngleRange(AngleUnit.RADIANS)));
+        setPosition(toPosition(angle, angleUnit));
     }
 
     @Override
@@ -55,9 +69,100 @@ public class SimpleServo implements ServoEx {
         setPosition(position);
     }
 
+    /**
+     * Sets the position of the servo at once, cancelling any profiled move.
+     *
+     * @param position The location of the servo, which ranges from 0 to 1
+     */
     @Override
     public void setPosition(double position) {
-        servo.setPosition(Range.clip(position, minPosition, maxPosition));
+        busy = false;
+        positionOutput.set(Range.clip(position, minPosition, maxPosition));
+    }
+
+    @Override
+    public void setMotionConstraints(double maxVelocity, double maxAcceleration, AngleUnit angleUnit) {
+        if (maxVelocity < 0 || maxAcceleration < 0) {
+            throw new IllegalArgumentException("The motion constraints cannot be negative");
+        }
+        this.maxVelocity = toRadians(maxVelocity, angleUnit);
+        this.maxAcceleration = toRadians(maxAcceleration, angleUnit);
+    }
+
+    /**
+     * Starts a profiled move, or sets the position at once if the servo has no motion
+     * constraints.  The profile starts from the estimated position and velocity of the servo,
+     * so a new target can be given at any time.
+     *
+     * @param position The location of the servo, which ranges from 0 to 1
+     */
+    @Override
+    public void moveToPosition(double position) {
+        double target = Range.clip(position, minPosition, maxPosition);
+        double range = getAngleRange(AngleUnit.RADIANS);
+        if (maxVelocity == 0 || maxAcceleration == 0 || range == 0) {
+            setPosition(target);
+            return;
+        }
+        double now = Clock.DEFAULT.seconds();
+        if (busy) {
+            motionProfile.calculate(now - profileStart, state);
+        } else {
+            state.position = getPosition();
+            state.velocity = 0;
+        }
+        if (Double.isNaN(state.position)) {
+            setPosition(target);
+            return;
+        }
+        constraints.maxVelocity = maxVelocity / range;
+        constraints.maxAcceleration = maxAcceleration / range;
+        goal.position = target;
+        goal.velocity = 0;
+        if (motionProfile == null) {
+            motionProfile = new TrapezoidProfile(constraints, goal, state);
+        } else {
+            motionProfile.set(constraints, goal, state);
+        }
+        profileStart = now;
+        busy = true;
+        update();
+    }
+
+    @Override
+    public void moveToAngle(double angle, AngleUnit angleUnit) {
+        moveToPosition(toPosition(angle, angleUnit));
+    }
+
+    /**
+     * Writes the position the profiled move has reached.  Positions that do not change, as
+     * when the move is over, are not written again.
+     */
+    @Override
+    public void update() {
+        if (!busy) {
+            return;
+        }
+        double t = Clock.DEFAULT.seconds() - profileStart;
+        motionProfile.calculate(t, state);
+        positionOutput.set(Range.clip(state.position, minPosition, maxPosition));
+        if (motionProfile.isFinished(t)) {
+            busy = false;
+        }
+    }
+
+    @Override
+    public boolean isBusy() {
+        return busy;
+    }
+
+    @Override
+    public double getEstimatedPosition() {
+        if (!busy) {
+            return getPosition();
+        }
+        double t = Clock.DEFAULT.seconds() - profileStart;
+        return Range.clip(motionProfile.calculate(t, state).position, minPosition, maxPosition);
     }
 
     @Override
@@ -73,17 +178,55 @@ public class SimpleServo implements ServoEx {
 
     @Override
     public void setInverted(boolean isInverted) {
+        long start = profile.start();
         servo.setDirection(isInverted ? Servo.Direction.REVERSE : Servo.Direction.FORWARD);
+        profile.stop(HardwareProfiler.Call.SET_DIRECTION, start);
     }
 
     @Override
     public boolean getInverted() {
-        return Servo.Direction.REVERSE == servo.getDirection();
+        long start = profile.start();
+        Servo.Direction direction = servo.getDirection();
+        profile.stop(HardwareProfiler.Call.GET_DIRECTION, start);
+        return Servo.Direction.REVERSE == direction;
     }
 
     @Override
     public double getPosition() {
-        return servo.getPosition();
+        double position = positionOutput.get();
+        if (Double.isNaN(position)) {
+            long start = profile.start();
+            position = servo.getPosition();
+            profile.stop(HardwareProfiler.Call.GET_POSITION, start);
+        }
+        return position;
+    }
+
+    private void writePosition(double position) {
+        long start = profile.start();
+        servo.setPosition(position);
+        profile.stop(HardwareProfiler.Call.SET_POSITION, start);
+    }
+
+    /**
+     * Times the hardware calls of this servo from now on.
+     *
+     * @param profiler the profiler to record the calls in, or null to stop profiling
+     * @param name     the name to report the servo under
+     */
+    public void setProfiler(HardwareProfiler profiler, String name) {
+        profile = profiler == null ? HardwareProfiler.DISABLED : profiler.register(name);
+    }
+
+    /**
+     * Returns the position output of the servo.  Use it to set the epsilon below which changes in
+     * position are not written, to read the write counters, or to add the servo to an
+     * {@link OutputBatch}.
+     *
+     * @return the position output
+     */
+    public CachedOutput getOutput() {
+        return positionOutput;
     }
 
     @Override
@@ -116,6 +259,11 @@ public class SimpleServo implements ServoEx {
         return "SimpleServo: " + port + "; " + controller;
     }
     
+    private double toPosition(double angle, AngleUnit angleUnit) {
+        double angleRadians = Range.clip(toRadians(angle, angleUnit), minAngle, maxAngle);
+        return (angleRadians - minAngle) / (getAngleRange(AngleUnit.RADIANS));
+    }
+
     private double toRadians(double angle, AngleUnit angleUnit) {
         return angleUnit == AngleUnit.DEGREES ? Math.toRadians(angle) : angle;
     }
@@ -0,0 +1,163 @@
+package com.arcrobotics.ftclib.hardware;
+
+import com.arcrobotics.ftclib.util.Clock;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import com.qualcomm.robotcore.hardware.VoltageSensor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Scales motor power by the battery voltage, so gains tuned on a fresh battery behave the same
+ * on a tired one.  A power of 0.5 then means half of the nominal voltage rather than half of
+ * whatever the battery happens to give.
+ *
+ * <p>Reading the voltage is a slow hardware call, so it is read at most once per sample period
+ * (half a second by default) and cached.  One compensator can be shared by every motor on the
+ * robot:
+ *
+ * <pre>
+ * VoltageCompensator compensator = new VoltageCompensator(hardwareMap);
+ * leftMotor.setVoltageCompensator(compensator);
+ * rightMotor.setVoltageCompensator(compensator);
+ * </pre>
+ */
+public class VoltageCompensator {
+
+    private final DoubleSupplier sensor;
+
+    private double nominalVoltage = 12;
+    private double voltage = Double.NaN;
+    private long samplePeriod = TimeUnit.MILLISECONDS.toNanos(500);
+    private long lastSample;
+    private long samples;
+
+    /**
+     * Reads every voltage sensor in the hardware map.
+     *
+     * @param hMap the hardware map from the OpMode
+     */
+    public VoltageCompensator(HardwareMap hMap) {
+        this(hMap.voltageSensor);
+    }
+
+    /**
+     * Reads the lowest positive voltage among the given sensors, such as one per hub.
+     *
+     * @param sensors the voltage sensors
+     */
+    public VoltageCompensator(Iterable<? extends VoltageSensor> sensors) {
+        List<VoltageSensor> list = new ArrayList<>();
+        for (VoltageSensor sensor : sensors) {
+            list.add(sensor);
+        }
+        if (list.isEmpty()) {
+            throw new IllegalArgumentException("There are no voltage sensors");
+        }
+        VoltageSensor[] array = list.toArray(new VoltageSensor[0]);
+        sensor = () -> {
+            double lowest = Double.POSITIVE_INFINITY;
+            for (VoltageSensor voltageSensor : array) {
+                double reading = voltageSensor.getVoltage();
+                if (reading > 0) {
+                    lowest = Math.min(lowest, reading);
+                }
+            }
+            return lowest;
+        };
+    }
+
+    /**
+     * @param voltage reads the battery voltage
+     */
+    public VoltageCompensator(DoubleSupplier voltage) {
+        sensor = voltage;
+    }
+
+    /**
+     * @param voltage the voltage the gains were tuned at, 12 volts by default
+     * @return this object for chaining purposes
+     */
+    public VoltageCompensator setNominalVoltage(double voltage) {
+        if (voltage <= 0) {
+            throw new IllegalArgumentException("The nominal voltage must be positive");
+        }
+        nominalVoltage = voltage;
+        return this;
+    }
+
+    /**
+     * @return the voltage the gains were tuned at
+     */
+    public double getNominalVoltage() {
+        return nominalVoltage;
+    }
+
+    /**
+     * @param period how long a voltage reading is used before the sensor is read again
+     * @param unit   the unit of the period
+     * @return this object for chaining purposes
+     */
+    public VoltageCompensator setSamplePeriod(long period, TimeUnit unit) {
+        if (period < 0) {
+            throw new IllegalArgumentException("The sample period cannot be negative");
+        }
+        samplePeriod = unit.toNanos(period);
+        return this;
+    }
+
+    /**
+     * Reads the voltage sensor now, regardless of the sample period.  A reading that is not a
+     * positive voltage is ignored and the previous one kept.
+     *
+     * @return the battery voltage
+     */
+    public double sample() {
+        double reading = sensor.getAsDouble();
+        if (reading > 0 && !Double.isInfinite(reading)) {
+            voltage = reading;
+        }
+        lastSample = Clock.DEFAULT.nanoTime();
+        samples++;
+        return voltage;
+    }
+
+    /**
+     * @return the battery voltage, read again if the cached reading is older than the sample
+     * period, or NaN if the sensor has never given a reading
+     */
+    public double getVoltage() {
+        if (samples == 0 || Clock.DEFAULT.nanoTime() - lastSample >= samplePeriod) {
+            sample();
+        }
+        return voltage;
+    }
+
+    /**
+     * @return the number of times the voltage sensor has been read
+     */
+    public long getSampleCount() {
+        return samples;
+    }
+
+    /**
+     * @return the nominal voltage divided by the battery voltage, or 1 if the voltage is unknown
+     */
+    public double getScale() {
+        double battery = getVoltage();
+        return Double.isNaN(battery) ? 1 : nominalVoltage / battery;
+    }
+
+    /**
+     * Scales a power so that it applies the same voltage as it would at the nominal voltage.
+     *
+     * @param power the power, between -1 and 1
+     * @return the compensated power, clipped to between -1 and 1
+     */
+    public double compensate(double power) {
+        return Math.max(-1, Math.min(1, power * getScale()));
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.arcrobotics.ftclib.hardware.motors;
+
+/**
+ * An alpha-beta filter, which predicts the next position from the current velocity and corrects
+ * the position and velocity by fixed fractions of the prediction error.  Cheaper than a
+ * {@link KalmanVelocityEstimator} and easy to tune: a smaller alpha trusts the encoder less, and
+ * a smaller beta changes the velocity more slowly.
+ *
+ * <p>The acceleration is the change in the estimated velocity over the last sample, so it is
+ * noisier than the velocity.
+ */
+public class AlphaBetaVelocityEstimator implements VelocityEstimator {
+
+    private final double alpha, beta;
+    private double position, velocity, acceleration, lastTime;
+    private boolean initialized;
+
+    /**
+     * @param alpha the fraction of the position error applied to the position, in (0, 1]
+     * @param beta  the fraction of the position error applied to the velocity, greater than 0
+     *              and less than 4 - 2 alpha for the filter to be stable
+     */
+    public AlphaBetaVelocityEstimator(double alpha, double beta) {
+        if (alpha <= 0 || alpha > 1) {
+            throw new IllegalArgumentException("Alpha must be between 0 and 1, exclusive to 0");
+        }
+        if (beta <= 0 || beta >= 4 - 2 * alpha) {
+            throw new IllegalArgumentException("Beta must be between 0 and 4 - 2 alpha, exclusive");
+        }
+        this.alpha = alpha;
+        this.beta = beta;
+    }
+
+    @Override
+    public void update(double measured, double time) {
+        if (!initialized) {
+            position = measured;
+            lastTime = time;
+            initialized = true;
+            return;
+        }
+        double dt = time - lastTime;
+        if (dt <= 0) {
+            return;
+        }
+
+        double predicted = position + velocity * dt;
+        double error = measured - predicted;
+        double newVelocity = velocity + beta * error / dt;
+        position = predicted + alpha * error;
+        acceleration = (newVelocity - velocity) / dt;
+        velocity = newVelocity;
+        lastTime = time;
+    }
+
+    @Override
+    public double getVelocity() {
+        return velocity;
+    }
+
+    @Override
+    public double getAcceleration() {
+        return acceleration;
+    }
+
+    @Override
+    public void reset() {
+        initialized = false;
+        position = 0;
+        velocity = 0;
+        acceleration = 0;
+    }
+
+}
@@ -1,5 +1,7 @@
 package com.arcrobotics.ftclib.hardware.motors;
 
+import com.arcrobotics.ftclib.hardware.CachedOutput;
+import com.arcrobotics.ftclib.hardware.HardwareProfiler;
 import com.qualcomm.robotcore.hardware.HardwareMap;
 
 /**
@@ -20,28 +22,45 @@ public class CRServo extends Motor {
      */
     public CRServo(HardwareMap hMap, String id) {
         crServo = hMap.get(com.qualcomm.robotcore.hardware.CRServo.class, id);
-
+        powerOutput = new CachedOutput(this::writePower);
     }
 
     @Override
     public void set(double output) {
-        crServo.setPower(output);
+        powerOutput.set(output);
     }
 
     @Override
     public double get() {
-        return crServo.getPower();
+        double power = powerOutput.get();
+        if (Double.isNaN(power)) {
+            long start = profile.start();
+            power = crServo.getPower();
+            profile.stop(HardwareProfiler.Call.GET_POWER, start);
+        }
+        return power;
+    }
+
+    private void writePower(double power) {
+        long start = profile.start();
+        crServo.setPower(power);
+        profile.stop(HardwareProfiler.Call.SET_POWER, start);
     }
 
     @Override
     public void setInverted(boolean isInverted) {
+        long start = profile.start();
         crServo.setDirection(isInverted ? com.qualcomm.robotcore.hardware.CRServo.Direction.REVERSE
                 : com.qualcomm.robotcore.hardware.CRServo.Direction.FORWARD);
+        profile.stop(HardwareProfiler.Call.SET_DIRECTION, start);
     }
 
     @Override
     public boolean getInverted() {
-        return crServo.getDirection() == com.qualcomm.robotcore.hardware.CRServo.Direction.REVERSE;
+        long start = profile.start();
+        com.qualcomm.robotcore.hardware.CRServo.Direction direction = crServo.getDirection();
+        profile.stop(HardwareProfiler.Call.GET_DIRECTION, start);
+        return direction == com.qualcomm.robotcore.hardware.CRServo.Direction.REVERSE;
     }
 
     @Override
@@ -51,6 +70,7 @@ public class CRServo extends Motor {
 
     public void stop() {
         set(0);
+        powerOutput.flush();
     }
 
     @Override
@@ -0,0 +1,117 @@
+package com.arcrobotics.ftclib.hardware.motors;
+
+/**
+ * A Kalman filter over position, velocity and acceleration, modelling the motor as moving with a
+ * constant acceleration disturbed by random jerk.  It weighs each sample by how much it trusts
+ * the encoder against the model, so it smooths more than an {@link AlphaBetaVelocityEstimator}
+ * when the motor is steady and reacts faster when it is not.
+ *
+ * <p>The covariance is kept as six scalars rather than matrices, so an update is a few dozen
+ * multiplications and allocates nothing.
+ */
+public class KalmanVelocityEstimator implements VelocityEstimator {
+
+    // The model starts out knowing nothing about the velocity or acceleration of the motor.
+    private static final double INITIAL_VELOCITY_VARIANCE = 1e8;
+    private static final double INITIAL_ACCELERATION_VARIANCE = 1e10;
+
+    private final double jerkVariance, measurementVariance;
+
+    private double position, velocity, acceleration, lastTime;
+    private boolean initialized;
+
+    // The symmetric covariance of the state.
+    private double p00, p01, p02, p11, p12, p22;
+
+    /**
+     * @param jerkVariance        how much the acceleration is expected to change, as the
+     *                            spectral density of the jerk in ticks squared per second to the
+     *                            fifth; larger values follow changes in speed faster
+     * @param measurementVariance the variance of the position reading in ticks squared; the
+     *                            quantization of the encoder alone contributes 1/12
+     */
+    public KalmanVelocityEstimator(double jerkVariance, double measurementVariance) {
+        if (jerkVariance <= 0 || measurementVariance <= 0) {
+            throw new IllegalArgumentException("Variances must be positive");
+        }
+        this.jerkVariance = jerkVariance;
+        this.measurementVariance = measurementVariance;
+    }
+
+    @Override
+    public void update(double measured, double time) {
+        if (!initialized) {
+            position = measured;
+            velocity = 0;
+            acceleration = 0;
+            p00 = measurementVariance;
+            p01 = p02 = p12 = 0;
+            p11 = INITIAL_VELOCITY_VARIANCE;
+            p22 = INITIAL_ACCELERATION_VARIANCE;
+            lastTime = time;
+            initialized = true;
+            return;
+        }
+        double dt = time - lastTime;
+        if (dt <= 0) {
+            return;
+        }
+        lastTime = time;
+
+        // Predict the state forward with x' = F x.
+        double half = dt * dt / 2;
+        position += velocity * dt + acceleration * half;
+        velocity += acceleration * dt;
+
+        // P' = F P F^T + Q, with F = [[1, dt, dt^2/2], [0, 1, dt], [0, 0, 1]].
+        double a0 = p00 + dt * p01 + half * p02;
+        double a1 = p01 + dt * p11 + half * p12;
+        double a2 = p02 + dt * p12 + half * p22;
+        double b1 = p11 + dt * p12;
+        double b2 = p12 + dt * p22;
+        double q = jerkVariance;
+        double dt2 = dt * dt, dt3 = dt2 * dt;
+        p00 = a0 + dt * a1 + half * a2 + q * dt3 * dt2 / 20;
+        p01 = a1 + dt * a2 + q * dt2 * dt2 / 8;
+        p02 = a2 + q * dt3 / 6;
+        p11 = b1 + dt * b2 + q * dt3 / 3;
+        p12 = b2 + q * dt2 / 2;
+        p22 = p22 + q * dt;
+
+        // Correct with the measured position.
+        double innovation = measured - position;
+        double s = p00 + measurementVariance;
+        double k0 = p00 / s, k1 = p01 / s, k2 = p02 / s;
+        position += k0 * innovation;
+        velocity += k1 * innovation;
+        acceleration += k2 * innovation;
+
+        // P = (I - K H) P, where H picks out the position.
+        double r0 = p00, r1 = p01, r2 = p02;
+        p00 -= k0 * r0;
+        p01 -= k0 * r1;
+        p02 -= k0 * r2;
+        p11 -= k1 * r1;
+        p12 -= k1 * r2;
+        p22 -= k2 * r2;
+    }
+
+    @Override
+    public double getVelocity() {
+        return velocity;
+    }
+
+    @Override
+    public double getAcceleration() {
+        return acceleration;
+    }
+
+    @Override
+    public void reset() {
+        initialized = false;
+        position = 0;
+        velocity = 0;
+        acceleration = 0;
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.arcrobotics.ftclib.hardware.motors;
+
+/**
+ * Fits a parabola to the most recent positions by least squares, and takes the velocity and
+ * acceleration of the fit at the newest sample.  A window of around five to ten samples smooths
+ * out the tick quantization of the encoder while following changes in speed within a few loops;
+ * larger windows are smoother but lag more.
+ *
+ * <p>With only two samples in the window the velocity is the slope between them and the
+ * acceleration is zero.
+ */
+public class LeastSquaresVelocityEstimator implements VelocityEstimator {
+
+    private final double[] positions, times;
+    private int size, newest;
+    private double velocity, acceleration;
+
+    /**
+     * @param window the number of samples to fit, at least two
+     */
+    public LeastSquaresVelocityEstimator(int window) {
+        if (window < 2) {
+            throw new IllegalArgumentException("The window must hold at least two samples");
+        }
+        positions = new double[window];
+        times = new double[window];
+        reset();
+    }
+
+    @Override
+    public void update(double position, double time) {
+        if (size > 0 && time <= times[newest]) {
+            positions[newest] = position;
+        } else {
+            newest = (newest + 1) % positions.length;
+            positions[newest] = position;
+            times[newest] = time;
+            if (size < positions.length) {
+                size++;
+            }
+        }
+        fit();
+    }
+
+    /**
+     * Fits p = c0 + c1 t + c2 t^2, with t and p measured from the newest sample so that c1 is the
+     * velocity and 2 c2 the acceleration at that sample.  Samples never share a time, so the
+     * span of a window of two or more samples is positive.
+     */
+    private void fit() {
+        if (size < 2) {
+            velocity = 0;
+            acceleration = 0;
+            return;
+        }
+
+        // Time is measured in units of the window's span so the equations stay well conditioned.
+        double t0 = times[newest], p0 = positions[newest];
+        double span = t0 - times[(newest - size + 1 + positions.length) % positions.length];
+        double s1 = 0, s2 = 0, s3 = 0, s4 = 0, q0 = 0, q1 = 0, q2 = 0;
+        for (int i = 0; i < size; i++) {
+            int index = (newest - i + positions.length) % positions.length;
+            double t = (times[index] - t0) / span;
+            double p = positions[index] - p0;
+            double t2 = t * t;
+            s1 += t;
+            s2 += t2;
+            s3 += t2 * t;
+            s4 += t2 * t2;
+            q0 += p;
+            q1 += p * t;
+            q2 += p * t2;
+        }
+        double n = size;
+
+        if (size > 2) {
+            // Cramer's rule on the normal equations.
+            double det = n * (s2 * s4 - s3 * s3) - s1 * (s1 * s4 - s3 * s2) + s2 * (s1 * s3 - s2 * s2);
+            if (Math.abs(det) > 1e-9) {
+                double detB = n * (q1 * s4 - s3 * q2) - q0 * (s1 * s4 - s3 * s2) + s2 * (s1 * q2 - q1 * s2);
+                double detC = n * (s2 * q2 - q1 * s3) - s1 * (s1 * q2 - q1 * s2) + q0 * (s1 * s3 - s2 * s2);
+                velocity = detB / det / span;
+                acceleration = 2 * detC / det / (span * span);
+                return;
+            }
+        }
+
+        // A straight line through the samples.
+        double denominator = n * s2 - s1 * s1;
+        velocity = denominator == 0 ? 0 : (n * q1 - s1 * q0) / denominator / span;
+        acceleration = 0;
+    }
+
+    @Override
+    public double getVelocity() {
+        return velocity;
+    }
+
+    @Override
+    public double getAcceleration() {
+        return acceleration;
+    }
+
+    @Override
+    public void reset() {
+        size = 0;
+        newest = positions.length - 1;
+        velocity = 0;
+        acceleration = 0;
+    }
+
+}
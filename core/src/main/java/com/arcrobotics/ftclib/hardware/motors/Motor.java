@@ -5,12 +5,17 @@ import androidx.annotation.NonNull;
 import com.arcrobotics.ftclib.controller.PController;
 import com.arcrobotics.ftclib.controller.PIDController;
 import com.arcrobotics.ftclib.controller.wpilibcontroller.SimpleMotorFeedforward;
+import com.arcrobotics.ftclib.hardware.CachedOutput;
 import com.arcrobotics.ftclib.hardware.HardwareDevice;
+import com.arcrobotics.ftclib.hardware.HardwareProfiler;
+import com.arcrobotics.ftclib.hardware.VoltageCompensator;
+import com.arcrobotics.ftclib.util.Clock;
 import com.qualcomm.robotcore.hardware.DcMotor;
 import com.qualcomm.robotcore.hardware.DcMotorEx;
 import com.qualcomm.robotcore.hardware.HardwareMap;
 import com.qualcomm.robotcore.hardware.configuration.typecontainers.MotorConfigurationType;
 
+import java.util.function.IntSupplier;
 import java.util.function.Supplier;
 
 /**
@@ -62,10 +67,18 @@ public class Motor implements HardwareDevice {
 
     public class Encoder {
 
-        private Supplier<Integer> m_position;
+        /**
+         * How long the position may stay the same before the estimator is given a repeated
+         * sample, so its velocity can settle to zero when the motor stops.
+         */
+        private static final double HOLD_PERIOD = 0.05;
+
+        private IntSupplier m_position;
         private int resetVal, lastPosition;
         private Direction direction;
-        private double lastTimeStamp, veloEstimate, dpp, accel, lastVelo;
+        private double lastPositionTime, lastVelocityTime, veloEstimate, dpp, accel, lastVelo;
+        private VelocityEstimator estimator;
+        private double lastSampleTime;
 
         /**
          * The encoder object for the motor.
@@ -73,29 +86,50 @@ public class Motor implements HardwareDevice {
          * @param position the position supplier which just points to the
          *                 current position of the motor in ticks
          */
-        public Encoder(Supplier<Integer> position) {
+        public Encoder(IntSupplier position) {
             m_position = position;
             dpp = 1;
             resetVal = 0;
             lastPosition = 0;
             veloEstimate = 0;
             direction = Direction.FORWARD;
-            lastTimeStamp = (double) System.nanoTime() / 1E9;
+            lastPositionTime = Clock.DEFAULT.seconds();
+            lastVelocityTime = lastPositionTime;
+            lastSampleTime = Double.NaN;
+        }
+
+        /**
+         * The encoder object for the motor.
+         *
+         * @param position the position supplier which just points to the
+         *                 current position of the motor in ticks
+         * @deprecated boxes the position on every read; use {@link #Encoder(IntSupplier)}
+         */
+        @Deprecated
+        public Encoder(Supplier<Integer> position) {
+            this((IntSupplier) position::get);
         }
 
         /**
          * @return the current position of the encoder
          */
         public int getPosition() {
-            int currentPosition = m_position.get();
-            if (currentPosition != lastPosition) {
-                double currentTime = (double) System.nanoTime() / 1E9;
-                double dt = currentTime - lastTimeStamp;
+            int currentPosition = m_position.getAsInt();
+            double currentTime = Clock.DEFAULT.seconds();
+            boolean changed = currentPosition != lastPosition;
+            if (changed) {
+                double dt = currentTime - lastPositionTime;
                 veloEstimate = (currentPosition - lastPosition) / dt;
                 lastPosition = currentPosition;
-                lastTimeStamp = currentTime;
+                lastPositionTime = currentTime;
+            }
+            int position = direction.getMultiplier() * currentPosition;
+            if (estimator != null && (changed || Double.isNaN(lastSampleTime)
+                    || currentTime - lastSampleTime >= HOLD_PERIOD)) {
+                estimator.update(position, currentTime);
+                lastSampleTime = currentTime;
             }
-            return direction.getMultiplier() * currentPosition - resetVal;
+            return position - resetVal;
         }
 
         /**
@@ -109,6 +143,10 @@ public class Motor implements HardwareDevice {
          * @return the velocity of the encoder adjusted to account for the distance per pulse
          */
         public double getRate() {
+            if (estimator != null) {
+                getPosition();
+                return dpp * estimator.getVelocity();
+            }
             return dpp * getVelocity();
         }
 
@@ -136,6 +174,36 @@ public class Motor implements HardwareDevice {
          */
         public void setDirection(Direction direction) {
             this.direction = direction;
+            if (estimator != null) {
+                estimator.reset();
+                lastSampleTime = Double.NaN;
+            }
+        }
+
+        /**
+         * Estimates the velocity and acceleration of the encoder from its positions, rather than
+         * reading the velocity from the motor.  The estimator is given a sample whenever the
+         * position changes, and at least every 50 milliseconds while it does not, so it sees
+         * the motor stop.  Once set, {@link #getRate()}, {@link #getCorrectedVelocity()} and
+         * {@link #getAcceleration()} all come from the estimator.
+         *
+         * @param estimator the estimator to use, or null to read the velocity from the motor
+         * @return this encoder
+         */
+        public Encoder setVelocityEstimator(VelocityEstimator estimator) {
+            this.estimator = estimator;
+            lastSampleTime = Double.NaN;
+            if (estimator != null) {
+                estimator.reset();
+            }
+            return this;
+        }
+
+        /**
+         * @return the velocity estimator, or null if the velocity is read from the motor
+         */
+        public VelocityEstimator getVelocityEstimator() {
+            return estimator;
         }
 
         /**
@@ -151,11 +219,11 @@ public class Motor implements HardwareDevice {
         public double getRawVelocity() {
             double velo = getVelocity();
             if (velo != lastVelo) {
-                double currentTime = (double) System.nanoTime() / 1E9;
-                double dt = currentTime - lastTimeStamp;
+                double currentTime = Clock.DEFAULT.seconds();
+                double dt = currentTime - lastVelocityTime;
                 accel = (velo - lastVelo) / dt;
                 lastVelo = velo;
-                lastTimeStamp = currentTime;
+                lastVelocityTime = currentTime;
             }
             return velo;
         }
@@ -164,7 +232,7 @@ public class Motor implements HardwareDevice {
          * @return the estimated acceleration of the motor in ticks per second squared
          */
         public double getAcceleration() {
-            return accel;
+            return estimator == null ? accel : estimator.getAcceleration();
         }
 
         private final static int CPS_STEP = 0x10000;
@@ -175,6 +243,10 @@ public class Motor implements HardwareDevice {
          * @return the corrected velocity
          */
         public double getCorrectedVelocity() {
+            if (estimator != null) {
+                getPosition();
+                return estimator.getVelocity();
+            }
             double real = getRawVelocity();
             while (Math.abs(veloEstimate - real) > CPS_STEP / 2.0) {
                 real += Math.signum(veloEstimate - real) * CPS_STEP;
@@ -210,6 +282,21 @@ public class Motor implements HardwareDevice {
     public DcMotor motor;
     public Encoder encoder;
 
+    /**
+     * The power output of the motor, which skips writes that would not change the power
+     */
+    protected CachedOutput powerOutput;
+
+    /**
+     * The timings of the hardware calls, or {@link HardwareProfiler#DISABLED}
+     */
+    protected HardwareProfiler.Device profile = HardwareProfiler.DISABLED;
+
+    /**
+     * Scales the power output by the battery voltage, or null to apply it as is
+     */
+    protected VoltageCompensator voltageCompensator;
+
     /**
      * The runmode of the motor
      */
@@ -258,7 +345,8 @@ public class Motor implements HardwareDevice {
      */
     public Motor(@NonNull HardwareMap hMap, String id, @NonNull GoBILDA gobildaType) {
         motor = hMap.get(DcMotor.class, id);
-        encoder = new Encoder(motor::getCurrentPosition);
+        encoder = new Encoder(this::readPosition);
+        powerOutput = new CachedOutput(this::writePower);
 
         runmode = RunMode.RawPower;
         type = gobildaType;
@@ -291,18 +379,57 @@ public class Motor implements HardwareDevice {
      * @param output The percentage of power to set. Value should be between -1.0 and 1.0.
      */
     public void set(double output) {
+        powerOutput.set(compensate(calculate(output)));
+    }
+
+    /**
+     * Runs the control loop of the current {@link RunMode} without writing its result.
+     *
+     * @param output The percentage of power to set. Value should be between -1.0 and 1.0.
+     * @return the power to apply at the nominal voltage
+     */
+    protected double calculate(double output) {
         if (runmode == RunMode.VelocityControl) {
             double speed = bufferFraction * output * ACHIEVABLE_MAX_TICKS_PER_SECOND;
             double velocity = veloController.calculate(getVelocity(), speed) + feedforward.calculate(speed, encoder.getAcceleration());
-            motor.setPower(velocity / ACHIEVABLE_MAX_TICKS_PER_SECOND);
+            return velocity / ACHIEVABLE_MAX_TICKS_PER_SECOND;
         } else if (runmode == RunMode.PositionControl) {
             double error = positionController.calculate(getDistance());
-            motor.setPower(output * error);
+            return output * error;
         } else {
-            motor.setPower(output);
+            return output;
         }
     }
 
+    /**
+     * Scales a power by the battery voltage if the motor has a voltage compensator.
+     *
+     * @param power the power at the nominal voltage
+     * @return the power to write
+     */
+    protected double compensate(double power) {
+        return voltageCompensator == null ? power : voltageCompensator.compensate(power);
+    }
+
+    /**
+     * Scales every power set from now on by the battery voltage, so that the output, and the
+     * feedforward and gains in the control modes, behave as they would at the nominal voltage
+     * of the compensator.
+     *
+     * @param compensator the compensator, usually shared by every motor, or null to stop
+     *                    compensating
+     */
+    public void setVoltageCompensator(VoltageCompensator compensator) {
+        voltageCompensator = compensator;
+    }
+
+    /**
+     * @return the voltage compensator of the motor, or null if it has none
+     */
+    public VoltageCompensator getVoltageCompensator() {
+        return voltageCompensator;
+    }
+
     /**
      * Sets the distance per pulse of the encoder in units per tick.
      *
@@ -346,8 +473,12 @@ public class Motor implements HardwareDevice {
      */
     public void stopAndResetEncoder() {
         encoder.resetVal = 0;
+        long start = profile.start();
         motor.setMode(DcMotor.RunMode.STOP_AND_RESET_ENCODER);
+        profile.stop(HardwareProfiler.Call.SET_MODE, start);
+        start = profile.start();
         motor.setMode(DcMotor.RunMode.RUN_WITHOUT_ENCODER);
+        profile.stop(HardwareProfiler.Call.SET_MODE, start);
     }
 
     /**
@@ -377,7 +508,9 @@ public class Motor implements HardwareDevice {
      * @param behavior the behavior desired
      */
     public void setZeroPowerBehavior(ZeroPowerBehavior behavior) {
+        long start = profile.start();
         motor.setZeroPowerBehavior(behavior.getBehavior());
+        profile.stop(HardwareProfiler.Call.SET_ZERO_POWER_BEHAVIOR, start);
     }
 
     /**
@@ -436,7 +569,23 @@ public class Motor implements HardwareDevice {
     }
 
     protected double getVelocity() {
-        return ((DcMotorEx) motor).getVelocity();
+        long start = profile.start();
+        double velocity = ((DcMotorEx) motor).getVelocity();
+        profile.stop(HardwareProfiler.Call.GET_VELOCITY, start);
+        return velocity;
+    }
+
+    private int readPosition() {
+        long start = profile.start();
+        int position = motor.getCurrentPosition();
+        profile.stop(HardwareProfiler.Call.GET_CURRENT_POSITION, start);
+        return position;
+    }
+
+    private void writePower(double power) {
+        long start = profile.start();
+        motor.setPower(power);
+        profile.stop(HardwareProfiler.Call.SET_POWER, start);
     }
 
     /**
@@ -445,7 +594,24 @@ public class Motor implements HardwareDevice {
      * @return The current set speed. Value is between -1.0 and 1.0.
      */
     public double get() {
-        return motor.getPower();
+        double power = powerOutput.get();
+        if (Double.isNaN(power)) {
+            long start = profile.start();
+            power = motor.getPower();
+            profile.stop(HardwareProfiler.Call.GET_POWER, start);
+        }
+        return power;
+    }
+
+    /**
+     * Returns the power output of the motor.  Use it to set the epsilon below which changes in
+     * power are not written, to read the write counters, or to add the motor to an
+     * {@link com.arcrobotics.ftclib.hardware.OutputBatch}.
+     *
+     * @return the power output
+     */
+    public CachedOutput getOutput() {
+        return powerOutput;
     }
 
     /**
@@ -486,7 +652,9 @@ public class Motor implements HardwareDevice {
      * @param isInverted The state of inversion true is inverted.
      */
     public void setInverted(boolean isInverted) {
+        long start = profile.start();
         motor.setDirection(isInverted ? DcMotor.Direction.REVERSE : DcMotor.Direction.FORWARD);
+        profile.stop(HardwareProfiler.Call.SET_DIRECTION, start);
     }
 
     /**
@@ -495,7 +663,10 @@ public class Motor implements HardwareDevice {
      * @return isInverted The state of the inversion true is inverted.
      */
     public boolean getInverted() {
-        return DcMotor.Direction.REVERSE == motor.getDirection();
+        long start = profile.start();
+        DcMotor.Direction direction = motor.getDirection();
+        profile.stop(HardwareProfiler.Call.GET_DIRECTION, start);
+        return DcMotor.Direction.REVERSE == direction;
     }
 
     /**
@@ -539,6 +710,16 @@ public class Motor implements HardwareDevice {
         positionController.setP(kp);
     }
 
+    /**
+     * Times the hardware calls of this motor from now on.
+     *
+     * @param profiler the profiler to record the calls in, or null to stop profiling
+     * @param name     the name to report the motor under
+     */
+    public void setProfiler(HardwareProfiler profiler, String name) {
+        profile = profiler == null ? HardwareProfiler.DISABLED : profiler.register(name);
+    }
+
     /**
      * Disable the motor.
      */
@@ -558,7 +739,8 @@ public class Motor implements HardwareDevice {
      * motor.
      */
     public void stopMotor() {
-        motor.setPower(0);
+        powerOutput.set(0);
+        powerOutput.flush();
     }
 
 }
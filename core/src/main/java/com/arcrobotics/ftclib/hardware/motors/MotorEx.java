@@ -2,6 +2,7 @@ package com.arcrobotics.ftclib.hardware.motors;
 
 import androidx.annotation.NonNull;
 
+import com.arcrobotics.ftclib.hardware.HardwareProfiler;
 import com.qualcomm.robotcore.hardware.DcMotorEx;
 import com.qualcomm.robotcore.hardware.HardwareMap;
 
@@ -57,16 +58,16 @@ public class MotorEx extends Motor {
     }
 
     @Override
-    public void set(double output) {
+    protected double calculate(double output) {
         if (runmode == RunMode.VelocityControl) {
             double speed = bufferFraction * output * ACHIEVABLE_MAX_TICKS_PER_SECOND;
             double velocity = veloController.calculate(getCorrectedVelocity(), speed) + feedforward.calculate(speed, getAcceleration());
-            motorEx.setPower(velocity / ACHIEVABLE_MAX_TICKS_PER_SECOND);
+            return velocity / ACHIEVABLE_MAX_TICKS_PER_SECOND;
         } else if (runmode == RunMode.PositionControl) {
             double error = positionController.calculate(encoder.getPosition());
-            motorEx.setPower(output * error);
+            return output * error;
         } else {
-            motorEx.setPower(output);
+            return output;
         }
     }
 
@@ -92,7 +93,10 @@ public class MotorEx extends Motor {
      */
     @Override
     public double getVelocity() {
-        return motorEx.getVelocity();
+        long start = profile.start();
+        double velocity = motorEx.getVelocity();
+        profile.stop(HardwareProfiler.Call.GET_VELOCITY, start);
+        return velocity;
     }
 
     /**
@@ -2,6 +2,10 @@ package com.arcrobotics.ftclib.hardware.motors;
 
 import androidx.annotation.NonNull;
 
+import com.arcrobotics.ftclib.hardware.CachedOutput;
+import com.arcrobotics.ftclib.hardware.HardwareProfiler;
+import com.arcrobotics.ftclib.hardware.VoltageCompensator;
+
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
@@ -11,11 +15,39 @@ import java.util.stream.Collectors;
  * Allows multiple {@link Motor} objects to be linked together
  * as a single group. Multiple motors will act together.
  *
+ * <p>By default the leader runs the control loop and the followers copy its power.  Motors that
+ * carry different loads, such as the two spools of a lift, drift apart that way; in
+ * {@link #setSynchronized(boolean) synchronized} mode every motor instead runs its own loop
+ * against the shared setpoint, optionally pulled toward the others by
+ * {@link #setCrossCoupling(double) cross-coupling}.
+ *
  * @author Jackson
  */
 public class MotorGroup extends Motor implements Iterable<Motor> {
 
+    /**
+     * How the encoders of the group are combined into the position and velocity of the group.
+     */
+    public enum Feedback {
+        /**
+         * Only the leader's encoder is read.
+         */
+        LEADER,
+        /**
+         * The mean of every encoder.
+         */
+        AVERAGE,
+        /**
+         * The median of every encoder, which ignores one encoder that is slipping or unplugged.
+         */
+        MEDIAN
+    }
+
     private final Motor[] group;
+    private final double[] samples, sorted;
+    private Feedback feedback = Feedback.LEADER;
+    private boolean synchronize;
+    private double crossCoupling;
 
     /**
      * Create a new MotorGroup with the provided Motors.
@@ -27,6 +59,8 @@ public class MotorGroup extends Motor implements Iterable<Motor> {
         group = new Motor[followers.length + 1];
         group[0] = leader;
         System.arraycopy(followers, 0, group, 1, followers.length);
+        samples = new double[group.length];
+        sorted = new double[group.length];
     }
 
     /**
@@ -36,9 +70,106 @@ public class MotorGroup extends Motor implements Iterable<Motor> {
      */
     @Override
     public void set(double speed) {
-        group[0].set(speed);
-        for (int i = 1; i < group.length; i++) {
-            group[i].set(group[0].get());
+        if (!synchronize) {
+            group[0].set(speed);
+            double power = group[0].getOutput().get();
+            for (int i = 1; i < group.length; i++) {
+                group[i].getOutput().set(power);
+            }
+            return;
+        }
+
+        double reference = 0;
+        if (crossCoupling != 0) {
+            for (int i = 0; i < group.length; i++) {
+                samples[i] = group[i].getDistance();
+            }
+            reference = combine();
+        }
+        for (int i = 0; i < group.length; i++) {
+            double power = group[i].calculate(speed);
+            if (crossCoupling != 0) {
+                power += crossCoupling * (reference - samples[i]);
+            }
+            group[i].getOutput().set(group[i].compensate(power));
+        }
+    }
+
+    /**
+     * Makes every motor run its own control loop against the setpoint of the group, rather than
+     * copying the power of the leader.  The run mode, coefficients and targets of the group are
+     * given to every motor, so set them on the group.
+     *
+     * <p>Each motor reads its own encoder every loop; run a
+     * {@link com.arcrobotics.ftclib.hardware.BulkReadManager} so those reads come from one bulk
+     * read of each hub.
+     *
+     * @param synchronize true to run a loop on every motor, false to have the followers copy
+     *                    the leader
+     */
+    public void setSynchronized(boolean synchronize) {
+        this.synchronize = synchronize;
+    }
+
+    /**
+     * @return true if every motor runs its own control loop
+     */
+    public boolean isSynchronized() {
+        return synchronize;
+    }
+
+    /**
+     * Sets the gain that corrects the position of each motor toward the position of the group,
+     * as given by the {@link #setFeedback(Feedback) feedback}, in synchronized mode.  A motor
+     * that falls behind the others is given more power, and one that runs ahead less.
+     *
+     * @param gain the power added per unit of distance between the motor and the group, or 0
+     *             to let the motors run independently
+     */
+    public void setCrossCoupling(double gain) {
+        crossCoupling = gain;
+    }
+
+    /**
+     * @return the cross-coupling gain
+     */
+    public double getCrossCoupling() {
+        return crossCoupling;
+    }
+
+    /**
+     * Sets how the encoders are combined into the position and velocity of the group, which is
+     * also the reference of the cross-coupling correction.
+     *
+     * @param feedback the feedback, {@link Feedback#LEADER} by default
+     */
+    public void setFeedback(@NonNull Feedback feedback) {
+        this.feedback = feedback;
+    }
+
+    /**
+     * @return how the encoders are combined
+     */
+    public Feedback getFeedback() {
+        return feedback;
+    }
+
+    private double combine() {
+        switch (feedback) {
+            case AVERAGE:
+                double sum = 0;
+                for (double sample : samples) {
+                    sum += sample;
+                }
+                return sum / samples.length;
+            case MEDIAN:
+                System.arraycopy(samples, 0, sorted, 0, samples.length);
+                Arrays.sort(sorted);
+                int middle = sorted.length / 2;
+                return sorted.length % 2 == 1 ? sorted[middle]
+                        : (sorted[middle - 1] + sorted[middle]) / 2;
+            default:
+                return samples[0];
         }
     }
 
@@ -59,9 +190,78 @@ public class MotorGroup extends Motor implements Iterable<Motor> {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * @return the power output of the leader motor; add the group itself to an
+     * {@link com.arcrobotics.ftclib.hardware.OutputBatch} to batch every motor in it
+     */
+    @Override
+    public CachedOutput getOutput() {
+        return group[0].getOutput();
+    }
+
+    /**
+     * @return the velocity of the group in ticks per second, combined as set by
+     * {@link #setFeedback(Feedback)}
+     */
     @Override
     public double getVelocity() {
-        return group[0].getCorrectedVelocity();
+        if (feedback == Feedback.LEADER) {
+            return group[0].getCorrectedVelocity();
+        }
+        for (int i = 0; i < group.length; i++) {
+            samples[i] = group[i].getCorrectedVelocity();
+        }
+        return combine();
+    }
+
+    @Override
+    public double getCorrectedVelocity() {
+        return getVelocity();
+    }
+
+    /**
+     * @return the velocity of the group in units of distance per second, combined as set by
+     * {@link #setFeedback(Feedback)}
+     */
+    @Override
+    public double getRate() {
+        if (feedback == Feedback.LEADER) {
+            return group[0].getRate();
+        }
+        for (int i = 0; i < group.length; i++) {
+            samples[i] = group[i].getRate();
+        }
+        return combine();
+    }
+
+    /**
+     * @return the distance traveled by the group, combined as set by
+     * {@link #setFeedback(Feedback)}
+     */
+    @Override
+    public double getDistance() {
+        if (feedback == Feedback.LEADER) {
+            return group[0].getDistance();
+        }
+        for (int i = 0; i < group.length; i++) {
+            samples[i] = group[i].getDistance();
+        }
+        return combine();
+    }
+
+    /**
+     * @return the position of the group in ticks, combined as set by
+     * {@link #setFeedback(Feedback)}
+     */
+    @Override
+    public int getCurrentPosition() {
+        if (feedback == Feedback.LEADER) {
+            return group[0].getCurrentPosition();
+        }
+        for (int i = 0; i < group.length; i++) {
+            samples[i] = group[i].getCurrentPosition();
+        }
+        return (int) Math.round(combine());
     }
 
     /**
@@ -101,7 +301,9 @@ public class MotorGroup extends Motor implements Iterable<Motor> {
 
     @Override
     public void setRunMode(RunMode runmode) {
-        group[0].setRunMode(runmode);
+        for (Motor motor : group) {
+            motor.setRunMode(runmode);
+        }
     }
 
     @Override
@@ -113,52 +315,88 @@ public class MotorGroup extends Motor implements Iterable<Motor> {
 
     @Override
     public void resetEncoder() {
-        group[0].resetEncoder();
+        for (Motor motor : group) {
+            motor.resetEncoder();
+        }
     }
 
     @Override
     public void stopAndResetEncoder() {
-        group[0].stopAndResetEncoder();
+        for (Motor motor : group) {
+            motor.stopAndResetEncoder();
+        }
     }
 
     @Override
     public void setPositionCoefficient(double kp) {
-        group[0].setPositionCoefficient(kp);
+        for (Motor motor : group) {
+            motor.setPositionCoefficient(kp);
+        }
     }
 
+    /**
+     * @return if the leader is at the target, or in synchronized mode, if every motor is
+     */
     @Override
     public boolean atTargetPosition() {
-        return group[0].atTargetPosition();
+        if (!synchronize) {
+            return group[0].atTargetPosition();
+        }
+        for (Motor motor : group) {
+            if (!motor.atTargetPosition()) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
     public void setTargetPosition(int target) {
-        group[0].setTargetPosition(target);
+        for (Motor motor : group) {
+            motor.setTargetPosition(target);
+        }
     }
 
     @Override
     public void setTargetDistance(double target) {
-        group[0].setTargetDistance(target);
+        for (Motor motor : group) {
+            motor.setTargetDistance(target);
+        }
     }
 
     @Override
     public void setPositionTolerance(double tolerance) {
-        group[0].setPositionTolerance(tolerance);
+        for (Motor motor : group) {
+            motor.setPositionTolerance(tolerance);
+        }
     }
 
     @Override
     public void setVeloCoefficients(double kp, double ki, double kd) {
-        group[0].setVeloCoefficients(kp, ki, kd);
+        for (Motor motor : group) {
+            motor.setVeloCoefficients(kp, ki, kd);
+        }
     }
 
     @Override
     public void setFeedforwardCoefficients(double ks, double kv) {
-        group[0].setFeedforwardCoefficients(ks, kv);
+        for (Motor motor : group) {
+            motor.setFeedforwardCoefficients(ks, kv);
+        }
     }
 
     @Override
     public void setFeedforwardCoefficients(double ks, double kv, double ka) {
-        group[0].setFeedforwardCoefficients(ks, kv, ka);
+        for (Motor motor : group) {
+            motor.setFeedforwardCoefficients(ks, kv, ka);
+        }
+    }
+
+    @Override
+    public void setBuffer(double fraction) {
+        for (Motor motor : group) {
+            motor.setBuffer(fraction);
+        }
     }
 
     /**
@@ -182,6 +420,38 @@ public class MotorGroup extends Motor implements Iterable<Motor> {
         }
     }
 
+    /**
+     * Compensates the power of every motor.  Unless the group is synchronized, the followers
+     * copy the power the leader writes, which is already compensated.
+     *
+     * @param compensator the compensator, or null to stop compensating
+     */
+    @Override
+    public void setVoltageCompensator(VoltageCompensator compensator) {
+        for (Motor motor : group) {
+            motor.setVoltageCompensator(compensator);
+        }
+    }
+
+    @Override
+    public VoltageCompensator getVoltageCompensator() {
+        return group[0].getVoltageCompensator();
+    }
+
+    /**
+     * Profiles every motor in the group, reported as the name followed by the index of the
+     * motor, the leader being 0.
+     *
+     * @param profiler the profiler to record the calls in, or null to stop profiling
+     * @param name     the name to report the group under
+     */
+    @Override
+    public void setProfiler(HardwareProfiler profiler, String name) {
+        for (int i = 0; i < group.length; i++) {
+            group[i].setProfiler(profiler, name + "[" + i + "]");
+        }
+    }
+
     /**
      * Disables all the motor devices.
      */
@@ -0,0 +1,38 @@
+package com.arcrobotics.ftclib.hardware.motors;
+
+/**
+ * Estimates the velocity and acceleration of an encoder from timestamped positions.  Set one on
+ * a {@link Motor.Encoder} with {@link Motor.Encoder#setVelocityEstimator(VelocityEstimator)} to
+ * get velocity and acceleration without reading the velocity from the hub.
+ *
+ * <p>Implementations allocate nothing after construction, so they can be updated from the loop.
+ */
+public interface VelocityEstimator {
+
+    /**
+     * Adds a sample.  Samples must arrive in time order; a sample no newer than the previous one
+     * replaces it.
+     *
+     * @param position the position in ticks
+     * @param time     when the position was read, in seconds
+     */
+    void update(double position, double time);
+
+    /**
+     * @return the estimated velocity in ticks per second, or zero before there are enough
+     * samples
+     */
+    double getVelocity();
+
+    /**
+     * @return the estimated acceleration in ticks per second squared, or zero before there are
+     * enough samples
+     */
+    double getAcceleration();
+
+    /**
+     * Forgets every sample.
+     */
+    void reset();
+
+}
@@ -0,0 +1,93 @@
+package com.arcrobotics.ftclib.hardware.sim;
+
+import com.qualcomm.robotcore.hardware.VoltageSensor;
+
+/**
+ * A battery with an internal resistance, so its voltage sags as the motors draw current.  The
+ * resistance stands for the cells, the wiring and the hub together.
+ */
+public class SimBattery {
+
+    private double openCircuitVoltage, resistance;
+    private double current;
+    private final VoltageSensor sensor;
+
+    /**
+     * Creates a battery like a charged 12V FTC battery.
+     */
+    public SimBattery() {
+        this(13.0, 0.1);
+    }
+
+    /**
+     * @param openCircuitVoltage the voltage with no load, in volts
+     * @param resistance         the internal resistance, in ohms
+     */
+    public SimBattery(double openCircuitVoltage, double resistance) {
+        setOpenCircuitVoltage(openCircuitVoltage);
+        setResistance(resistance);
+        sensor = SimProxy.create(VoltageSensor.class, "Simulated Battery", (method, args) ->
+                method.equals("getVoltage") ? getVoltage() : SimProxy.DEFAULT);
+    }
+
+    /**
+     * @param voltage the voltage with no load, in volts
+     */
+    public void setOpenCircuitVoltage(double voltage) {
+        if (voltage <= 0) {
+            throw new IllegalArgumentException("The battery voltage must be positive");
+        }
+        openCircuitVoltage = voltage;
+    }
+
+    /**
+     * @return the voltage with no load, in volts
+     */
+    public double getOpenCircuitVoltage() {
+        return openCircuitVoltage;
+    }
+
+    /**
+     * @param resistance the internal resistance, in ohms
+     */
+    public void setResistance(double resistance) {
+        if (resistance < 0) {
+            throw new IllegalArgumentException("The battery resistance cannot be negative");
+        }
+        this.resistance = resistance;
+    }
+
+    /**
+     * @return the internal resistance, in ohms
+     */
+    public double getResistance() {
+        return resistance;
+    }
+
+    void setCurrent(double current) {
+        this.current = current;
+    }
+
+    /**
+     * @return the current drawn by the motors in the last step, in amps; negative while
+     * they brake regeneratively
+     */
+    public double getCurrent() {
+        return current;
+    }
+
+    /**
+     * @return the voltage at the terminals under the current load, in volts
+     */
+    public double getVoltage() {
+        return Math.max(0, openCircuitVoltage - resistance * current);
+    }
+
+    /**
+     * @return the voltage sensor reading this battery
+     */
+    public VoltageSensor getVoltageSensor() {
+        return sensor;
+    }
+
+}
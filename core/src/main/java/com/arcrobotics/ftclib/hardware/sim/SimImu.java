@@ -0,0 +1,93 @@
+package com.arcrobotics.ftclib.hardware.sim;
+
+import com.arcrobotics.ftclib.util.Clock;
+import com.qualcomm.hardware.bosch.BNO055IMU;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.firstinspires.ftc.robotcore.external.navigation.AxesOrder;
+import org.firstinspires.ftc.robotcore.external.navigation.AxesReference;
+import org.firstinspires.ftc.robotcore.external.navigation.Orientation;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * A simulated BNO055 IMU lying flat on a chassis that only turns about its vertical axis.  It
+ * reports the heading of the chassis, counterclockwise positive, as the Z angle of its
+ * orientation; the other two angles are zero.  Angular velocity and acceleration are not
+ * modelled.
+ */
+public class SimImu {
+
+    private final String name;
+    private final BNO055IMU device;
+    private final DoubleSupplier heading;
+    private BNO055IMU.AngleUnit angleUnit = BNO055IMU.AngleUnit.RADIANS;
+
+    /**
+     * @param name    the name of the IMU in the hardware map
+     * @param chassis the chassis the IMU is mounted on
+     */
+    public SimImu(String name, SimMecanumChassis chassis) {
+        this(name, chassis::getHeading);
+    }
+
+    /**
+     * @param name    the name of the IMU in the hardware map
+     * @param heading the heading of whatever the IMU is mounted on, in radians
+     */
+    public SimImu(String name, DoubleSupplier heading) {
+        this.name = name;
+        this.heading = heading;
+        device = SimProxy.create(BNO055IMU.class, name, this::handle);
+    }
+
+    /**
+     * @return the name of the IMU in the hardware map
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the IMU as an SDK device
+     */
+    public BNO055IMU getDevice() {
+        return device;
+    }
+
+    private Orientation getOrientation(AxesOrder order, AngleUnit unit) {
+        // The IMU reports angles in (-pi, pi].
+        double radians = heading.getAsDouble();
+        radians = radians - 2 * Math.PI * Math.ceil(radians / (2 * Math.PI) - 0.5);
+        float angle = (float) (unit == AngleUnit.DEGREES ? Math.toDegrees(radians) : radians);
+        float[] angles = new float[3];
+        angles[Math.max(0, order.name().indexOf('Z'))] = angle;
+        return new Orientation(AxesReference.INTRINSIC, order, unit,
+                angles[0], angles[1], angles[2], Clock.DEFAULT.nanoTime());
+    }
+
+    private Object handle(String method, Object[] args) {
+        switch (method) {
+            case "initialize":
+                BNO055IMU.Parameters parameters = (BNO055IMU.Parameters) args[0];
+                if (parameters.angleUnit != null) {
+                    angleUnit = parameters.angleUnit;
+                }
+                return true;
+            case "getAngularOrientation":
+                if (args.length == 3) {
+                    return getOrientation((AxesOrder) args[1], (AngleUnit) args[2]);
+                }
+                return getOrientation(AxesOrder.ZYX, angleUnit == BNO055IMU.AngleUnit.DEGREES
+                        ? AngleUnit.DEGREES : AngleUnit.RADIANS);
+            case "isGyroCalibrated":
+            case "isSystemCalibrated":
+                return true;
+            case "getDeviceName":
+                return "Simulated BNO055 IMU";
+            default:
+                return SimProxy.DEFAULT;
+        }
+    }
+
+}
@@ -0,0 +1,219 @@
+package com.arcrobotics.ftclib.hardware.sim;
+
+import com.arcrobotics.ftclib.geometry.Pose2d;
+import com.arcrobotics.ftclib.geometry.Twist2d;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A simulated mecanum chassis on a flat field, driven by four {@link SimMotor}s.  The wheels
+ * roll without slipping, so the torques of the four motors move the chassis as one rigid body
+ * and every wheel turns at the speed the motion of the chassis allows.
+ *
+ * <p>The right wheels are mounted mirrored, as on a real robot: turning their motors forward
+ * drives the chassis backwards, which is why
+ * {@link com.arcrobotics.ftclib.drivebase.MecanumDrive} inverts the right side by default.
+ *
+ * <p>Distances are in meters and angles in radians.  The chassis frame has x forward and y to
+ * the left, and headings are counterclockwise positive.
+ */
+public class SimMecanumChassis {
+
+    // Below this wheel speed, in meters per second, friction fades out instead of flipping
+    // direction every step.
+    private static final double STICTION_SPEED = 0.01;
+
+    private static final class DeadWheel {
+        final SimMotor encoder;
+        final double x, y, cos, sin, radius;
+
+        DeadWheel(SimMotor encoder, double x, double y, double direction, double radius) {
+            this.encoder = encoder;
+            this.x = x;
+            this.y = y;
+            this.radius = radius;
+            cos = Math.cos(direction);
+            sin = Math.sin(direction);
+        }
+    }
+
+    private final SimMotor[] wheels;
+    private final double[] sides = {1, -1, 1, -1};
+    private final double wheelRadius, mass, inertia, k;
+    private final List<DeadWheel> deadWheels = new ArrayList<>();
+
+    private Pose2d pose = new Pose2d();
+    private double vx, vy, omega;
+
+    /**
+     * @param frontLeft   the front left motor
+     * @param frontRight  the front right motor
+     * @param backLeft    the back left motor
+     * @param backRight   the back right motor
+     * @param wheelRadius the radius of the wheels
+     * @param trackWidth  the distance between the left and right wheels
+     * @param wheelBase   the distance between the front and back wheels
+     * @param mass        the mass of the robot in kilograms
+     */
+    public SimMecanumChassis(SimMotor frontLeft, SimMotor frontRight,
+                             SimMotor backLeft, SimMotor backRight,
+                             double wheelRadius, double trackWidth, double wheelBase, double mass) {
+        if (wheelRadius <= 0 || trackWidth <= 0 || wheelBase <= 0 || mass <= 0) {
+            throw new IllegalArgumentException("The dimensions and mass of the chassis must be positive");
+        }
+        wheels = new SimMotor[]{frontLeft, frontRight, backLeft, backRight};
+        this.wheelRadius = wheelRadius;
+        this.mass = mass;
+        // Treat the robot as a uniform box the size of its wheelbase.
+        inertia = mass * (trackWidth * trackWidth + wheelBase * wheelBase) / 12;
+        k = (trackWidth + wheelBase) / 2;
+    }
+
+    /**
+     * Adds an odometry pod.  The encoder counts up when the chassis moves along the direction
+     * of the pod.
+     *
+     * @param encoder   the encoder of the pod, from {@link SimMotor#encoder(String, double)}
+     * @param x         the position of the pod ahead of the center of the chassis
+     * @param y         the position of the pod to the left of the center of the chassis
+     * @param direction the direction the pod measures, counterclockwise from forward
+     * @param radius    the radius of the odometry wheel
+     * @return this object for chaining purposes
+     */
+    public SimMecanumChassis addDeadWheel(SimMotor encoder, double x, double y,
+                                          double direction, double radius) {
+        deadWheels.add(new DeadWheel(encoder, x, y, direction, radius));
+        return this;
+    }
+
+    /**
+     * @return the front left, front right, back left and back right motors
+     */
+    public List<SimMotor> getMotors() {
+        List<SimMotor> motors = new ArrayList<>();
+        Collections.addAll(motors, wheels);
+        return motors;
+    }
+
+    /**
+     * @return the encoders of the odometry pods
+     */
+    public List<SimMotor> getDeadWheels() {
+        List<SimMotor> encoders = new ArrayList<>();
+        for (DeadWheel wheel : deadWheels) {
+            encoders.add(wheel.encoder);
+        }
+        return encoders;
+    }
+
+    /**
+     * @return the pose of the chassis on the field
+     */
+    public Pose2d getPose() {
+        return pose;
+    }
+
+    /**
+     * Moves the chassis without moving its wheels, such as to its starting position.
+     *
+     * @param pose the new pose of the chassis
+     */
+    public void setPose(Pose2d pose) {
+        this.pose = pose;
+    }
+
+    /**
+     * @return the heading of the chassis in radians
+     */
+    public double getHeading() {
+        return pose.getHeading();
+    }
+
+    /**
+     * @return the forward speed, leftward speed and counterclockwise angular speed of the
+     * chassis, in its own frame
+     */
+    public double[] getVelocity() {
+        return new double[]{vx, vy, omega};
+    }
+
+    private double wheelSpeed(int i) {
+        switch (i) {
+            case 0:
+                return vx - vy - k * omega;
+            case 1:
+                return vx + vy + k * omega;
+            case 2:
+                return vx + vy - k * omega;
+            default:
+                return vx - vy + k * omega;
+        }
+    }
+
+    /**
+     * Advances the chassis and its motors.
+     *
+     * @param dt      the length of the step in seconds
+     * @param voltage the voltage of the battery
+     * @return the current drawn from the battery in amps
+     */
+    double step(double dt, double voltage) {
+        // The generalized forces on the chassis and its mass matrix, including the inertia of
+        // each drivetrain reflected to the ground.  Wheel i moves at J_i . (vx, vy, omega) with
+        // J = [[1, -1, -k], [1, 1, k], [1, 1, -k], [1, -1, k]].
+        double fx = 0, fy = 0, torque = 0;
+        double m00 = mass, m01 = 0, m02 = 0, m11 = mass, m12 = 0, m22 = inertia;
+        double current = 0;
+        for (int i = 0; i < 4; i++) {
+            SimMotor wheel = wheels[i];
+            double speed = wheelSpeed(i);
+            double force = sides[i] * wheel.updateTorque(dt, voltage) / wheelRadius
+                    - wheel.getFriction() / wheelRadius
+                    * Math.max(-1, Math.min(1, speed / STICTION_SPEED));
+            current += wheel.getBatteryCurrent();
+
+            double jy = i == 0 || i == 3 ? -1 : 1;
+            double jw = i == 0 || i == 2 ? -k : k;
+            double m = wheel.getInertia() / (wheelRadius * wheelRadius);
+            fx += force;
+            fy += jy * force;
+            torque += jw * force;
+            m00 += m;
+            m01 += m * jy;
+            m02 += m * jw;
+            m11 += m;
+            m12 += m * jy * jw;
+            m22 += m * jw * jw;
+        }
+
+        // Solve the symmetric 3x3 system with Cramer's rule.
+        double c00 = m11 * m22 - m12 * m12;
+        double c01 = m02 * m12 - m01 * m22;
+        double c02 = m01 * m12 - m02 * m11;
+        double det = m00 * c00 + m01 * c01 + m02 * c02;
+        double ax = (c00 * fx + c01 * fy + c02 * torque) / det;
+        double ay = (c01 * fx + (m00 * m22 - m02 * m02) * fy + (m01 * m02 - m00 * m12) * torque) / det;
+        double alpha = (c02 * fx + (m01 * m02 - m00 * m12) * fy + (m00 * m11 - m01 * m01) * torque) / det;
+
+        double lastVx = vx, lastVy = vy, lastOmega = omega;
+        vx += ax * dt;
+        vy += ay * dt;
+        omega += alpha * dt;
+        pose = pose.exp(new Twist2d((lastVx + vx) / 2 * dt, (lastVy + vy) / 2 * dt,
+                (lastOmega + omega) / 2 * dt));
+
+        for (int i = 0; i < 4; i++) {
+            double shaft = sides[i] * wheelSpeed(i) / wheelRadius;
+            wheels[i].drive(wheels[i].getAngle() + shaft * dt, shaft);
+        }
+        for (DeadWheel wheel : deadWheels) {
+            double speed = (vx - omega * wheel.y) * wheel.cos + (vy + omega * wheel.x) * wheel.sin;
+            double shaft = speed / wheel.radius;
+            wheel.encoder.drive(wheel.encoder.getAngle() + shaft * dt, shaft);
+        }
+        return current;
+    }
+
+}
@@ -0,0 +1,463 @@
+package com.arcrobotics.ftclib.hardware.sim;
+
+import com.arcrobotics.ftclib.hardware.motors.Motor;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotorEx;
+import com.qualcomm.robotcore.hardware.DcMotorSimple;
+import com.qualcomm.robotcore.hardware.configuration.typecontainers.MotorConfigurationType;
+
+/**
+ * A simulated DC motor with a gearbox and a quadrature encoder.  {@link #getDevice()} returns a
+ * {@link DcMotorEx} that can be put in a hardware map and used by {@link Motor},
+ * {@link com.arcrobotics.ftclib.hardware.motors.MotorEx} and
+ * {@link com.arcrobotics.ftclib.hardware.motors.MotorGroup} as if it were real.
+ *
+ * <p>The motor is modelled from its stall torque, stall current, free speed and free current:
+ * the armature current rises through the winding inductance against the back EMF, the torque
+ * drives the load through the gearbox against friction, and the encoder counts whole ticks of
+ * the output shaft.  The defaults are the goBILDA 5203 series motor.
+ *
+ * <p>The run modes are approximated.  {@code RUN_USING_ENCODER} and {@code RUN_TO_POSITION}
+ * use a simple proportional loop in place of the hub's controller.
+ */
+public class SimMotor {
+
+    // The goBILDA 5203 series bare motor at 12 volts.
+    private static final double NOMINAL_VOLTAGE = 12;
+    private static final double BARE_FREE_SPEED = 6000;
+    private static final double BARE_STALL_TORQUE = 0.144;
+    private static final double BARE_STALL_CURRENT = 9.2;
+    private static final double BARE_FREE_CURRENT = 0.25;
+    private static final double DEFAULT_INDUCTANCE = 0.0005;
+    private static final double DEFAULT_ROTOR_INERTIA = 1e-6;
+
+    // How far off target, in revolutions, RUN_TO_POSITION still applies full power.
+    private static final double POSITION_BAND = 0.05;
+    // The proportional gain of the RUN_USING_ENCODER loop, in fractions of full power per
+    // fraction of the maximum velocity.
+    private static final double VELOCITY_GAIN = 2;
+
+    private final String name;
+    private final DcMotorEx device;
+    private final double gearRatio, ticksPerRev;
+    private final boolean encoderOnly;
+
+    private double freeSpeed, efficiency;
+    private double resistance, inductance, torqueConstant, backEmfConstant, motorFriction;
+    private double rotorInertia, loadInertia, viscousFriction, coulombFriction, loadTorque;
+
+    // The state of the model, at the output shaft.
+    private double current, angle, velocity, output;
+
+    // The state of the device, as set through the SDK interface.
+    private double power;
+    private DcMotorSimple.Direction direction = DcMotorSimple.Direction.FORWARD;
+    private DcMotor.ZeroPowerBehavior zeroPowerBehavior = DcMotor.ZeroPowerBehavior.BRAKE;
+    private DcMotor.RunMode mode = DcMotor.RunMode.RUN_WITHOUT_ENCODER;
+    private double targetVelocity = Double.NaN;
+    private int targetPosition, tolerance = 5;
+    private long encoderOffset;
+    private boolean enabled = true;
+    private MotorConfigurationType motorType;
+
+    /**
+     * Creates a goBILDA 5203 series motor.
+     *
+     * @param name the name of the motor in the hardware map
+     * @param type the gearbox of the motor
+     */
+    public SimMotor(String name, Motor.GoBILDA type) {
+        this(name, gearRatio(type), type.getCPR());
+    }
+
+    /**
+     * Creates a motor with the goBILDA 5203 series motor behind an arbitrary gearbox.
+     *
+     * @param name        the name of the motor in the hardware map
+     * @param gearRatio   the reduction of the gearbox, input turns per output turn
+     * @param ticksPerRev the encoder ticks per revolution of the output shaft
+     */
+    public SimMotor(String name, double gearRatio, double ticksPerRev) {
+        this(name, gearRatio, ticksPerRev, false);
+    }
+
+    private SimMotor(String name, double gearRatio, double ticksPerRev, boolean encoderOnly) {
+        if (gearRatio <= 0 || ticksPerRev <= 0) {
+            throw new IllegalArgumentException("The gear ratio and counts per revolution must be positive");
+        }
+        this.name = name;
+        this.gearRatio = gearRatio;
+        this.ticksPerRev = ticksPerRev;
+        this.encoderOnly = encoderOnly;
+        efficiency = gearRatio > 1 ? 0.9 : 1;
+        inductance = DEFAULT_INDUCTANCE;
+        rotorInertia = DEFAULT_ROTOR_INERTIA;
+        setMotorConstants(BARE_FREE_SPEED, BARE_STALL_TORQUE, BARE_STALL_CURRENT, BARE_FREE_CURRENT);
+        device = SimProxy.create(DcMotorEx.class, name, this::handle);
+    }
+
+    /**
+     * Creates an encoder with no motor behind it, such as an odometry pod.  It reads like a
+     * motor port in the hardware map; something else, like a {@link SimMecanumChassis}, turns
+     * its shaft.
+     *
+     * @param name        the name of the encoder in the hardware map
+     * @param ticksPerRev the encoder ticks per revolution of the wheel
+     * @return the encoder
+     */
+    public static SimMotor encoder(String name, double ticksPerRev) {
+        return new SimMotor(name, 1, ticksPerRev, true);
+    }
+
+    private static double gearRatio(Motor.GoBILDA type) {
+        if (type == Motor.GoBILDA.NONE) {
+            throw new IllegalArgumentException("The motor type must be a goBILDA motor");
+        }
+        return BARE_FREE_SPEED / type.getRPM();
+    }
+
+    /**
+     * Sets the characteristics of the motor before the gearbox, at 12 volts.
+     *
+     * @param freeSpeed    the free speed in revolutions per minute
+     * @param stallTorque  the stall torque in newton meters
+     * @param stallCurrent the stall current in amps
+     * @param freeCurrent  the current at free speed in amps
+     * @return this object for chaining purposes
+     */
+    public SimMotor setMotorConstants(double freeSpeed, double stallTorque,
+                                      double stallCurrent, double freeCurrent) {
+        if (freeSpeed <= 0 || stallTorque <= 0 || stallCurrent <= freeCurrent || freeCurrent < 0) {
+            throw new IllegalArgumentException("Invalid motor constants");
+        }
+        this.freeSpeed = freeSpeed;
+        resistance = NOMINAL_VOLTAGE / stallCurrent;
+        torqueConstant = stallTorque / stallCurrent;
+        backEmfConstant = (NOMINAL_VOLTAGE - freeCurrent * resistance) / (freeSpeed * Math.PI / 30);
+        motorFriction = torqueConstant * freeCurrent;
+        return this;
+    }
+
+    /**
+     * @param inductance the inductance of the winding in henries
+     * @return this object for chaining purposes
+     */
+    public SimMotor setInductance(double inductance) {
+        if (inductance <= 0) {
+            throw new IllegalArgumentException("The inductance must be positive");
+        }
+        this.inductance = inductance;
+        return this;
+    }
+
+    /**
+     * @param efficiency the fraction of the motor torque that reaches the output shaft
+     * @return this object for chaining purposes
+     */
+    public SimMotor setEfficiency(double efficiency) {
+        if (efficiency <= 0 || efficiency > 1) {
+            throw new IllegalArgumentException("The efficiency must be in (0, 1]");
+        }
+        this.efficiency = efficiency;
+        return this;
+    }
+
+    /**
+     * Sets what the output shaft drives.
+     *
+     * @param inertia         the moment of inertia of the load in kg m^2
+     * @param viscousFriction the friction torque per unit of speed in N m s / rad
+     * @param coulombFriction the friction torque that is needed to get the load moving in N m
+     * @return this object for chaining purposes
+     */
+    public SimMotor setLoad(double inertia, double viscousFriction, double coulombFriction) {
+        if (inertia < 0 || viscousFriction < 0 || coulombFriction < 0) {
+            throw new IllegalArgumentException("The load cannot be negative");
+        }
+        loadInertia = inertia;
+        this.viscousFriction = viscousFriction;
+        this.coulombFriction = coulombFriction;
+        return this;
+    }
+
+    /**
+     * Sets a constant torque against the output shaft, such as gravity on a lift.
+     *
+     * @param torque the torque in newton meters, positive against forward rotation
+     * @return this object for chaining purposes
+     */
+    public SimMotor setLoadTorque(double torque) {
+        loadTorque = torque;
+        return this;
+    }
+
+    /**
+     * @return the name of the motor in the hardware map
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the motor as an SDK device
+     */
+    public DcMotorEx getDevice() {
+        return device;
+    }
+
+    /**
+     * @return the gear ratio of the gearbox
+     */
+    public double getGearRatio() {
+        return gearRatio;
+    }
+
+    /**
+     * @return the encoder ticks per revolution of the output shaft
+     */
+    public double getTicksPerRev() {
+        return ticksPerRev;
+    }
+
+    /**
+     * @return the angle of the output shaft in radians
+     */
+    public double getAngle() {
+        return angle;
+    }
+
+    /**
+     * @return the speed of the output shaft in radians per second
+     */
+    public double getAngularVelocity() {
+        return velocity;
+    }
+
+    /**
+     * @return the armature current in amps
+     */
+    public double getCurrent() {
+        return current;
+    }
+
+    /**
+     * Advances the motor on its own, for motors that are not part of a chassis.
+     *
+     * @param dt      the length of the step in seconds
+     * @param voltage the voltage of the battery
+     * @return the current drawn from the battery in amps
+     */
+    double step(double dt, double voltage) {
+        if (encoderOnly) {
+            return 0;
+        }
+        double torque = updateTorque(dt, voltage);
+        double friction = getFriction();
+        double next;
+        if (velocity == 0 && Math.abs(torque) <= friction) {
+            next = 0;
+        } else {
+            double sign = velocity != 0 ? Math.signum(velocity) : Math.signum(torque);
+            next = velocity + (torque - friction * sign) / getInertia() * dt;
+            if (velocity != 0 && Math.signum(next) != Math.signum(velocity)
+                    && Math.abs(torque) <= friction) {
+                // Friction can stop the shaft but not turn it backwards.
+                next = 0;
+            }
+        }
+        drive(angle + (velocity + next) / 2 * dt, next);
+        return getBatteryCurrent();
+    }
+
+    /**
+     * Updates the armature current over a step at the present speed.
+     *
+     * @param dt      the length of the step in seconds
+     * @param voltage the voltage of the battery
+     * @return the torque on the output shaft in newton meters, not counting Coulomb friction
+     */
+    double updateTorque(double dt, double voltage) {
+        output = appliedPower();
+        if (!enabled || output == 0 && zeroPowerBehavior == DcMotor.ZeroPowerBehavior.FLOAT) {
+            // An open circuit carries no current.
+            current = 0;
+        } else {
+            // The current settles exponentially towards the value set by the back EMF.
+            double steady = (output * voltage - backEmfConstant * velocity * gearRatio) / resistance;
+            current = steady + (current - steady) * Math.exp(-resistance * dt / inductance);
+        }
+        return current * torqueConstant * gearRatio * efficiency
+                - loadTorque - viscousFriction * velocity;
+    }
+
+    /**
+     * @return the Coulomb friction torque at the output shaft in newton meters
+     */
+    double getFriction() {
+        return coulombFriction + motorFriction * gearRatio;
+    }
+
+    /**
+     * @return the moment of inertia at the output shaft in kg m^2, including the rotor
+     */
+    double getInertia() {
+        return loadInertia + rotorInertia * gearRatio * gearRatio;
+    }
+
+    /**
+     * @return the current drawn from the battery in the last step in amps
+     */
+    double getBatteryCurrent() {
+        return output * current;
+    }
+
+    /**
+     * Moves the output shaft, for motors driven by a mechanism or encoders with no motor.
+     */
+    void drive(double angle, double velocity) {
+        this.angle = angle;
+        this.velocity = velocity;
+    }
+
+    private double appliedPower() {
+        double applied;
+        switch (mode) {
+            case STOP_AND_RESET_ENCODER:
+                applied = 0;
+                break;
+            case RUN_TO_POSITION:
+                double error = (targetPosition - getPosition()) / (POSITION_BAND * ticksPerRev);
+                applied = Math.abs(power) * Math.max(-1, Math.min(1, error));
+                break;
+            case RUN_USING_ENCODER:
+                double max = getMaxTicksPerSecond();
+                double target = Double.isNaN(targetVelocity) ? power * max : targetVelocity;
+                applied = (target + VELOCITY_GAIN * (target - getTickVelocity())) / max;
+                break;
+            default:
+                applied = power;
+        }
+        applied = Math.max(-1, Math.min(1, applied));
+        return direction == DcMotorSimple.Direction.REVERSE ? -applied : applied;
+    }
+
+    private double getMaxTicksPerSecond() {
+        return freeSpeed / gearRatio * ticksPerRev / 60;
+    }
+
+    private int getPosition() {
+        long ticks = (long) Math.floor(angle / (2 * Math.PI) * ticksPerRev) - encoderOffset;
+        return (int) (direction == DcMotorSimple.Direction.REVERSE ? -ticks : ticks);
+    }
+
+    private double getTickVelocity() {
+        double ticks = Math.round(velocity / (2 * Math.PI) * ticksPerRev);
+        return direction == DcMotorSimple.Direction.REVERSE ? -ticks : ticks;
+    }
+
+    private MotorConfigurationType getMotorType() {
+        if (motorType == null) {
+            motorType = MotorConfigurationType.getUnspecifiedMotorType().clone();
+            motorType.setTicksPerRev(ticksPerRev);
+            motorType.setMaxRPM(freeSpeed / gearRatio);
+        }
+        return motorType;
+    }
+
+    private static boolean isDegrees(Object unit) {
+        return ((Enum<?>) unit).name().equals("DEGREES");
+    }
+
+    private Object handle(String method, Object[] args) {
+        switch (method) {
+            case "setPower":
+                power = (double) args[0];
+                targetVelocity = Double.NaN;
+                return null;
+            case "getPower":
+                return power;
+            case "setDirection":
+                direction = (DcMotorSimple.Direction) args[0];
+                return null;
+            case "getDirection":
+                return direction;
+            case "setZeroPowerBehavior":
+                zeroPowerBehavior = (DcMotor.ZeroPowerBehavior) args[0];
+                return null;
+            case "getZeroPowerBehavior":
+                return zeroPowerBehavior;
+            case "setPowerFloat":
+                zeroPowerBehavior = DcMotor.ZeroPowerBehavior.FLOAT;
+                power = 0;
+                return null;
+            case "getPowerFloat":
+                return zeroPowerBehavior == DcMotor.ZeroPowerBehavior.FLOAT && power == 0;
+            case "setMode":
+                mode = (DcMotor.RunMode) args[0];
+                if (mode == DcMotor.RunMode.STOP_AND_RESET_ENCODER) {
+                    encoderOffset = (long) Math.floor(angle / (2 * Math.PI) * ticksPerRev);
+                }
+                return null;
+            case "getMode":
+                return mode;
+            case "getCurrentPosition":
+                return getPosition();
+            case "setTargetPosition":
+                targetPosition = (int) args[0];
+                return null;
+            case "getTargetPosition":
+                return targetPosition;
+            case "setTargetPositionTolerance":
+                tolerance = (int) args[0];
+                return null;
+            case "getTargetPositionTolerance":
+                return tolerance;
+            case "isBusy":
+                return mode == DcMotor.RunMode.RUN_TO_POSITION
+                        && Math.abs(targetPosition - getPosition()) > tolerance;
+            case "getVelocity":
+                if (args.length == 1) {
+                    double radians = direction == DcMotorSimple.Direction.REVERSE ? -velocity : velocity;
+                    return isDegrees(args[0]) ? Math.toDegrees(radians) : radians;
+                }
+                return getTickVelocity();
+            case "setVelocity":
+                double ticks = (double) args[0];
+                if (args.length == 2) {
+                    double radians = isDegrees(args[1]) ? Math.toRadians(ticks) : ticks;
+                    ticks = radians / (2 * Math.PI) * ticksPerRev;
+                }
+                targetVelocity = ticks;
+                return null;
+            case "getCurrent":
+                double amps = Math.abs(current);
+                return args.length == 1 && ((Enum<?>) args[0]).name().equals("MILLIAMPS")
+                        ? amps * 1000 : amps;
+            case "setMotorEnable":
+                enabled = true;
+                return null;
+            case "setMotorDisable":
+                enabled = false;
+                return null;
+            case "isMotorEnabled":
+                return enabled;
+            case "getMotorType":
+                return getMotorType();
+            case "setMotorType":
+                motorType = (MotorConfigurationType) args[0];
+                return null;
+            case "getDeviceName":
+                return "Simulated Motor";
+            case "resetDeviceConfigurationForOpMode":
+                power = 0;
+                targetVelocity = Double.NaN;
+                direction = DcMotorSimple.Direction.FORWARD;
+                zeroPowerBehavior = DcMotor.ZeroPowerBehavior.BRAKE;
+                mode = DcMotor.RunMode.RUN_WITHOUT_ENCODER;
+                return null;
+            default:
+                return SimProxy.DEFAULT;
+        }
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.arcrobotics.ftclib.hardware.sim;
+
+import com.qualcomm.robotcore.hardware.HardwareDevice;
+
+import java.lang.reflect.Proxy;
+
+/**
+ * Builds simulated SDK devices as dynamic proxies, so a device only has to handle the methods it
+ * models.  Everything else gets a harmless default, which keeps the simulated devices working
+ * across SDK versions that add methods to the device interfaces.
+ */
+final class SimProxy {
+
+    /**
+     * Returned by a {@link Handler} for methods it does not model.
+     */
+    static final Object DEFAULT = new Object();
+
+    private static final Object[] NO_ARGS = new Object[0];
+
+    interface Handler {
+        /**
+         * @param method the name of the method called on the device
+         * @param args   the arguments of the call, never null
+         * @return the result of the call, or {@link #DEFAULT} to use the default
+         */
+        Object handle(String method, Object[] args);
+    }
+
+    private SimProxy() {
+    }
+
+    static <T> T create(Class<T> type, String name, Handler handler) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (self, method, args) -> {
+                    Object[] arguments = args == null ? NO_ARGS : args;
+                    Object result = handler.handle(method.getName(), arguments);
+                    if (result != DEFAULT) {
+                        return result;
+                    }
+                    switch (method.getName()) {
+                        case "equals":
+                            return arguments.length == 1 && self == arguments[0];
+                        case "hashCode":
+                            return System.identityHashCode(self);
+                        case "toString":
+                        case "getDeviceName":
+                            return name;
+                        case "getConnectionInfo":
+                            return "simulated";
+                        case "getManufacturer":
+                            return HardwareDevice.Manufacturer.Other;
+                        case "getVersion":
+                            return 1;
+                        default:
+                            return defaultValue(method.getReturnType());
+                    }
+                });
+        return type.cast(proxy);
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        } else if (type == boolean.class) {
+            return false;
+        } else if (type == char.class) {
+            return '\0';
+        } else if (type == byte.class) {
+            return (byte) 0;
+        } else if (type == short.class) {
+            return (short) 0;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == long.class) {
+            return 0L;
+        } else if (type == float.class) {
+            return 0f;
+        }
+        return 0.0;
+    }
+
+}
@@ -0,0 +1,129 @@
+package com.arcrobotics.ftclib.hardware.sim;
+
+import com.qualcomm.robotcore.hardware.Servo;
+import com.qualcomm.robotcore.hardware.ServoController;
+
+/**
+ * A simulated servo.  It reports the position it was commanded to, like a real servo, while its
+ * horn moves towards that position at a limited speed.
+ */
+public class SimServo {
+
+    private final String name;
+    private final Servo device;
+    private final ServoController controller;
+
+    private double speed = 1;
+    private double commanded = Double.NaN;
+    private double actual = 0.5;
+    private double min = 0, max = 1;
+    private Servo.Direction direction = Servo.Direction.FORWARD;
+    private boolean enabled = true;
+
+    /**
+     * @param name the name of the servo in the hardware map
+     */
+    public SimServo(String name) {
+        this.name = name;
+        controller = SimProxy.create(ServoController.class, "Simulated Servo Controller",
+                (method, args) -> SimProxy.DEFAULT);
+        device = SimProxy.create(Servo.class, name, this::handle);
+    }
+
+    /**
+     * @param speed how fast the horn moves, in positions per second; a servo that takes one
+     *              second to sweep its whole range has a speed of 1
+     * @return this object for chaining purposes
+     */
+    public SimServo setSpeed(double speed) {
+        if (speed <= 0) {
+            throw new IllegalArgumentException("The speed must be positive");
+        }
+        this.speed = speed;
+        return this;
+    }
+
+    /**
+     * @param position where the horn starts, from 0 to 1, before the servo is commanded
+     * @return this object for chaining purposes
+     */
+    public SimServo setActualPosition(double position) {
+        actual = Math.max(0, Math.min(1, position));
+        return this;
+    }
+
+    /**
+     * @return where the horn actually is, from 0 to 1, ignoring direction and range scaling
+     */
+    public double getActualPosition() {
+        return actual;
+    }
+
+    /**
+     * @return the name of the servo in the hardware map
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the servo as an SDK device
+     */
+    public Servo getDevice() {
+        return device;
+    }
+
+    /**
+     * Advances the servo.
+     *
+     * @param dt the length of the step in seconds
+     */
+    void step(double dt) {
+        if (!enabled || Double.isNaN(commanded)) {
+            return;
+        }
+        double position = direction == Servo.Direction.REVERSE ? 1 - commanded : commanded;
+        double target = min + (max - min) * position;
+        double travel = speed * dt;
+        actual += Math.max(-travel, Math.min(travel, target - actual));
+    }
+
+    private Object handle(String method, Object[] args) {
+        switch (method) {
+            case "setPosition":
+                commanded = Math.max(0, Math.min(1, (double) args[0]));
+                enabled = true;
+                return null;
+            case "getPosition":
+                return commanded;
+            case "setDirection":
+                direction = (Servo.Direction) args[0];
+                return null;
+            case "getDirection":
+                return direction;
+            case "scaleRange":
+                double low = (double) args[0], high = (double) args[1];
+                if (low < 0 || high > 1 || low >= high) {
+                    throw new IllegalArgumentException("Invalid servo range");
+                }
+                min = low;
+                max = high;
+                return null;
+            case "getController":
+                return controller;
+            case "getDeviceName":
+                return "Simulated Servo";
+            case "close":
+                enabled = false;
+                return null;
+            case "resetDeviceConfigurationForOpMode":
+                direction = Servo.Direction.FORWARD;
+                min = 0;
+                max = 1;
+                return null;
+            default:
+                return SimProxy.DEFAULT;
+        }
+    }
+
+}
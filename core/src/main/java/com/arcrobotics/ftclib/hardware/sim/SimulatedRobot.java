@@ -0,0 +1,209 @@
+package com.arcrobotics.ftclib.hardware.sim;
+
+import com.arcrobotics.ftclib.util.ManualClock;
+import com.qualcomm.robotcore.hardware.HardwareDevice;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A simulated robot that runs OpMode code off the robot, in a desktop JVM, faster than real
+ * time.  Add the simulated devices, put them in a hardware map, and construct the usual
+ * wrappers from that map; then advance the simulation by one loop period after every
+ * iteration:
+ *
+ * <pre>
+ * SimulatedRobot robot = new SimulatedRobot();
+ * SimMotor lift = robot.add(new SimMotor("lift", Motor.GoBILDA.RPM_312));
+ * robot.addTo(hardwareMap);
+ * Clock.setDefault(robot.getClock());
+ *
+ * MotorEx motor = new MotorEx(hardwareMap, "lift", Motor.GoBILDA.RPM_312);
+ * while (...) {
+ *     motor.set(...);
+ *     robot.step(20, TimeUnit.MILLISECONDS);
+ * }
+ * </pre>
+ *
+ * <p>Installing the robot's clock as the default makes the timing of the library, such as
+ * encoder velocities and {@link com.arcrobotics.ftclib.util.FixedRateLoop}, follow the
+ * simulation.  Every motor shares one {@link SimBattery}, whose voltage sags under load.
+ */
+public class SimulatedRobot {
+
+    private final ManualClock clock;
+    private final SimBattery battery = new SimBattery();
+    private final List<SimMotor> motors = new ArrayList<>();
+    private final List<SimServo> servos = new ArrayList<>();
+    private final List<SimMecanumChassis> chassis = new ArrayList<>();
+    private final Map<String, HardwareDevice> devices = new LinkedHashMap<>();
+    private long substep = TimeUnit.MICROSECONDS.toNanos(500);
+
+    /**
+     * Creates a robot with its own clock.
+     */
+    public SimulatedRobot() {
+        this(new ManualClock());
+    }
+
+    /**
+     * @param clock the clock to advance as the simulation runs
+     */
+    public SimulatedRobot(ManualClock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * @return the clock that follows the simulation
+     */
+    public ManualClock getClock() {
+        return clock;
+    }
+
+    /**
+     * @return the battery of the robot
+     */
+    public SimBattery getBattery() {
+        return battery;
+    }
+
+    /**
+     * Sets the physics time step.  Smaller steps are more accurate; the default of half a
+     * millisecond is well below the time constants of FTC motors.
+     *
+     * @param step the length of a step
+     * @param unit the unit of the step
+     */
+    public void setSubstep(long step, TimeUnit unit) {
+        if (step <= 0) {
+            throw new IllegalArgumentException("The step must be positive");
+        }
+        substep = unit.toNanos(step);
+    }
+
+    /**
+     * Adds a motor that is not part of a chassis.
+     *
+     * @param motor the motor
+     * @return the motor
+     */
+    public SimMotor add(SimMotor motor) {
+        register(motor.getName(), motor.getDevice());
+        motors.add(motor);
+        return motor;
+    }
+
+    /**
+     * @param servo the servo
+     * @return the servo
+     */
+    public SimServo add(SimServo servo) {
+        register(servo.getName(), servo.getDevice());
+        servos.add(servo);
+        return servo;
+    }
+
+    /**
+     * @param imu the IMU
+     * @return the IMU
+     */
+    public SimImu add(SimImu imu) {
+        register(imu.getName(), imu.getDevice());
+        return imu;
+    }
+
+    /**
+     * Adds a chassis along with its motors and odometry pods.
+     *
+     * @param chassis the chassis
+     * @return the chassis
+     */
+    public SimMecanumChassis add(SimMecanumChassis chassis) {
+        for (SimMotor motor : chassis.getMotors()) {
+            register(motor.getName(), motor.getDevice());
+        }
+        for (SimMotor encoder : chassis.getDeadWheels()) {
+            register(encoder.getName(), encoder.getDevice());
+        }
+        this.chassis.add(chassis);
+        return chassis;
+    }
+
+    private void register(String name, HardwareDevice device) {
+        if (devices.containsKey(name)) {
+            throw new IllegalArgumentException("There is already a device named " + name);
+        }
+        devices.put(name, device);
+    }
+
+    /**
+     * Puts every device, and the battery as a voltage sensor, in a hardware map.
+     *
+     * @param hardwareMap the hardware map from the OpMode
+     */
+    public void addTo(HardwareMap hardwareMap) {
+        for (Map.Entry<String, HardwareDevice> device : devices.entrySet()) {
+            hardwareMap.put(device.getKey(), device.getValue());
+        }
+        hardwareMap.voltageSensor.put("Simulated Battery", battery.getVoltageSensor());
+    }
+
+    /**
+     * Looks up a device the way {@link HardwareMap#get(Class, String)} does, for code that
+     * has no hardware map.
+     *
+     * @param type the type of the device
+     * @param name the name of the device
+     * @param <T>  the type of the device
+     * @return the device
+     */
+    public <T> T get(Class<? extends T> type, String name) {
+        HardwareDevice device = devices.get(name);
+        if (!type.isInstance(device)) {
+            throw new IllegalArgumentException("No " + type.getSimpleName() + " named " + name);
+        }
+        return type.cast(device);
+    }
+
+    /**
+     * Advances the simulation and the clock.
+     *
+     * @param duration how far to advance
+     * @param unit     the unit of the duration
+     */
+    public void step(long duration, TimeUnit unit) {
+        long remaining = unit.toNanos(duration);
+        while (remaining > 0) {
+            long step = Math.min(substep, remaining);
+            double dt = step / 1E9;
+            double voltage = battery.getVoltage();
+            double current = 0;
+            for (SimMotor motor : motors) {
+                current += motor.step(dt, voltage);
+            }
+            for (SimMecanumChassis drive : chassis) {
+                current += drive.step(dt, voltage);
+            }
+            for (SimServo servo : servos) {
+                servo.step(dt);
+            }
+            battery.setCurrent(current);
+            remaining -= step;
+        }
+        clock.advance(duration, unit);
+    }
+
+    /**
+     * Advances the simulation and the clock.
+     *
+     * @param seconds how far to advance, in seconds
+     */
+    public void stepSeconds(double seconds) {
+        step(Math.round(seconds * 1E9), TimeUnit.NANOSECONDS);
+    }
+
+}
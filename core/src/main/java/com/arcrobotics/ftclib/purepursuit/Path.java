@@ -12,11 +12,13 @@ import com.arcrobotics.ftclib.purepursuit.waypoints.EndWaypoint;
 import com.arcrobotics.ftclib.purepursuit.waypoints.GeneralWaypoint;
 import com.arcrobotics.ftclib.purepursuit.waypoints.InterruptWaypoint;
 import com.arcrobotics.ftclib.purepursuit.waypoints.PointTurnWaypoint;
+import com.arcrobotics.ftclib.util.Clock;
 
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This class represents a pure pursuit path. It is used to store a path's waypoints, and do all the
@@ -192,8 +194,8 @@ public class Path extends ArrayList<Waypoint> {
         if (timeoutMiliseconds != -1)
             // If this path has a timeout.
             if (timeSinceStart == -1)
-                timeSinceStart = System.currentTimeMillis();
-            else if (timeSinceStart + timeoutMiliseconds < System.currentTimeMillis()) {
+                timeSinceStart = Clock.DEFAULT.time(TimeUnit.MILLISECONDS);
+            else if (timeSinceStart + timeoutMiliseconds < Clock.DEFAULT.time(TimeUnit.MILLISECONDS)) {
                 timedOut = true;
                 // If the path has timed out, return no speeds.
                 return new double[]{0, 0, 0};
@@ -255,11 +257,11 @@ public class Path extends ArrayList<Waypoint> {
         if (bestIntersection.taggedPoint != lastWaypoint) {
             // If this is the first intersection of a new waypoint, update timeout values.
             lastWaypoint = bestIntersection.taggedPoint;
-            lastWaypointTimeStamp = System.currentTimeMillis();
+            lastWaypointTimeStamp = Clock.DEFAULT.time(TimeUnit.MILLISECONDS);
         }
         if (bestIntersection.taggedPoint.getTimeout() != -1)
             // If this waypoint has a timeout, make sure it hasn't timed out.
-            if (System.currentTimeMillis() > lastWaypointTimeStamp + bestIntersection.taggedPoint.getTimeout()) {
+            if (Clock.DEFAULT.time(TimeUnit.MILLISECONDS) > lastWaypointTimeStamp + bestIntersection.taggedPoint.getTimeout()) {
                 timedOut = true;
                 // If it has, return no motor speeds.
                 return new double[]{0, 0, 0};
@@ -685,7 +687,7 @@ public class Path extends ArrayList<Waypoint> {
      */
     public Path resetTimeouts() {
         timedOut = false;
-        lastWaypointTimeStamp = System.currentTimeMillis();
+        lastWaypointTimeStamp = Clock.DEFAULT.time(TimeUnit.MILLISECONDS);
         return this;
     }
 
@@ -0,0 +1,56 @@
+package com.arcrobotics.ftclib.trajectory;
+
+/**
+ * A one-dimensional motion profile from an initial state to a goal state, such as a
+ * {@link TrapezoidProfile} or an {@link SCurveProfile}.
+ */
+public interface MotionProfile {
+
+    /**
+     * Calculate the correct position and velocity for the profile at a time t
+     * where the beginning of the profile was at time t = 0.
+     *
+     * @param t The time since the beginning of the profile.
+     * @return The state of the profile at that time.
+     */
+    @SuppressWarnings("ParameterName")
+    TrapezoidProfile.State calculate(double t);
+
+    /**
+     * Calculate the correct position and velocity for the profile at a time t
+     * where the beginning of the profile was at time t = 0, without allocating.
+     *
+     * @param t      The time since the beginning of the profile.
+     * @param result The state to write the result into.
+     * @return The result, for chaining purposes.
+     */
+    @SuppressWarnings("ParameterName")
+    TrapezoidProfile.State calculate(double t, TrapezoidProfile.State result);
+
+    /**
+     * Returns the time left until a target distance in the profile is reached.
+     *
+     * @param target The target distance.
+     * @return The time until the target is reached.
+     */
+    double timeLeftUntil(double target);
+
+    /**
+     * Returns the total time the profile takes to reach the goal.
+     *
+     * @return The total time of the profile.
+     */
+    double totalTime();
+
+    /**
+     * Returns true if the profile has reached the goal.
+     *
+     * @param t The time since the beginning of the profile.
+     * @return Whether the time is past the end of the profile.
+     */
+    @SuppressWarnings("ParameterName")
+    default boolean isFinished(double t) {
+        return t >= totalTime();
+    }
+
+}
@@ -0,0 +1,305 @@
+package com.arcrobotics.ftclib.trajectory;
+
+/**
+ * A jerk-limited, S-curve velocity profile.
+ *
+ * <p>Where a {@link TrapezoidProfile} switches the acceleration on and off instantly, this
+ * profile ramps it at no more than the maximum jerk, so the velocity follows smooth S-shaped
+ * curves.  The sudden changes of acceleration are what set a lift or an arm swinging, so a
+ * mechanism can usually take a higher maximum acceleration with this profile, and finish a
+ * move sooner.
+ *
+ * <p>The profile is made of seven phases: the acceleration ramps up, holds, and ramps down to
+ * reach the peak velocity, which is held, and then the same again to reach the goal velocity.
+ * The phases are planned when the profile is constructed, or replanned with {@link #set}, after
+ * which {@link #calculate(double)} is closed-form.  Neither {@link #set} nor
+ * {@link #calculate(double, TrapezoidProfile.State)} allocates.
+ * The acceleration is taken to be zero at the initial and goal states.
+ *
+ * <p>The profile can be used wherever a {@link MotionProfile} is taken, and a
+ * {@link com.arcrobotics.ftclib.controller.wpilibcontroller.ProfiledPIDController} given
+ * {@link Constraints} follows an S-curve instead of a trapezoid:
+ *
+ * <pre><code>
+ * ProfiledPIDController controller = new ProfiledPIDController(kP, kI, kD,
+ *   new SCurveProfile.Constraints(kMaxV, kMaxA, kMaxJ));
+ * </code></pre>
+ */
+public class SCurveProfile implements MotionProfile {
+    // The direction of the profile, either 1 for forwards or -1 for inverted
+    private int m_direction;
+
+    private final TrapezoidProfile.State m_goal = new TrapezoidProfile.State();
+
+    private double m_maxAcceleration;
+    private double m_maxJerk;
+
+    // The state at the start of each phase, in the direction of the profile, and at the end
+    private final double[] m_time = new double[8];
+    private final double[] m_position = new double[8];
+    private final double[] m_velocity = new double[8];
+    private final double[] m_acceleration = new double[8];
+    private final double[] m_jerk = new double[7];
+
+    public static class Constraints extends TrapezoidProfile.Constraints {
+        @SuppressWarnings("MemberName")
+        public double maxJerk;
+
+        /**
+         * Construct empty constraints.  The fields must be set to positive values before the
+         * constraints are given to an SCurveProfile.
+         */
+        public Constraints() {
+        }
+
+        /**
+         * Construct constraints for an SCurveProfile.
+         *
+         * @param maxVelocity     maximum velocity
+         * @param maxAcceleration maximum acceleration
+         * @param maxJerk         maximum jerk, the rate of change of the acceleration
+         */
+        public Constraints(double maxVelocity, double maxAcceleration, double maxJerk) {
+            super(maxVelocity, maxAcceleration);
+            this.maxJerk = maxJerk;
+        }
+    }
+
+    /**
+     * Construct an SCurveProfile.
+     *
+     * @param constraints The constraints on the profile, like maximum jerk.
+     * @param goal        The desired state when the profile is complete.
+     * @param initial     The initial state (usually the current state).
+     * @throws IllegalArgumentException if the maximum velocity, acceleration or jerk is not
+     *                                  positive
+     */
+    public SCurveProfile(Constraints constraints, TrapezoidProfile.State goal,
+                         TrapezoidProfile.State initial) {
+        set(constraints, goal, initial);
+    }
+
+    /**
+     * Construct an SCurveProfile.
+     *
+     * @param constraints The constraints on the profile, like maximum jerk.
+     * @param goal        The desired state when the profile is complete.
+     * @throws IllegalArgumentException if the maximum velocity, acceleration or jerk is not
+     *                                  positive
+     */
+    public SCurveProfile(Constraints constraints, TrapezoidProfile.State goal) {
+        this(constraints, goal, new TrapezoidProfile.State(0, 0));
+    }
+
+    /**
+     * Replans this profile in place, as though it were newly constructed.  The states are
+     * copied, so they may be changed afterwards, and may be the state passed to
+     * {@link #calculate(double, TrapezoidProfile.State)}.
+     *
+     * @param constraints The constraints on the profile, like maximum jerk.
+     * @param goal        The desired state when the profile is complete.
+     * @param initial     The initial state (usually the current state).
+     * @return This profile, for chaining purposes.
+     * @throws IllegalArgumentException if the maximum velocity, acceleration or jerk is not
+     *                                  positive
+     */
+    public SCurveProfile set(Constraints constraints, TrapezoidProfile.State goal,
+                             TrapezoidProfile.State initial) {
+        // A zero limit would plan phases of 0/0 seconds, and the profile would never finish
+        if (!(constraints.maxVelocity > 0 && constraints.maxAcceleration > 0
+                && constraints.maxJerk > 0)) {
+            throw new IllegalArgumentException(
+                    "S-curve velocity, acceleration and jerk limits must be positive");
+        }
+        m_direction = initial.position > goal.position ? -1 : 1;
+        m_goal.position = goal.position;
+        m_goal.velocity = goal.velocity;
+        m_maxAcceleration = constraints.maxAcceleration;
+        m_maxJerk = constraints.maxJerk;
+
+        double maxVelocity = constraints.maxVelocity;
+        double initialVelocity = Math.max(-maxVelocity,
+                Math.min(maxVelocity, initial.velocity * m_direction));
+        double goalVelocity = Math.max(-maxVelocity,
+                Math.min(maxVelocity, goal.velocity * m_direction));
+        double distance = (goal.position - initial.position) * m_direction;
+
+        // Find the peak velocity that covers the distance, cruising if it reaches the maximum
+        double peak = maxVelocity;
+        double cruise = distance - distance(initialVelocity, peak, goalVelocity);
+        if (cruise < 0) {
+            double low = Math.max(initialVelocity, goalVelocity);
+            double high = maxVelocity;
+            if (distance(initialVelocity, low, goalVelocity) > distance) {
+                // Arriving too fast to stop in time, so the profile has to back up
+                high = low;
+                low = -maxVelocity;
+            }
+            for (int i = 0; i < 64; i++) {
+                peak = (low + high) / 2;
+                if (distance(initialVelocity, peak, goalVelocity) > distance) {
+                    high = peak;
+                } else {
+                    low = peak;
+                }
+            }
+            cruise = 0;
+        }
+
+        m_position[0] = initial.position * m_direction;
+        m_velocity[0] = initialVelocity;
+        planChange(0, initialVelocity, peak);
+        planPhase(3, cruise > 0 ? cruise / peak : 0, 0);
+        planChange(4, peak, goalVelocity);
+        return this;
+    }
+
+    /**
+     * Calculate the correct position and velocity for the profile at a time t
+     * where the beginning of the profile was at time t = 0.
+     *
+     * @param t The time since the beginning of the profile.
+     */
+    @Override
+    @SuppressWarnings("ParameterName")
+    public TrapezoidProfile.State calculate(double t) {
+        return calculate(t, new TrapezoidProfile.State());
+    }
+
+    /**
+     * Calculate the correct position and velocity for the profile at a time t
+     * where the beginning of the profile was at time t = 0, without allocating.
+     *
+     * @param t      The time since the beginning of the profile.
+     * @param result The state to write the result into.
+     * @return The result, for chaining purposes.
+     */
+    @Override
+    @SuppressWarnings("ParameterName")
+    public TrapezoidProfile.State calculate(double t, TrapezoidProfile.State result) {
+        if (t >= m_time[7]) {
+            result.position = m_goal.position;
+            result.velocity = m_goal.velocity;
+            return result;
+        }
+        int phase = phaseAt(t);
+        double dt = Math.max(0, t - m_time[phase]);
+        result.position = position(phase, dt) * m_direction;
+        result.velocity = velocity(phase, dt) * m_direction;
+        return result;
+    }
+
+    /**
+     * Calculate the acceleration of the profile at a time t, such as for a feedforward.
+     *
+     * @param t The time since the beginning of the profile.
+     * @return The acceleration at that time.
+     */
+    @SuppressWarnings("ParameterName")
+    public double calculateAcceleration(double t) {
+        if (t < 0 || t >= m_time[7]) {
+            return 0;
+        }
+        int phase = phaseAt(t);
+        return (m_acceleration[phase] + m_jerk[phase] * (t - m_time[phase])) * m_direction;
+    }
+
+    /**
+     * Returns the time from the beginning of the profile until a target distance is first
+     * reached, or the total time if it never is.
+     *
+     * @param target The target distance.
+     */
+    @Override
+    public double timeLeftUntil(double target) {
+        double position = target * m_direction;
+        for (int phase = 0; phase < 7; phase++) {
+            double low = 0;
+            double high = m_time[phase + 1] - m_time[phase];
+            double error = m_position[phase] - position;
+            if (error == 0) {
+                return m_time[phase];
+            }
+            if (high <= 0 || Math.signum(error) == Math.signum(m_position[phase + 1] - position)) {
+                continue;
+            }
+            // The target lies within this phase, so bisect for where it is crossed
+            for (int i = 0; i < 64; i++) {
+                double mid = (low + high) / 2;
+                if (Math.signum(position(phase, mid) - position) == Math.signum(error)) {
+                    low = mid;
+                } else {
+                    high = mid;
+                }
+            }
+            return m_time[phase] + (low + high) / 2;
+        }
+        return totalTime();
+    }
+
+    /**
+     * Returns the total time the profile takes to reach the goal.
+     */
+    @Override
+    public double totalTime() {
+        return m_time[7];
+    }
+
+    private int phaseAt(double t) {
+        int phase = 0;
+        while (phase < 6 && t >= m_time[phase + 1]) {
+            phase++;
+        }
+        return phase;
+    }
+
+    private double position(int phase, double dt) {
+        return m_position[phase] + (m_velocity[phase] + (m_acceleration[phase] / 2
+                + m_jerk[phase] * dt / 6) * dt) * dt;
+    }
+
+    private double velocity(int phase, double dt) {
+        return m_velocity[phase] + (m_acceleration[phase] + m_jerk[phase] * dt / 2) * dt;
+    }
+
+    // The peak acceleration of a change of velocity, which ramps up and down at the maximum jerk
+    private double peakAcceleration(double from, double to) {
+        return Math.min(m_maxAcceleration, Math.sqrt(Math.abs(to - from) * m_maxJerk));
+    }
+
+    // The distance covered changing from one velocity to a peak velocity and then to another;
+    // each change is symmetric, so its mean velocity is halfway between its ends
+    private double distance(double from, double peak, double to) {
+        return (from + peak) / 2 * changeTime(from, peak) + (peak + to) / 2 * changeTime(peak, to);
+    }
+
+    // The time taken to change from one velocity to another
+    private double changeTime(double from, double to) {
+        double acceleration = peakAcceleration(from, to);
+        if (acceleration == 0) {
+            return 0;
+        }
+        return Math.abs(to - from) / acceleration + acceleration / m_maxJerk;
+    }
+
+    private void planChange(int phase, double from, double to) {
+        double acceleration = peakAcceleration(from, to);
+        double ramp = acceleration / m_maxJerk;
+        double hold = acceleration == 0 ? 0
+                : Math.max(0, Math.abs(to - from) / acceleration - ramp);
+        acceleration = Math.copySign(acceleration, to - from);
+        planPhase(phase, ramp, acceleration);
+        planPhase(phase + 1, hold, acceleration);
+        planPhase(phase + 2, ramp, 0);
+    }
+
+    private void planPhase(int phase, double duration, double endAcceleration) {
+        double acceleration = m_acceleration[phase];
+        double jerk = duration > 0 ? (endAcceleration - acceleration) / duration : 0;
+        m_jerk[phase] = jerk;
+        m_time[phase + 1] = m_time[phase] + duration;
+        m_position[phase + 1] = position(phase, duration);
+        m_velocity[phase + 1] = velocity(phase, duration);
+        m_acceleration[phase + 1] = endAcceleration;
+    }
+}
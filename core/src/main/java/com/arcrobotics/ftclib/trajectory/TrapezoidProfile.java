@@ -33,6 +33,13 @@ import java.util.Objects;
  * previousProfiledReference = profile.calculate(timeSincePreviousUpdate);
  * </code></pre>
  *
+ * <p>To run on update without allocating, keep one profile and one state, and replan the
+ * profile in place:
+ * <pre><code>
+ * profile.set(constraints, unprofiledReference, previousProfiledReference);
+ * profile.calculate(timeSincePreviousUpdate, previousProfiledReference);
+ * </code></pre>
+ *
  * <p>where `unprofiledReference` is free to change between calls. Note that when
  * the unprofiled reference is within the constraints, `calculate()` returns the
  * unprofiled reference unchanged.
@@ -41,13 +48,13 @@ import java.util.Objects;
  * `calculate()` and to determine when the profile has completed via
  * `isFinished()`.
  */
-public class TrapezoidProfile {
+public class TrapezoidProfile implements MotionProfile {
     // The direction of the profile, either 1 for forwards or -1 for inverted
     private int m_direction;
 
     private Constraints m_constraints;
-    private State m_initial;
-    private State m_goal;
+    private final State m_initial = new State();
+    private final State m_goal = new State();
 
     private double m_endAccel;
     private double m_endFullSpeed;
@@ -112,10 +119,34 @@ public class TrapezoidProfile {
      * @param initial     The initial state (usually the current state).
      */
     public TrapezoidProfile(Constraints constraints, State goal, State initial) {
+        set(constraints, goal, initial);
+    }
+
+    /**
+     * Construct a TrapezoidProfile.
+     *
+     * @param constraints The constraints on the profile, like maximum velocity.
+     * @param goal        The desired state when the profile is complete.
+     */
+    public TrapezoidProfile(Constraints constraints, State goal) {
+        this(constraints, goal, new State(0, 0));
+    }
+
+    /**
+     * Replans this profile in place, as though it were newly constructed.  The states are
+     * copied, so they may be changed afterwards, and may be the state passed to
+     * {@link #calculate(double, State)}.
+     *
+     * @param constraints The constraints on the profile, like maximum velocity.
+     * @param goal        The desired state when the profile is complete.
+     * @param initial     The initial state (usually the current state).
+     * @return This profile, for chaining purposes.
+     */
+    public TrapezoidProfile set(Constraints constraints, State goal, State initial) {
         m_direction = shouldFlipAcceleration(initial, goal) ? -1 : 1;
         m_constraints = constraints;
-        m_initial = direct(initial);
-        m_goal = direct(goal);
+        direct(initial, m_initial);
+        direct(goal, m_goal);
 
         if (m_initial.velocity > m_constraints.maxVelocity) {
             m_initial.velocity = m_constraints.maxVelocity;
@@ -149,45 +180,55 @@ public class TrapezoidProfile {
         m_endAccel = accelerationTime - cutoffBegin;
         m_endFullSpeed = m_endAccel + fullSpeedDist / m_constraints.maxVelocity;
         m_endDeccel = m_endFullSpeed + accelerationTime - cutoffEnd;
+        return this;
     }
 
     /**
-     * Construct a TrapezoidProfile.
+     * Calculate the correct position and velocity for the profile at a time t
+     * where the beginning of the profile was at time t = 0.
      *
-     * @param constraints The constraints on the profile, like maximum velocity.
-     * @param goal        The desired state when the profile is complete.
+     * @param t The time since the beginning of the profile.
      */
-    public TrapezoidProfile(Constraints constraints, State goal) {
-        this(constraints, goal, new State(0, 0));
+    @Override
+    @SuppressWarnings("ParameterName")
+    public State calculate(double t) {
+        return calculate(t, new State());
     }
 
     /**
      * Calculate the correct position and velocity for the profile at a time t
-     * where the beginning of the profile was at time t = 0.
+     * where the beginning of the profile was at time t = 0, without allocating.
      *
-     * @param t The time since the beginning of the profile.
+     * @param t      The time since the beginning of the profile.
+     * @param result The state to write the result into.
+     * @return The result, for chaining purposes.
      */
+    @Override
     @SuppressWarnings("ParameterName")
-    public State calculate(double t) {
-        State result = new State(m_initial.position, m_initial.velocity);
+    public State calculate(double t, State result) {
+        double position = m_initial.position;
+        double velocity = m_initial.velocity;
 
         if (t < m_endAccel) {
-            result.velocity += t * m_constraints.maxAcceleration;
-            result.position += (m_initial.velocity + t * m_constraints.maxAcceleration / 2.0) * t;
+            velocity += t * m_constraints.maxAcceleration;
+            position += (m_initial.velocity + t * m_constraints.maxAcceleration / 2.0) * t;
         } else if (t < m_endFullSpeed) {
-            result.velocity = m_constraints.maxVelocity;
-            result.position += (m_initial.velocity + m_endAccel * m_constraints.maxAcceleration
+            velocity = m_constraints.maxVelocity;
+            position += (m_initial.velocity + m_endAccel * m_constraints.maxAcceleration
                     / 2.0) * m_endAccel + m_constraints.maxVelocity * (t - m_endAccel);
         } else if (t <= m_endDeccel) {
-            result.velocity = m_goal.velocity + (m_endDeccel - t) * m_constraints.maxAcceleration;
+            velocity = m_goal.velocity + (m_endDeccel - t) * m_constraints.maxAcceleration;
             double timeLeft = m_endDeccel - t;
-            result.position = m_goal.position - (m_goal.velocity + timeLeft
+            position = m_goal.position - (m_goal.velocity + timeLeft
                     * m_constraints.maxAcceleration / 2.0) * timeLeft;
         } else {
-            result = m_goal;
+            position = m_goal.position;
+            velocity = m_goal.velocity;
         }
 
-        return direct(result);
+        result.position = position * m_direction;
+        result.velocity = velocity * m_direction;
+        return result;
     }
 
     /**
@@ -195,6 +236,7 @@ public class TrapezoidProfile {
      *
      * @param target The target distance.
      */
+    @Override
     public double timeLeftUntil(double target) {
         double position = m_initial.position * m_direction;
         double velocity = m_initial.velocity * m_direction;
@@ -261,6 +303,7 @@ public class TrapezoidProfile {
     /**
      * Returns the total time the profile takes to reach the goal.
      */
+    @Override
     public double totalTime() {
         return m_endDeccel;
     }
@@ -273,6 +316,7 @@ public class TrapezoidProfile {
      *
      * @param t The time since the beginning of the profile.
      */
+    @Override
     @SuppressWarnings("ParameterName")
     public boolean isFinished(double t) {
         return t >= totalTime();
@@ -291,10 +335,8 @@ public class TrapezoidProfile {
     }
 
     // Flip the sign of the velocity and position if the profile is inverted
-    private State direct(State in) {
-        State result = new State(in.position, in.velocity);
-        result.position = result.position * m_direction;
-        result.velocity = result.velocity * m_direction;
-        return result;
+    private void direct(State in, State out) {
+        out.position = in.position * m_direction;
+        out.velocity = in.velocity * m_direction;
     }
 }
@@ -0,0 +1,76 @@
+package com.arcrobotics.ftclib.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A source of time for everything in the library that measures elapsed time: timers, wait
+ * commands, controllers, encoders and path timeouts.  Only differences between readings are
+ * meaningful.
+ * <p>
+ * Those classes read the {@link #DEFAULT} clock, which follows whatever clock was installed with
+ * {@link #setDefault(Clock)}, so installing a {@link ManualClock} before building an OpMode lets
+ * it run in simulation as fast as the computer allows instead of in real time.  Classes that
+ * take a clock directly can also be given their own.
+ */
+public abstract class Clock {
+
+    /**
+     * The system's monotonic clock.
+     */
+    public static final Clock SYSTEM = new Clock() {
+        @Override
+        public long nanoTime() {
+            return System.nanoTime();
+        }
+    };
+
+    private static volatile Clock installed = SYSTEM;
+
+    /**
+     * A clock that always reads the clock installed with {@link #setDefault(Clock)}, even if it
+     * was installed after this clock was handed out.
+     */
+    public static final Clock DEFAULT = new Clock() {
+        @Override
+        public long nanoTime() {
+            return installed.nanoTime();
+        }
+    };
+
+    /**
+     * Installs the clock read by {@link #DEFAULT}.
+     *
+     * @param clock the clock to install, or null for the system clock
+     */
+    public static void setDefault(Clock clock) {
+        installed = clock == null || clock == DEFAULT ? SYSTEM : clock;
+    }
+
+    /**
+     * @return the clock read by {@link #DEFAULT}
+     */
+    public static Clock getDefault() {
+        return installed;
+    }
+
+    /**
+     * @return the current time in nanoseconds
+     */
+    public abstract long nanoTime();
+
+    /**
+     * @param unit the unit of the result
+     * @return the current time in the given unit
+     */
+    public long time(TimeUnit unit) {
+        return unit.convert(nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return the current time in seconds
+     */
+    public double seconds() {
+        return nanoTime() / 1E9;
+    }
+
+}
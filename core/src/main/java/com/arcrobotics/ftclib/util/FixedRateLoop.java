@@ -0,0 +1,141 @@
+package com.arcrobotics.ftclib.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds a loop to a fixed period. Call {@link #start()} once before the first iteration and
+ * {@link #waitForNextPeriod()} at the end of every iteration; it sleeps, then spins for the last
+ * stretch, until the next period begins.
+ * <p>
+ * An iteration whose work takes longer than the period is an overrun. The loop does not try to
+ * catch up after an overrun; the next period simply starts as soon as the late iteration ends.
+ * Work time, the actual period, and jitter (how far each period was from the target) are all
+ * recorded in {@link TimingHistogram}s.
+ */
+public class FixedRateLoop {
+
+    private final long period;
+    private long spinThreshold = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final TimingHistogram workTimes = new TimingHistogram();
+    private final TimingHistogram periods = new TimingHistogram();
+    private final TimingHistogram jitter = new TimingHistogram();
+
+    private long periodStart, deadline, overruns;
+    private boolean started, lastOverran;
+
+    /**
+     * Creates a fixed rate loop.
+     *
+     * @param period the target period of the loop
+     * @param unit   the unit of the period
+     */
+    public FixedRateLoop(long period, TimeUnit unit) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Loop period must be positive");
+        }
+        this.period = unit.toNanos(period);
+    }
+
+    /**
+     * Sets how close to the deadline the loop stops sleeping and starts spinning. Sleeping is
+     * only accurate to around a millisecond, so spinning for the last stretch keeps the period
+     * tight at the cost of some CPU time.
+     *
+     * @param threshold the remaining time below which the loop spins
+     * @param unit      the unit of the threshold
+     */
+    public void setSpinThreshold(long threshold, TimeUnit unit) {
+        spinThreshold = unit.toNanos(threshold);
+    }
+
+    /**
+     * Starts the first period and clears the statistics.
+     */
+    public void start() {
+        workTimes.reset();
+        periods.reset();
+        jitter.reset();
+        overruns = 0;
+        periodStart = System.nanoTime();
+        deadline = periodStart + period;
+        started = true;
+        lastOverran = false;
+    }
+
+    /**
+     * Ends the current iteration, waiting until the next period begins.
+     *
+     * @return whether the iteration overran its period
+     * @throws InterruptedException if the thread is interrupted while sleeping
+     */
+    public boolean waitForNextPeriod() throws InterruptedException {
+        if (!started) start();
+
+        long now = System.nanoTime();
+        workTimes.record(now - periodStart);
+        lastOverran = now > deadline;
+        if (lastOverran) overruns++;
+
+        if (!lastOverran) {
+            long sleep = deadline - now - spinThreshold;
+            if (sleep > 0) {
+                Thread.sleep(sleep / 1_000_000, (int) (sleep % 1_000_000));
+            }
+            while ((now = System.nanoTime()) < deadline) {
+                Thread.yield();
+            }
+        }
+
+        long actual = now - periodStart;
+        periods.record(actual);
+        jitter.record(Math.abs(actual - period));
+
+        periodStart = now;
+        deadline = lastOverran ? now + period : deadline + period;
+        return lastOverran;
+    }
+
+    /**
+     * @return whether the most recent iteration overran its period
+     */
+    public boolean lastOverran() {
+        return lastOverran;
+    }
+
+    /**
+     * @return the target period in nanoseconds
+     */
+    public long getPeriod() {
+        return period;
+    }
+
+    /**
+     * @return the time spent in each iteration before waiting, in nanoseconds
+     */
+    public TimingHistogram getWorkTimes() {
+        return workTimes;
+    }
+
+    /**
+     * @return the actual length of each period, in nanoseconds
+     */
+    public TimingHistogram getPeriods() {
+        return periods;
+    }
+
+    /**
+     * @return how far each period was from the target, in nanoseconds
+     */
+    public TimingHistogram getJitter() {
+        return jitter;
+    }
+
+    /**
+     * @return the number of iterations that overran their period
+     */
+    public long getOverruns() {
+        return overruns;
+    }
+
+}
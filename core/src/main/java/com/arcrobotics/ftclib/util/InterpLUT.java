@@ -124,6 +124,24 @@ public class InterpLUT {
                 + (mY.get(i + 1) * (3 - 2 * t) + h * mM.get(i + 1) * (t - 1)) * t * t;
     }
 
+    /**
+     * Interpolates the value of Y = f(X) for given X.  Unlike {@link #get(double)}, X outside
+     * the domain of the spline gives the Y of the nearest control point rather than throwing.
+     *
+     * @param input The X value.
+     * @return The interpolated Y = f(X) value.
+     */
+    public double getClamped(double input) {
+        final int n = mX.size();
+        if (input <= mX.get(0)) {
+            return mY.get(0);
+        }
+        if (input >= mX.get(n - 1)) {
+            return mY.get(n - 1);
+        }
+        return get(input);
+    }
+
     // For debugging.
     @Override
     public String toString() {
@@ -0,0 +1,59 @@
+package com.arcrobotics.ftclib.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A clock that only moves when it is told to.  Install one with {@link Clock#setDefault(Clock)}
+ * and advance it by one loop period after every iteration to simulate an OpMode faster than
+ * real time.
+ */
+public class ManualClock extends Clock {
+
+    private volatile long now;
+
+    /**
+     * Creates a manual clock that reads one second.  Starting away from zero keeps code that
+     * treats a zero timestamp as "never" working as it would on a real clock.
+     */
+    public ManualClock() {
+        this(1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Creates a manual clock.
+     *
+     * @param start the initial reading of the clock
+     * @param unit  the unit of the initial reading
+     */
+    public ManualClock(long start, TimeUnit unit) {
+        now = unit.toNanos(start);
+    }
+
+    @Override
+    public long nanoTime() {
+        return now;
+    }
+
+    /**
+     * Moves the clock forward.
+     *
+     * @param duration how far to move the clock
+     * @param unit     the unit of the duration
+     */
+    public void advance(long duration, TimeUnit unit) {
+        if (duration < 0) {
+            throw new IllegalArgumentException("A clock cannot move backwards");
+        }
+        now += unit.toNanos(duration);
+    }
+
+    /**
+     * Moves the clock forward.
+     *
+     * @param seconds how far to move the clock, in seconds
+     */
+    public void advanceSeconds(double seconds) {
+        advance(Math.round(seconds * 1E9), TimeUnit.NANOSECONDS);
+    }
+
+}
@@ -14,10 +14,12 @@ public class Timing {
      * if the timer has finished, and so forth.
      * <p>
      * A more simple version of a timer better suited for quick uses rather than an
-     * {@link ElapsedTime} object.
+     * {@link ElapsedTime} object. Time is read from a {@link Clock}, the {@link Clock#DEFAULT}
+     * clock unless another is given.
      */
     public static class Timer {
-        private ElapsedTime time;
+        private final Clock clock;
+        private long startTime; // the clock reading at which the elapsed time was zero
         private long timerLength;
         private long pauseTime; // in nanoseconds, regardless of unit
         private TimeUnit unit;
@@ -28,12 +30,23 @@ public class Timing {
          *
          * @param timerLength The length of the timer, in the units specified by unit.
          * @param unit        The unit of timerLength.
+         * @param clock       The clock to read the time from.
          */
-        public Timer(long timerLength, TimeUnit unit) {
+        public Timer(long timerLength, TimeUnit unit, Clock clock) {
             this.timerLength = timerLength;
             this.unit = unit;
-            this.time = new ElapsedTime();
-            time.reset();
+            this.clock = clock;
+            startTime = clock.nanoTime();
+        }
+
+        /**
+         * Creates a new timer object.
+         *
+         * @param timerLength The length of the timer, in the units specified by unit.
+         * @param unit        The unit of timerLength.
+         */
+        public Timer(long timerLength, TimeUnit unit) {
+            this(timerLength, unit, Clock.DEFAULT);
         }
 
         /**
@@ -49,7 +62,7 @@ public class Timing {
          * Starts this timer.
          */
         public void start() {
-            time.reset();
+            startTime = clock.nanoTime();
             pauseTime = 0;
             timerOn = true;
         }
@@ -59,7 +72,7 @@ public class Timing {
          */
         public void pause() {
             if (timerOn) {
-                pauseTime = time.nanoseconds();
+                pauseTime = clock.nanoTime() - startTime;
                 timerOn = false;
             }
         }
@@ -70,7 +83,7 @@ public class Timing {
         public void resume() {
             if (!timerOn) {
                 // we start the timer with a time in the past, since we're starting in the middle of the timer
-                time = new ElapsedTime(System.nanoTime() - pauseTime);
+                startTime = clock.nanoTime() - pauseTime;
                 timerOn = true;
             }
         }
@@ -83,7 +96,7 @@ public class Timing {
          * If the timer is paused, return the time at which the timer was paused.
          */
         public long elapsedTime() {
-            if (timerOn) return time.time(unit);
+            if (timerOn) return unit.convert(clock.nanoTime() - startTime, TimeUnit.NANOSECONDS);
             else return unit.convert(pauseTime, TimeUnit.NANOSECONDS);
         }
 
@@ -123,21 +136,28 @@ public class Timing {
      */
     public class Rate {
 
-        private ElapsedTime time;
+        private final Clock clock;
+        private long startTime;
         private long rate;
 
         public Rate(long rateMillis) {
+            this(rateMillis, Clock.DEFAULT);
+        }
+
+        public Rate(long rateMillis, Clock clock) {
             rate = rateMillis;
-            time = new ElapsedTime(ElapsedTime.Resolution.MILLISECONDS);
+            this.clock = clock;
+            startTime = clock.nanoTime();
         }
 
         public void reset() {
-            time.reset();
+            startTime = clock.nanoTime();
         }
 
         public boolean atTime() {
-            boolean done = (time.milliseconds() >= rate);
-            time.reset();
+            long now = clock.nanoTime();
+            boolean done = TimeUnit.NANOSECONDS.toMillis(now - startTime) >= rate;
+            startTime = now;
             return done;
         }
 
@@ -0,0 +1,189 @@
+package com.arcrobotics.ftclib.util;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A fixed-size histogram of durations in nanoseconds. Recording a sample never allocates,
+ * which makes it safe to use from inside the main loop.
+ * <p>
+ * Samples are sorted into logarithmic buckets with four sub-buckets per power of two, so
+ * percentiles are accurate to within 25% of the true value. The minimum, maximum, and mean
+ * are exact.
+ */
+public class TimingHistogram {
+
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = SUB_BUCKETS * 64;
+
+    private final long[] buckets = new long[BUCKETS];
+    private long count, sum, min, max, last, overruns;
+    private long overrunThreshold;
+
+    /**
+     * Creates a histogram that does not count overruns.
+     */
+    public TimingHistogram() {
+        this(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Creates a histogram that counts every sample longer than the given threshold as an overrun.
+     *
+     * @param overrunThreshold the longest acceptable duration
+     * @param unit             the unit of the threshold
+     */
+    public TimingHistogram(long overrunThreshold, TimeUnit unit) {
+        setOverrunThreshold(overrunThreshold, unit);
+        reset();
+    }
+
+    /**
+     * Adds a sample to the histogram.
+     *
+     * @param nanos the duration in nanoseconds; negative values are treated as zero
+     */
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        buckets[bucketOf(nanos)]++;
+        count++;
+        sum += nanos;
+        last = nanos;
+        if (nanos < min) min = nanos;
+        if (nanos > max) max = nanos;
+        if (nanos > overrunThreshold) overruns++;
+    }
+
+    /**
+     * Clears all recorded samples. The overrun threshold is kept.
+     */
+    public void reset() {
+        Arrays.fill(buckets, 0);
+        count = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+        last = 0;
+        overruns = 0;
+    }
+
+    /**
+     * Sets the duration above which a sample is counted as an overrun.
+     *
+     * @param overrunThreshold the longest acceptable duration
+     * @param unit             the unit of the threshold
+     */
+    public void setOverrunThreshold(long overrunThreshold, TimeUnit unit) {
+        this.overrunThreshold = unit.toNanos(overrunThreshold);
+    }
+
+    /**
+     * @return the overrun threshold in nanoseconds
+     */
+    public long getOverrunThreshold() {
+        return overrunThreshold;
+    }
+
+    /**
+     * @return the number of samples recorded
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the number of samples longer than the overrun threshold
+     */
+    public long getOverruns() {
+        return overruns;
+    }
+
+    /**
+     * @return the shortest sample in nanoseconds, or 0 if nothing was recorded
+     */
+    public long getMin() {
+        return count == 0 ? 0 : min;
+    }
+
+    /**
+     * @return the longest sample in nanoseconds
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * @return the most recent sample in nanoseconds
+     */
+    public long getLast() {
+        return last;
+    }
+
+    /**
+     * @return the mean of the samples in nanoseconds, or 0 if nothing was recorded
+     */
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Estimates a percentile of the recorded samples.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the upper bound of the bucket holding the percentile, in nanoseconds,
+     * never more than the maximum sample
+     */
+    public long getPercentile(double percentile) {
+        if (count == 0) return 0;
+        long rank = (long) Math.ceil(MathUtils.clamp(percentile, 0, 100) / 100 * count);
+        rank = Math.max(1, rank);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return Math.max(getMin(), Math.min(max, upperBoundOf(i)));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Copies the samples of another histogram into this one. The overrun threshold of this
+     * histogram is kept, but the overrun count is copied.
+     *
+     * @param other the histogram to copy
+     */
+    public void copyFrom(TimingHistogram other) {
+        System.arraycopy(other.buckets, 0, buckets, 0, BUCKETS);
+        count = other.count;
+        sum = other.sum;
+        min = other.min;
+        max = other.max;
+        last = other.last;
+        overruns = other.overruns;
+    }
+
+    private static int bucketOf(long nanos) {
+        if (nanos < SUB_BUCKETS) return (int) nanos;
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = bucket % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return ((SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS)) + width - 1;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n=%d min=%.3fms mean=%.3fms p99=%.3fms max=%.3fms overruns=%d",
+                count, getMin() / 1E6, getMean() / 1E6, getPercentile(99) / 1E6,
+                max / 1E6, overruns);
+    }
+
+}
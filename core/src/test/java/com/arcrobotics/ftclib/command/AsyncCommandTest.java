@@ -0,0 +1,158 @@
+package com.arcrobotics.ftclib.command;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AsyncCommandTest {
+
+    private String result;
+    private Thread resultThread;
+
+    @BeforeEach
+    public void setup() {
+        Robot.enable();
+        result = null;
+        resultThread = null;
+    }
+
+    @AfterEach
+    public void teardown() {
+        CommandScheduler.getInstance().reset();
+    }
+
+    private void runUntilDone(Command command) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (command.isScheduled() && System.nanoTime() < deadline) {
+            CommandScheduler.getInstance().run();
+        }
+        assertFalse(command.isScheduled(), "The command did not finish in time");
+    }
+
+    @Test
+    public void testDeliversResultOnSchedulerThread() {
+        CountDownLatch release = new CountDownLatch(1);
+        AsyncCommand<String> command = new AsyncCommand<>(() -> {
+            release.await();
+            return "done";
+        }, value -> {
+            result = value;
+            resultThread = Thread.currentThread();
+        });
+        command.schedule();
+
+        for (int i = 0; i < 5; i++) {
+            CommandScheduler.getInstance().run();
+        }
+        assertTrue(command.isScheduled(), "The loop should keep running while the work is busy");
+        assertNull(result);
+
+        release.countDown();
+        runUntilDone(command);
+        assertEquals("done", result);
+        assertSame(Thread.currentThread(), resultThread);
+    }
+
+    @Test
+    public void testInterruptCancelsWork() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch stopped = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        AsyncCommand<String> command = new AsyncCommand<>(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+            }
+            stopped.countDown();
+            return "late";
+        }, value -> result = value);
+        command.schedule();
+        CommandScheduler.getInstance().run();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        command.cancel();
+        assertTrue(stopped.await(5, TimeUnit.SECONDS));
+        assertTrue(interrupted.get());
+        assertNull(result);
+    }
+
+    @Test
+    public void testRethrowsFailure() {
+        AsyncCommand<String> command = new AsyncCommand<>(() -> {
+            throw new IllegalArgumentException("bad path");
+        }, value -> result = value);
+        command.schedule();
+        assertThrows(IllegalArgumentException.class, () -> runUntilDone(command));
+    }
+
+    @Test
+    public void testWinsRace() {
+        CountDownLatch release = new CountDownLatch(1);
+        AsyncCommand<String> command = new AsyncCommand<>(() -> {
+            release.await();
+            return "path";
+        }, value -> result = value);
+        assertFalse(command.isFinished());
+
+        int[] ended = new int[1];
+        Command other = new RunCommand(() -> { }) {
+            @Override
+            public void end(boolean interrupted) {
+                ended[0]++;
+                assertTrue(interrupted);
+            }
+        };
+        Command race = new ParallelRaceGroup(command, other);
+        race.schedule();
+        CommandScheduler.getInstance().run();
+        release.countDown();
+        runUntilDone(race);
+
+        assertEquals("path", result);
+        assertTrue(command.isFinished());
+        assertEquals(1, ended[0]);
+    }
+
+    @Test
+    public void testPlansWhileDriving() {
+        int[] drivenLoops = new int[1];
+        Command drive = new CommandBase() {
+            @Override
+            public void execute() {
+                drivenLoops[0]++;
+            }
+
+            @Override
+            public boolean isFinished() {
+                return drivenLoops[0] >= 3 && result != null;
+            }
+        };
+        String[] followed = new String[1];
+        Command routine = new SequentialCommandGroup(
+                new ParallelCommandGroup(
+                        drive,
+                        new AsyncCommand<>(() -> "second path", value -> result = value)
+                ),
+                new InstantCommand(() -> followed[0] = result)
+        );
+        routine.schedule();
+        runUntilDone(routine);
+
+        assertEquals("second path", followed[0]);
+        assertTrue(drivenLoops[0] >= 3);
+    }
+
+}
@@ -0,0 +1,137 @@
+package com.arcrobotics.ftclib.command;
+
+import com.arcrobotics.ftclib.command.CommandEventLog.Event;
+import com.arcrobotics.ftclib.command.CommandEventRecorder.EventType;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.arcrobotics.ftclib.util.AllocationAssert.assertNoAllocation;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CommandEventRecorderTest {
+
+    private ByteArrayOutputStream bytes;
+    private CommandEventRecorder recorder;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        Robot.enable();
+        bytes = new ByteArrayOutputStream();
+        recorder = new CommandEventRecorder(bytes, 1024, 5, TimeUnit.MILLISECONDS);
+        recorder.attach(CommandScheduler.getInstance());
+    }
+
+    @AfterEach
+    public void teardown() throws IOException {
+        recorder.close();
+        CommandScheduler.getInstance().reset();
+    }
+
+    private CommandEventLog readLog() throws IOException {
+        recorder.close();
+        return CommandEventLog.read(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+
+    private static List<EventType> typesOf(List<Event> events) {
+        List<EventType> types = new ArrayList<>();
+        for (Event event : events) {
+            types.add(event.getType());
+        }
+        return types;
+    }
+
+    @Test
+    public void testRecordsTimeline() throws IOException {
+        Subsystem intake = new SubsystemBase() {
+        };
+        CommandBase idle = new RunCommand(() -> { }, intake);
+        idle.setName("Idle");
+        CommandBase collect = new WaitUntilCommand(() -> false);
+        collect.addRequirements(intake);
+        collect.setName("Collect");
+        CommandBase hold = new RunCommand(() -> { }, intake);
+        hold.setName("Hold");
+        CommandScheduler.getInstance().setDefaultCommand(intake, idle);
+
+        CommandScheduler.getInstance().run();
+        collect.schedule(false);
+        CommandScheduler.getInstance().run();
+        hold.schedule();
+        collect.cancel();
+
+        CommandEventLog log = readLog();
+        assertEquals(Arrays.asList(
+                EventType.SCHEDULE, EventType.INITIALIZE, EventType.DEFAULT_START,
+                EventType.SCHEDULE, EventType.CONFLICT, EventType.INTERRUPT, EventType.INITIALIZE,
+                EventType.EXECUTE,
+                EventType.SCHEDULE, EventType.CONFLICT,
+                EventType.INTERRUPT
+        ), typesOf(log.getEvents()));
+
+        List<Event> holdEvents = log.getEvents("Hold");
+        assertEquals(2, holdEvents.size());
+        assertEquals("Collect", holdEvents.get(1).getOther());
+        assertEquals(0, log.getDroppedEvents());
+        assertFalse(log.isTruncated());
+        for (int i = 1; i < log.getEvents().size(); i++) {
+            assertTrue(log.getEvents().get(i).getTime() >= log.getEvents().get(i - 1).getTime());
+        }
+    }
+
+    @Test
+    public void testDropsEventsWhenFull() throws IOException {
+        recorder.close();
+        bytes = new ByteArrayOutputStream();
+        recorder = new CommandEventRecorder(bytes, 4, 1, TimeUnit.HOURS);
+        Command command = new InstantCommand();
+        for (int i = 0; i < 10; i++) {
+            recorder.record(EventType.EXECUTE, command, null);
+        }
+
+        CommandEventLog log = readLog();
+        assertEquals(4, log.getEvents().size());
+        assertEquals(6, log.getDroppedEvents());
+        assertTrue(log.toString().contains("6 events were dropped"));
+    }
+
+    @Test
+    public void testReadsTruncatedLog() throws IOException {
+        Command command = new InstantCommand();
+        for (int i = 0; i < 3; i++) {
+            recorder.record(EventType.EXECUTE, command, null);
+        }
+        recorder.close();
+        byte[] log = bytes.toByteArray();
+
+        CommandEventLog truncated = CommandEventLog.read(
+                new ByteArrayInputStream(Arrays.copyOf(log, log.length - 1)));
+        assertEquals(2, truncated.getEvents().size());
+        assertTrue(truncated.isTruncated());
+    }
+
+    @Test
+    public void testRecordingDoesNotAllocate() {
+        CommandScheduler scheduler = CommandScheduler.getInstance();
+        for (int i = 0; i < 8; i++) {
+            new RunCommand(() -> { }).schedule();
+        }
+        assertNoAllocation(() -> {
+            for (int i = 0; i < 100; i++) {
+                scheduler.run();
+            }
+        }, 1, 5, "Recording should not allocate");
+    }
+
+}
@@ -0,0 +1,152 @@
+package com.arcrobotics.ftclib.command;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CommandGroupBaseTest {
+
+    @AfterEach
+    public void teardown() {
+        CommandGroupBase.clearGroupedCommands();
+        CommandScheduler.getInstance().reset();
+    }
+
+    @Test
+    public void testGroupedCommandCannotBeReused() {
+        Command command = new InstantCommand();
+        new SequentialCommandGroup(command);
+
+        assertThrows(IllegalArgumentException.class, () -> new ParallelCommandGroup(command));
+        assertThrows(IllegalArgumentException.class,
+                () -> CommandGroupBase.requireUngrouped(Collections.singletonList(command)));
+        assertThrows(IllegalArgumentException.class, command::schedule);
+    }
+
+    @Test
+    public void testClearGroupedCommands() {
+        Command first = new InstantCommand();
+        Command second = new InstantCommand();
+        new SequentialCommandGroup(first, second);
+
+        CommandGroupBase.clearGroupedCommand(first);
+        assertDoesNotThrow(() -> CommandGroupBase.requireUngrouped(first));
+        assertThrows(IllegalArgumentException.class,
+                () -> CommandGroupBase.requireUngrouped(second));
+
+        CommandGroupBase.clearGroupedCommands();
+        assertDoesNotThrow(() -> CommandGroupBase.requireUngrouped(first, second));
+
+        new ParallelCommandGroup(first, second);
+        assertThrows(IllegalArgumentException.class,
+                () -> CommandGroupBase.requireUngrouped(second));
+    }
+
+    @Test
+    public void testCommandNotExtendingCommandBase() {
+        Command command = Collections::emptySet;
+        new SequentialCommandGroup(command);
+        assertThrows(IllegalArgumentException.class,
+                () -> CommandGroupBase.requireUngrouped(command));
+
+        CommandGroupBase.clearGroupedCommands();
+        assertDoesNotThrow(() -> CommandGroupBase.requireUngrouped(command));
+    }
+
+    @Test
+    public void testResetFreesGroupedCommands() {
+        Command command = new InstantCommand();
+        Command other = Collections::emptySet;
+        new SequentialCommandGroup(command, other);
+
+        CommandScheduler.getInstance().reset();
+        assertDoesNotThrow(() -> CommandGroupBase.requireUngrouped(command, other));
+    }
+
+    /**
+     * Builds a tree of commands, ten to a group, the way a large autonomous routine would at init.
+     */
+    private static Command buildTree(int leaves, Runnable toRun) {
+        Command[] level = new Command[leaves];
+        for (int i = 0; i < level.length; i++) {
+            level[i] = new InstantCommand(toRun);
+        }
+        boolean sequential = true;
+        while (level.length > 1) {
+            Command[] next = new Command[(level.length + 9) / 10];
+            for (int i = 0; i < next.length; i++) {
+                Command[] children = new Command[Math.min(10, level.length - i * 10)];
+                System.arraycopy(level, i * 10, children, 0, children.length);
+                next[i] = sequential
+                        ? new SequentialCommandGroup(children)
+                        : new ParallelCommandGroup(children);
+            }
+            level = next;
+            sequential = !sequential;
+        }
+        return level[0];
+    }
+
+    @Test
+    public void testBuildLargeTree() {
+        int[] runs = new int[1];
+        Command root = buildTree(10_000, () -> runs[0]++);
+
+        root.schedule();
+        while (root.isScheduled()) {
+            CommandScheduler.getInstance().run();
+        }
+        assertEquals(10_000, runs[0]);
+    }
+
+    /**
+     * Compares marking commands as grouped on the commands themselves against the shared weak set
+     * that was used before.  Run with -Dftclib.benchmark=true.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "ftclib.benchmark", matches = "true")
+    public void benchmarkAgainstWeakSet() {
+        int count = 100_000;
+        Command[] commands = new Command[count];
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < count; i++) {
+                commands[i] = new InstantCommand();
+            }
+            long start = System.nanoTime();
+            CommandGroupBase.requireUngrouped(commands);
+            CommandGroupBase.registerGroupedCommands(commands);
+            long fieldTime = System.nanoTime() - start;
+
+            for (int i = 0; i < count; i++) {
+                commands[i] = new InstantCommand();
+            }
+            Set<Command> grouped = Collections.newSetFromMap(new WeakHashMap<>());
+            start = System.nanoTime();
+            for (Command command : commands) {
+                if (grouped.contains(command)) {
+                    throw new IllegalArgumentException();
+                }
+                grouped.add(command);
+            }
+            long setTime = System.nanoTime() - start;
+
+            long treeStart = System.nanoTime();
+            buildTree(10_000, () -> { });
+            long treeTime = System.nanoTime() - treeStart;
+
+            System.out.printf("%d commands: field %.1f ns/command, weak set %.1f ns/command; "
+                            + "10,000-command tree built in %.2f ms%n", count,
+                    (double) fieldTime / count, (double) setTime / count, treeTime / 1E6);
+            CommandGroupBase.clearGroupedCommands();
+        }
+    }
+
+}
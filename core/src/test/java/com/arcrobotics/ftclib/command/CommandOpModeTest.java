@@ -2,7 +2,14 @@ package com.arcrobotics.ftclib.command;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class CommandOpModeTest extends CommandOpMode {
 
@@ -27,4 +34,51 @@ public class CommandOpModeTest extends CommandOpMode {
         assertEquals(5, x);
         reset();
     }
+
+    @Test
+    public void testStopDuringWaitResetsScheduler() throws InterruptedException {
+        CountDownLatch executed = new CountDownLatch(1);
+        CommandBase command = new CommandBase() {
+            @Override
+            public void execute() {
+                executed.countDown();
+            }
+        };
+        CommandOpMode opMode = new CommandOpMode() {
+            @Override
+            public void initialize() {
+                setLoopPeriod(1, TimeUnit.SECONDS);
+                setShedOnOverrun(true);
+                schedule(command);
+            }
+
+            @Override
+            boolean isActive() {
+                return true;
+            }
+        };
+
+        AtomicReference<CommandScheduler> scheduler = new AtomicReference<>();
+        AtomicReference<Throwable> thrown = new AtomicReference<>();
+        Thread thread = new Thread(() -> {
+            scheduler.set(CommandScheduler.getInstance());
+            scheduler.get().setShedLowPriority(true);
+            try {
+                opMode.runOpMode();
+            } catch (Throwable t) {
+                thrown.set(t);
+            }
+        });
+        thread.start();
+        assertTrue(executed.await(5, TimeUnit.SECONDS));
+        thread.interrupt();
+        thread.join(5000);
+
+        assertFalse(thread.isAlive());
+        assertTrue(thrown.get() instanceof InterruptedException);
+        assertNotSame(scheduler.get(), CommandScheduler.getInstance());
+        assertFalse(CommandScheduler.getInstance().isScheduled(command));
+        assertFalse(CommandScheduler.getInstance().isSheddingLowPriority());
+        CommandScheduler.getInstance().reset();
+    }
 }
@@ -6,7 +6,17 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.arcrobotics.ftclib.util.AllocationAssert.assertNoAllocation;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class CommandSchedulerTests {
 
@@ -162,6 +172,324 @@ public class CommandSchedulerTests {
         assertEquals(4, x);
     }
 
+    @Test
+    public void testInterruptOnSharedRequirement() {
+        SubsystemBase a = new SubsystemBase() {
+        };
+        SubsystemBase b = new SubsystemBase() {
+        };
+        Command first = new RunCommand(() -> x = 4, a, b);
+        Command second = new RunCommand(() -> x = 5, b);
+        CommandScheduler.getInstance().schedule(first);
+        assertSame(first, CommandScheduler.getInstance().requiring(a));
+        assertSame(first, CommandScheduler.getInstance().requiring(b));
+
+        CommandScheduler.getInstance().schedule(second);
+        assertFalse(first.isScheduled());
+        assertTrue(second.isScheduled());
+        assertNull(CommandScheduler.getInstance().requiring(a));
+        assertSame(second, CommandScheduler.getInstance().requiring(b));
+
+        Command blocked = new RunCommand(() -> x = 6, b);
+        CommandScheduler.getInstance().cancel(second);
+        CommandScheduler.getInstance().schedule(false, second);
+        CommandScheduler.getInstance().schedule(blocked);
+        assertFalse(blocked.isScheduled());
+        CommandScheduler.getInstance().run();
+        assertEquals(5, x);
+    }
+
+    @Test
+    public void testManySubsystems() {
+        SubsystemBase[] subsystems = new SubsystemBase[130];
+        for (int i = 0; i < subsystems.length; i++) {
+            subsystems[i] = new SubsystemBase() {
+            };
+        }
+        Command low = new RunCommand(() -> x = 4, subsystems[3]);
+        Command high = new RunCommand(() -> x = 5, subsystems[129]);
+        CommandScheduler.getInstance().schedule(low, high);
+        assertTrue(CommandScheduler.getInstance().isScheduled(low, high));
+
+        Command other = new RunCommand(() -> x = 6, subsystems[129], subsystems[70]);
+        CommandScheduler.getInstance().schedule(other);
+        assertTrue(low.isScheduled());
+        assertFalse(high.isScheduled());
+        assertSame(other, CommandScheduler.getInstance().requiring(subsystems[70]));
+        assertNull(CommandScheduler.getInstance().requiring(subsystems[128]));
+    }
+
+    @Test
+    public void testShedLowPriority() {
+        SubsystemBase low = new SubsystemBase() {
+            @Override
+            public void periodic() {
+                x++;
+            }
+
+            @Override
+            public boolean isLowPriority() {
+                return true;
+            }
+        };
+        SubsystemBase high = new SubsystemBase() {
+            @Override
+            public void periodic() {
+                x += 10;
+            }
+        };
+        CommandScheduler.getInstance().run();
+        assertEquals(14, x);
+        CommandScheduler.getInstance().setShedLowPriority(true);
+        CommandScheduler.getInstance().run();
+        assertEquals(24, x);
+        CommandScheduler.getInstance().setShedLowPriority(false);
+        CommandScheduler.getInstance().run();
+        assertEquals(35, x);
+    }
+
+    private static SubsystemBase sleepingSubsystem(long millis, AtomicInteger calls) {
+        return new SubsystemBase() {
+            @Override
+            public void periodic() {
+                try {
+                    Thread.sleep(millis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                calls.incrementAndGet();
+            }
+
+            @Override
+            public boolean isParallelSafe() {
+                return true;
+            }
+        };
+    }
+
+    @Test
+    public void testParallelPeriodic() {
+        AtomicInteger calls = new AtomicInteger();
+        for (int i = 0; i < 4; i++) {
+            sleepingSubsystem(40, calls);
+        }
+        CommandScheduler.getInstance().schedule(new RunCommand(() -> x = calls.get()));
+        CommandScheduler.getInstance().enableParallelPeriodic(4, 1, TimeUnit.SECONDS);
+
+        long start = System.nanoTime();
+        CommandScheduler.getInstance().run();
+        long elapsed = System.nanoTime() - start;
+
+        assertEquals(4, x, "Commands should see every periodic call of the loop");
+        assertTrue(elapsed < TimeUnit.MILLISECONDS.toNanos(150), "took " + elapsed + "ns");
+    }
+
+    @Test
+    public void testParallelPeriodicTimeout() throws InterruptedException {
+        AtomicInteger slowCalls = new AtomicInteger();
+        AtomicInteger fastCalls = new AtomicInteger();
+        SubsystemBase slow = sleepingSubsystem(200, slowCalls);
+        sleepingSubsystem(1, fastCalls);
+        CommandScheduler.getInstance().enableParallelPeriodic(2, 20, TimeUnit.MILLISECONDS);
+
+        long start = System.nanoTime();
+        CommandScheduler.getInstance().run();
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(150));
+        assertEquals(1, fastCalls.get());
+        assertEquals(1, CommandScheduler.getInstance().getPeriodicTimeouts(slow));
+
+        CommandScheduler.getInstance().run();
+        assertEquals(2, fastCalls.get());
+        assertEquals(1, CommandScheduler.getInstance().getPeriodicTimeouts(slow),
+                "A subsystem still running its last periodic call should be skipped");
+
+        Thread.sleep(250);
+        assertEquals(1, slowCalls.get());
+        CommandScheduler.getInstance().setPeriodicTimeout(slow, 1, TimeUnit.SECONDS);
+        CommandScheduler.getInstance().run();
+        assertEquals(2, slowCalls.get());
+    }
+
+    @Test
+    public void testLateParallelPeriodicIsReported() throws InterruptedException {
+        SchedulerProfiler profiler = new SchedulerProfiler();
+        CommandScheduler.getInstance().setProfiler(profiler);
+        AtomicInteger calls = new AtomicInteger();
+        SubsystemBase slow = new SubsystemBase() {
+            @Override
+            public void periodic() {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (calls.incrementAndGet() == 2) {
+                    throw new IllegalStateException("sensor unplugged");
+                }
+            }
+
+            @Override
+            public boolean isParallelSafe() {
+                return true;
+            }
+        };
+        slow.setName("slow");
+        CommandScheduler.getInstance().enableParallelPeriodic(1, 20, TimeUnit.MILLISECONDS);
+
+        CommandScheduler.getInstance().run();
+        assertEquals(1, CommandScheduler.getInstance().getPeriodicTimeouts(slow));
+        assertTrue(profiler.snapshot().stream().noneMatch(entry -> "slow".equals(entry.getName())));
+
+        // Once the late call returns, its duration is recorded
+        Thread.sleep(150);
+        CommandScheduler.getInstance().run();
+        SchedulerProfiler.Entry entry = profiler.snapshot().stream()
+                .filter(e -> "slow".equals(e.getName())).findFirst().get();
+        assertEquals(1, entry.getCount());
+        assertTrue(entry.getMax() >= TimeUnit.MILLISECONDS.toNanos(100));
+
+        // The second call times out and throws, which is reported by the next loop after it
+        Thread.sleep(150);
+        RuntimeException thrown = assertThrows(RuntimeException.class,
+                () -> CommandScheduler.getInstance().run());
+        assertTrue(thrown.getMessage().contains("slow"), thrown.getMessage());
+        assertTrue(thrown.getCause() instanceof IllegalStateException);
+    }
+
+    @Test
+    public void testProfilerFindsSlowSubsystem() {
+        SchedulerProfiler profiler = new SchedulerProfiler();
+        CommandScheduler.getInstance().setProfiler(profiler);
+        SubsystemBase fast = new SubsystemBase() {
+        };
+        fast.setName("fast");
+        SubsystemBase slow = new SubsystemBase() {
+            @Override
+            public void periodic() {
+                long start = System.nanoTime();
+                while (System.nanoTime() - start < 6_000_000) {
+                    Thread.yield();
+                }
+            }
+        };
+        slow.setName("slow");
+        CommandScheduler.getInstance().schedule(new RunCommand(() -> x = 5));
+
+        for (int i = 0; i < 5; i++) {
+            CommandScheduler.getInstance().run();
+        }
+
+        List<SchedulerProfiler.Entry> entries = profiler.snapshot();
+        SchedulerProfiler.Entry loop = entries.get(0);
+        assertEquals(SchedulerProfiler.Category.PHASE, loop.getCategory());
+        assertEquals(5, loop.getCount());
+        assertTrue(loop.getMin() >= 6_000_000);
+
+        SchedulerProfiler.Entry worst = entries.get(SchedulerProfiler.Phase.values().length);
+        assertEquals(SchedulerProfiler.Category.SUBSYSTEM, worst.getCategory());
+        assertEquals("slow", worst.getName());
+        assertEquals(5, worst.getOverruns());
+        assertTrue(worst.getP99() <= worst.getMax());
+        assertTrue(entries.stream().anyMatch(entry ->
+                entry.getCategory() == SchedulerProfiler.Category.COMMAND_EXECUTE
+                        && entry.getCount() == 5));
+    }
+
+    @Test
+    public void testSteadyStateRunDoesNotAllocate() {
+        SubsystemBase[] subsystems = new SubsystemBase[32];
+        for (int i = 0; i < subsystems.length; i++) {
+            subsystems[i] = new SubsystemBase() {
+                @Override
+                public void periodic() {
+                    x++;
+                }
+            };
+            subsystems[i].setDefaultCommand(new RunCommand(() -> x--, subsystems[i]));
+        }
+        // Every other loop the trigger schedules a command that interrupts the default command of
+        // the first subsystem and finishes, after which the default command is scheduled again.
+        new Trigger(this::getValue).whenActive(new InstantCommand(() -> x = 3, subsystems[0]));
+        AtomicInteger interrupts = new AtomicInteger();
+        CommandScheduler.getInstance().onCommandInterrupt(command -> interrupts.incrementAndGet());
+        CommandScheduler.getInstance().onCommandExecute(command -> x++);
+        CommandScheduler.getInstance().setProfiler(new SchedulerProfiler());
+
+        int[] loops = new int[1];
+        assertNoAllocation(() -> {
+            for (int i = 0; i < 1000; i++) {
+                val = !val;
+                CommandScheduler.getInstance().run();
+                loops[0]++;
+            }
+        }, 10, 5, "run() should not allocate in the steady state");
+        // The default commands are not scheduled until the end of the first loop
+        assertEquals(loops[0] / 2 - 1, interrupts.get());
+    }
+
+    @Test
+    public void testRequirementsChangedAfterScheduling() {
+        Subsystem first = new SubsystemBase() {
+        };
+        Subsystem second = new SubsystemBase() {
+        };
+        CommandBase command = new RunCommand(() -> { }, first);
+        command.schedule();
+        command.cancel();
+
+        command.addRequirements(second);
+        Command holder = new RunCommand(() -> { }, second);
+        holder.schedule();
+        command.schedule();
+        assertTrue(command.isScheduled());
+        assertFalse(holder.isScheduled());
+        assertSame(command, CommandScheduler.getInstance().requiring(second));
+    }
+
+    @Test
+    public void testRequirementSwappedDirectlyAfterScheduling() {
+        Subsystem first = new SubsystemBase() {
+        };
+        Subsystem second = new SubsystemBase() {
+        };
+        CommandBase command = new RunCommand(() -> { }, first);
+        command.schedule();
+        command.cancel();
+
+        // A subclass swaps a requirement through the field, so the count stays the same
+        command.m_requirements.remove(first);
+        command.m_requirements.add(second);
+        Command holder = new RunCommand(() -> { }, second);
+        holder.schedule();
+        command.schedule();
+        assertTrue(command.isScheduled());
+        assertFalse(holder.isScheduled());
+        assertSame(command, CommandScheduler.getInstance().requiring(second));
+        assertNull(CommandScheduler.getInstance().requiring(first));
+    }
+
+    @Test
+    public void testLoopStartAndEndActions() {
+        StringBuilder order = new StringBuilder();
+        new SubsystemBase() {
+            @Override
+            public void periodic() {
+                order.append('p');
+            }
+        };
+        CommandScheduler.getInstance().schedule(new RunCommand(() -> order.append('c')));
+        CommandScheduler.getInstance().onLoopStart(() -> order.append('['));
+        CommandScheduler.getInstance().onLoopEnd(() -> order.append(']'));
+
+        CommandScheduler.getInstance().run();
+        CommandScheduler.getInstance().run();
+        assertEquals("[pc][pc]", order.toString());
+
+        CommandScheduler.getInstance().disable();
+        CommandScheduler.getInstance().run();
+        assertEquals("[pc][pc]", order.toString(), "A disabled scheduler should not run actions");
+    }
+
     public boolean getValue() {
         return val;
     }
@@ -0,0 +1,151 @@
+package com.arcrobotics.ftclib.command;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CompiledCommandGroupTest {
+
+    @AfterEach
+    public void teardown() {
+        CommandGroupBase.clearGroupedCommands();
+        CommandScheduler.getInstance().reset();
+    }
+
+    /**
+     * A command that logs every call and finishes after a number of executes.
+     */
+    private static class LoggingCommand extends CommandBase {
+        private final String m_label;
+        private final int m_length;
+        private final List<String> m_log;
+        private int m_executes;
+
+        LoggingCommand(String label, int length, List<String> log) {
+            m_label = label;
+            m_length = length;
+            m_log = log;
+        }
+
+        @Override
+        public void initialize() {
+            m_executes = 0;
+            m_log.add("init " + m_label);
+        }
+
+        @Override
+        public void execute() {
+            m_executes++;
+            m_log.add("execute " + m_label);
+        }
+
+        @Override
+        public boolean isFinished() {
+            return m_executes >= m_length;
+        }
+
+        @Override
+        public void end(boolean interrupted) {
+            m_log.add((interrupted ? "interrupt " : "end ") + m_label);
+        }
+    }
+
+    private static CommandGroupBase buildTree(List<String> log) {
+        return new SequentialCommandGroup(
+                new LoggingCommand("a", 2, log),
+                new ParallelCommandGroup(
+                        new SequentialCommandGroup(
+                                new LoggingCommand("b", 1, log),
+                                new LoggingCommand("c", 3, log)
+                        ),
+                        new ParallelRaceGroup(
+                                new LoggingCommand("d", 5, log),
+                                new SequentialCommandGroup(
+                                        new LoggingCommand("e", 2, log),
+                                        new LoggingCommand("f", 2, log)
+                                ),
+                                new LoggingCommand("g", 4, log)
+                        )
+                ),
+                new ParallelDeadlineGroup(
+                        new SequentialCommandGroup(
+                                new LoggingCommand("h", 1, log),
+                                new LoggingCommand("i", 2, log)
+                        ),
+                        new LoggingCommand("j", 10, log),
+                        new ParallelCommandGroup(
+                                new LoggingCommand("k", 1, log),
+                                new LoggingCommand("l", 7, log)
+                        )
+                ),
+                new SequentialCommandGroup(),
+                new LoggingCommand("m", 1, log)
+        );
+    }
+
+    private static void run(Command command, int maxLoops) {
+        command.schedule();
+        for (int i = 0; i < maxLoops && command.isScheduled(); i++) {
+            CommandScheduler.getInstance().run();
+        }
+        command.cancel();
+    }
+
+    @Test
+    public void testMatchesNestedGroups() {
+        List<String> expected = new ArrayList<>();
+        run(buildTree(expected), 100);
+
+        List<String> actual = new ArrayList<>();
+        CompiledCommandGroup compiled = buildTree(actual).compile();
+        run(compiled, 100);
+
+        assertTrue(expected.contains("end m"));
+        assertEquals(expected, actual);
+        assertTrue(compiled.isFinished());
+    }
+
+    @Test
+    public void testMatchesNestedGroupsWhenInterrupted() {
+        for (int loops = 1; loops < 12; loops++) {
+            List<String> expected = new ArrayList<>();
+            run(buildTree(expected), loops);
+
+            List<String> actual = new ArrayList<>();
+            run(buildTree(actual).compile(), loops);
+
+            assertEquals(expected, actual, "Interrupted after " + loops + " loops");
+        }
+    }
+
+    @Test
+    public void testCanBeRescheduled() {
+        List<String> first = new ArrayList<>();
+        CompiledCommandGroup compiled = buildTree(first).compile();
+        run(compiled, 5);
+        int logged = first.size();
+        run(compiled, 100);
+
+        List<String> expected = new ArrayList<>();
+        run(buildTree(expected), 100);
+        assertEquals(expected, first.subList(logged, first.size()));
+    }
+
+    @Test
+    public void testCompiledGroupIsGrouped() {
+        CommandGroupBase group = new SequentialCommandGroup(new InstantCommand());
+        CompiledCommandGroup compiled = group.compile();
+        assertThrows(IllegalArgumentException.class, group::schedule);
+        assertFalse(compiled.isScheduled());
+        compiled.schedule();
+        assertTrue(compiled.isScheduled());
+    }
+
+}
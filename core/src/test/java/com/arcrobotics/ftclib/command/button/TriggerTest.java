@@ -0,0 +1,127 @@
+package com.arcrobotics.ftclib.command.button;
+
+import com.arcrobotics.ftclib.command.CommandBase;
+import com.arcrobotics.ftclib.command.CommandScheduler;
+import com.arcrobotics.ftclib.command.InstantCommand;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TriggerTest {
+
+    private boolean a, b;
+    private int aReads, bReads;
+
+    @BeforeEach
+    public void setup() {
+        a = false;
+        b = false;
+        aReads = 0;
+        bReads = 0;
+    }
+
+    @AfterEach
+    public void teardown() {
+        CommandScheduler.getInstance().reset();
+    }
+
+    private boolean readA() {
+        aReads++;
+        return a;
+    }
+
+    private boolean readB() {
+        bReads++;
+        return b;
+    }
+
+    @Test
+    public void testLeavesSampledOncePerLoop() {
+        Trigger first = new Trigger(this::readA);
+        Trigger second = new Trigger(this::readB);
+        int[] fired = new int[4];
+        first.whenActive(() -> fired[0]++);
+        first.and(second).whenActive(() -> fired[1]++);
+        first.or(second.negate()).whenInactive(() -> fired[2]++);
+        second.and(first.negate()).whileActiveContinuous(() -> fired[3]++);
+        aReads = 0;
+        bReads = 0;
+
+        for (int i = 0; i < 10; i++) {
+            CommandScheduler.getInstance().run();
+        }
+        assertEquals(10, aReads);
+        assertEquals(10, bReads);
+
+        b = true;
+        CommandScheduler.getInstance().run();
+        assertEquals(0, fired[0]);
+        assertEquals(0, fired[1]);
+        assertEquals(1, fired[2]);
+        assertEquals(1, fired[3]);
+
+        a = true;
+        CommandScheduler.getInstance().run();
+        assertEquals(1, fired[0]);
+        assertEquals(1, fired[1]);
+        assertEquals(1, fired[3]);
+        assertEquals(12, aReads);
+        assertEquals(12, bReads);
+    }
+
+    @Test
+    public void testGetIsNotCached() {
+        Trigger trigger = new Trigger(this::readA).negate();
+        CommandScheduler.getInstance().run();
+        assertTrue(trigger.get());
+        assertTrue(trigger.sample());
+        a = true;
+        assertFalse(trigger.get());
+        assertTrue(trigger.sample(), "The sampled value should hold until the next loop");
+        CommandScheduler.getInstance().run();
+        assertFalse(trigger.sample());
+    }
+
+    @Test
+    public void testWhileActiveOnce() {
+        int[] ends = new int[1];
+        CommandBase command = new CommandBase() {
+            @Override
+            public void end(boolean interrupted) {
+                ends[0]++;
+            }
+        };
+        new Trigger(() -> a).whileActiveOnce(command);
+
+        a = true;
+        CommandScheduler.getInstance().run();
+        assertTrue(command.isScheduled());
+        CommandScheduler.getInstance().run();
+        assertTrue(command.isScheduled());
+
+        a = false;
+        CommandScheduler.getInstance().run();
+        assertFalse(command.isScheduled());
+        assertEquals(1, ends[0]);
+    }
+
+    @Test
+    public void testClearButtonsDropsBindings() {
+        int[] fired = new int[2];
+        Trigger trigger = new Trigger(() -> a);
+        trigger.whenActive(new InstantCommand(() -> fired[0]++));
+        CommandScheduler.getInstance().clearButtons();
+        trigger.whenActive(new InstantCommand(() -> fired[1]++));
+
+        a = true;
+        CommandScheduler.getInstance().run();
+        assertEquals(0, fired[0]);
+        assertEquals(1, fired[1]);
+    }
+
+}
@@ -0,0 +1,166 @@
+package com.arcrobotics.ftclib.controller;
+
+import com.arcrobotics.ftclib.command.FeedforwardCharacterizationCommand;
+import com.arcrobotics.ftclib.controller.wpilibcontroller.ArmFeedforward;
+import com.arcrobotics.ftclib.controller.wpilibcontroller.ElevatorFeedforward;
+import com.arcrobotics.ftclib.controller.wpilibcontroller.SimpleMotorFeedforward;
+import com.arcrobotics.ftclib.hardware.motors.Motor;
+import com.arcrobotics.ftclib.hardware.sim.SimMotor;
+import com.arcrobotics.ftclib.hardware.sim.SimulatedRobot;
+import com.arcrobotics.ftclib.util.Clock;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import com.qualcomm.robotcore.hardware.VoltageSensor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class FeedforwardFitTest {
+
+    private static final double KS = 0.5, KG = 1.2, KV = 2, KA = 0.4, DT = 0.005;
+
+    @AfterEach
+    public void teardown() {
+        Clock.setDefault(null);
+    }
+
+    /**
+     * Runs quasistatic and dynamic tests in both directions on a mechanism that follows
+     * V = ks sgn(v) + gravity(x) + kv v + ka a, with noise on the measured velocity.
+     */
+    private FeedforwardLog record(boolean arm) {
+        Random random = new Random(7);
+        FeedforwardLog log = new FeedforwardLog(4000);
+        double[][] tests = {{1, 0}, {-1, 0}, {0, 5}, {0, -5}};
+        for (double[] test : tests) {
+            log.newSegment();
+            double x = 0, v = 0;
+            for (int i = 0; i < 600; i++) {
+                double t = i * DT;
+                double volts = test[0] != 0 ? KG + test[0] * t : KG + test[1];
+                log.add(t, x, v + random.nextGaussian() * 1E-3, volts);
+                double gravity = arm ? KG * Math.cos(x) : KG;
+                double drive = volts - gravity - KV * v;
+                // Static friction holds the mechanism until the voltage overcomes it.
+                double a = v == 0 && Math.abs(drive) <= KS ? 0 : (drive - KS * Math.signum(v == 0 ? drive : v)) / KA;
+                v += a * DT;
+                x += v * DT;
+            }
+        }
+        return log;
+    }
+
+    @Test
+    public void testRecoversElevatorAndArmGains() {
+        FeedforwardFit<ElevatorFeedforward> elevator = FeedforwardFit.elevator(record(false), 0.05);
+        assertEquals(KS, elevator.getFeedforward().ks, 0.02);
+        assertEquals(KG, elevator.getFeedforward().kg, 0.02);
+        assertEquals(KV, elevator.getFeedforward().kv, 0.05);
+        assertEquals(KA, elevator.getFeedforward().ka, 0.02);
+        assertTrue(elevator.getRSquared() > 0.999, elevator.toString());
+
+        FeedforwardFit<ArmFeedforward> arm = FeedforwardFit.arm(record(true), 0.05);
+        assertEquals(KS, arm.getFeedforward().ks, 0.02);
+        assertEquals(KG, arm.getFeedforward().kcos, 0.02);
+        assertEquals(KV, arm.getFeedforward().kv, 0.05);
+        assertEquals(KA, arm.getFeedforward().ka, 0.02);
+        assertTrue(arm.getRmse() < 0.1, arm.toString());
+    }
+
+    @Test
+    public void testLogRoundTripsThroughCsv() throws IOException {
+        FeedforwardLog log = record(false);
+        StringWriter csv = new StringWriter();
+        log.write(csv);
+        FeedforwardLog read = FeedforwardLog.read(new StringReader(csv.toString()));
+
+        assertEquals(log.size(), read.size());
+        assertEquals(log.getSegment(log.size() - 1), read.getSegment(read.size() - 1));
+        assertEquals(log.getAcceleration(1234), read.getAcceleration(1234));
+        assertEquals(FeedforwardFit.elevator(log, 0.05).getFeedforward().kv,
+                FeedforwardFit.elevator(read, 0.05).getFeedforward().kv);
+    }
+
+    @Test
+    public void testCharacterizesSimulatedMotor() {
+        SimulatedRobot robot = new SimulatedRobot();
+        Clock.setDefault(robot.getClock());
+        robot.add(new SimMotor("flywheel", Motor.GoBILDA.RPM_312).setLoad(0.01, 0.002, 0.1));
+        HardwareMap hardwareMap = mock(HardwareMap.class);
+        when(hardwareMap.get(any(), anyString())).thenAnswer(invocation ->
+                robot.get(invocation.getArgument(0), invocation.getArgument(1)));
+        Motor motor = new Motor(hardwareMap, "flywheel", Motor.GoBILDA.RPM_312);
+        motor.setDistancePerPulse(2 * Math.PI / motor.getCPR());
+        VoltageSensor battery = robot.getBattery().getVoltageSensor();
+
+        FeedforwardLog log = new FeedforwardLog(1000);
+        run(robot, FeedforwardCharacterizationCommand.quasistatic(motor, battery::getVoltage, log, 1.5)
+                .setMaxVoltage(8), 400);
+        run(robot, FeedforwardCharacterizationCommand.dynamic(motor, battery::getVoltage, log, 6), 40);
+        run(robot, FeedforwardCharacterizationCommand.quasistatic(motor, battery::getVoltage, log, -1.5)
+                .setMaxVoltage(8), 400);
+        run(robot, FeedforwardCharacterizationCommand.dynamic(motor, battery::getVoltage, log, -6), 40);
+
+        FeedforwardFit<SimpleMotorFeedforward> fit = FeedforwardFit.simpleMotor(log, 0.5);
+        assertTrue(fit.getRSquared() > 0.99, fit.toString());
+
+        // The fitted feedforward alone should hold a speed.
+        SimpleMotorFeedforward feedforward = fit.getFeedforward();
+        double speed = 2 * Math.PI * 2;
+        for (int i = 0; i < 100; i++) {
+            motor.set(feedforward.calculate(speed) / battery.getVoltage());
+            robot.step(20, TimeUnit.MILLISECONDS);
+        }
+        assertEquals(speed, motor.getRate(), 0.05 * speed);
+    }
+
+    @Test
+    public void testQuasistaticEndsAtFullPowerOnALowBattery() {
+        SimulatedRobot robot = new SimulatedRobot();
+        Clock.setDefault(robot.getClock());
+        robot.getBattery().setOpenCircuitVoltage(11);
+        robot.add(new SimMotor("flywheel", Motor.GoBILDA.RPM_312).setLoad(0.01, 0.002, 0.1));
+        HardwareMap hardwareMap = mock(HardwareMap.class);
+        when(hardwareMap.get(any(), anyString())).thenAnswer(invocation ->
+                robot.get(invocation.getArgument(0), invocation.getArgument(1)));
+        Motor motor = new Motor(hardwareMap, "flywheel", Motor.GoBILDA.RPM_312);
+        VoltageSensor battery = robot.getBattery().getVoltageSensor();
+
+        // The ramp would take 8 seconds to reach the default 12 V, which the battery cannot give
+        FeedforwardCharacterizationCommand command = FeedforwardCharacterizationCommand.quasistatic(
+                motor, battery::getVoltage, new FeedforwardLog(1000), 1.5);
+        command.initialize();
+        int loops = 0;
+        while (!command.isFinished() && loops < 1000) {
+            command.execute();
+            robot.step(20, TimeUnit.MILLISECONDS);
+            loops++;
+        }
+        assertTrue(command.isFinished(), "The test should end once the power saturates");
+        assertTrue(loops < 400, "The test took " + loops + " loops");
+        assertEquals(1, motor.get(), 1e-9);
+    }
+
+    private void run(SimulatedRobot robot, FeedforwardCharacterizationCommand command, int loops) {
+        command.initialize();
+        for (int i = 0; i < loops && !command.isFinished(); i++) {
+            command.execute();
+            robot.step(20, TimeUnit.MILLISECONDS);
+        }
+        command.end(false);
+        robot.step(1, TimeUnit.SECONDS);
+    }
+
+}
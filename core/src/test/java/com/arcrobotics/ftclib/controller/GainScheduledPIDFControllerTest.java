@@ -0,0 +1,176 @@
+package com.arcrobotics.ftclib.controller;
+
+import com.arcrobotics.ftclib.util.InterpLUT;
+import com.arcrobotics.ftclib.util.ManualClock;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.arcrobotics.ftclib.util.AllocationAssert.assertNoAllocation;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GainScheduledPIDFControllerTest {
+
+    private ManualClock clock;
+    private double angle;
+
+    @BeforeEach
+    public void setup() {
+        clock = new ManualClock();
+        clock.advance(1, TimeUnit.SECONDS);
+        angle = 0;
+    }
+
+    private static InterpLUT table(double... points) {
+        InterpLUT table = new InterpLUT();
+        for (int i = 0; i < points.length; i += 2) {
+            table.add(points[i], points[i + 1]);
+        }
+        table.createLUT();
+        return table;
+    }
+
+    @Test
+    public void testInterpolatesScheduledGains() {
+        GainScheduledPIDFController controller = new GainScheduledPIDFController(1, 0, 0.5, 0)
+                .schedule(GainScheduledPIDFController.Gain.P, table(0, 1, 90, 3), () -> angle)
+                .schedule(GainScheduledPIDFController.Gain.F, table(0, 0.2, 90, 0), () -> angle);
+        controller.setClock(clock);
+        assertTrue(controller.isScheduled(GainScheduledPIDFController.Gain.P));
+        assertFalse(controller.isScheduled(GainScheduledPIDFController.Gain.D));
+
+        angle = 45;
+        controller.calculate(0, 1);
+        assertEquals(2, controller.getP(), 1e-9);
+        assertEquals(0.1, controller.getF(), 1e-9);
+        assertEquals(0.5, controller.getD());
+
+        // Outside the table the nearest control point is held
+        angle = 120;
+        controller.updateGains();
+        assertEquals(3, controller.getP());
+        assertEquals(0, controller.getF());
+
+        controller.unschedule(GainScheduledPIDFController.Gain.P);
+        angle = 0;
+        controller.updateGains();
+        assertEquals(3, controller.getP());
+        assertEquals(0.2, controller.getF());
+    }
+
+    @Test
+    public void testIntegralIsBumplessWhenKiChanges() {
+        GainScheduledPIDFController controller = new GainScheduledPIDFController(0, 0, 0, 0)
+                .schedule(GainScheduledPIDFController.Gain.I, table(0, 0.5, 10, 2), () -> angle);
+        controller.setClock(clock);
+        controller.setIntegrationBounds(-100, 100);
+        PIDFController unscheduled = new PIDFController(0, 0.5, 0, 0);
+        unscheduled.setClock(clock);
+        unscheduled.setIntegrationBounds(-100, 100);
+
+        double before = 0;
+        for (int i = 0; i < 100; i++) {
+            clock.advance(10, TimeUnit.MILLISECONDS);
+            before = controller.calculate(0, 1);
+            unscheduled.calculate(0, 1);
+        }
+        assertEquals(0.5, before, 0.01);
+
+        angle = 10;
+        clock.advance(10, TimeUnit.MILLISECONDS);
+        double after = controller.calculate(0, 1);
+        unscheduled.setI(2);
+        double jumped = unscheduled.calculate(0, 1);
+        // Only the new error for one period is added, at the new gain, where setI rescales all
+        // of the accumulated error
+        assertEquals(before + 2 * 0.01, after, 1e-9);
+        assertEquals(2 * unscheduled.getTotalError(), jumped, 1e-9);
+        assertTrue(jumped - before > 1);
+
+        // A zero kI drops the integral term, and it builds up again from zero afterwards
+        angle = -10;
+        controller.schedule(GainScheduledPIDFController.Gain.I, table(-10, 0, 0, 0.5), () -> angle);
+        clock.advance(10, TimeUnit.MILLISECONDS);
+        assertEquals(0, controller.calculate(0, 1), 1e-9);
+        angle = 0;
+        clock.advance(10, TimeUnit.MILLISECONDS);
+        assertEquals(0.5 * 0.01, controller.calculate(0, 1), 1e-9);
+    }
+
+    @Test
+    public void testIntegralIsBumplessWhenKiDropsNearTheBounds() {
+        GainScheduledPIDFController controller = new GainScheduledPIDFController(0, 0, 0, 0)
+                .schedule(GainScheduledPIDFController.Gain.I, table(0, 0.02, 10, 0.01), () -> angle);
+        controller.setClock(clock);
+
+        // The first call only starts the period, so the other 80 accumulate an error of 0.8,
+        // within the default bounds of 1 but above half of them
+        double before = 0;
+        for (int i = 0; i <= 80; i++) {
+            clock.advance(10, TimeUnit.MILLISECONDS);
+            before = controller.calculate(0, 1);
+        }
+        assertEquals(0.8, controller.getTotalError(), 1e-9);
+
+        // Halving kI doubles the error to 1.6, which the bounds must not clamp
+        angle = 10;
+        clock.advance(10, TimeUnit.MILLISECONDS);
+        assertEquals(before + 0.01 * 0.01, controller.calculate(0, 1), 1e-9);
+        assertEquals(1.61, controller.getTotalError(), 1e-9);
+        assertEquals(-2, controller.getMinIntegral(), 1e-9);
+        assertEquals(2, controller.getMaxIntegral(), 1e-9);
+    }
+
+    @Test
+    public void testNaNOperatingPointKeepsGains() {
+        GainScheduledPIDFController controller = new GainScheduledPIDFController(0, 0, 0, 0)
+                .schedule(GainScheduledPIDFController.Gain.P, table(0, 1, 10, 2), () -> angle)
+                .schedule(GainScheduledPIDFController.Gain.I, table(0, 0.5, 10, 2), () -> angle);
+        controller.setClock(clock);
+        for (int i = 0; i < 10; i++) {
+            clock.advance(10, TimeUnit.MILLISECONDS);
+            controller.calculate(0, 1);
+        }
+        double totalError = controller.getTotalError();
+
+        angle = Double.NaN;
+        clock.advance(10, TimeUnit.MILLISECONDS);
+        assertFalse(Double.isNaN(controller.calculate(0, 1)));
+        assertEquals(1, controller.getP());
+        assertEquals(0.5, controller.getI());
+        assertEquals(totalError + 0.01, controller.getTotalError(), 1e-9);
+
+        // Once the operating point is valid again, the integral term carries on from where it was
+        angle = 10;
+        clock.advance(10, TimeUnit.MILLISECONDS);
+        assertEquals(2 + 0.5 * (totalError + 0.01) + 2 * 0.01, controller.calculate(0, 1), 1e-9);
+    }
+
+    @Test
+    public void testCalculateDoesNotAllocate() {
+        GainScheduledPIDFController controller = new GainScheduledPIDFController(0, 0, 0, 0);
+        for (GainScheduledPIDFController.Gain gain : GainScheduledPIDFController.Gain.values()) {
+            controller.schedule(gain, table(-90, 0.1, -30, 0.4, 0, 0.5, 30, 0.4, 90, 0.1), () -> angle);
+        }
+        controller.setClock(clock);
+        double[] sum = new double[1];
+        assertNoAllocation(() -> sum[0] += run(controller, 10_000), 1, 5,
+                "Scheduling the gains should not allocate");
+        assertTrue(sum[0] != 0);
+    }
+
+    private double run(GainScheduledPIDFController controller, int loops) {
+        double sum = 0;
+        for (int loop = 0; loop < loops; loop++) {
+            clock.advance(5, TimeUnit.MILLISECONDS);
+            angle = loop % 200 - 100;
+            sum += controller.calculate(angle, 10);
+        }
+        return sum;
+    }
+
+}
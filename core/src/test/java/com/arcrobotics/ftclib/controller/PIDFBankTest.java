@@ -0,0 +1,128 @@
+package com.arcrobotics.ftclib.controller;
+
+import com.arcrobotics.ftclib.util.Clock;
+import com.arcrobotics.ftclib.util.ManualClock;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static com.arcrobotics.ftclib.util.AllocationAssert.assertNoAllocation;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PIDFBankTest {
+
+    private static final int SIZE = 12;
+
+    private ManualClock clock;
+    private PIDFBank bank;
+    private PIDFController[] controllers;
+    private final double[] measured = new double[SIZE];
+    private final double[] setPoints = new double[SIZE];
+    private final double[] output = new double[SIZE];
+
+    @BeforeEach
+    public void setup() {
+        clock = new ManualClock();
+        clock.advance(1, TimeUnit.SECONDS);
+        bank = new PIDFBank(SIZE);
+        bank.setClock(clock);
+        controllers = new PIDFController[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            double kp = 0.1 * (i + 1), ki = 0.5, kd = 0.01 * i, kf = i % 3 == 0 ? 0.2 : 0;
+            bank.setPIDF(i, kp, ki, kd, kf);
+            bank.setIntegrationBounds(i, -2, 2);
+            bank.setTolerance(i, 0.5, 10);
+            controllers[i] = new PIDFController(kp, ki, kd, kf);
+            controllers[i].setClock(clock);
+            controllers[i].setIntegrationBounds(-2, 2);
+            controllers[i].setTolerance(0.5, 10);
+        }
+    }
+
+    @Test
+    public void testMatchesSeparateControllers() {
+        Random random = new Random(42);
+        for (int step = 0; step < 200; step++) {
+            clock.advance(15 + random.nextInt(10), TimeUnit.MILLISECONDS);
+            for (int i = 0; i < SIZE; i++) {
+                measured[i] = random.nextGaussian();
+                setPoints[i] = step < 100 ? 5 : 0.1 * random.nextGaussian();
+            }
+            if (step == 150) {
+                bank.reset(3);
+                controllers[3].reset();
+            }
+            bank.calculate(measured, setPoints, output);
+            for (int i = 0; i < SIZE; i++) {
+                assertEquals(controllers[i].calculate(measured[i], setPoints[i]), output[i], 1e-12);
+                assertEquals(controllers[i].getVelocityError(), bank.getVelocityError(i), 1e-12);
+                assertEquals(controllers[i].atSetPoint(), bank.atSetPoint(i));
+            }
+        }
+    }
+
+    @Test
+    public void testCalculateDoesNotAllocate() {
+        long[] sum = new long[1];
+        assertNoAllocation(() -> sum[0] += run(bank, 10_000), 1, 5,
+                "Updating the bank should not allocate");
+        assertTrue(sum[0] != 0);
+    }
+
+    private long run(PIDFBank bank, int loops) {
+        long sum = 0;
+        for (int loop = 0; loop < loops; loop++) {
+            clock.advance(20, TimeUnit.MILLISECONDS);
+            for (int i = 0; i < SIZE; i++) {
+                measured[i] = (loop + i) % 7;
+            }
+            bank.calculate(measured, output);
+            sum += (long) output[0];
+        }
+        return sum;
+    }
+
+    /**
+     * Compares the bank against separate controllers.  Run with -Dftclib.benchmark=true.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "ftclib.benchmark", matches = "true")
+    public void benchmarkAgainstSeparateControllers() {
+        Clock.setDefault(null);
+        bank.setClock(Clock.DEFAULT);
+        for (PIDFController controller : controllers) {
+            controller.setClock(Clock.DEFAULT);
+        }
+        int loops = 1_000_000;
+        double sink = 0;
+        for (int round = 0; round < 5; round++) {
+            long start = System.nanoTime();
+            for (int loop = 0; loop < loops; loop++) {
+                measured[loop % SIZE] = loop;
+                bank.calculate(measured, output);
+                sink += output[0];
+            }
+            long bankTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int loop = 0; loop < loops; loop++) {
+                measured[loop % SIZE] = loop;
+                for (int i = 0; i < SIZE; i++) {
+                    output[i] = controllers[i].calculate(measured[i]);
+                }
+                sink += output[0];
+            }
+            long separateTime = System.nanoTime() - start;
+
+            System.out.printf("%d controllers: bank %.1f ns/loop, separate %.1f ns/loop%n", SIZE,
+                    (double) bankTime / loops, (double) separateTime / loops);
+        }
+        assertTrue(!Double.isNaN(sink));
+    }
+
+}
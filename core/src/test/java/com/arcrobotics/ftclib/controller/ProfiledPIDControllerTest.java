@@ -1,11 +1,19 @@
 package com.arcrobotics.ftclib.controller;
 
 import com.arcrobotics.ftclib.controller.wpilibcontroller.ProfiledPIDController;
+import com.arcrobotics.ftclib.trajectory.SCurveProfile;
 import com.arcrobotics.ftclib.trajectory.TrapezoidProfile;
+import com.arcrobotics.ftclib.util.ManualClock;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
 
+import java.util.concurrent.TimeUnit;
+
+import static com.arcrobotics.ftclib.util.AllocationAssert.assertNoAllocation;
+import static com.arcrobotics.ftclib.util.AllocationAssert.threadAllocatedBytes;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class ProfiledPIDControllerTest {
     @Test
@@ -17,4 +25,98 @@ public class ProfiledPIDControllerTest {
 
         assertEquals(0, controller.calculate(20, 20), 0.05);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testMatchesNewProfileEachCall() {
+        ManualClock clock = new ManualClock();
+        TrapezoidProfile.Constraints constraints = new TrapezoidProfile.Constraints(2, 3);
+        ProfiledPIDController controller = new ProfiledPIDController(1, 0, 0, constraints);
+        controller.setClock(clock);
+        controller.reset(1, 0.5);
+
+        TrapezoidProfile.State setpoint = new TrapezoidProfile.State(1, 0.5);
+        TrapezoidProfile.State goal = new TrapezoidProfile.State();
+        for (int i = 0; i < 300; i++) {
+            // The same goal object is reused and changed, as the controller copies it
+            goal.position = i < 150 ? 5 : -2;
+            goal.velocity = i < 150 ? 0 : 0.5;
+            double period = controller.getPeriod();
+            controller.calculate(setpoint.position, goal);
+            setpoint = new TrapezoidProfile(constraints, goal, setpoint).calculate(period);
+
+            assertEquals(setpoint, controller.getSetpoint());
+            assertEquals(goal, controller.getGoal());
+            clock.advance(20, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Test
+    void testCalculateDoesNotAllocate() {
+        assertCalculateDoesNotAllocate(new TrapezoidProfile.Constraints(2, 3));
+        assertCalculateDoesNotAllocate(new SCurveProfile.Constraints(2, 3, 6));
+    }
+
+    private void assertCalculateDoesNotAllocate(TrapezoidProfile.Constraints constraints) {
+        ManualClock clock = new ManualClock();
+        ProfiledPIDController controller = new ProfiledPIDController(1, 0.1, 0.01, constraints);
+        controller.setClock(clock);
+        double[] sum = new double[1];
+        assertNoAllocation(() -> sum[0] += run(controller, clock, 10_000), 10, 5,
+                "Calculating should not allocate");
+        assertTrue(sum[0] != 0);
+    }
+
+    private double run(ProfiledPIDController controller, ManualClock clock, int loops) {
+        double sum = 0;
+        for (int loop = 0; loop < loops; loop++) {
+            clock.advance(5, TimeUnit.MILLISECONDS);
+            // The goal moves on every call, as one read from a supplier would, so the profile
+            // is replanned each time
+            double goal = ((loop / 500) % 2 == 0 ? 50 : -50) + loop % 10 * 0.01;
+            sum += controller.calculate(loop % 100, goal);
+        }
+        return sum;
+    }
+
+    /**
+     * Compares stepping the setpoint in place against building a new profile on every call.
+     * Run with -Dftclib.benchmark=true.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "ftclib.benchmark", matches = "true")
+    void benchmarkAgainstNewProfileEachCall() {
+        TrapezoidProfile.Constraints constraints = new TrapezoidProfile.Constraints(2, 3);
+        TrapezoidProfile.State goal = new TrapezoidProfile.State(50, 0);
+        TrapezoidProfile profile = new TrapezoidProfile(constraints, goal);
+        int loops = 1_000_000;
+        double sink = 0;
+        for (int round = 0; round < 5; round++) {
+            TrapezoidProfile.State setpoint = new TrapezoidProfile.State();
+            long bytes = threadAllocatedBytes();
+            long start = System.nanoTime();
+            for (int loop = 0; loop < loops; loop++) {
+                goal.position = (loop / 500) % 2 == 0 ? 50 : -50;
+                profile.set(constraints, goal, setpoint).calculate(0.005, setpoint);
+                sink += setpoint.position;
+            }
+            long inPlaceTime = System.nanoTime() - start;
+            long inPlaceBytes = threadAllocatedBytes() - bytes;
+
+            setpoint = new TrapezoidProfile.State();
+            bytes = threadAllocatedBytes();
+            start = System.nanoTime();
+            for (int loop = 0; loop < loops; loop++) {
+                goal.position = (loop / 500) % 2 == 0 ? 50 : -50;
+                setpoint = new TrapezoidProfile(constraints, goal, setpoint).calculate(0.005);
+                sink += setpoint.position;
+            }
+            long newTime = System.nanoTime() - start;
+            long newBytes = threadAllocatedBytes() - bytes;
+
+            System.out.printf("in place %.1f ns, %.1f B/call; new profile %.1f ns, %.1f B/call%n",
+                    (double) inPlaceTime / loops, (double) inPlaceBytes / loops,
+                    (double) newTime / loops, (double) newBytes / loops);
+        }
+        assertTrue(!Double.isNaN(sink));
+    }
+}
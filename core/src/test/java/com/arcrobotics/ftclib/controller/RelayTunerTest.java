@@ -0,0 +1,142 @@
+package com.arcrobotics.ftclib.controller;
+
+import com.arcrobotics.ftclib.command.RelayTuneCommand;
+import com.arcrobotics.ftclib.hardware.motors.Motor;
+import com.arcrobotics.ftclib.hardware.motors.MotorEx;
+import com.arcrobotics.ftclib.hardware.sim.SimMotor;
+import com.arcrobotics.ftclib.hardware.sim.SimulatedRobot;
+import com.arcrobotics.ftclib.util.Clock;
+import com.arcrobotics.ftclib.util.ManualClock;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RelayTunerTest {
+
+    /**
+     * A first order process with dead time: gain K, time constant tau and delay L.
+     */
+    private static class Process {
+        static final double K = 2, TAU = 1, DELAY = 0.5, DT = 0.01;
+
+        final double[] inputs = new double[(int) Math.round(DELAY / DT)];
+        double value, input;
+        int index;
+
+        void step() {
+            double delayed = inputs[index];
+            inputs[index] = input;
+            index = (index + 1) % inputs.length;
+            value += (K * delayed - value) / TAU * DT;
+        }
+    }
+
+    @AfterEach
+    public void teardown() {
+        Clock.setDefault(null);
+    }
+
+    @Test
+    public void testFindsUltimateGainAndPeriod() {
+        ManualClock clock = new ManualClock();
+        Clock.setDefault(clock);
+        Process process = new Process();
+        RelayTuner tuner = new RelayTuner(() -> process.value, u -> process.input = u, 4, 0.5)
+                .setBias(1.6)
+                .setHysteresis(0.01);
+        tuner.start();
+        while (!tuner.isFinished()) {
+            process.step();
+            clock.advance(10, TimeUnit.MILLISECONDS);
+            tuner.update();
+        }
+        assertEquals(RelayTuner.State.DONE, tuner.getState());
+        assertEquals(0, process.input, "The output should be zeroed when the experiment ends");
+
+        // The phase of the process is -180 degrees at the ultimate frequency.
+        double low = 0.1, high = 100;
+        for (int i = 0; i < 100; i++) {
+            double w = (low + high) / 2;
+            if (Math.atan(w * Process.TAU) + w * Process.DELAY < Math.PI) {
+                low = w;
+            } else {
+                high = w;
+            }
+        }
+        double ultimateGain = Math.hypot(1, low * Process.TAU) / Process.K;
+        double ultimatePeriod = 2 * Math.PI / low;
+
+        RelayTuner.Result result = tuner.getResult();
+        assertEquals(ultimatePeriod, result.getUltimatePeriod(), 0.1 * ultimatePeriod);
+        assertEquals(ultimateGain, result.getUltimateGain(), 0.2 * ultimateGain);
+        assertEquals(4 / Process.K, result.getBias(), 0.2, "The bias should hold the setpoint");
+
+        double[] gains = result.getGains(RelayTuner.Rule.ZIEGLER_NICHOLS);
+        assertEquals(0.6 * result.getUltimateGain(), gains[0], 1e-9);
+        assertEquals(gains[0] / (0.5 * result.getUltimatePeriod()), gains[1], 1e-9);
+        assertEquals(gains[0] * 0.125 * result.getUltimatePeriod(), gains[2], 1e-9);
+        assertEquals(result.getBias() / 4, gains[3], 1e-9);
+    }
+
+    @Test
+    public void testStopsOutsideTheLimits() {
+        ManualClock clock = new ManualClock();
+        Clock.setDefault(clock);
+        Process process = new Process();
+        RelayTuner tuner = new RelayTuner(() -> process.value, u -> process.input = u, 4, 3)
+                .setMeasurementLimits(-1, 5)
+                .setBias(1);
+        tuner.start();
+        for (int i = 0; i < 1000 && !tuner.isFinished(); i++) {
+            process.step();
+            clock.advance(10, TimeUnit.MILLISECONDS);
+            tuner.update();
+        }
+        assertEquals(RelayTuner.State.OUT_OF_BOUNDS, tuner.getState());
+        assertEquals(0, process.input);
+        assertEquals(null, tuner.getResult());
+    }
+
+    @Test
+    public void testTunesSimulatedMotor() {
+        SimulatedRobot robot = new SimulatedRobot();
+        Clock.setDefault(robot.getClock());
+        robot.getBattery().setResistance(0);
+        robot.add(new SimMotor("flywheel", Motor.GoBILDA.RPM_312).setLoad(0.02, 0.001, 0.05));
+        HardwareMap hardwareMap = mock(HardwareMap.class);
+        when(hardwareMap.get(any(), anyString())).thenAnswer(invocation ->
+                robot.get(invocation.getArgument(0), invocation.getArgument(1)));
+        MotorEx motor = new MotorEx(hardwareMap, "flywheel", Motor.GoBILDA.RPM_312);
+
+        RelayTuneCommand command = new RelayTuneCommand(motor, 0.5, 0.1);
+        command.getTuner().setHysteresis(20);
+        command.initialize();
+        for (int i = 0; i < 1500 && !command.isFinished(); i++) {
+            robot.step(20, TimeUnit.MILLISECONDS);
+            command.execute();
+        }
+        command.end(false);
+        assertEquals(RelayTuner.State.DONE, command.getTuner().getState());
+        assertTrue(command.getTuner().getResult().getUltimateGain() > 0);
+
+        command.applyGains(RelayTuner.Rule.TYREUS_LUYBEN);
+        motor.setRunMode(Motor.RunMode.VelocityControl);
+        for (int i = 0; i < 100; i++) {
+            motor.set(0.6);
+            robot.step(20, TimeUnit.MILLISECONDS);
+        }
+        double target = 0.9 * 0.6 * motor.ACHIEVABLE_MAX_TICKS_PER_SECOND;
+        assertEquals(target, motor.getCorrectedVelocity(), 0.02 * target);
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.arcrobotics.ftclib.hardware;
+
+import com.arcrobotics.ftclib.command.CommandScheduler;
+import com.qualcomm.hardware.lynx.LynxModule;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BulkReadManagerTest {
+
+    private LynxModule controlHub;
+    private LynxModule expansionHub;
+    private BulkReadManager manager;
+
+    @BeforeEach
+    public void setup() {
+        controlHub = mock(LynxModule.class);
+        expansionHub = mock(LynxModule.class);
+        HardwareMap hMap = mock(HardwareMap.class);
+        when(hMap.getAll(LynxModule.class)).thenReturn(Arrays.asList(controlHub, expansionHub));
+        manager = new BulkReadManager(hMap);
+    }
+
+    @AfterEach
+    public void teardown() {
+        CommandScheduler.getInstance().reset();
+    }
+
+    @Test
+    public void testSetsManualCachingMode() {
+        verify(controlHub).setBulkCachingMode(LynxModule.BulkCachingMode.MANUAL);
+        verify(expansionHub).setBulkCachingMode(LynxModule.BulkCachingMode.MANUAL);
+        assertEquals(Arrays.asList(controlHub, expansionHub), manager.getHubs());
+        verify(controlHub, never()).clearBulkCache();
+
+        manager.disable();
+        verify(controlHub).setBulkCachingMode(LynxModule.BulkCachingMode.OFF);
+        verify(expansionHub).setBulkCachingMode(LynxModule.BulkCachingMode.OFF);
+    }
+
+    @Test
+    public void testClearsCacheOncePerLoop() {
+        manager.attach(CommandScheduler.getInstance());
+        for (int i = 0; i < 5; i++) {
+            CommandScheduler.getInstance().run();
+        }
+        verify(controlHub, times(5)).clearBulkCache();
+        verify(expansionHub, times(5)).clearBulkCache();
+        assertEquals(5, manager.getClearCount());
+    }
+
+    @Test
+    public void testDisabledSchedulerDoesNotClear() {
+        manager.attach(CommandScheduler.getInstance());
+        CommandScheduler.getInstance().disable();
+        CommandScheduler.getInstance().run();
+        verify(controlHub, never()).clearBulkCache();
+        assertEquals(0, manager.getClearCount());
+    }
+
+}
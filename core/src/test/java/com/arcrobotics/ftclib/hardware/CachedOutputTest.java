@@ -0,0 +1,94 @@
+package com.arcrobotics.ftclib.hardware;
+
+import com.arcrobotics.ftclib.command.CommandScheduler;
+import com.arcrobotics.ftclib.command.RunCommand;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CachedOutputTest {
+
+    private final List<Double> writes = new ArrayList<>();
+
+    @AfterEach
+    public void teardown() {
+        CommandScheduler.getInstance().reset();
+    }
+
+    @Test
+    public void testSkipsRepeatedWrites() {
+        CachedOutput output = new CachedOutput(writes::add);
+        assertTrue(Double.isNaN(output.get()));
+        output.set(0.5);
+        output.set(0.5);
+        output.set(0.25);
+        output.set(0.25);
+        assertEquals(Arrays.asList(0.5, 0.25), writes);
+        assertEquals(0.25, output.get());
+        assertEquals(2, output.getIssuedWrites());
+        assertEquals(2, output.getSuppressedWrites());
+
+        output.invalidate();
+        output.set(0.25);
+        assertEquals(Arrays.asList(0.5, 0.25, 0.25), writes);
+    }
+
+    @Test
+    public void testEpsilon() {
+        CachedOutput output = new CachedOutput(writes::add);
+        output.setEpsilon(0.05);
+        output.set(0.5);
+        output.set(0.52);
+        output.set(0.54);
+        output.set(0.56);
+        output.set(0.02);
+        output.set(0);
+        assertEquals(Arrays.asList(0.5, 0.56, 0.02, 0.0), writes,
+                "Small changes are skipped, but stopping is always written");
+        output.set(0);
+        assertEquals(4, writes.size());
+    }
+
+    @Test
+    public void testBatchWritesOncePerLoop() {
+        CachedOutput first = new CachedOutput(writes::add);
+        CachedOutput second = new CachedOutput(value -> writes.add(-value));
+        OutputBatch batch = new OutputBatch();
+        batch.add(first, second);
+        batch.attach(CommandScheduler.getInstance());
+
+        double[] power = {0.1};
+        CommandScheduler.getInstance().schedule(new RunCommand(() -> {
+            first.set(0);
+            first.set(power[0]);
+            second.set(power[0]);
+            assertEquals(power[0], first.get(), "Values are read back before they are written");
+        }));
+
+        CommandScheduler.getInstance().run();
+        assertEquals(Arrays.asList(0.1, -0.1), writes);
+        CommandScheduler.getInstance().run();
+        assertEquals(2, writes.size(), "Unchanged values are not written again");
+        power[0] = 0.3;
+        CommandScheduler.getInstance().run();
+        assertEquals(Arrays.asList(0.1, -0.1, 0.3, -0.3), writes);
+
+        assertEquals(4, batch.getIssuedWrites());
+        // Three loops each set the first output twice and the second once, nine sets in total.
+        assertEquals(5, batch.getSuppressedWrites());
+
+        batch.remove(first);
+        first.set(0.4);
+        assertEquals(0.4, writes.get(writes.size() - 1));
+        assertFalse(first.flush());
+    }
+
+}
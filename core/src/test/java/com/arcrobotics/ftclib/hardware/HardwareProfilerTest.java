@@ -0,0 +1,146 @@
+package com.arcrobotics.ftclib.hardware;
+
+import com.arcrobotics.ftclib.hardware.motors.Motor;
+import com.arcrobotics.ftclib.util.Clock;
+import com.arcrobotics.ftclib.util.ManualClock;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotorEx;
+import com.qualcomm.robotcore.hardware.DistanceSensor;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+
+import org.firstinspires.ftc.robotcore.external.navigation.DistanceUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.arcrobotics.ftclib.util.AllocationAssert.assertNoAllocation;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class HardwareProfilerTest {
+
+    private static final HardwareProfiler.Call[] CALLS = HardwareProfiler.Call.values();
+
+    private ManualClock clock;
+    private HardwareProfiler profiler;
+    private Motor motor;
+    private SensorRevTOFDistance distance;
+
+    @BeforeEach
+    public void setup() {
+        clock = new ManualClock();
+        Clock.setDefault(clock);
+        profiler = new HardwareProfiler();
+
+        // Each call takes a fixed amount of time on the simulated clock.
+        DcMotorEx dcMotor = mock(DcMotorEx.class);
+        when(dcMotor.getCurrentPosition()).thenAnswer(invocation -> {
+            clock.advance(2, TimeUnit.MILLISECONDS);
+            return 100;
+        });
+        doAnswer(invocation -> {
+            clock.advance(1, TimeUnit.MILLISECONDS);
+            return null;
+        }).when(dcMotor).setPower(anyDouble());
+        HardwareMap hardwareMap = mock(HardwareMap.class);
+        when(hardwareMap.get(DcMotor.class, "lift")).thenReturn(dcMotor);
+        motor = new Motor(hardwareMap, "lift", Motor.GoBILDA.RPM_312);
+
+        DistanceSensor sensor = mock(DistanceSensor.class);
+        when(sensor.getDistance(any())).thenAnswer(invocation -> {
+            clock.advance(5, TimeUnit.MILLISECONDS);
+            return 10.0;
+        });
+        distance = new SensorRevTOFDistance(sensor);
+    }
+
+    @AfterEach
+    public void teardown() {
+        Clock.setDefault(null);
+    }
+
+    private void loop(int loops) {
+        for (int i = 0; i < loops; i++) {
+            motor.set(i % 2 == 0 ? 0.5 : 0.25);
+            motor.getCurrentPosition();
+            distance.getDistance(DistanceUnit.MM);
+            distance.getDistance(DistanceUnit.CM);
+            profiler.markLoop();
+        }
+    }
+
+    @Test
+    public void testRanksCallsByTimePerLoop() {
+        motor.setProfiler(profiler, "lift");
+        distance.setProfiler(profiler, "tof");
+        loop(10);
+
+        List<HardwareProfiler.Entry> top = profiler.getTopOffenders(2);
+        assertEquals(2, top.size());
+        assertEquals("tof", top.get(0).getDevice());
+        assertEquals(HardwareProfiler.Call.GET_DISTANCE, top.get(0).getCall());
+        assertEquals(2, top.get(0).getCallsPerLoop());
+        assertEquals(10E6, top.get(0).getMeanPerLoop());
+        assertEquals(10_000_000, top.get(0).getLastLoop());
+        assertEquals(HardwareProfiler.Call.GET_CURRENT_POSITION, top.get(1).getCall());
+        assertEquals(2E6, top.get(1).getMeanPerLoop());
+
+        List<HardwareProfiler.Entry> all = profiler.snapshot();
+        assertEquals(3, all.size());
+        assertEquals(HardwareProfiler.Call.SET_POWER, all.get(2).getCall());
+        assertEquals(10, all.get(2).getCount());
+        assertEquals(1E6, all.get(2).getMean());
+
+        String report = profiler.report(1);
+        assertTrue(report.contains("10 loops"));
+        assertTrue(report.contains("tof.getDistance"));
+        assertFalse(report.contains("lift"), "The report should only list the top offenders");
+    }
+
+    @Test
+    public void testProfilingIsOptIn() {
+        loop(3);
+        assertEquals(0, profiler.snapshot().size());
+
+        motor.setProfiler(profiler, "lift");
+        loop(3);
+        motor.setProfiler(null, null);
+        loop(3);
+        assertEquals(3, profiler.snapshot().get(0).getCount());
+
+        profiler.reset();
+        assertEquals(0, profiler.getLoopCount());
+        assertEquals(0, profiler.snapshot().size());
+        assertNull(HardwareProfiler.DISABLED.getHistogram(HardwareProfiler.Call.SET_POWER));
+    }
+
+    @Test
+    public void testRecordingDoesNotAllocate() {
+        HardwareProfiler.Device device = profiler.register("device");
+        long[] sum = new long[1];
+        assertNoAllocation(() -> sum[0] += record(device), 1, 5,
+                "Recording a call should not allocate");
+        assertTrue(sum[0] > 0);
+    }
+
+    private long record(HardwareProfiler.Device device) {
+        for (int i = 0; i < 10_000; i++) {
+            for (HardwareProfiler.Call call : CALLS) {
+                device.stop(call, device.start());
+            }
+            profiler.markLoop();
+        }
+        return device.getHistogram(HardwareProfiler.Call.SET_POWER).getCount();
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.arcrobotics.ftclib.hardware;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SensorPollerTest {
+
+    private SensorPoller poller;
+
+    @BeforeEach
+    public void setup() {
+        poller = new SensorPoller();
+    }
+
+    @AfterEach
+    public void teardown() {
+        poller.close();
+    }
+
+    private static void awaitReadings(PolledSensor sensor, long count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (sensor.getReadingCount() < count) {
+            assertTrue(System.nanoTime() < deadline, "The sensor was never read");
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    public void testPublishesTimestampedReadings() throws InterruptedException {
+        AtomicInteger reads = new AtomicInteger();
+        PolledSensor sensor = poller.register("counter", 2, 2, TimeUnit.MILLISECONDS, values -> {
+            values[0] = reads.incrementAndGet();
+            values[1] = -values[0];
+        });
+        assertEquals("counter", sensor.getName());
+
+        awaitReadings(sensor, 3);
+        double[] reading = new double[2];
+        long timestamp = sensor.get(reading);
+        assertTrue(reading[0] >= 3);
+        assertEquals(-reading[0], reading[1]);
+        assertTrue(timestamp > 0);
+        assertTrue(sensor.getAge(TimeUnit.SECONDS) < 5);
+
+        poller.close();
+        assertFalse(poller.isRunning());
+        long count = sensor.getReadingCount();
+        Thread.sleep(20);
+        assertEquals(count, sensor.getReadingCount(), "Closing should stop the polling thread");
+        assertTrue(sensor.hasValue(), "The last reading should stay available");
+    }
+
+    @Test
+    public void testNoReadingYet() {
+        PolledSensor sensor = poller.register("slow", 1, 1, TimeUnit.HOURS, values -> {
+            throw new IllegalStateException("unplugged");
+        });
+        assertTrue(Double.isNaN(sensor.get(0)));
+        assertEquals(Long.MAX_VALUE, sensor.getAge(TimeUnit.MILLISECONDS));
+        assertEquals(Double.POSITIVE_INFINITY, sensor.getAgeSeconds());
+    }
+
+    @Test
+    public void testRecordsErrorsAndKeepsPolling() throws InterruptedException {
+        RuntimeException unplugged = new IllegalStateException("unplugged");
+        AtomicInteger reads = new AtomicInteger();
+        PolledSensor sensor = poller.register("flaky", 1, 1, TimeUnit.MILLISECONDS, values -> {
+            if (reads.incrementAndGet() % 2 == 0) {
+                throw unplugged;
+            }
+            values[0] = 1;
+        });
+        awaitReadings(sensor, 3);
+        assertTrue(sensor.getErrorCount() >= 2);
+        assertSame(unplugged, sensor.getError());
+        assertEquals(1, sensor.get(0));
+    }
+
+    @Test
+    public void testReadingsAreNeverTorn() throws InterruptedException {
+        SensorPoller.Reader reader = new SensorPoller.Reader() {
+            private double next;
+
+            @Override
+            public void read(double[] values) {
+                next++;
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = next;
+                }
+            }
+        };
+        PolledSensor sensor = poller.register("wide", 8, 1, TimeUnit.NANOSECONDS, reader);
+        awaitReadings(sensor, 1);
+
+        double[] reading = new double[8];
+        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(200);
+        while (System.nanoTime() < end) {
+            sensor.get(reading);
+            for (double value : reading) {
+                assertEquals(reading[0], value);
+            }
+        }
+    }
+
+    @Test
+    public void testClosedPollerRejectsSensors() {
+        poller.close();
+        assertThrows(IllegalStateException.class,
+                () -> poller.register("late", 1, 1, TimeUnit.MILLISECONDS, values -> { }));
+    }
+
+}
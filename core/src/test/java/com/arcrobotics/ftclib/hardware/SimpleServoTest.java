@@ -0,0 +1,111 @@
+package com.arcrobotics.ftclib.hardware;
+
+import com.arcrobotics.ftclib.command.ServoMoveCommand;
+import com.arcrobotics.ftclib.util.Clock;
+import com.arcrobotics.ftclib.util.ManualClock;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import com.qualcomm.robotcore.hardware.Servo;
+
+import org.firstinspires.ftc.robotcore.external.navigation.AngleUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SimpleServoTest {
+
+    private ManualClock clock;
+    private Servo device;
+    private SimpleServo servo;
+
+    @BeforeEach
+    public void setup() {
+        clock = new ManualClock();
+        Clock.setDefault(clock);
+        device = mock(Servo.class);
+        HardwareMap hardwareMap = mock(HardwareMap.class);
+        when(hardwareMap.get(Servo.class, "arm")).thenReturn(device);
+        servo = new SimpleServo(hardwareMap, "arm", 0, 180);
+        // A full sweep takes 1.5 seconds: half a second to speed up, half at full speed and
+        // half a second to slow down.
+        servo.setMotionConstraints(180, 360);
+    }
+
+    @AfterEach
+    public void teardown() {
+        Clock.setDefault(null);
+    }
+
+    private void loop(double seconds) {
+        for (int i = 0; i < Math.round(seconds / 0.05); i++) {
+            clock.advance(50, TimeUnit.MILLISECONDS);
+            servo.update();
+        }
+    }
+
+    @Test
+    public void testMoveFollowsTheProfile() {
+        servo.moveToAngle(180);
+        assertTrue(servo.isBusy());
+        loop(0.5);
+        assertEquals(0.25, servo.getPosition(), 1e-9);
+        loop(0.25);
+        assertEquals(0.5, servo.getEstimatedPosition(), 1e-9);
+        assertEquals(90, servo.getAngle(), 1e-6);
+        loop(0.75);
+        assertFalse(servo.isBusy());
+        assertEquals(1, servo.getPosition());
+
+        long writes = servo.getOutput().getIssuedWrites();
+        loop(1);
+        assertEquals(writes, servo.getOutput().getIssuedWrites(), "A finished move should not write");
+    }
+
+    @Test
+    public void testRetargetingContinuesFromTheEstimate() {
+        servo.moveToPosition(1);
+        loop(0.75);
+        servo.moveToPosition(0.2);
+        loop(0.05);
+        assertTrue(servo.getPosition() > 0.5, "The servo should slow down rather than jump back");
+        loop(3);
+        assertEquals(0.2, servo.getPosition(), 1e-9);
+
+        servo.setMotionConstraints(0, 0);
+        servo.moveToPosition(0.9);
+        assertFalse(servo.isBusy());
+        verify(device).setPosition(0.9);
+    }
+
+    @Test
+    public void testCommandHoldsWhenInterrupted() {
+        ServoMoveCommand command = new ServoMoveCommand(servo, 180, AngleUnit.DEGREES);
+        command.initialize();
+        for (int i = 0; i < 15 && !command.isFinished(); i++) {
+            clock.advance(50, TimeUnit.MILLISECONDS);
+            command.execute();
+        }
+        assertFalse(command.isFinished());
+        command.end(true);
+        assertFalse(servo.isBusy());
+        assertEquals(0.5, servo.getPosition(), 1e-9);
+
+        command = new ServoMoveCommand(servo, 0);
+        command.initialize();
+        for (int i = 0; i < 40 && !command.isFinished(); i++) {
+            clock.advance(50, TimeUnit.MILLISECONDS);
+            command.execute();
+        }
+        assertTrue(command.isFinished());
+        assertEquals(0, servo.getPosition());
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.arcrobotics.ftclib.hardware;
+
+import com.arcrobotics.ftclib.hardware.motors.Motor;
+import com.arcrobotics.ftclib.hardware.motors.MotorGroup;
+import com.arcrobotics.ftclib.util.Clock;
+import com.arcrobotics.ftclib.util.ManualClock;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotorEx;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+import com.qualcomm.robotcore.hardware.VoltageSensor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class VoltageCompensatorTest {
+
+    private ManualClock clock;
+    private double voltage;
+    private int reads;
+    private VoltageCompensator compensator;
+
+    @BeforeEach
+    public void setup() {
+        clock = new ManualClock();
+        Clock.setDefault(clock);
+        voltage = 10;
+        compensator = new VoltageCompensator(() -> {
+            reads++;
+            return voltage;
+        }).setSamplePeriod(100, TimeUnit.MILLISECONDS);
+    }
+
+    @AfterEach
+    public void teardown() {
+        Clock.setDefault(null);
+    }
+
+    @Test
+    public void testSamplesAtMostOncePerPeriod() {
+        assertEquals(1.2, compensator.getScale(), 1e-9);
+        voltage = 8;
+        for (int i = 0; i < 9; i++) {
+            clock.advance(10, TimeUnit.MILLISECONDS);
+            assertEquals(10, compensator.getVoltage());
+        }
+        assertEquals(1, reads);
+
+        clock.advance(10, TimeUnit.MILLISECONDS);
+        assertEquals(8, compensator.getVoltage());
+        assertEquals(2, reads);
+        assertEquals(1, compensator.compensate(0.9), "The power should be clipped");
+        assertEquals(-0.75, compensator.compensate(-0.5), 1e-9);
+
+        // A failed reading keeps the last good one.
+        voltage = 0;
+        assertEquals(8, compensator.sample());
+        assertEquals(3, compensator.getSampleCount());
+    }
+
+    @Test
+    public void testReadsTheLowestHub() {
+        VoltageSensor control = mock(VoltageSensor.class);
+        VoltageSensor expansion = mock(VoltageSensor.class);
+        VoltageSensor unpowered = mock(VoltageSensor.class);
+        when(control.getVoltage()).thenReturn(12.5);
+        when(expansion.getVoltage()).thenReturn(12.0);
+        when(unpowered.getVoltage()).thenReturn(0.0);
+        VoltageCompensator hubs = new VoltageCompensator(Arrays.asList(control, expansion, unpowered))
+                .setNominalVoltage(13);
+        assertEquals(12, hubs.getVoltage());
+        assertEquals(13.0 / 12, hubs.getScale(), 1e-9);
+    }
+
+    @Test
+    public void testMotorsShareOneReading() {
+        DcMotorEx leader = mock(DcMotorEx.class);
+        DcMotorEx follower = mock(DcMotorEx.class);
+        HardwareMap hardwareMap = mock(HardwareMap.class);
+        when(hardwareMap.get(DcMotor.class, "left")).thenReturn(leader);
+        when(hardwareMap.get(DcMotor.class, "right")).thenReturn(follower);
+        MotorGroup group = new MotorGroup(new Motor(hardwareMap, "left", Motor.GoBILDA.RPM_312),
+                new Motor(hardwareMap, "right", Motor.GoBILDA.RPM_312));
+
+        group.setVoltageCompensator(compensator);
+        for (int i = 0; i < 5; i++) {
+            group.set(0.5);
+        }
+        // The followers copy the compensated power rather than compensating it again.
+        verify(leader).setPower(0.6);
+        verify(follower).setPower(0.6);
+        assertEquals(1, reads);
+
+        group.setVoltageCompensator(null);
+        group.set(0.5);
+        verify(leader).setPower(0.5);
+    }
+
+}
@@ -0,0 +1,104 @@
+package com.arcrobotics.ftclib.hardware.motors;
+
+import com.arcrobotics.ftclib.hardware.sim.SimMotor;
+import com.arcrobotics.ftclib.hardware.sim.SimulatedRobot;
+import com.arcrobotics.ftclib.util.Clock;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MotorGroupTest {
+
+    private SimulatedRobot robot;
+    private MotorGroup lift;
+    private Motor left, right;
+
+    @BeforeEach
+    public void setup() {
+        robot = new SimulatedRobot();
+        Clock.setDefault(robot.getClock());
+        HardwareMap hardwareMap = mock(HardwareMap.class);
+        when(hardwareMap.get(any(), anyString())).thenAnswer(invocation ->
+                robot.get(invocation.getArgument(0), invocation.getArgument(1)));
+
+        // The right spool carries more of the load than the left.
+        robot.add(new SimMotor("left", Motor.GoBILDA.RPM_312).setLoad(0.005, 0, 0.1));
+        robot.add(new SimMotor("right", Motor.GoBILDA.RPM_312).setLoad(0.005, 0, 0.6));
+        left = new Motor(hardwareMap, "left", Motor.GoBILDA.RPM_312);
+        right = new Motor(hardwareMap, "right", Motor.GoBILDA.RPM_312);
+        lift = new MotorGroup(left, right);
+    }
+
+    @AfterEach
+    public void teardown() {
+        Clock.setDefault(null);
+    }
+
+    private void run(double seconds, double speed) {
+        for (int i = 0; i < Math.round(seconds / 0.02); i++) {
+            lift.set(speed);
+            robot.step(20, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private int spread() {
+        return Math.abs(left.getCurrentPosition() - right.getCurrentPosition());
+    }
+
+    @Test
+    public void testCrossCouplingKeepsMotorsTogether() {
+        run(1, 0.5);
+        int drift = spread();
+        assertTrue(drift > 100, "Copying the leader's power lets the spools drift apart");
+        assertEquals(left.get(), right.get());
+
+        lift.resetEncoder();
+        lift.setSynchronized(true);
+        lift.setCrossCoupling(0.01);
+        lift.setFeedback(MotorGroup.Feedback.AVERAGE);
+        run(1, 0.5);
+        assertTrue(spread() < drift / 5, "Cross-coupling should hold the spools together");
+        assertTrue(right.get() > left.get(), "The loaded motor should be given more power");
+        assertEquals((left.getDistance() + right.getDistance()) / 2, lift.getDistance(), 1e-9);
+    }
+
+    @Test
+    public void testEveryMotorReachesTheSharedTarget() {
+        lift.setSynchronized(true);
+        lift.setRunMode(Motor.RunMode.PositionControl);
+        lift.setPositionCoefficient(0.01);
+        lift.setPositionTolerance(20);
+        lift.setTargetPosition(1000);
+        run(2, 1);
+
+        assertTrue(lift.atTargetPosition());
+        assertEquals(1000, left.getCurrentPosition(), 20);
+        assertEquals(1000, right.getCurrentPosition(), 20);
+    }
+
+    @Test
+    public void testMedianIgnoresOneBadEncoder() {
+        Motor third = mock(Motor.class);
+        when(third.getDistance()).thenReturn(1E6);
+        when(third.getCurrentPosition()).thenReturn(1_000_000);
+        MotorGroup group = new MotorGroup(left, right, third);
+        run(0.5, 0.5);
+
+        group.setFeedback(MotorGroup.Feedback.MEDIAN);
+        assertEquals(Math.max(left.getDistance(), right.getDistance()), group.getDistance());
+        group.setFeedback(MotorGroup.Feedback.LEADER);
+        assertEquals(left.getCurrentPosition(), group.getCurrentPosition());
+    }
+
+}
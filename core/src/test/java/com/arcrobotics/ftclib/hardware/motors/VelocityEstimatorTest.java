@@ -0,0 +1,137 @@
+package com.arcrobotics.ftclib.hardware.motors;
+
+import com.arcrobotics.ftclib.util.Clock;
+import com.arcrobotics.ftclib.util.ManualClock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static com.arcrobotics.ftclib.util.AllocationAssert.assertNoAllocation;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class VelocityEstimatorTest {
+
+    private static final double DT = 0.01;
+
+    @AfterEach
+    public void teardown() {
+        Clock.setDefault(null);
+    }
+
+    /**
+     * Feeds one second of a motor accelerating at 500 ticks/s^2 from 200 ticks/s, with the
+     * position rounded to whole ticks and read at a slightly jittery rate.
+     */
+    private static void accelerate(VelocityEstimator estimator) {
+        Random random = new Random(42);
+        double time = 0;
+        for (int i = 0; i <= 100; i++) {
+            double position = 200 * time + 250 * time * time;
+            estimator.update(Math.round(position), 5 + time);
+            time += DT * (0.8 + 0.4 * random.nextDouble());
+        }
+    }
+
+    @Test
+    public void testLeastSquaresIsExactForParabola() {
+        VelocityEstimator estimator = new LeastSquaresVelocityEstimator(5);
+        assertEquals(0, estimator.getVelocity());
+        for (int i = 0; i < 10; i++) {
+            double t = i * DT;
+            estimator.update(3 + 200 * t + 250 * t * t, t);
+        }
+        double t = 9 * DT;
+        assertEquals(200 + 500 * t, estimator.getVelocity(), 1e-6);
+        assertEquals(500, estimator.getAcceleration(), 1e-4);
+    }
+
+    @Test
+    public void testLeastSquaresTwoSamplesAndRepeatedTime() {
+        VelocityEstimator estimator = new LeastSquaresVelocityEstimator(5);
+        estimator.update(0, 1);
+        estimator.update(10, 1.1);
+        assertEquals(100, estimator.getVelocity(), 1e-9);
+        assertEquals(0, estimator.getAcceleration());
+        estimator.update(20, 1.1);
+        assertEquals(200, estimator.getVelocity(), 1e-9, "A repeated time replaces the sample");
+        assertThrows(IllegalArgumentException.class, () -> new LeastSquaresVelocityEstimator(1));
+    }
+
+    @Test
+    public void testEstimatorsTrackQuantizedAcceleration() {
+        VelocityEstimator[] estimators = {
+                new LeastSquaresVelocityEstimator(8),
+                new AlphaBetaVelocityEstimator(0.5, 0.1),
+                new KalmanVelocityEstimator(1e5, 1.0 / 12)
+        };
+        for (VelocityEstimator estimator : estimators) {
+            accelerate(estimator);
+            // The true velocity at the end is between 650 and 750 ticks/s, depending on jitter.
+            double velocity = estimator.getVelocity();
+            assertEquals(700, velocity, 80, estimator.getClass().getSimpleName());
+        }
+        assertEquals(500, estimators[2].getAcceleration(), 150);
+    }
+
+    @Test
+    public void testAlphaBetaRejectsUnstableGains() {
+        assertThrows(IllegalArgumentException.class, () -> new AlphaBetaVelocityEstimator(0, 0.1));
+        assertThrows(IllegalArgumentException.class, () -> new AlphaBetaVelocityEstimator(1, 2));
+    }
+
+    @Test
+    public void testEncoderUsesEstimator() {
+        ManualClock clock = new ManualClock();
+        Clock.setDefault(clock);
+        int[] ticks = {0};
+        Motor.Encoder encoder = new Motor().new Encoder(() -> ticks[0]);
+        encoder.setVelocityEstimator(new LeastSquaresVelocityEstimator(4))
+                .setDistancePerPulse(0.5);
+
+        for (int i = 0; i < 20; i++) {
+            encoder.getPosition();
+            encoder.getPosition();
+            ticks[0] += 10;
+            clock.advance(10, TimeUnit.MILLISECONDS);
+        }
+        assertEquals(1000, encoder.getCorrectedVelocity(), 1e-6);
+        assertEquals(500, encoder.getRate(), 1e-6);
+
+        // Once the motor stops, the estimator keeps getting samples and settles to zero.
+        for (int i = 0; i < 40; i++) {
+            encoder.getPosition();
+            clock.advance(10, TimeUnit.MILLISECONDS);
+        }
+        assertEquals(0, encoder.getCorrectedVelocity(), 1e-6);
+    }
+
+    @Test
+    public void testUpdateDoesNotAllocate() {
+        VelocityEstimator[] estimators = {
+                new LeastSquaresVelocityEstimator(8),
+                new AlphaBetaVelocityEstimator(0.5, 0.1),
+                new KalmanVelocityEstimator(1e5, 1.0 / 12)
+        };
+        double[] sum = new double[1];
+        assertNoAllocation(() -> sum[0] += run(estimators), 2, 5,
+                "Updating an estimator should not allocate");
+        assertFalse(Double.isNaN(sum[0]));
+    }
+
+    private static double run(VelocityEstimator[] estimators) {
+        double sum = 0;
+        for (int i = 0; i < 10_000; i++) {
+            for (VelocityEstimator estimator : estimators) {
+                estimator.update(i, 10 + i * DT);
+                sum += estimator.getVelocity() + estimator.getAcceleration();
+            }
+        }
+        return sum;
+    }
+
+}
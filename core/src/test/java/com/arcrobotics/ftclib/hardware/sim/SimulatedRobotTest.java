@@ -0,0 +1,164 @@
+package com.arcrobotics.ftclib.hardware.sim;
+
+import com.arcrobotics.ftclib.drivebase.MecanumDrive;
+import com.arcrobotics.ftclib.geometry.Pose2d;
+import com.arcrobotics.ftclib.hardware.SimpleServo;
+import com.arcrobotics.ftclib.hardware.motors.Motor;
+import com.arcrobotics.ftclib.hardware.motors.MotorEx;
+import com.arcrobotics.ftclib.kinematics.HolonomicOdometry;
+import com.arcrobotics.ftclib.util.Clock;
+import com.qualcomm.robotcore.hardware.HardwareMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SimulatedRobotTest {
+
+    private static final double WHEEL_RADIUS = 0.048, POD_RADIUS = 0.024, POD_CPR = 8192;
+
+    private SimulatedRobot robot;
+    private HardwareMap hardwareMap;
+
+    @BeforeEach
+    public void setup() {
+        robot = new SimulatedRobot();
+        Clock.setDefault(robot.getClock());
+        hardwareMap = mock(HardwareMap.class);
+        when(hardwareMap.get(any(), anyString())).thenAnswer(invocation ->
+                robot.get(invocation.getArgument(0), invocation.getArgument(1)));
+    }
+
+    @AfterEach
+    public void teardown() {
+        Clock.setDefault(null);
+    }
+
+    private void run(double seconds, Runnable loop) {
+        for (int i = 0; i < Math.round(seconds / 0.02); i++) {
+            loop.run();
+            robot.step(20, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Test
+    public void testMotorReachesFreeSpeed() {
+        robot.getBattery().setOpenCircuitVoltage(12);
+        robot.getBattery().setResistance(0);
+        robot.add(new SimMotor("lift", Motor.GoBILDA.RPM_312));
+        MotorEx motor = new MotorEx(hardwareMap, "lift", Motor.GoBILDA.RPM_312);
+
+        motor.set(1);
+        run(1, () -> { });
+        assertEquals(Motor.GoBILDA.RPM_312.getAchievableMaxTicksPerSecond(), motor.getVelocity(), 30);
+        assertTrue(motor.getCurrentPosition() > 2000);
+
+        // Braking stops the motor quickly; the encoder only counts whole ticks.
+        motor.set(0);
+        run(0.5, () -> { });
+        int position = motor.getCurrentPosition();
+        assertEquals(0, motor.getVelocity());
+        run(0.5, () -> { });
+        assertEquals(position, motor.getCurrentPosition());
+
+        motor.setInverted(true);
+        motor.resetEncoder();
+        assertEquals(0, motor.getCurrentPosition());
+        motor.set(0.5);
+        run(0.5, () -> { });
+        assertTrue(motor.getCurrentPosition() > 0, "Inverting should flip the power and the encoder");
+    }
+
+    @Test
+    public void testBatterySagsUnderStall() {
+        SimMotor lift = robot.add(new SimMotor("lift", Motor.GoBILDA.RPM_312)
+                .setLoad(0.01, 0, 5));
+        Motor motor = new Motor(hardwareMap, "lift", Motor.GoBILDA.RPM_312);
+        double idle = robot.getBattery().getVoltageSensor().getVoltage();
+
+        motor.set(1);
+        run(0.2, () -> { });
+        assertEquals(0, lift.getAngularVelocity(), "The mechanism is jammed");
+        assertTrue(lift.getCurrent() > 9);
+        double loaded = robot.getBattery().getVoltageSensor().getVoltage();
+        assertEquals(idle - lift.getCurrent() * robot.getBattery().getResistance(), loaded, 1e-9);
+        assertTrue(loaded < idle - 0.5);
+    }
+
+    @Test
+    public void testMecanumDriveWithOdometry() {
+        SimMecanumChassis chassis = robot.add(new SimMecanumChassis(
+                new SimMotor("fl", Motor.GoBILDA.RPM_312), new SimMotor("fr", Motor.GoBILDA.RPM_312),
+                new SimMotor("bl", Motor.GoBILDA.RPM_312), new SimMotor("br", Motor.GoBILDA.RPM_312),
+                WHEEL_RADIUS, 0.4, 0.3, 12)
+                .addDeadWheel(SimMotor.encoder("left", POD_CPR), 0, 0.15, 0, POD_RADIUS)
+                .addDeadWheel(SimMotor.encoder("right", POD_CPR), 0, -0.15, 0, POD_RADIUS)
+                .addDeadWheel(SimMotor.encoder("center", POD_CPR), -0.1, 0, Math.PI / 2, POD_RADIUS));
+
+        Motor fl = new Motor(hardwareMap, "fl", Motor.GoBILDA.RPM_312);
+        Motor fr = new Motor(hardwareMap, "fr", Motor.GoBILDA.RPM_312);
+        MecanumDrive drive = new MecanumDrive(fl, fr,
+                new Motor(hardwareMap, "bl", Motor.GoBILDA.RPM_312),
+                new Motor(hardwareMap, "br", Motor.GoBILDA.RPM_312));
+
+        double metersPerTick = 2 * Math.PI * POD_RADIUS / POD_CPR;
+        Motor left = new Motor(hardwareMap, "left", Motor.GoBILDA.NONE);
+        Motor right = new Motor(hardwareMap, "right", Motor.GoBILDA.NONE);
+        Motor center = new Motor(hardwareMap, "center", Motor.GoBILDA.NONE);
+        HolonomicOdometry odometry = new HolonomicOdometry(
+                () -> left.getCurrentPosition() * metersPerTick,
+                () -> right.getCurrentPosition() * metersPerTick,
+                () -> center.getCurrentPosition() * metersPerTick,
+                0.3, -0.1);
+
+        run(1, () -> {
+            drive.driveRobotCentric(0, 0.5, 0);
+            odometry.updatePose();
+        });
+        odometry.updatePose();
+        Pose2d pose = chassis.getPose();
+        assertTrue(pose.getX() > 0.5, "The robot should drive forward");
+        assertEquals(0, pose.getY(), 1e-6);
+        assertEquals(0, pose.getHeading(), 1e-6);
+        assertEquals(pose.getX(), odometry.getPose().getX(), 0.01);
+        assertTrue(fl.getCurrentPosition() > 0 && fr.getCurrentPosition() < 0,
+                "The right wheels are mounted mirrored");
+
+        drive.stop();
+        run(0.5, () -> { });
+        run(1, () -> drive.driveRobotCentric(0, 0, 0.5));
+        assertTrue(chassis.getHeading() < -0.5, "A positive turn speed turns clockwise");
+        assertEquals(pose.getX(), chassis.getPose().getX(), 0.1);
+    }
+
+    @Test
+    public void testServoMovesAtLimitedSpeed() {
+        SimServo claw = robot.add(new SimServo("claw").setSpeed(2));
+        SimpleServo servo = new SimpleServo(hardwareMap, "claw", 0, 180);
+
+        servo.setPosition(1);
+        assertEquals(1, servo.getPosition());
+        robot.step(100, TimeUnit.MILLISECONDS);
+        assertEquals(0.7, claw.getActualPosition(), 1e-9);
+        robot.step(1, TimeUnit.SECONDS);
+        assertEquals(1, claw.getActualPosition(), 1e-9);
+    }
+
+    @Test
+    public void testRejectsDuplicateNames() {
+        robot.add(new SimMotor("arm", Motor.GoBILDA.RPM_60));
+        assertThrows(IllegalArgumentException.class, () -> robot.add(new SimServo("arm")));
+        assertThrows(IllegalArgumentException.class, () -> robot.get(SimServo.class, "arm"));
+    }
+
+}
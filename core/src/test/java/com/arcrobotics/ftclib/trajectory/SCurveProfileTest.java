@@ -0,0 +1,184 @@
+package com.arcrobotics.ftclib.trajectory;
+
+import com.arcrobotics.ftclib.command.TrapezoidProfileCommand;
+import com.arcrobotics.ftclib.controller.wpilibcontroller.ProfiledPIDController;
+import com.arcrobotics.ftclib.util.Clock;
+import com.arcrobotics.ftclib.util.ManualClock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.arcrobotics.ftclib.util.AllocationAssert.assertNoAllocation;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SCurveProfileTest {
+
+    private static final double DT = 0.001;
+
+    @AfterEach
+    public void teardown() {
+        Clock.setDefault(null);
+    }
+
+    /**
+     * Samples the profile finely and checks it is continuous, within its constraints, and ends
+     * at the goal.
+     */
+    private void assertFollowsConstraints(SCurveProfile profile, SCurveProfile.Constraints constraints,
+                                          TrapezoidProfile.State goal, TrapezoidProfile.State initial) {
+        TrapezoidProfile.State start = profile.calculate(0);
+        assertEquals(initial.position, start.position, 1e-9);
+        assertEquals(initial.velocity, start.velocity, 1e-9);
+
+        TrapezoidProfile.State last = start;
+        double lastAcceleration = profile.calculateAcceleration(0);
+        for (double t = DT; t < profile.totalTime() + 2 * DT; t += DT) {
+            TrapezoidProfile.State state = profile.calculate(t);
+            double acceleration = profile.calculateAcceleration(t);
+            assertTrue(Math.abs(state.velocity) <= constraints.maxVelocity + 1e-9, "velocity at " + t);
+            assertTrue(Math.abs(acceleration) <= constraints.maxAcceleration + 1e-9,
+                    "acceleration at " + t);
+            assertTrue(Math.abs(acceleration - lastAcceleration) <= constraints.maxJerk * DT + 1e-9,
+                    "jerk at " + t);
+            assertEquals(last.velocity + (acceleration + lastAcceleration) / 2 * DT, state.velocity,
+                    constraints.maxJerk * DT * DT, "velocity at " + t);
+            assertEquals(last.position + (last.velocity + state.velocity) / 2 * DT, state.position,
+                    constraints.maxAcceleration * DT * DT, "position at " + t);
+            last = state;
+            lastAcceleration = acceleration;
+        }
+        assertEquals(goal, last);
+    }
+
+    @Test
+    public void testRestToRest() {
+        SCurveProfile.Constraints constraints = new SCurveProfile.Constraints(1, 1, 1);
+        TrapezoidProfile.State goal = new TrapezoidProfile.State(10, 0);
+        TrapezoidProfile.State initial = new TrapezoidProfile.State(0, 0);
+        SCurveProfile profile = new SCurveProfile(constraints, goal, initial);
+
+        // Two seconds to reach full speed covering one unit, the same to stop, and cruise between
+        assertEquals(12, profile.totalTime(), 1e-9);
+        assertEquals(1, profile.calculate(2).position, 1e-9);
+        assertEquals(1, profile.calculate(6).velocity, 1e-9);
+        assertEquals(5, profile.timeLeftUntil(4), 1e-6);
+        assertFollowsConstraints(profile, constraints, goal, initial);
+    }
+
+    @Test
+    public void testShortMoveNeverReachesFullSpeed() {
+        SCurveProfile.Constraints constraints = new SCurveProfile.Constraints(5, 2, 8);
+        TrapezoidProfile.State goal = new TrapezoidProfile.State(-3, 0);
+        TrapezoidProfile.State initial = new TrapezoidProfile.State(-1, -0.5);
+        SCurveProfile profile = new SCurveProfile(constraints, goal, initial);
+
+        assertFollowsConstraints(profile, constraints, goal, initial);
+        for (double target = -1.5; target > -3; target -= 0.25) {
+            assertEquals(target, profile.calculate(profile.timeLeftUntil(target)).position, 1e-6);
+        }
+    }
+
+    @Test
+    public void testBacksUpWhenArrivingTooFast() {
+        SCurveProfile.Constraints constraints = new SCurveProfile.Constraints(2, 1, 2);
+        TrapezoidProfile.State goal = new TrapezoidProfile.State(0.5, 0);
+        TrapezoidProfile.State initial = new TrapezoidProfile.State(0, 2);
+        SCurveProfile profile = new SCurveProfile(constraints, goal, initial);
+
+        assertFollowsConstraints(profile, constraints, goal, initial);
+        assertTrue(profile.calculate(profile.totalTime() / 2).position > 0.5);
+    }
+
+    @Test
+    public void testUnlimitedJerkMatchesTrapezoid() {
+        TrapezoidProfile.State goal = new TrapezoidProfile.State(7, 0.5);
+        TrapezoidProfile.State initial = new TrapezoidProfile.State(1, 1);
+        SCurveProfile sCurve = new SCurveProfile(
+                new SCurveProfile.Constraints(3, 2, Double.POSITIVE_INFINITY), goal, initial);
+        TrapezoidProfile trapezoid = new TrapezoidProfile(
+                new TrapezoidProfile.Constraints(3, 2), goal, initial);
+
+        assertEquals(trapezoid.totalTime(), sCurve.totalTime(), 1e-6);
+        for (double t = 0; t < trapezoid.totalTime(); t += 0.1) {
+            assertEquals(trapezoid.calculate(t).position, sCurve.calculate(t).position, 1e-6);
+            assertEquals(trapezoid.calculate(t).velocity, sCurve.calculate(t).velocity, 1e-6);
+        }
+    }
+
+    @Test
+    public void testCalculateIntoStateDoesNotAllocate() {
+        SCurveProfile profile = new SCurveProfile(new SCurveProfile.Constraints(1, 1, 1),
+                new TrapezoidProfile.State(10, 0));
+        TrapezoidProfile.State state = new TrapezoidProfile.State();
+        double[] sum = new double[1];
+        assertNoAllocation(() -> {
+            for (int i = 0; i < 10_000; i++) {
+                sum[0] += profile.calculate(i * 1e-3, state).position;
+            }
+        }, 10, 5, "Calculating into a state should not allocate");
+        assertTrue(sum[0] > 0);
+    }
+
+    @Test
+    public void testProfiledPIDControllerFollowsSCurve() {
+        ManualClock clock = new ManualClock();
+        SCurveProfile.Constraints constraints = new SCurveProfile.Constraints(1, 2, 4);
+        ProfiledPIDController controller = new ProfiledPIDController(1, 0, 0, constraints);
+        controller.setClock(clock);
+        controller.setTolerance(1e-3);
+        controller.reset(0);
+
+        SCurveProfile expected = new SCurveProfile(constraints, new TrapezoidProfile.State(3, 0));
+        controller.calculate(0, 3);
+        double time = 0;
+        while (!controller.atGoal() && time < 10) {
+            clock.advance(10, TimeUnit.MILLISECONDS);
+            time += controller.getPeriod();
+            TrapezoidProfile.State setpoint = controller.getSetpoint();
+            controller.calculate(setpoint.position, new TrapezoidProfile.State(3, 0));
+            // The goal is unchanged, so the setpoint keeps following the first plan
+            assertEquals(expected.calculate(time).position, controller.getSetpoint().position, 1e-9);
+        }
+        assertTrue(controller.atGoal());
+        assertEquals(expected.totalTime(), time, 0.02);
+    }
+
+    @Test
+    public void testTrapezoidProfileCommandRunsSCurve() {
+        ManualClock clock = new ManualClock();
+        Clock.setDefault(clock);
+        SCurveProfile profile = new SCurveProfile(new SCurveProfile.Constraints(1, 1, 2),
+                new TrapezoidProfile.State(1, 0));
+        TrapezoidProfile.State[] output = new TrapezoidProfile.State[1];
+        TrapezoidProfileCommand command = new TrapezoidProfileCommand(profile, s -> output[0] = s);
+
+        command.initialize();
+        clock.advance(500, TimeUnit.MILLISECONDS);
+        command.execute();
+        assertEquals(profile.calculate(0.5), output[0]);
+        assertFalse(command.isFinished());
+        clock.advance((long) (profile.totalTime() * 1000), TimeUnit.MILLISECONDS);
+        assertTrue(command.isFinished());
+    }
+
+    @Test
+    public void testRejectsNonPositiveConstraints() {
+        TrapezoidProfile.State goal = new TrapezoidProfile.State(1, 0);
+        assertThrows(IllegalArgumentException.class,
+                () -> new SCurveProfile(new SCurveProfile.Constraints(), goal));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SCurveProfile(new SCurveProfile.Constraints(0, 1, 1), goal));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SCurveProfile(new SCurveProfile.Constraints(1, -1, 1), goal));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SCurveProfile(new SCurveProfile.Constraints(1, 1, 0), goal));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SCurveProfile(new SCurveProfile.Constraints(1, 1, Double.NaN), goal));
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.arcrobotics.ftclib.util;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Assertions on the memory allocated by the current thread, for testing that loop code does not
+ * allocate.
+ */
+public final class AllocationAssert {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private AllocationAssert() {
+    }
+
+    /**
+     * @return the total number of bytes the current thread has allocated
+     */
+    public static long threadAllocatedBytes() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Runs an action a number of times to warm it up, then measures it.  The JVM occasionally
+     * charges a few bytes of its own work to the thread, so the fewest bytes allocated by any of
+     * a few runs is returned.
+     *
+     * @param action the action to measure
+     * @param warmup the number of runs before measuring
+     * @param runs   the most runs to measure, stopping early at a run that does not allocate
+     * @return the fewest bytes allocated by one run
+     */
+    public static long allocatedBytes(Runnable action, int warmup, int runs) {
+        for (int i = 0; i < warmup; i++) {
+            action.run();
+        }
+        // The first call into the bean allocates, so make it before measuring.
+        threadAllocatedBytes();
+        long allocated = Long.MAX_VALUE;
+        for (int run = 0; run < runs && allocated > 0; run++) {
+            long before = threadAllocatedBytes();
+            action.run();
+            allocated = Math.min(allocated, threadAllocatedBytes() - before);
+        }
+        return allocated;
+    }
+
+    /**
+     * Asserts that an action does not allocate once it has warmed up.
+     *
+     * @param action  the action to measure
+     * @param warmup  the number of runs before measuring
+     * @param runs    the most runs to measure, of which at least one must not allocate
+     * @param message the failure message
+     */
+    public static void assertNoAllocation(Runnable action, int warmup, int runs, String message) {
+        assertEquals(0, allocatedBytes(action, warmup, runs), message);
+    }
+
+}
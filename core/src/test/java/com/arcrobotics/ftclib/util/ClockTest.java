@@ -0,0 +1,86 @@
+package com.arcrobotics.ftclib.util;
+
+import com.arcrobotics.ftclib.command.CommandScheduler;
+import com.arcrobotics.ftclib.command.WaitCommand;
+import com.arcrobotics.ftclib.controller.PIDFController;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ClockTest {
+
+    private ManualClock clock;
+
+    @BeforeEach
+    public void setup() {
+        clock = new ManualClock();
+        Clock.setDefault(clock);
+    }
+
+    @AfterEach
+    public void teardown() {
+        Clock.setDefault(null);
+        CommandScheduler.getInstance().reset();
+    }
+
+    @Test
+    public void testDefaultFollowsInstalledClock() {
+        assertSame(clock, Clock.getDefault());
+        long start = Clock.DEFAULT.nanoTime();
+        clock.advance(250, TimeUnit.MILLISECONDS);
+        assertEquals(250, Clock.DEFAULT.time(TimeUnit.MILLISECONDS)
+                - TimeUnit.NANOSECONDS.toMillis(start));
+
+        Clock.setDefault(null);
+        assertSame(Clock.SYSTEM, Clock.getDefault());
+        assertThrows(IllegalArgumentException.class, () -> clock.advance(-1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testTimerPauseAndResume() {
+        Timing.Timer timer = new Timing.Timer(3, TimeUnit.SECONDS);
+        timer.start();
+        clock.advance(1, TimeUnit.SECONDS);
+        timer.pause();
+        clock.advance(10, TimeUnit.SECONDS);
+        assertEquals(1, timer.elapsedTime());
+        timer.resume();
+        clock.advance(1500, TimeUnit.MILLISECONDS);
+        assertFalse(timer.done());
+        clock.advance(500, TimeUnit.MILLISECONDS);
+        assertTrue(timer.done());
+        assertEquals(0, timer.remainingTime());
+    }
+
+    @Test
+    public void testWaitCommandRunsOnSimulatedTime() {
+        WaitCommand command = new WaitCommand(30_000);
+        command.schedule();
+        int loops = 0;
+        while (command.isScheduled()) {
+            CommandScheduler.getInstance().run();
+            clock.advance(20, TimeUnit.MILLISECONDS);
+            loops++;
+        }
+        assertEquals(1501, loops);
+    }
+
+    @Test
+    public void testPIDFControllerPeriod() {
+        PIDFController controller = new PIDFController(0, 0, 0, 0);
+        controller.calculate(0);
+        clock.advanceSeconds(0.02);
+        controller.calculate(0);
+        assertEquals(0.02, controller.getPeriod(), 1E-9);
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.arcrobotics.ftclib.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FixedRateLoopTest {
+
+    private static void busyWait(long millis) {
+        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        while (System.nanoTime() < end) {
+            Thread.yield();
+        }
+    }
+
+    @Test
+    public void testHoldsPeriod() throws InterruptedException {
+        FixedRateLoop loop = new FixedRateLoop(10, TimeUnit.MILLISECONDS);
+        long start = System.nanoTime();
+        loop.start();
+        // The thread may be descheduled for longer than the period on a busy machine, so only
+        // check that any overruns are counted.
+        int overran = 0;
+        for (int i = 0; i < 20; i++) {
+            busyWait(2);
+            if (loop.waitForNextPeriod()) {
+                overran++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        assertTrue(elapsed >= TimeUnit.MILLISECONDS.toNanos(200));
+        assertEquals(overran, loop.getOverruns());
+        assertEquals(20, loop.getPeriods().getCount());
+        assertTrue(loop.getPeriods().getMean() >= TimeUnit.MILLISECONDS.toNanos(9));
+        assertTrue(loop.getWorkTimes().getMin() >= TimeUnit.MILLISECONDS.toNanos(2));
+    }
+
+    @Test
+    public void testDetectsOverrun() throws InterruptedException {
+        FixedRateLoop loop = new FixedRateLoop(5, TimeUnit.MILLISECONDS);
+        loop.start();
+        busyWait(8);
+        assertTrue(loop.waitForNextPeriod());
+        assertTrue(loop.lastOverran());
+        busyWait(1);
+        assertFalse(loop.waitForNextPeriod());
+        assertEquals(1, loop.getOverruns());
+        assertTrue(loop.getJitter().getMax() >= TimeUnit.MILLISECONDS.toNanos(3));
+    }
+
+    @Test
+    public void testRejectsNonPositivePeriod() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new FixedRateLoop(0, TimeUnit.MILLISECONDS));
+    }
+
+}
@@ -64,4 +64,18 @@ public class InterpLUTTest {
         assertEquals(lut.get(85.5), 86.5);
     }
 
+    @Test
+    public void testGetClamped() {
+        lut = new InterpLUT();
+        lut.add(1, 2);
+        lut.add(2, 4);
+        lut.add(3, 5);
+        lut.createLUT();
+        assertEquals(2, lut.getClamped(-10));
+        assertEquals(2, lut.getClamped(1));
+        assertEquals(lut.get(2.5), lut.getClamped(2.5));
+        assertEquals(5, lut.getClamped(3));
+        assertEquals(5, lut.getClamped(10));
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.arcrobotics.ftclib.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TimingHistogramTest {
+
+    @Test
+    public void testStatistics() {
+        TimingHistogram histogram = new TimingHistogram(50, TimeUnit.MICROSECONDS);
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 1000L);
+        }
+        assertEquals(100, histogram.getCount());
+        assertEquals(1000, histogram.getMin());
+        assertEquals(100_000, histogram.getMax());
+        assertEquals(50_500, histogram.getMean(), 1e-9);
+        assertEquals(100_000, histogram.getLast());
+        assertEquals(50, histogram.getOverruns());
+    }
+
+    @Test
+    public void testPercentileWithinBucketError() {
+        TimingHistogram histogram = new TimingHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 10_000L);
+        }
+        long p99 = histogram.getPercentile(99);
+        assertTrue(p99 >= 9_900_000 && p99 <= 9_900_000 * 1.25, "p99 was " + p99);
+        long p50 = histogram.getPercentile(50);
+        assertTrue(p50 >= 5_000_000 && p50 <= 5_000_000 * 1.25, "p50 was " + p50);
+        assertEquals(histogram.getMax(), histogram.getPercentile(100));
+    }
+
+    @Test
+    public void testReset() {
+        TimingHistogram histogram = new TimingHistogram(1, TimeUnit.NANOSECONDS);
+        histogram.record(5);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMin());
+        assertEquals(0, histogram.getPercentile(99));
+        assertEquals(0, histogram.getOverruns());
+        assertEquals(1, histogram.getOverrunThreshold());
+    }
+
+}